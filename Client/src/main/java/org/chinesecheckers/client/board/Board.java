@@ -98,6 +98,24 @@ public class Board {
         if (cell != null) cell.setM_color(color);
     }
 
+    /**
+     * Moves the piece at the source cell to the destination cell.
+     *
+     * @param fromX the x-coordinate of the source cell
+     * @param fromY the y-coordinate of the source cell
+     * @param toX   the x-coordinate of the destination cell
+     * @param toY   the y-coordinate of the destination cell
+     */
+    public void movePiece(int fromX, int fromY, int toX, int toY) {
+        Cell from = getCell(fromX, fromY);
+        Cell to = getCell(toX, toY);
+        if (from != null && to != null) {
+            Colors color = from.getM_color();
+            from.setM_color(Colors.NONE);
+            to.setM_color(color);
+        }
+    }
+
     /**
      * Checks if the cell at the specified coordinates is empty.
      *
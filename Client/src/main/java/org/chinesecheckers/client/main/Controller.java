@@ -10,7 +10,6 @@ import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
-import javafx.util.Pair;
 import org.chinesecheckers.client.board.Board;
 import org.chinesecheckers.client.board.Cell;
 
@@ -155,29 +154,35 @@ public class Controller {
     }
 
     /**
-     * Connects to the server and starts the game.
+     * Connects to the server and starts the game at a table of the requested kind.
      *
-     * @param host the server host
-     * @param port the server port
+     * @param host    the server host
+     * @param port    the server port
+     * @param mode    the requested game mode
+     * @param players the requested number of players, bots included
+     * @param bots    the requested number of bots
      */
-    private void connectAndStartGame(String host, int port) {
+    private void connectAndStartGame(String host, int port, String mode, int players, int bots) {
         try {
             createConnection(host, port);
-            startGame();
+            startGame(mode, players, bots);
         } catch (Exception e) {
             showError(e.getMessage());
         }
     }
 
     /**
-     * Starts the game by creating the board and player, and starting the match.
+     * Starts the game by creating the board and player, and joining a table.
      *
+     * @param mode    the requested game mode
+     * @param players the requested number of players, bots included
+     * @param bots    the requested number of bots
      * @throws Exception if an error occurs while starting the game
      */
-    private void startGame() throws Exception {
+    private void startGame(String mode, int players, int bots) throws Exception {
         createBoard();
         createPlayer();
-        m_player.startMatch();
+        m_player.startMatch(mode, players, bots);
     }
 
     /**
@@ -226,7 +231,7 @@ public class Controller {
      */
     @FXML
     private void onNewConnection() {
-        Dialog<Pair<String, String>> dialog = new Dialog<>();
+        Dialog<String[]> dialog = new Dialog<>();
 
         ButtonType connectButtonType = new ButtonType("Connect", ButtonBar.ButtonData.OK_DONE);
         dialog.getDialogPane().getButtonTypes().addAll(connectButtonType, ButtonType.CANCEL);
@@ -242,11 +247,26 @@ public class Controller {
         TextField portField = new TextField();
         portField.setPromptText("port");
         portField.setText("8080");
+        TextField modeField = new TextField();
+        modeField.setPromptText("default / diamond");
+        modeField.setText("default");
+        TextField playersField = new TextField();
+        playersField.setPromptText("2, 3, 4 or 6");
+        playersField.setText("2");
+        TextField botsField = new TextField();
+        botsField.setPromptText("bots");
+        botsField.setText("0");
 
         grid.add(new Label("IP:"), 0, 0);
         grid.add(ipAddressField, 1, 0);
         grid.add(new Label("Port:"), 0, 1);
         grid.add(portField, 1, 1);
+        grid.add(new Label("Mode:"), 0, 2);
+        grid.add(modeField, 1, 2);
+        grid.add(new Label("Players:"), 0, 3);
+        grid.add(playersField, 1, 3);
+        grid.add(new Label("Bots:"), 0, 4);
+        grid.add(botsField, 1, 4);
 
         Node connectButton = dialog.getDialogPane().lookupButton(connectButtonType);
         connectButton.setDisable(false);
@@ -259,20 +279,26 @@ public class Controller {
 
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == connectButtonType) {
-                return new Pair<>(ipAddressField.getText(), portField.getText());
+                return new String[]{ipAddressField.getText(), portField.getText(), modeField.getText(), playersField.getText(), botsField.getText()};
             }
             return null;
         });
 
-        Optional<Pair<String, String>> result = dialog.showAndWait();
+        Optional<String[]> result = dialog.showAndWait();
 
         String host;
         int port;
+        String mode;
+        int players;
+        int bots;
         if (result.isPresent()) {
-            Pair<String, String> r = result.get();
-            host = r.getKey();
+            String[] r = result.get();
+            host = r[0];
+            mode = r[2].trim();
             try {
-                port = Integer.parseInt(r.getValue());
+                port = Integer.parseInt(r[1]);
+                players = Integer.parseInt(r[3].trim());
+                bots = Integer.parseInt(r[4].trim());
             } catch (Exception e) {
                 Alert alert = new Alert(Alert.AlertType.ERROR);
                 alert.setTitle("Error");
@@ -281,7 +307,7 @@ public class Controller {
                 return;
             }
 
-            connectAndStartGame(host, port);
+            connectAndStartGame(host, port, mode, players, bots);
         }
     }
 }
\ No newline at end of file
@@ -2,14 +2,19 @@ package org.chinesecheckers.client.main;
 
 import javafx.application.Platform;
 import org.chinesecheckers.client.board.Board;
+import org.chinesecheckers.common.BoardSequence;
 import org.chinesecheckers.common.ClientMessage;
 import org.chinesecheckers.common.Colors;
 import org.chinesecheckers.common.GridCoordinate;
+import org.chinesecheckers.common.MessageTokenizer;
+import org.chinesecheckers.common.MessageVisitor;
 
 import java.util.function.Consumer;
 
 /**
  * Represents a player in the Chinese Checkers game.
+ * The board is kept up to date from {@code MOVED} deltas applied in place; each delta carries a sequence number,
+ * and a gap in the sequence makes the player ask the server for a full {@code SYNC} snapshot on its next turn.
  */
 class Player {
     private final Board m_board;
@@ -18,6 +23,8 @@ class Player {
     private final Consumer<String> m_printSuccess;
     private final Consumer<String> m_printAlert;
     private final Consumer<String> m_printError;
+    private final MessageVisitor m_responseVisitor = this::executeResponse;
+    private final BoardSequence m_sequence = new BoardSequence();
     private Colors m_color;
     private boolean m_isTurn;
     private boolean m_isFinished;
@@ -43,11 +50,17 @@ class Player {
     }
 
     /**
-     * Starts the match for the player.
+     * Starts the match for the player by asking the server for a seat at a table of the requested kind.
+     *
+     * @param mode    the requested game mode
+     * @param players the requested number of players, bots included
+     * @param bots    the requested number of bots
      */
-    void startMatch() {
+    void startMatch(String mode, int players, int bots) {
         m_isTurn = false;
         m_isFinished = false;
+        m_sequence.reset();
+        m_serverConnectionHandler.writeLine("JOIN " + mode + " " + players + " " + bots);
         m_printSuccess.accept("Connected, waiting.");
         blockGUIandReadResponses();
     }
@@ -180,28 +193,18 @@ class Player {
      * @throws Exception if an error occurs while reading the response
      */
     private void waitForResponseAndExecute() throws Exception {
-        String line = m_serverConnectionHandler.readLine();
-        ClientMessage[] response = ClientMessage.getResponses(line);
-        executeResponses(response);
-    }
-
-    /**
-     * Executes the responses from the server.
-     *
-     * @param responses the responses from the server
-     */
-    private void executeResponses(ClientMessage[] responses) {
-        for (ClientMessage clientMessage : responses) {
-            executeResponse(clientMessage);
+        if (!m_serverConnectionHandler.readMessages(m_responseVisitor)) {
+            throw new Exception("Connection Lost");
         }
     }
 
     /**
-     * Executes a single response from the server.
+     * Executes a single response from the server. Responses handled later on the JavaFX thread are copied,
+     * the others are read straight from the tokenizer.
      *
      * @param clientMessage the response from the server
      */
-    private void executeResponse(ClientMessage clientMessage) {
+    private void executeResponse(MessageTokenizer clientMessage) {
         switch (clientMessage.getCode()) {
             case "WELCOME" -> {
                 executeWelcomeResponse(clientMessage);
@@ -209,13 +212,25 @@ class Player {
                 m_printAlert.accept("You are: " + m_color.toString() + " wait for your turn");
             }
             case "YOU" -> {
-                m_printSuccess.accept("(" + m_color.toString() + ") Your turn");
-                m_isTurn = true;
+                if (m_sequence.isSynced()) {
+                    m_printSuccess.accept("(" + m_color.toString() + ") Your turn");
+                    m_isTurn = true;
+                } else {
+                    m_serverConnectionHandler.writeLine("SYNC");
+                }
+            }
+            case "SYNC" -> m_sequence.sync(clientMessage);
+            case "BOARD" -> {
+                ClientMessage board = clientMessage.toClientMessage();
+                Platform.runLater(() -> loadBoard(board));
+            }
+            case "MOVED" -> executeMovedResponse(clientMessage);
+            case "CLUES" -> {
+                ClientMessage clues = clientMessage.toClientMessage();
+                Platform.runLater(() -> loadMoves(clues));
             }
-            case "BOARD" -> Platform.runLater(() -> loadBoard(clientMessage));
-            case "CLUES" -> Platform.runLater(() -> loadMoves(clientMessage));
             case "END" -> {
-                m_printSuccess.accept("You are " + clientMessage.getNumbers()[0]);
+                m_printSuccess.accept("You are " + clientMessage.getNumber(0));
                 m_isTurn = false;
                 m_isFinished = true;
             }
@@ -231,13 +246,29 @@ class Player {
         }
     }
 
+    /**
+     * Applies a board delta if it directly follows the last known board state; otherwise the board is out of
+     * sync until the next snapshot.
+     *
+     * @param clientMessage the delta from the server
+     */
+    private void executeMovedResponse(MessageTokenizer clientMessage) {
+        if (m_sequence.advance(clientMessage)) {
+            int fromX = clientMessage.getNumber(1);
+            int fromY = clientMessage.getNumber(2);
+            int toX = clientMessage.getNumber(3);
+            int toY = clientMessage.getNumber(4);
+            Platform.runLater(() -> m_board.movePiece(fromX, fromY, toX, toY));
+        }
+    }
+
     /**
      * Executes an error response from the server.
      *
      * @param clientMessage the error response from the server
      */
-    private void executeErrorResponse(ClientMessage clientMessage) {
-        String errorMessage = String.join(" ", clientMessage.getWords());
+    private void executeErrorResponse(MessageTokenizer clientMessage) {
+        String errorMessage = String.join(" ", clientMessage.toClientMessage().getWords());
         throw new RuntimeException("End" + errorMessage);
     }
 
@@ -256,8 +287,8 @@ class Player {
      *
      * @param clientMessage the welcome response from the server
      */
-    private void executeWelcomeResponse(ClientMessage clientMessage) {
-        boolean incorrectWelcomeMessage = !clientMessage.getCode().equals("WELCOME") || clientMessage.getWords().length != 1;
+    private void executeWelcomeResponse(MessageTokenizer clientMessage) {
+        boolean incorrectWelcomeMessage = !clientMessage.isCode("WELCOME") || clientMessage.getWordCount() != 1;
         if (incorrectWelcomeMessage) {
             System.err.println("Error");
         }
@@ -269,8 +300,12 @@ class Player {
      *
      * @param welcomeClientMessage the welcome response from the server
      */
-    private void readPlayerColorFromResponse(ClientMessage welcomeClientMessage) {
-        m_color = Colors.valueOf(welcomeClientMessage.getWords()[0]);
+    private void readPlayerColorFromResponse(MessageTokenizer welcomeClientMessage) {
+        Colors color = welcomeClientMessage.getColor(0);
+        if (color == null) {
+            throw new RuntimeException("Error Server Response: unknown color");
+        }
+        m_color = color;
     }
 
     /**
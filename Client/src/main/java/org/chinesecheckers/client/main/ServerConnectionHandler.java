@@ -1,17 +1,23 @@
 package org.chinesecheckers.client.main;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.io.PrintWriter;
+import org.chinesecheckers.common.BinaryCodec;
+import org.chinesecheckers.common.MessageVisitor;
+import org.chinesecheckers.common.WireCodec;
+import org.chinesecheckers.common.WireInput;
+import org.chinesecheckers.common.WireOutput;
+
+import java.io.IOException;
 import java.net.Socket;
 
 /**
  * Handles the connection to the server for the Chinese Checkers game.
+ * Right after connecting it proposes the binary protocol and falls back to the text protocol if the server
+ * declines.
  */
 class ServerConnectionHandler {
     private final Socket m_socket;
-    private final BufferedReader m_in;
-    private final PrintWriter m_out;
+    private final WireInput m_in;
+    private final WireOutput m_out;
 
     /**
      * Constructs a ServerConnectionHandler with the specified host and port.
@@ -23,23 +29,44 @@ class ServerConnectionHandler {
     ServerConnectionHandler(String host, int port) throws Exception {
         try {
             m_socket = new Socket(host, port);
-            m_out = new PrintWriter(m_socket.getOutputStream(), true);
-            m_in = new BufferedReader(new InputStreamReader(m_socket.getInputStream()));
+            m_out = new WireOutput(m_socket.getOutputStream());
+            m_in = new WireInput(m_socket.getInputStream());
+            negotiate();
         } catch (Exception e) {
             throw new Exception("Server error");
         }
     }
 
     /**
-     * Reads a line of text from the server.
+     * Proposes the binary protocol and switches to it if the server accepts.
      *
-     * @return the line of text read from the server
+     * @throws Exception if the server does not answer
+     */
+    private void negotiate() throws Exception {
+        m_out.writeLine(WireCodec.HELLO_BINARY);
+        m_out.flush();
+        String answer = m_in.readLine();
+        if (answer == null) {
+            throw new Exception("Server error");
+        }
+        if (answer.equals(WireCodec.HELLO_BINARY)) {
+            m_in.setCodec(new BinaryCodec());
+            m_out.setCodec(new BinaryCodec());
+        }
+    }
+
+    /**
+     * Reads a line from the server and hands its messages to a visitor, decoded straight from the receive
+     * buffer. Exceptions thrown by the visitor are passed on as they are.
+     *
+     * @param visitor the visitor of the messages
+     * @return true if a line was read, false if the server closed the connection
      * @throws Exception if an error occurs while reading from the server
      */
-    synchronized String readLine() throws Exception {
+    synchronized boolean readMessages(MessageVisitor visitor) throws Exception {
         try {
-            return m_in.readLine();
-        } catch (Exception e) {
+            return m_in.readLine(visitor);
+        } catch (IOException e) {
             throw new Exception("Connection Lost");
         }
     }
@@ -50,6 +77,13 @@ class ServerConnectionHandler {
      * @param line the line of text to write to the server
      */
     void writeLine(String line) {
-        m_out.println(line);
+        synchronized (m_out) {
+            try {
+                m_out.writeLine(line);
+                m_out.flush();
+            } catch (Exception e) {
+                System.err.println("Connection Lost");
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,701 @@
+package org.chinesecheckers.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The binary protocol. Every line becomes one frame: an unsigned 16-bit body length followed by one record per
+ * '@'-separated message. A record starts with a one-byte opcode; coordinates are packed into a single byte as
+ * (y - 1) * {@link #COLUMNS} + (x - 1) and colors into their ordinal.
+ * <p>
+ * Messages whose arguments do not match the layout of their opcode, and messages with an unknown code, are sent
+ * as a TEXT record holding the raw message, so every line survives the round trip. Decoding a compact record
+ * yields the canonical text form: the code and its arguments separated by single spaces.
+ * <p>
+ * A receiver that handles messages where they arrive decodes a frame straight into the slots of a
+ * {@link MessageTokenizer}: codes and colors become shared constants and coordinates numbers, without any text in
+ * between. Board deltas are packed from a {@link MovedMessage}; other lines are encoded from their text, which
+ * costs a scan of the line.
+ * <p>
+ * A codec keeps scratch arrays and a tokenizer and must not be shared between threads.
+ */
+public class BinaryCodec implements WireCodec {
+    /**
+     * The number of columns of the board geometry used to pack coordinates.
+     */
+    public static final int COLUMNS = 13;
+
+    /**
+     * The number of rows of the board geometry used to pack coordinates.
+     */
+    public static final int ROWS = 17;
+
+    private static final int MAX_FRAME_LENGTH = 0xFFFF;
+    private static final int MAX_TOKENS = 512;
+    private static final int MAX_COUNT = 0xFF;
+
+    private static final int TEXT = 0;
+    private static final int NONE = 0;
+    private static final int COLOR = 1;
+    private static final int SMALL = 2;
+    private static final int INT = 3;
+    private static final int CELLS = 4;
+    private static final int SEQ_CELLS = 5;
+    private static final int COLOR_CELLS = 6;
+
+    private static final String[] CODES = {null, "WELCOME", "START", "YOU", "OK", "NOK", "STOP", "SKIP", "END",
+            "SYNC", "BOARD", "MOVED", "CLUES", "MOVE"};
+    private static final int MOVED = 11;
+    private static final int[] SHAPES = {-1, COLOR, NONE, NONE, NONE, NONE, NONE, NONE, SMALL,
+            INT, COLOR_CELLS, SEQ_CELLS, CELLS, CELLS};
+    private static final Colors[] COLORS = Colors.values();
+
+    private final int[] m_tokenStart = new int[MAX_TOKENS];
+    private final int[] m_tokenEnd = new int[MAX_TOKENS];
+    private final int[] m_numbers = new int[MAX_TOKENS];
+    private final boolean[] m_isNumber = new boolean[MAX_TOKENS];
+    private int m_tokenCount;
+    private final MessageTokenizer m_tokenizer = new MessageTokenizer();
+    private final ByteSequence m_view = new ByteSequence();
+
+    /**
+     * Packs a coordinate into a single byte value.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the packed coordinate, or -1 if the coordinate is outside the board geometry
+     */
+    public static int packCell(int x, int y) {
+        if (x < 1 || x > COLUMNS || y < 1 || y > ROWS) {
+            return -1;
+        }
+        return (y - 1) * COLUMNS + (x - 1);
+    }
+
+    /**
+     * Encodes a line as one frame.
+     *
+     * @param line the line, without the line terminator
+     * @param out  the buffer to encode into
+     * @return true if the line was encoded, false if it does not fit
+     * @throws IllegalArgumentException if the frame would be longer than 65535 bytes
+     */
+    @Override
+    public boolean encode(CharSequence line, ByteBuffer out) {
+        int start = out.position();
+        if (out.remaining() < 2) {
+            return false;
+        }
+        out.position(start + 2);
+        int messageStart = 0;
+        int length = line.length();
+        for (int i = 0; i <= length; i++) {
+            if (i == length || line.charAt(i) == '@') {
+                if (!encodeMessage(line, messageStart, i, out)) {
+                    out.position(start);
+                    return false;
+                }
+                messageStart = i + 1;
+            }
+        }
+        int bodyLength = out.position() - start - 2;
+        if (bodyLength > MAX_FRAME_LENGTH) {
+            out.position(start);
+            throw new IllegalArgumentException("Line too long: " + length);
+        }
+        out.putShort(start, (short) bodyLength);
+        return true;
+    }
+
+    /**
+     * Encodes a board delta as a one-record frame packed straight from its numbers. A delta with a cell outside
+     * the board geometry is encoded from its text form instead.
+     *
+     * @param moved the delta
+     * @param out   the buffer to encode into
+     * @return true if the delta was encoded, false if it does not fit
+     */
+    @Override
+    public boolean encode(MovedMessage moved, ByteBuffer out) {
+        int from = packCell(moved.fromX(), moved.fromY());
+        int to = packCell(moved.toX(), moved.toY());
+        if (from < 0 || to < 0) {
+            return encode(moved.toString(), out);
+        }
+        if (out.remaining() < 10) {
+            return false;
+        }
+        out.putShort((short) 8);
+        out.put((byte) MOVED);
+        out.putInt(moved.sequence());
+        out.put((byte) 2);
+        out.put((byte) from);
+        out.put((byte) to);
+        return true;
+    }
+
+    /**
+     * Encodes one message as a compact record, or as a TEXT record if it does not match its opcode.
+     *
+     * @param line the line
+     * @param from the index of the first character of the message
+     * @param to   the index after the last character of the message
+     * @param out  the buffer to encode into
+     * @return true if the record was encoded, false if it does not fit
+     */
+    private boolean encodeMessage(CharSequence line, int from, int to, ByteBuffer out) {
+        if (tokenize(line, from, to)) {
+            int opcode = findOpcode(line);
+            int size = opcode > 0 ? compactSize(line, SHAPES[opcode]) : -1;
+            if (size >= 0) {
+                if (out.remaining() < size) {
+                    return false;
+                }
+                putCompact(line, opcode, out);
+                return true;
+            }
+        }
+        int length = to - from;
+        if (out.remaining() < 3 + length || length > MAX_FRAME_LENGTH) {
+            return false;
+        }
+        out.put((byte) TEXT);
+        out.putShort((short) length);
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            out.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+        return true;
+    }
+
+    /**
+     * Splits a message into space-separated tokens and parses the numeric ones.
+     *
+     * @param line the line
+     * @param from the index of the first character of the message
+     * @param to   the index after the last character of the message
+     * @return false if the message is empty or has too many tokens
+     */
+    private boolean tokenize(CharSequence line, int from, int to) {
+        m_tokenCount = 0;
+        int i = from;
+        while (i < to) {
+            if (line.charAt(i) == ' ') {
+                i++;
+                continue;
+            }
+            if (m_tokenCount == MAX_TOKENS) {
+                return false;
+            }
+            int start = i;
+            while (i < to && line.charAt(i) != ' ') {
+                i++;
+            }
+            m_tokenStart[m_tokenCount] = start;
+            m_tokenEnd[m_tokenCount] = i;
+            m_isNumber[m_tokenCount] = parseNumber(line, start, i, m_tokenCount);
+            m_tokenCount++;
+        }
+        return m_tokenCount > 0;
+    }
+
+    /**
+     * Parses a token as a decimal integer.
+     *
+     * @param line  the line
+     * @param start the index of the first character of the token
+     * @param end   the index after the last character of the token
+     * @param slot  the number slot to store the value in
+     * @return true if the token is an integer, otherwise false
+     */
+    private boolean parseNumber(CharSequence line, int start, int end, int slot) {
+        boolean negative = line.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 10) {
+            return false;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return false;
+        }
+        m_numbers[slot] = (int) value;
+        return true;
+    }
+
+    /**
+     * Finds the opcode of the code token.
+     *
+     * @param line the line
+     * @return the opcode, or TEXT if the code is unknown
+     */
+    private int findOpcode(CharSequence line) {
+        for (int opcode = 1; opcode < CODES.length; opcode++) {
+            if (tokenEquals(line, 0, CODES[opcode])) {
+                return opcode;
+            }
+        }
+        return TEXT;
+    }
+
+    /**
+     * Computes the size of the compact record of the tokenized message.
+     *
+     * @param line  the line
+     * @param shape the argument layout of the opcode
+     * @return the size in bytes, or -1 if the arguments do not match the layout
+     */
+    private int compactSize(CharSequence line, int shape) {
+        int arguments = m_tokenCount - 1;
+        return switch (shape) {
+            case NONE -> arguments == 0 ? 1 : -1;
+            case COLOR -> arguments == 1 && colorOf(line, 1) >= 0 ? 2 : -1;
+            case SMALL -> arguments == 1 && m_isNumber[1] && m_numbers[1] >= 0 && m_numbers[1] <= MAX_COUNT ? 2 : -1;
+            case INT -> arguments == 1 && m_isNumber[1] ? 5 : -1;
+            case CELLS -> arguments % 2 == 0 && cellsPackable(1) ? 2 + arguments / 2 : -1;
+            case SEQ_CELLS -> arguments >= 1 && m_isNumber[1] && (arguments - 1) % 2 == 0 && cellsPackable(2)
+                    ? 6 + (arguments - 1) / 2 : -1;
+            case COLOR_CELLS -> arguments % 3 == 0 && coloredCellsPackable(line) ? 2 + 2 * (arguments / 3) : -1;
+            default -> -1;
+        };
+    }
+
+    /**
+     * Checks that the tokens from the specified one on are coordinate pairs that can be packed.
+     *
+     * @param first the index of the first token of the pairs
+     * @return true if the pairs can be packed, otherwise false
+     */
+    private boolean cellsPackable(int first) {
+        if ((m_tokenCount - first) / 2 > MAX_COUNT) {
+            return false;
+        }
+        for (int i = first; i + 1 < m_tokenCount; i += 2) {
+            if (!m_isNumber[i] || !m_isNumber[i + 1] || packCell(m_numbers[i], m_numbers[i + 1]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks that the arguments are color, x, y triples that can be packed.
+     *
+     * @param line the line
+     * @return true if the triples can be packed, otherwise false
+     */
+    private boolean coloredCellsPackable(CharSequence line) {
+        if ((m_tokenCount - 1) / 3 > MAX_COUNT) {
+            return false;
+        }
+        for (int i = 1; i + 2 < m_tokenCount; i += 3) {
+            if (colorOf(line, i) < 0 || !m_isNumber[i + 1] || !m_isNumber[i + 2]
+                    || packCell(m_numbers[i + 1], m_numbers[i + 2]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes the compact record of the tokenized message.
+     *
+     * @param line   the line
+     * @param opcode the opcode of the message
+     * @param out    the buffer to encode into, with enough room for the record
+     */
+    private void putCompact(CharSequence line, int opcode, ByteBuffer out) {
+        out.put((byte) opcode);
+        switch (SHAPES[opcode]) {
+            case COLOR -> out.put((byte) colorOf(line, 1));
+            case SMALL -> out.put((byte) m_numbers[1]);
+            case INT -> out.putInt(m_numbers[1]);
+            case CELLS -> putCells(1, out);
+            case SEQ_CELLS -> {
+                out.putInt(m_numbers[1]);
+                putCells(2, out);
+            }
+            case COLOR_CELLS -> {
+                out.put((byte) ((m_tokenCount - 1) / 3));
+                for (int i = 1; i + 2 < m_tokenCount; i += 3) {
+                    out.put((byte) colorOf(line, i));
+                    out.put((byte) packCell(m_numbers[i + 1], m_numbers[i + 2]));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Writes the count and the packed coordinates of the pairs from the specified token on.
+     *
+     * @param first the index of the first token of the pairs
+     * @param out   the buffer to encode into
+     */
+    private void putCells(int first, ByteBuffer out) {
+        out.put((byte) ((m_tokenCount - first) / 2));
+        for (int i = first; i + 1 < m_tokenCount; i += 2) {
+            out.put((byte) packCell(m_numbers[i], m_numbers[i + 1]));
+        }
+    }
+
+    /**
+     * Gets the color named by a token.
+     *
+     * @param line  the line
+     * @param token the index of the token
+     * @return the ordinal of the color, or -1 if the token is not a color name
+     */
+    private int colorOf(CharSequence line, int token) {
+        if (m_isNumber[token]) {
+            return -1;
+        }
+        for (Colors color : COLORS) {
+            if (tokenEquals(line, token, color.name())) {
+                return color.ordinal();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares a token with a string.
+     *
+     * @param line  the line
+     * @param token the index of the token
+     * @param text  the string to compare with
+     * @return true if the token equals the string, otherwise false
+     */
+    private boolean tokenEquals(CharSequence line, int token, String text) {
+        int start = m_tokenStart[token];
+        int length = m_tokenEnd[token] - start;
+        if (length != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (line.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decodes the next frame and appends its text form.
+     *
+     * @param in   the buffer, ready for reading
+     * @param line the builder the line is appended to
+     * @return true if a frame was decoded, false if the buffer does not hold a complete frame yet
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    @Override
+    public boolean decode(ByteBuffer in, StringBuilder line) {
+        if (in.remaining() < 2) {
+            return false;
+        }
+        int start = in.position();
+        int length = in.getShort(start) & 0xFFFF;
+        if (in.remaining() < 2 + length) {
+            return false;
+        }
+        int end = start + 2 + length;
+        int position = start + 2;
+        boolean first = true;
+        while (position < end) {
+            if (!first) {
+                line.append('@');
+            }
+            first = false;
+            position = decodeRecord(in, position, end, line);
+        }
+        in.position(end);
+        return true;
+    }
+
+    /**
+     * Decodes the next frame and visits its records as messages, filling the tokenizer from the bytes: the frame
+     * is checked whole first, so a malformed frame visits nothing. A TEXT record is tokenized where it lies in the
+     * buffer, and an empty TEXT record that ends a frame of several is skipped like the empty message after a
+     * trailing '@'.
+     *
+     * @param in      the buffer, ready for reading
+     * @param visitor the visitor of the messages
+     * @return true if a frame was decoded, false if the buffer does not hold a complete frame yet
+     * @throws IllegalArgumentException if the frame is malformed
+     */
+    @Override
+    public boolean decode(ByteBuffer in, MessageVisitor visitor) {
+        if (in.remaining() < 2) {
+            return false;
+        }
+        int start = in.position();
+        int length = in.getShort(start) & 0xFFFF;
+        if (in.remaining() < 2 + length) {
+            return false;
+        }
+        int end = start + 2 + length;
+        m_tokenizer.beginLine(m_view.wrap(in, start, end));
+        try {
+            for (int position = start + 2; position < end; ) {
+                position = visitRecord(in, position, start, end, null);
+            }
+            in.position(end);
+            for (int position = start + 2; position < end; ) {
+                position = visitRecord(in, position, start, end, visitor);
+            }
+        } finally {
+            m_tokenizer.endLine();
+        }
+        return true;
+    }
+
+    /**
+     * Fills the tokenizer with one record and visits it.
+     *
+     * @param in       the buffer
+     * @param position the index of the opcode of the record
+     * @param start    the index of the frame, where the view of the tokenizer starts
+     * @param end      the index after the last byte of the frame
+     * @param visitor  the visitor of the message, or null to only check the record
+     * @return the index after the last byte of the record
+     */
+    private int visitRecord(ByteBuffer in, int position, int start, int end, MessageVisitor visitor) {
+        int opcode = in.get(position++) & 0xFF;
+        if (opcode == TEXT) {
+            require(position + 2, end);
+            int length = in.getShort(position) & 0xFFFF;
+            position += 2;
+            require(position + length, end);
+            boolean skipped = length == 0 && position == end && m_tokenizer.getIndex() > 0;
+            if (visitor != null && !skipped) {
+                m_tokenizer.scanMessage(position - start, position + length - start);
+                m_tokenizer.visitMessage(visitor);
+            }
+            return position + length;
+        }
+        if (opcode >= CODES.length) {
+            throw new IllegalArgumentException("Malformed frame: unknown opcode " + opcode);
+        }
+        m_tokenizer.beginMessage(CODES[opcode]);
+        switch (SHAPES[opcode]) {
+            case COLOR -> {
+                require(position + 1, end);
+                m_tokenizer.addWord(colorName(in.get(position++) & 0xFF));
+            }
+            case SMALL -> {
+                require(position + 1, end);
+                m_tokenizer.addNumber(in.get(position++) & 0xFF);
+            }
+            case INT -> {
+                require(position + 4, end);
+                m_tokenizer.addNumber(in.getInt(position));
+                position += 4;
+            }
+            case CELLS -> position = addCells(in, position, end);
+            case SEQ_CELLS -> {
+                require(position + 4, end);
+                m_tokenizer.addNumber(in.getInt(position));
+                position = addCells(in, position + 4, end);
+            }
+            case COLOR_CELLS -> {
+                require(position + 1, end);
+                int count = in.get(position++) & 0xFF;
+                require(position + 2 * count, end);
+                for (int i = 0; i < count; i++) {
+                    m_tokenizer.addWord(colorName(in.get(position++) & 0xFF));
+                    addCell(in.get(position++) & 0xFF);
+                }
+            }
+            default -> {
+            }
+        }
+        if (visitor != null) {
+            m_tokenizer.visitMessage(visitor);
+        }
+        return position;
+    }
+
+    /**
+     * Adds the coordinates of a counted list of packed cells to the current message of the tokenizer.
+     *
+     * @param in       the buffer
+     * @param position the index of the count
+     * @param end      the index after the last byte of the frame
+     * @return the index after the last cell
+     */
+    private int addCells(ByteBuffer in, int position, int end) {
+        require(position + 1, end);
+        int count = in.get(position++) & 0xFF;
+        require(position + count, end);
+        for (int i = 0; i < count; i++) {
+            addCell(in.get(position++) & 0xFF);
+        }
+        return position;
+    }
+
+    /**
+     * Adds the coordinates of a packed cell to the current message of the tokenizer.
+     *
+     * @param cell the packed cell
+     */
+    private void addCell(int cell) {
+        checkCell(cell);
+        m_tokenizer.addNumber(cell % COLUMNS + 1);
+        m_tokenizer.addNumber(cell / COLUMNS + 1);
+    }
+
+    /**
+     * Decodes one record and appends its text form.
+     *
+     * @param in       the buffer
+     * @param position the index of the opcode of the record
+     * @param end      the index after the last byte of the frame
+     * @param line     the builder the message is appended to
+     * @return the index after the last byte of the record
+     */
+    private int decodeRecord(ByteBuffer in, int position, int end, StringBuilder line) {
+        int opcode = in.get(position++) & 0xFF;
+        if (opcode == TEXT) {
+            require(position + 2, end);
+            int length = in.getShort(position) & 0xFFFF;
+            position += 2;
+            require(position + length, end);
+            for (int i = 0; i < length; i++) {
+                line.append((char) (in.get(position + i) & 0xFF));
+            }
+            return position + length;
+        }
+        if (opcode >= CODES.length) {
+            throw new IllegalArgumentException("Malformed frame: unknown opcode " + opcode);
+        }
+        line.append(CODES[opcode]);
+        switch (SHAPES[opcode]) {
+            case COLOR -> {
+                require(position + 1, end);
+                appendColor(in.get(position++) & 0xFF, line);
+            }
+            case SMALL -> {
+                require(position + 1, end);
+                line.append(' ').append(in.get(position++) & 0xFF);
+            }
+            case INT -> {
+                require(position + 4, end);
+                line.append(' ').append(in.getInt(position));
+                position += 4;
+            }
+            case CELLS -> position = appendCells(in, position, end, line);
+            case SEQ_CELLS -> {
+                require(position + 4, end);
+                line.append(' ').append(in.getInt(position));
+                position = appendCells(in, position + 4, end, line);
+            }
+            case COLOR_CELLS -> {
+                require(position + 1, end);
+                int count = in.get(position++) & 0xFF;
+                require(position + 2 * count, end);
+                for (int i = 0; i < count; i++) {
+                    appendColor(in.get(position++) & 0xFF, line);
+                    appendCell(in.get(position++) & 0xFF, line);
+                }
+            }
+            default -> {
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Appends the coordinates of a counted list of packed cells.
+     *
+     * @param in       the buffer
+     * @param position the index of the count
+     * @param end      the index after the last byte of the frame
+     * @param line     the builder to append to
+     * @return the index after the last cell
+     */
+    private int appendCells(ByteBuffer in, int position, int end, StringBuilder line) {
+        require(position + 1, end);
+        int count = in.get(position++) & 0xFF;
+        require(position + count, end);
+        for (int i = 0; i < count; i++) {
+            appendCell(in.get(position++) & 0xFF, line);
+        }
+        return position;
+    }
+
+    /**
+     * Appends the coordinates of a packed cell.
+     *
+     * @param cell the packed cell
+     * @param line the builder to append to
+     */
+    private void appendCell(int cell, StringBuilder line) {
+        checkCell(cell);
+        line.append(' ').append(cell % COLUMNS + 1).append(' ').append(cell / COLUMNS + 1);
+    }
+
+    /**
+     * Appends the name of a color.
+     *
+     * @param ordinal the ordinal of the color
+     * @param line    the builder to append to
+     */
+    private void appendColor(int ordinal, StringBuilder line) {
+        line.append(' ').append(colorName(ordinal));
+    }
+
+    /**
+     * Checks that a packed cell lies within the board geometry.
+     *
+     * @param cell the packed cell
+     */
+    private static void checkCell(int cell) {
+        if (cell >= COLUMNS * ROWS) {
+            throw new IllegalArgumentException("Malformed frame: cell " + cell);
+        }
+    }
+
+    /**
+     * Gets the name of a color from its ordinal.
+     *
+     * @param ordinal the ordinal of the color
+     * @return the name, a shared constant
+     */
+    private static String colorName(int ordinal) {
+        if (ordinal >= COLORS.length) {
+            throw new IllegalArgumentException("Malformed frame: color " + ordinal);
+        }
+        return COLORS[ordinal].name();
+    }
+
+    /**
+     * Checks that a record does not run past the end of its frame.
+     *
+     * @param position the index the record needs to reach
+     * @param end      the index after the last byte of the frame
+     */
+    private static void require(int position, int end) {
+        if (position > end) {
+            throw new IllegalArgumentException("Malformed frame: truncated record");
+        }
+    }
+
+    /**
+     * Gets an upper bound of the frame size of a line: the frame header, and at most three bytes more than the
+     * text of every message.
+     *
+     * @param length the number of characters of the line
+     * @return the maximum number of bytes the line takes on the wire
+     */
+    @Override
+    public int maxEncodedLength(int length) {
+        return 3 * length + 5;
+    }
+}
\ No newline at end of file
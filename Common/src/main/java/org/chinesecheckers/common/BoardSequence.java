@@ -0,0 +1,63 @@
+package org.chinesecheckers.common;
+
+/**
+ * Follows the sequence number of a board kept up to date from server messages. A {@code SYNC n} message tags the
+ * full board that follows it; a {@code MOVED n fx fy tx ty} delta may only be applied to the board it directly
+ * follows. Once a delta is missed, every later one is refused until the next {@code SYNC}, which a client asks
+ * for on its next turn.
+ */
+public class BoardSequence {
+    private int m_sequence;
+    private boolean m_synced;
+
+    /**
+     * Forgets the board, so that every delta is refused until the next snapshot.
+     */
+    public void reset() {
+        m_synced = false;
+    }
+
+    /**
+     * Checks if the board is known up to the last received sequence number.
+     *
+     * @return true if the board is in sync, otherwise false
+     */
+    public boolean isSynced() {
+        return m_synced;
+    }
+
+    /**
+     * Gets the sequence number of the board.
+     *
+     * @return the sequence number
+     */
+    public int getSequence() {
+        return m_sequence;
+    }
+
+    /**
+     * Takes the sequence number of a {@code SYNC} message; the full board follows it.
+     *
+     * @param message the {@code SYNC} message
+     */
+    public void sync(MessageTokenizer message) {
+        m_sequence = message.getNumber(0);
+        m_synced = true;
+    }
+
+    /**
+     * Checks whether a {@code MOVED} delta directly follows the board and, if so, moves on to its sequence number.
+     * Otherwise the board is out of sync from now on.
+     *
+     * @param message the {@code MOVED} message
+     * @return true if the delta is to be applied, false if it is to be dropped
+     */
+    public boolean advance(MessageTokenizer message) {
+        if (m_synced && message.getNumberCount() == 5 && message.getNumber(0) == m_sequence + 1) {
+            m_sequence++;
+            return true;
+        }
+        m_synced = false;
+        return false;
+    }
+}
\ No newline at end of file
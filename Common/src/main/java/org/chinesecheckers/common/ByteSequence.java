@@ -0,0 +1,76 @@
+package org.chinesecheckers.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable view of a region of a byte buffer as characters, one per byte, so that a received line can be
+ * tokenized where it lies without copying it into a string first.
+ */
+final class ByteSequence implements CharSequence {
+    private ByteBuffer m_buffer;
+    private int m_offset;
+    private int m_length;
+
+    /**
+     * Points the view at a region of a buffer. The view reads the buffer by absolute index and does not move
+     * its position.
+     *
+     * @param buffer the buffer
+     * @param from   the index of the first byte of the region
+     * @param to     the index after the last byte of the region
+     * @return this view
+     */
+    ByteSequence wrap(ByteBuffer buffer, int from, int to) {
+        m_buffer = buffer;
+        m_offset = from;
+        m_length = to - from;
+        return this;
+    }
+
+    /**
+     * Gets the number of bytes of the region.
+     *
+     * @return the length
+     */
+    @Override
+    public int length() {
+        return m_length;
+    }
+
+    /**
+     * Gets a byte of the region as a character.
+     *
+     * @param index the index within the region
+     * @return the character
+     */
+    @Override
+    public char charAt(int index) {
+        return (char) (m_buffer.get(m_offset + index) & 0xFF);
+    }
+
+    /**
+     * Copies part of the region into a new string.
+     *
+     * @param start the index of the first character
+     * @param end   the index after the last character
+     * @return the string
+     */
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        StringBuilder sb = new StringBuilder(end - start);
+        for (int i = start; i < end; i++) {
+            sb.append(charAt(i));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Copies the region into a new string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return subSequence(0, m_length).toString();
+    }
+}
\ No newline at end of file
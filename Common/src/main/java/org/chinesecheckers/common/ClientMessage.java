@@ -3,8 +3,6 @@ package org.chinesecheckers.common;
 import java.util.ArrayList;
 import java.util.List;
 
-import static java.lang.Character.isDigit;
-
 /**
  * Represents a message from the client in the Chinese Checkers game.
  */
@@ -28,42 +26,14 @@ public class ClientMessage {
 
     /**
      * Parses the responses from the server into an array of ClientMessage objects.
+     * Callers on a hot path should use a {@link MessageTokenizer} directly instead.
      *
      * @param line the line of responses from the server
      * @return an array of ClientMessage objects
      */
     public static ClientMessage[] getResponses(String line) {
-        line = line.replace("\n", "");
-
-        String[] strResponses = line.split("@");
-
         List<ClientMessage> response = new ArrayList<>();
-        for (String strResponse : strResponses) {
-            String[] parts = strResponse.split(" ");
-
-            if (parts.length < 1) throw new RuntimeException("Error Server Response: '" + line + "'");
-
-            String code = parts[0];
-
-            List<Integer> numbers = new ArrayList<>();
-            List<String> words = new ArrayList<>();
-            for (int i = 1; i < parts.length; i++) {
-                if (isDigit(parts[i].charAt(0))) {
-                    numbers.add(Integer.valueOf(parts[i]));
-                } else if (parts[i].length() > 3 && parts[i].charAt(0) == '-' && isDigit(parts[i].charAt(1))) {
-                    numbers.add(Integer.valueOf(parts[i]));
-                } else {
-                    words.add(parts[i]);
-                }
-            }
-
-            int[] numbersArray = numbers.stream().mapToInt(i -> i).toArray();
-            String[] wordsArray = words.toArray(new String[0]);
-            ClientMessage clientMessage = new ClientMessage(code, numbersArray, wordsArray);
-
-            response.add(clientMessage);
-        }
-
+        new MessageTokenizer().tokenize(line, message -> response.add(message.toClientMessage()));
         return response.toArray(new ClientMessage[0]);
     }
 
@@ -0,0 +1,383 @@
+package org.chinesecheckers.common;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass tokenizer of protocol lines. A line holds '@'-separated messages, each made of a code followed by
+ * space-separated numbers and words. The tokenizer fills reusable number and word slots for one message at a
+ * time and hands itself to a {@link MessageVisitor}, so parsing a line allocates nothing once the slots have grown
+ * to the largest message seen.
+ * <p>
+ * Every message of the line is visited, except an empty one after a trailing '@'. A tokenizer is reusable but
+ * must not be shared between threads.
+ * <p>
+ * The codecs also fill a tokenizer straight from the bytes of a frame, see
+ * {@link WireCodec#decode(java.nio.ByteBuffer, MessageVisitor)}; the code and the words of a compact binary record
+ * are then shared constants instead of regions of a line.
+ */
+public class MessageTokenizer {
+    private static final String[] KNOWN_CODES = {"WELCOME", "START", "YOU", "OK", "NOK", "STOP", "SKIP", "END",
+            "SYNC", "BOARD", "MOVED", "CLUES", "MOVE", "JOIN", "ERROR", "HELLO"};
+    private static final Colors[] COLORS = Colors.values();
+
+    private CharSequence m_line;
+    private int m_index;
+    private String m_code;
+    private int m_codeStart;
+    private int m_codeEnd;
+    private int[] m_numbers = new int[16];
+    private int m_numberCount;
+    private int[] m_wordStart = new int[8];
+    private int[] m_wordEnd = new int[8];
+    private String[] m_words = new String[8];
+    private int m_wordCount;
+
+    /**
+     * Parses a line and visits each of its messages in order.
+     *
+     * @param line    the line
+     * @param visitor the visitor of the messages
+     * @return the number of visited messages
+     */
+    public int tokenize(CharSequence line, MessageVisitor visitor) {
+        m_line = line;
+        m_index = 0;
+        try {
+            int length = line.length();
+            int start = 0;
+            for (int i = 0; i <= length; i++) {
+                if (i == length || line.charAt(i) == '@') {
+                    if (i > start || i < length || m_index == 0) {
+                        scan(start, i);
+                        visitor.visit(this);
+                        m_index++;
+                    }
+                    start = i + 1;
+                }
+            }
+            return m_index;
+        } finally {
+            m_line = null;
+        }
+    }
+
+    /**
+     * Splits one message into its code, numbers and words.
+     *
+     * @param from the index of the first character of the message
+     * @param to   the index after the last character of the message
+     */
+    private void scan(int from, int to) {
+        m_code = null;
+        m_codeStart = from;
+        m_codeEnd = from;
+        m_numberCount = 0;
+        m_wordCount = 0;
+        boolean codeRead = false;
+        int i = from;
+        while (i < to) {
+            if (isSeparator(m_line.charAt(i))) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < to && !isSeparator(m_line.charAt(i))) {
+                i++;
+            }
+            if (!codeRead) {
+                m_codeStart = start;
+                m_codeEnd = i;
+                codeRead = true;
+            } else if (!parseNumber(start, i)) {
+                addWord(start, i);
+            }
+        }
+    }
+
+    /**
+     * Checks if a character separates tokens.
+     *
+     * @param c the character
+     * @return true for spaces, tabs and line terminators
+     */
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Parses a token as a decimal integer and stores it in the next number slot.
+     *
+     * @param start the index of the first character of the token
+     * @param end   the index after the last character of the token
+     * @return true if the token is an integer, otherwise false
+     */
+    private boolean parseNumber(int start, int end) {
+        boolean negative = m_line.charAt(start) == '-';
+        int i = negative ? start + 1 : start;
+        if (i == end || end - i > 10) {
+            return false;
+        }
+        long value = 0;
+        for (; i < end; i++) {
+            char c = m_line.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+            value = value * 10 + (c - '0');
+        }
+        value = negative ? -value : value;
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            return false;
+        }
+        addNumber((int) value);
+        return true;
+    }
+
+    /**
+     * Stores the bounds of a word in the next word slot.
+     *
+     * @param start the index of the first character of the word
+     * @param end   the index after the last character of the word
+     */
+    private void addWord(int start, int end) {
+        if (m_wordCount == m_wordStart.length) {
+            m_wordStart = Arrays.copyOf(m_wordStart, m_wordStart.length * 2);
+            m_wordEnd = Arrays.copyOf(m_wordEnd, m_wordEnd.length * 2);
+            m_words = Arrays.copyOf(m_words, m_words.length * 2);
+        }
+        m_wordStart[m_wordCount] = start;
+        m_wordEnd[m_wordCount] = end;
+        m_words[m_wordCount] = null;
+        m_wordCount++;
+    }
+
+    /**
+     * Starts a line that a codec fills in message by message.
+     *
+     * @param line the text that the regions of scanned messages refer to
+     */
+    void beginLine(CharSequence line) {
+        m_line = line;
+        m_index = 0;
+    }
+
+    /**
+     * Starts a message with a known code and no arguments yet.
+     *
+     * @param code the code, a shared constant
+     */
+    void beginMessage(String code) {
+        m_code = code;
+        m_numberCount = 0;
+        m_wordCount = 0;
+    }
+
+    /**
+     * Makes a region of the current line the current message.
+     *
+     * @param from the index of the first character of the message
+     * @param to   the index after the last character of the message
+     */
+    void scanMessage(int from, int to) {
+        scan(from, to);
+    }
+
+    /**
+     * Adds a numeric argument to the current message.
+     *
+     * @param value the number
+     */
+    void addNumber(int value) {
+        if (m_numberCount == m_numbers.length) {
+            m_numbers = Arrays.copyOf(m_numbers, m_numbers.length * 2);
+        }
+        m_numbers[m_numberCount++] = value;
+    }
+
+    /**
+     * Adds a word argument to the current message.
+     *
+     * @param word the word, a shared constant
+     */
+    void addWord(String word) {
+        addWord(0, 0);
+        m_words[m_wordCount - 1] = word;
+    }
+
+    /**
+     * Visits the current message and moves on to the next one.
+     *
+     * @param visitor the visitor
+     */
+    void visitMessage(MessageVisitor visitor) {
+        visitor.visit(this);
+        m_index++;
+    }
+
+    /**
+     * Ends a line filled in by a codec.
+     */
+    void endLine() {
+        m_line = null;
+    }
+
+    /**
+     * Gets the position of the current message in the line.
+     *
+     * @return the index of the message, starting at 0
+     */
+    public int getIndex() {
+        return m_index;
+    }
+
+    /**
+     * Gets the code of the current message. Protocol codes are returned as shared constants without allocating.
+     *
+     * @return the code, or an empty string if the message is empty
+     */
+    public String getCode() {
+        if (m_code != null) {
+            return m_code;
+        }
+        for (String code : KNOWN_CODES) {
+            if (isCode(code)) {
+                return code;
+            }
+        }
+        return m_line.subSequence(m_codeStart, m_codeEnd).toString();
+    }
+
+    /**
+     * Checks if the current message has the specified code.
+     *
+     * @param code the code
+     * @return true if the message has the code, otherwise false
+     */
+    public boolean isCode(String code) {
+        if (m_code != null) {
+            return m_code.equals(code);
+        }
+        return regionEquals(m_codeStart, m_codeEnd, code);
+    }
+
+    /**
+     * Gets the number of numeric arguments of the current message.
+     *
+     * @return the number of numbers
+     */
+    public int getNumberCount() {
+        return m_numberCount;
+    }
+
+    /**
+     * Gets a numeric argument of the current message.
+     *
+     * @param i the index among the numbers
+     * @return the number
+     */
+    public int getNumber(int i) {
+        if (i >= m_numberCount) {
+            throw new IndexOutOfBoundsException("Number " + i + " of " + m_numberCount);
+        }
+        return m_numbers[i];
+    }
+
+    /**
+     * Gets the number of word arguments of the current message.
+     *
+     * @return the number of words
+     */
+    public int getWordCount() {
+        return m_wordCount;
+    }
+
+    /**
+     * Checks if a word argument of the current message equals the specified text.
+     *
+     * @param i    the index among the words
+     * @param text the text to compare with
+     * @return true if the word equals the text, otherwise false
+     */
+    public boolean isWord(int i, String text) {
+        int start = wordStart(i);
+        if (m_words[i] != null) {
+            return m_words[i].equals(text);
+        }
+        return regionEquals(start, m_wordEnd[i], text);
+    }
+
+    /**
+     * Gets a word argument of the current message as a new string.
+     *
+     * @param i the index among the words
+     * @return the word
+     */
+    public String getWord(int i) {
+        int start = wordStart(i);
+        if (m_words[i] != null) {
+            return m_words[i];
+        }
+        return m_line.subSequence(start, m_wordEnd[i]).toString();
+    }
+
+    /**
+     * Gets the color named by a word argument of the current message.
+     *
+     * @param i the index among the words
+     * @return the color, or null if the word is not a color name
+     */
+    public Colors getColor(int i) {
+        for (Colors color : COLORS) {
+            if (isWord(i, color.name())) {
+                return color;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Copies the current message into a standalone ClientMessage, which stays valid after the visit.
+     *
+     * @return the message
+     */
+    public ClientMessage toClientMessage() {
+        String[] words = new String[m_wordCount];
+        for (int i = 0; i < m_wordCount; i++) {
+            words[i] = getWord(i);
+        }
+        return new ClientMessage(getCode(), Arrays.copyOf(m_numbers, m_numberCount), words);
+    }
+
+    /**
+     * Gets the start of a word slot.
+     *
+     * @param i the index among the words
+     * @return the index of the first character of the word
+     */
+    private int wordStart(int i) {
+        if (i >= m_wordCount) {
+            throw new IndexOutOfBoundsException("Word " + i + " of " + m_wordCount);
+        }
+        return m_wordStart[i];
+    }
+
+    /**
+     * Compares a region of the line with a string.
+     *
+     * @param start the index of the first character of the region
+     * @param end   the index after the last character of the region
+     * @param text  the string to compare with
+     * @return true if the region equals the string, otherwise false
+     */
+    private boolean regionEquals(int start, int end, String text) {
+        if (end - start != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (m_line.charAt(start + i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,15 @@
+package org.chinesecheckers.common;
+
+/**
+ * Receives the messages of a line parsed by a {@link MessageTokenizer}.
+ */
+@FunctionalInterface
+public interface MessageVisitor {
+
+    /**
+     * Visits one message. The tokenizer describes the current message only until this method returns.
+     *
+     * @param message the tokenizer positioned on the message
+     */
+    void visit(MessageTokenizer message);
+}
\ No newline at end of file
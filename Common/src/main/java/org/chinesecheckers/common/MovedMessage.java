@@ -0,0 +1,25 @@
+package org.chinesecheckers.common;
+
+/**
+ * A MOVED board delta kept as numbers. Sessions hand it to the connections as it is, so that every codec writes
+ * it straight into its send buffer instead of formatting a line and parsing it again; one instance can be sent to
+ * any number of connections.
+ *
+ * @param sequence the sequence number of the board after the move
+ * @param fromX    the starting x-coordinate
+ * @param fromY    the starting y-coordinate
+ * @param toX      the ending x-coordinate
+ * @param toY      the ending y-coordinate
+ */
+public record MovedMessage(int sequence, int fromX, int fromY, int toX, int toY) {
+
+    /**
+     * Gets the delta as a line of the text protocol.
+     *
+     * @return the line
+     */
+    @Override
+    public String toString() {
+        return "MOVED " + sequence + " " + fromX + " " + fromY + " " + toX + " " + toY;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+package org.chinesecheckers.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The text protocol: ASCII lines terminated by a line feed. A carriage return before the line feed is dropped
+ * and characters outside ASCII are sent as '?'.
+ * <p>
+ * A codec keeps a tokenizer for decoding into a visitor and must not be shared between threads.
+ */
+public class TextCodec implements WireCodec {
+    private static final int MAX_NUMBER_LENGTH = 11;
+
+    private final MessageTokenizer m_tokenizer = new MessageTokenizer();
+    private final ByteSequence m_view = new ByteSequence();
+
+    /**
+     * Encodes a line followed by a line feed.
+     *
+     * @param line the line, without the line terminator
+     * @param out  the buffer to encode into
+     * @return true if the line was encoded, false if it does not fit
+     */
+    @Override
+    public boolean encode(CharSequence line, ByteBuffer out) {
+        int length = line.length();
+        if (out.remaining() < length + 1) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = line.charAt(i);
+            out.put(c < 0x80 ? (byte) c : (byte) '?');
+        }
+        out.put((byte) '\n');
+        return true;
+    }
+
+    /**
+     * Encodes a board delta as its text line, writing the digits of its numbers straight into the buffer.
+     *
+     * @param moved the delta
+     * @param out   the buffer to encode into
+     * @return true if the delta was encoded, false if the buffer has less room than the longest delta
+     */
+    @Override
+    public boolean encode(MovedMessage moved, ByteBuffer out) {
+        if (out.remaining() < "MOVED".length() + 5 * (1 + MAX_NUMBER_LENGTH) + 1) {
+            return false;
+        }
+        out.put((byte) 'M').put((byte) 'O').put((byte) 'V').put((byte) 'E').put((byte) 'D');
+        putNumber(moved.sequence(), out);
+        putNumber(moved.fromX(), out);
+        putNumber(moved.fromY(), out);
+        putNumber(moved.toX(), out);
+        putNumber(moved.toY(), out);
+        out.put((byte) '\n');
+        return true;
+    }
+
+    /**
+     * Writes a space and the decimal digits of a number.
+     *
+     * @param value the number
+     * @param out   the buffer, with room for the longest number
+     */
+    private static void putNumber(int value, ByteBuffer out) {
+        out.put((byte) ' ');
+        long rest = value;
+        if (rest < 0) {
+            out.put((byte) '-');
+            rest = -rest;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= rest) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.put((byte) ('0' + rest / divisor % 10));
+        }
+    }
+
+    /**
+     * Decodes the next line terminated by a line feed.
+     *
+     * @param in   the buffer, ready for reading
+     * @param line the builder the line is appended to
+     * @return true if a line was decoded, false if no line feed has been received yet
+     */
+    @Override
+    public boolean decode(ByteBuffer in, StringBuilder line) {
+        int start = in.position();
+        int end = findLineFeed(in);
+        if (end < 0) {
+            return false;
+        }
+        int last = end > start && in.get(end - 1) == '\r' ? end - 1 : end;
+        for (int i = start; i < last; i++) {
+            line.append((char) (in.get(i) & 0xFF));
+        }
+        in.position(end + 1);
+        return true;
+    }
+
+    /**
+     * Decodes the next line terminated by a line feed and tokenizes it where it lies in the buffer.
+     *
+     * @param in      the buffer, ready for reading
+     * @param visitor the visitor of the messages
+     * @return true if a line was decoded, false if no line feed has been received yet
+     */
+    @Override
+    public boolean decode(ByteBuffer in, MessageVisitor visitor) {
+        int start = in.position();
+        int end = findLineFeed(in);
+        if (end < 0) {
+            return false;
+        }
+        int last = end > start && in.get(end - 1) == '\r' ? end - 1 : end;
+        in.position(end + 1);
+        m_tokenizer.tokenize(m_view.wrap(in, start, last), visitor);
+        return true;
+    }
+
+    /**
+     * Finds the line feed that ends the next line.
+     *
+     * @param in the buffer, ready for reading
+     * @return the index of the line feed, or -1 if none has been received yet
+     */
+    private static int findLineFeed(ByteBuffer in) {
+        for (int i = in.position(); i < in.limit(); i++) {
+            if (in.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the encoded size of a line: one byte per character and the line feed.
+     *
+     * @param length the number of characters of the line
+     * @return the number of bytes the line takes on the wire
+     */
+    @Override
+    public int maxEncodedLength(int length) {
+        return length + 1;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,73 @@
+package org.chinesecheckers.common;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Translates protocol lines to and from their bytes on the wire.
+ * Both directions work on caller-owned buffers. A receiver that handles messages where they arrive decodes them
+ * straight into a {@link MessageVisitor}, and a board delta is encoded from its numbers, so neither needs a
+ * string per line.
+ * <p>
+ * A connection starts in the text protocol. A client that wants the binary protocol sends {@link #HELLO_BINARY};
+ * the server answers {@link #HELLO_BINARY} if it switches to {@link BinaryCodec}, or {@link #HELLO_TEXT} if the
+ * connection stays on {@link TextCodec}. Either way the answer itself is sent as text.
+ */
+public interface WireCodec {
+    /**
+     * The line that proposes, and accepts, the binary protocol.
+     */
+    String HELLO_BINARY = "HELLO BINARY";
+
+    /**
+     * The line that declines the binary protocol.
+     */
+    String HELLO_TEXT = "HELLO TEXT";
+
+    /**
+     * Encodes a line into the buffer.
+     *
+     * @param line the line, without the line terminator
+     * @param out  the buffer to encode into
+     * @return true if the line was encoded, false if it does not fit, in which case the buffer is left unchanged
+     */
+    boolean encode(CharSequence line, ByteBuffer out);
+
+    /**
+     * Encodes a board delta into the buffer, the same bytes as its text form but without formatting it first.
+     *
+     * @param moved the delta
+     * @param out   the buffer to encode into
+     * @return true if the delta was encoded, false if it does not fit, in which case the buffer is left unchanged
+     */
+    boolean encode(MovedMessage moved, ByteBuffer out);
+
+    /**
+     * Decodes the next complete line from the buffer and appends it to the builder.
+     *
+     * @param in   the buffer, ready for reading
+     * @param line the builder the line is appended to
+     * @return true if a line was decoded, false if the buffer does not hold a complete line yet, in which case
+     * neither the buffer nor the builder is changed
+     */
+    boolean decode(ByteBuffer in, StringBuilder line);
+
+    /**
+     * Decodes the next complete line from the buffer and visits its messages, as
+     * {@link MessageTokenizer#tokenize} would visit the decoded line. The buffer is past the line before the first
+     * visit. The tokenizer the visitor gets belongs to the codec.
+     *
+     * @param in      the buffer, ready for reading
+     * @param visitor the visitor of the messages
+     * @return true if a line was decoded, false if the buffer does not hold a complete line yet, in which case the
+     * buffer is not changed and nothing is visited
+     */
+    boolean decode(ByteBuffer in, MessageVisitor visitor);
+
+    /**
+     * Gets an upper bound of the encoded size of a line.
+     *
+     * @param length the number of characters of the line
+     * @return the maximum number of bytes the line takes on the wire
+     */
+    int maxEncodedLength(int length);
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package org.chinesecheckers.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads protocol lines from a blocking input stream through a {@link WireCodec}. The codec can be switched between
+ * two lines; bytes already received are decoded with the new codec.
+ * <p>
+ * A reader that handles the messages on the reading thread gets them through {@link #readLine(MessageVisitor)},
+ * decoded straight from the receive buffer; {@link #readLine()} makes a string of every line, for readers that
+ * hand lines on to another thread.
+ */
+public class WireInput {
+    /**
+     * The default size of the receive buffer, which bounds the length of a single line on the wire.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream m_in;
+    private final ByteBuffer m_buffer;
+    private final StringBuilder m_line = new StringBuilder();
+    private WireCodec m_codec;
+
+    /**
+     * Constructs a WireInput that starts with the text protocol.
+     *
+     * @param in the stream to read from
+     */
+    public WireInput(InputStream in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a WireInput that starts with the text protocol.
+     *
+     * @param in         the stream to read from
+     * @param bufferSize the size of the receive buffer in bytes
+     */
+    public WireInput(InputStream in, int bufferSize) {
+        this.m_in = in;
+        this.m_buffer = ByteBuffer.allocate(bufferSize);
+        this.m_codec = new TextCodec();
+    }
+
+    /**
+     * Sets the codec used for the following lines.
+     *
+     * @param codec the codec
+     */
+    public void setCodec(WireCodec codec) {
+        this.m_codec = codec;
+    }
+
+    /**
+     * Reads the next line, waiting until it has been received completely.
+     *
+     * @return the line, or null if the stream has ended
+     * @throws IOException if reading fails or a line does not fit into the receive buffer
+     */
+    public String readLine() throws IOException {
+        m_line.setLength(0);
+        return read(null) ? m_line.toString() : null;
+    }
+
+    /**
+     * Reads the next line, waiting until it has been received completely, and visits its messages.
+     *
+     * @param visitor the visitor of the messages
+     * @return true if a line was read, false if the stream has ended
+     * @throws IOException if reading fails or a line does not fit into the receive buffer
+     */
+    public boolean readLine(MessageVisitor visitor) throws IOException {
+        return read(visitor);
+    }
+
+    /**
+     * Reads until the codec decodes a complete line, into the line builder or into a visitor.
+     *
+     * @param visitor the visitor of the messages, or null to decode into the line builder
+     * @return true if a line was decoded, false if the stream has ended
+     * @throws IOException if reading fails or a line does not fit into the receive buffer
+     */
+    private boolean read(MessageVisitor visitor) throws IOException {
+        while (true) {
+            m_buffer.flip();
+            boolean decoded;
+            try {
+                decoded = visitor == null ? m_codec.decode(m_buffer, m_line) : m_codec.decode(m_buffer, visitor);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(e.getMessage());
+            } finally {
+                m_buffer.compact();
+            }
+            if (decoded) {
+                return true;
+            }
+            if (!m_buffer.hasRemaining()) {
+                throw new IOException("Line too long");
+            }
+            int count = m_in.read(m_buffer.array(), m_buffer.arrayOffset() + m_buffer.position(), m_buffer.remaining());
+            if (count < 0) {
+                return false;
+            }
+            m_buffer.position(m_buffer.position() + count);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,112 @@
+package org.chinesecheckers.common;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes protocol lines to a blocking output stream through a {@link WireCodec}. Lines are collected in a send
+ * buffer and reach the stream when the buffer fills up or on {@link #flush()}.
+ */
+public class WireOutput {
+    /**
+     * The default size of the send buffer.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+
+    private final OutputStream m_out;
+    private final ByteBuffer m_buffer;
+    private WireCodec m_codec;
+
+    /**
+     * Constructs a WireOutput that starts with the text protocol.
+     *
+     * @param out the stream to write to
+     */
+    public WireOutput(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Constructs a WireOutput that starts with the text protocol.
+     *
+     * @param out        the stream to write to
+     * @param bufferSize the size of the send buffer in bytes
+     */
+    public WireOutput(OutputStream out, int bufferSize) {
+        this.m_out = out;
+        this.m_buffer = ByteBuffer.allocate(bufferSize);
+        this.m_codec = new TextCodec();
+    }
+
+    /**
+     * Sets the codec used for the following lines.
+     *
+     * @param codec the codec
+     */
+    public void setCodec(WireCodec codec) {
+        this.m_codec = codec;
+    }
+
+    /**
+     * Encodes a line into the send buffer, writing the buffer out first if the line does not fit.
+     * A line larger than the whole buffer is written on its own.
+     *
+     * @param line the line, without the line terminator
+     * @throws IOException if writing fails
+     * @throws IllegalArgumentException if the codec cannot encode a line that long; nothing is written then
+     */
+    public void writeLine(CharSequence line) throws IOException {
+        if (m_codec.encode(line, m_buffer)) {
+            return;
+        }
+        writeBuffer();
+        if (m_codec.encode(line, m_buffer)) {
+            return;
+        }
+        ByteBuffer large = ByteBuffer.allocate(m_codec.maxEncodedLength(line.length()));
+        if (!m_codec.encode(line, large)) {
+            throw new IllegalArgumentException("Line too long to encode: " + line.length() + " characters");
+        }
+        m_out.write(large.array(), 0, large.position());
+    }
+
+    /**
+     * Encodes a board delta into the send buffer from its numbers, writing the buffer out first if the delta does
+     * not fit.
+     *
+     * @param moved the delta
+     * @throws IOException if writing fails
+     */
+    public void writeMoved(MovedMessage moved) throws IOException {
+        if (m_codec.encode(moved, m_buffer)) {
+            return;
+        }
+        writeBuffer();
+        if (!m_codec.encode(moved, m_buffer)) {
+            throw new IOException("Send buffer too small for a board delta");
+        }
+    }
+
+    /**
+     * Writes the send buffer out and flushes the stream.
+     *
+     * @throws IOException if writing fails
+     */
+    public void flush() throws IOException {
+        writeBuffer();
+        m_out.flush();
+    }
+
+    /**
+     * Writes the content of the send buffer to the stream.
+     *
+     * @throws IOException if writing fails
+     */
+    private void writeBuffer() throws IOException {
+        if (m_buffer.position() > 0) {
+            m_out.write(m_buffer.array(), 0, m_buffer.position());
+            m_buffer.clear();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,165 @@
+package org.chinesecheckers.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCodecTest {
+    private static final String[] LINES = {
+            "SYNC 12@BOARD RED 7 17 RED 6 16 GREEN 7 1 GREEN 8 2",
+            "MOVED 13 7 17 7 15",
+            "CLUES 6 15 8 15 7 13",
+            "WELCOME RED",
+            "OK@YOU",
+            "END 2",
+            "START",
+            "ERROR Wrong join request",
+            "MOVE 1 2 3",
+            "BOARD RED 20 1",
+            "OK@@YOU",
+            "OK@",
+            "",
+    };
+
+    @Test
+    void testServerLinesSurviveTheRoundTrip() {
+        BinaryCodec codec = new BinaryCodec();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (String line : LINES) {
+            assertTrue(codec.encode(line, buffer));
+        }
+        buffer.flip();
+        StringBuilder decoded = new StringBuilder();
+        for (String line : LINES) {
+            decoded.setLength(0);
+            assertTrue(codec.decode(buffer, decoded));
+            assertEquals(line, decoded.toString());
+        }
+        assertFalse(buffer.hasRemaining());
+    }
+
+    @Test
+    void testVisitorsSeeWhatTheTokenizerSeesInTheLine() {
+        for (WireCodec codec : new WireCodec[]{new TextCodec(), new BinaryCodec()}) {
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            for (String line : LINES) {
+                assertTrue(codec.encode(line, buffer));
+            }
+            buffer.flip();
+            for (String line : LINES) {
+                List<String> expected = new ArrayList<>();
+                new MessageTokenizer().tokenize(line, message -> expected.add(describe(message)));
+                List<String> actual = new ArrayList<>();
+                assertTrue(codec.decode(buffer, message -> actual.add(describe(message))));
+                assertEquals(expected, actual, line);
+            }
+            assertFalse(buffer.hasRemaining());
+        }
+    }
+
+    @Test
+    void testTypedDeltaIsEncodedLikeItsLine() {
+        MovedMessage[] deltas = {new MovedMessage(13, 7, 17, 7, 15), new MovedMessage(5, 20, 1, 7, 15)};
+        for (WireCodec codec : new WireCodec[]{new TextCodec(), new BinaryCodec()}) {
+            for (MovedMessage moved : deltas) {
+                ByteBuffer typed = ByteBuffer.allocate(4096);
+                assertTrue(codec.encode(moved, typed));
+                ByteBuffer text = ByteBuffer.allocate(4096);
+                assertTrue(codec.encode(moved.toString(), text));
+                assertEquals(text.flip(), typed.flip());
+            }
+            assertFalse(codec.encode(new MovedMessage(13, 7, 17, 7, 15), ByteBuffer.allocate(4)));
+        }
+    }
+
+    @Test
+    void testLineTooLongForAFrameIsNotDropped() throws Exception {
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+        WireOutput out = new WireOutput(sent);
+        out.setCodec(new BinaryCodec());
+        assertThrows(IllegalArgumentException.class, () -> out.writeLine("ERROR " + "x".repeat(70_000)));
+        out.writeLine("END 2");
+        out.flush();
+        WireInput in = new WireInput(new ByteArrayInputStream(sent.toByteArray()));
+        in.setCodec(new BinaryCodec());
+        assertEquals("END 2", in.readLine());
+    }
+
+    @Test
+    void testKnownMessagesAreCompactAndOthersText() {
+        BinaryCodec codec = new BinaryCodec();
+        assertArrayEquals(new byte[]{0, 15, 9, 0, 0, 0, 12, 10, 4, 1, (byte) 214, 1, (byte) 200, 2, 6, 2, 20},
+                encode(codec, "SYNC 12@BOARD RED 7 17 RED 6 16 GREEN 7 1 GREEN 8 2"));
+        assertArrayEquals(new byte[]{0, 8, 11, 0, 0, 0, 13, 2, (byte) 214, (byte) 188},
+                encode(codec, "MOVED 13 7 17 7 15"));
+
+        byte[] unknown = encode(codec, "ERROR Wrong join request");
+        assertEquals(0, unknown[2]);
+        assertEquals(24, unknown[4]);
+        byte[] irregular = encode(codec, "MOVE 1 2 3");
+        assertEquals(0, irregular[2]);
+        assertArrayEquals(new byte[]{0, 3, 0, 0, 0}, encode(codec, ""));
+    }
+
+    @Test
+    void testIncompleteFrameWaitsForMoreBytes() {
+        BinaryCodec codec = new BinaryCodec();
+        byte[] frame = encode(codec, "MOVED 13 7 17 7 15");
+        StringBuilder decoded = new StringBuilder("kept");
+        for (int length = 0; length < frame.length; length++) {
+            ByteBuffer partial = ByteBuffer.wrap(frame, 0, length);
+            assertFalse(codec.decode(partial, decoded));
+            assertEquals(0, partial.position());
+            assertEquals("kept", decoded.toString());
+        }
+    }
+
+    @Test
+    void testMalformedFramesAreRejected() {
+        assertMalformed(0, 2, 11, 0);
+        assertMalformed(0, 3, 12, 2, 1);
+        assertMalformed(0, 3, 10, 1, 1);
+        assertMalformed(0, 3, 0, 0, 5);
+        assertMalformed(0, 1, 0x7F);
+        assertMalformed(0, 2, 1, 7);
+        assertMalformed(0, 3, 13, 1, (byte) 221);
+    }
+
+    private static byte[] encode(BinaryCodec codec, String line) {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        assertTrue(codec.encode(line, buffer));
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    private static void assertMalformed(int... frame) {
+        byte[] bytes = new byte[frame.length];
+        for (int i = 0; i < frame.length; i++) {
+            bytes[i] = (byte) frame[i];
+        }
+        assertThrows(IllegalArgumentException.class, () -> new BinaryCodec().decode(ByteBuffer.wrap(bytes), new StringBuilder()));
+        List<String> visited = new ArrayList<>();
+        assertThrows(IllegalArgumentException.class,
+                () -> new BinaryCodec().decode(ByteBuffer.wrap(bytes), message -> visited.add(describe(message))));
+        assertTrue(visited.isEmpty());
+    }
+
+    private static String describe(MessageTokenizer message) {
+        StringBuilder sb = new StringBuilder().append(message.getIndex()).append(':').append(message.getCode());
+        for (int i = 0; i < message.getNumberCount(); i++) {
+            sb.append(' ').append(message.getNumber(i));
+        }
+        for (int i = 0; i < message.getWordCount(); i++) {
+            assertTrue(message.isWord(i, message.getWord(i)));
+            sb.append(" '").append(message.getWord(i));
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,150 @@
+package org.chinesecheckers.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Character.isDigit;
+
+/**
+ * Compares the previous split-based ClientMessage parser with the tokenizer, both through the ClientMessage API
+ * and through a visitor. Run the main method, or the JMH runner, after {@code mvn -pl Common test-compile};
+ * the gc profiler reports the allocation per parsed line.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientMessageBenchmark {
+    @Param({"board", "moved", "clues"})
+    private String m_kind;
+
+    private String m_line;
+    private MessageTokenizer m_tokenizer;
+    private final MessageVisitor m_visitor = this::consume;
+    private Blackhole m_blackhole;
+
+    /**
+     * Builds the line of the selected kind: a full six-player board, a delta after a jump, or a list of moves.
+     */
+    @Setup
+    public void setUp() {
+        m_tokenizer = new MessageTokenizer();
+        switch (m_kind) {
+            case "board" -> {
+                StringBuilder sb = new StringBuilder("OK@SYNC 32@BOARD");
+                Colors[] colors = Colors.values();
+                for (int i = 0; i < 60; i++) {
+                    sb.append(' ').append(colors[1 + i % 6].name()).append(' ').append(1 + i % 13).append(' ').append(1 + i % 17);
+                }
+                m_line = sb.toString();
+            }
+            case "moved" -> m_line = "OK@MOVED 117 7 17 7 15";
+            default -> m_line = "CLUES 6 15 8 15 7 13 5 13 9 13";
+        }
+    }
+
+    /**
+     * Parses with the previous implementation.
+     *
+     * @return the parsed messages
+     */
+    @Benchmark
+    public ClientMessage[] legacyGetResponses() {
+        return legacyGetResponses(m_line);
+    }
+
+    /**
+     * Parses through the ClientMessage API, which now sits on the tokenizer.
+     *
+     * @return the parsed messages
+     */
+    @Benchmark
+    public ClientMessage[] getResponses() {
+        return ClientMessage.getResponses(m_line);
+    }
+
+    /**
+     * Parses with the tokenizer and a visitor that consumes every number, as GameSession and the client do.
+     *
+     * @param blackhole the sink of the consumed values
+     */
+    @Benchmark
+    public void tokenize(Blackhole blackhole) {
+        m_blackhole = blackhole;
+        m_tokenizer.tokenize(m_line, m_visitor);
+    }
+
+    /**
+     * Consumes the code and the numbers of a message.
+     *
+     * @param message the message
+     */
+    private void consume(MessageTokenizer message) {
+        m_blackhole.consume(message.getCode());
+        for (int i = 0; i < message.getNumberCount(); i++) {
+            m_blackhole.consume(message.getNumber(i));
+        }
+    }
+
+    /**
+     * The split-based parser ClientMessage used before the tokenizer, kept to compare against.
+     *
+     * @param line the line of responses
+     * @return the parsed messages
+     */
+    static ClientMessage[] legacyGetResponses(String line) {
+        line = line.replace("\n", "");
+        String[] strResponses = line.split("@");
+        List<ClientMessage> response = new ArrayList<>();
+        for (String strResponse : strResponses) {
+            String[] parts = strResponse.split(" ");
+            String code = parts[0];
+            List<Integer> numbers = new ArrayList<>();
+            List<String> words = new ArrayList<>();
+            for (int i = 1; i < parts.length; i++) {
+                if (isDigit(parts[i].charAt(0))) {
+                    numbers.add(Integer.valueOf(parts[i]));
+                } else if (parts[i].length() > 3 && parts[i].charAt(0) == '-' && isDigit(parts[i].charAt(1))) {
+                    numbers.add(Integer.valueOf(parts[i]));
+                } else {
+                    words.add(parts[i]);
+                }
+            }
+            int[] numbersArray = numbers.stream().mapToInt(i -> i).toArray();
+            String[] wordsArray = words.toArray(new String[0]);
+            response.add(new ClientMessage(code, numbersArray, wordsArray));
+        }
+        return response.toArray(new ClientMessage[0]);
+    }
+
+    /**
+     * Runs the benchmark with the gc profiler.
+     *
+     * @param args command-line arguments
+     * @throws Exception if the benchmark fails to run
+     */
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(ClientMessageBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
\ No newline at end of file
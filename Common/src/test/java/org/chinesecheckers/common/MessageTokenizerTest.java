@@ -0,0 +1,73 @@
+package org.chinesecheckers.common;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageTokenizerTest {
+
+    @Test
+    void testMatchesTheLegacyParser() {
+        String[] lines = {
+                "OK@SYNC 32@BOARD RED 7 17 GREEN 7 1 YELLOW 13 5",
+                "MOVED 117 7 17 7 15@YOU",
+                "CLUES 6 15 8 15 7 13",
+                "JOIN default 4 1",
+                "ERROR Wrong join request",
+                "SYNC -1234@MOVE -1000 7 12 -99999",
+                "OK@",
+                "",
+        };
+        for (String line : lines) {
+            assertSameMessages(ClientMessageBenchmark.legacyGetResponses(line), ClientMessage.getResponses(line));
+            assertSameMessages(ClientMessageBenchmark.legacyGetResponses(line), tokenize(line));
+        }
+    }
+
+    @Test
+    void testRepeatedSpacesAreOneSeparator() {
+        assertSameMessages(ClientMessageBenchmark.legacyGetResponses("CLUES 6 15 8 15@YOU"),
+                ClientMessage.getResponses("CLUES  6   15 8 15 @ YOU"));
+        assertSameMessages(ClientMessageBenchmark.legacyGetResponses("MOVE 1 2 3 4"),
+                ClientMessage.getResponses("MOVE 1 2 3 4\r\n"));
+    }
+
+    @Test
+    void testShortNegativeNumbersAreNumbers() {
+        ClientMessage[] messages = ClientMessage.getResponses("SYNC -5 -12 x-1");
+        assertArrayEquals(new int[]{-5, -12}, messages[0].getNumbers());
+        assertArrayEquals(new String[]{"x-1"}, messages[0].getWords());
+    }
+
+    private static ClientMessage[] tokenize(String line) {
+        List<ClientMessage> messages = new ArrayList<>();
+        int count = new MessageTokenizer().tokenize(line, message -> {
+            int[] numbers = new int[message.getNumberCount()];
+            for (int i = 0; i < numbers.length; i++) {
+                numbers[i] = message.getNumber(i);
+            }
+            String[] words = new String[message.getWordCount()];
+            for (int i = 0; i < words.length; i++) {
+                words[i] = message.getWord(i);
+                assertTrue(message.isWord(i, words[i]));
+            }
+            assertEquals(messages.size(), message.getIndex());
+            messages.add(new ClientMessage(message.getCode(), numbers, words));
+        });
+        assertEquals(messages.size(), count);
+        return messages.toArray(new ClientMessage[0]);
+    }
+
+    private static void assertSameMessages(ClientMessage[] expected, ClientMessage[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i].getCode(), actual[i].getCode());
+            assertArrayEquals(expected[i].getNumbers(), actual[i].getNumbers(), Arrays.toString(actual[i].getNumbers()));
+            assertArrayEquals(expected[i].getWords(), actual[i].getWords());
+        }
+    }
+}
\ No newline at end of file
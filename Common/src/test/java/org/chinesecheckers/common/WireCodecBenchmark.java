@@ -0,0 +1,149 @@
+package org.chinesecheckers.common;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the text and the binary protocol on a whole round trip: encoding a server message into a send
+ * buffer and decoding it on the other side into the messages a client reads. A delta is sent both from its
+ * numbers and from its line, and received both straight into a visitor and through a string and the tokenizer.
+ * Run the main method, or the JMH runner, after {@code mvn -pl Common test-compile}; the gc profiler reports the
+ * allocation per round trip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireCodecBenchmark {
+    @Param({"text", "binary"})
+    private String m_codecName;
+
+    private WireCodec m_codec;
+    private final ByteBuffer m_buffer = ByteBuffer.allocate(4096);
+    private final StringBuilder m_line = new StringBuilder();
+    private final MessageTokenizer m_tokenizer = new MessageTokenizer();
+    private final MessageVisitor m_visitor = this::consume;
+    private Blackhole m_blackhole;
+    private MovedMessage m_moved;
+    private String m_movedLine;
+    private String m_boardLine;
+
+    /**
+     * Builds the codec and the messages: a delta and a full six-player board.
+     */
+    @Setup
+    public void setUp() {
+        m_codec = m_codecName.equals("binary") ? new BinaryCodec() : new TextCodec();
+        m_moved = new MovedMessage(117, 7, 17, 7, 15);
+        m_movedLine = m_moved.toString();
+        StringBuilder sb = new StringBuilder("SYNC 32@BOARD");
+        Colors[] colors = Colors.values();
+        for (int i = 0; i < 60; i++) {
+            sb.append(' ').append(colors[1 + i % 6].name()).append(' ').append(1 + i % 13).append(' ').append(1 + i % 17);
+        }
+        m_boardLine = sb.toString();
+    }
+
+    /**
+     * Sends a delta from its numbers and reads it straight into a visitor.
+     *
+     * @param blackhole the sink of the consumed values
+     */
+    @Benchmark
+    public void movedTyped(Blackhole blackhole) {
+        m_blackhole = blackhole;
+        m_buffer.clear();
+        m_codec.encode(m_moved, m_buffer);
+        m_buffer.flip();
+        m_codec.decode(m_buffer, m_visitor);
+    }
+
+    /**
+     * Sends a delta from its line and reads it back as a string that is tokenized, as before the visitor decode.
+     *
+     * @param blackhole the sink of the consumed values
+     */
+    @Benchmark
+    public void movedThroughLines(Blackhole blackhole) {
+        m_blackhole = blackhole;
+        m_buffer.clear();
+        m_codec.encode(m_moved.toString(), m_buffer);
+        m_buffer.flip();
+        m_line.setLength(0);
+        m_codec.decode(m_buffer, m_line);
+        m_tokenizer.tokenize(m_line.toString(), m_visitor);
+    }
+
+    /**
+     * Sends a delta line formatted up front, so that only the codecs are measured, and reads it into a visitor.
+     *
+     * @param blackhole the sink of the consumed values
+     */
+    @Benchmark
+    public void movedLine(Blackhole blackhole) {
+        m_blackhole = blackhole;
+        m_buffer.clear();
+        m_codec.encode(m_movedLine, m_buffer);
+        m_buffer.flip();
+        m_codec.decode(m_buffer, m_visitor);
+    }
+
+    /**
+     * Sends a full board and reads it straight into a visitor.
+     *
+     * @param blackhole the sink of the consumed values
+     */
+    @Benchmark
+    public void board(Blackhole blackhole) {
+        m_blackhole = blackhole;
+        m_buffer.clear();
+        m_codec.encode(m_boardLine, m_buffer);
+        m_buffer.flip();
+        m_codec.decode(m_buffer, m_visitor);
+    }
+
+    /**
+     * Consumes the code, the words and the numbers of a message, as the client does.
+     *
+     * @param message the message
+     */
+    private void consume(MessageTokenizer message) {
+        m_blackhole.consume(message.getCode());
+        for (int i = 0; i < message.getWordCount(); i++) {
+            m_blackhole.consume(message.getWord(i));
+        }
+        for (int i = 0; i < message.getNumberCount(); i++) {
+            m_blackhole.consume(message.getNumber(i));
+        }
+    }
+
+    /**
+     * Runs the benchmark with the gc profiler.
+     *
+     * @param args command-line arguments
+     * @throws Exception if the benchmark fails to run
+     */
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(WireCodecBenchmark.class.getSimpleName())
+                .addProfiler("gc")
+                .build()).run();
+    }
+}
\ No newline at end of file
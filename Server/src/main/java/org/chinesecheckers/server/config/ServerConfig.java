@@ -1,9 +1,30 @@
 package org.chinesecheckers.server.config;
 
+import org.chinesecheckers.server.endgame.EndgameTable;
+import org.chinesecheckers.server.journal.GameJournal;
+import org.chinesecheckers.server.journal.JournalGameStore;
+import org.chinesecheckers.server.opening.OpeningBook;
+import org.chinesecheckers.server.player.Bot;
+import org.chinesecheckers.server.repository.GameRepository;
+import org.chinesecheckers.server.repository.GameStore;
+import org.chinesecheckers.server.repository.JpaGameStore;
+import org.chinesecheckers.server.repository.MoveRepository;
+import org.chinesecheckers.server.repository.MoveWriter;
+import org.chinesecheckers.server.repository.SnapshotRepository;
+import org.chinesecheckers.server.search.SearchSettings;
+import org.chinesecheckers.server.search.TranspositionTable;
+import org.chinesecheckers.server.transport.BlockingTransport;
+import org.chinesecheckers.server.transport.NioTransport;
+import org.chinesecheckers.server.transport.Transport;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Configuration class for server settings.
  */
@@ -20,4 +41,156 @@ public class ServerConfig {
     public int serverPort(Environment env) {
         return Integer.parseInt(env.getProperty("server.port", "8080"));
     }
+
+    /**
+     * Creates and returns the transport selected by the server.transport property: "blocking" for one reader
+     * and one writer virtual thread per connection, or "nio" for a single selector thread.
+     *
+     * @param env        the environment containing the properties
+     * @param serverPort the port to listen on
+     * @return the transport
+     */
+    @Bean
+    public Transport transport(Environment env, int serverPort) {
+        int inboundCapacity = Integer.parseInt(env.getProperty("connection.inbound-queue-size", "16"));
+        int outboundCapacity = Integer.parseInt(env.getProperty("connection.outbound-queue-size", "256"));
+        boolean binaryEnabled = Boolean.parseBoolean(env.getProperty("connection.binary-enabled", "true"));
+        String transport = env.getProperty("server.transport", "blocking");
+        if ("nio".equalsIgnoreCase(transport)) {
+            int bufferSize = Integer.parseInt(env.getProperty("connection.nio-buffer-size", "65536"));
+            return new NioTransport(serverPort, inboundCapacity, outboundCapacity, bufferSize, binaryEnabled);
+        }
+        return new BlockingTransport(serverPort, inboundCapacity, outboundCapacity, binaryEnabled);
+    }
+
+    /**
+     * Creates the store of the recorded games selected by the persistence.backend property: "jpa" for the
+     * database, or "journal" for the binary game journal in persistence.journal-dir. The journal is compacted
+     * when it is opened.
+     *
+     * @param env                the environment containing the properties
+     * @param gameRepository     the repository of the games
+     * @param moveRepository     the repository of the moves
+     * @param snapshotRepository the repository of the board snapshots
+     * @param moveWriter         the writer of the moves and snapshots
+     * @return the game store
+     * @throws IOException if the journal cannot be opened
+     */
+    @Bean
+    public GameStore gameStore(Environment env, GameRepository gameRepository, MoveRepository moveRepository,
+                               SnapshotRepository snapshotRepository, MoveWriter moveWriter) throws IOException {
+        String backend = env.getProperty("persistence.backend", "jpa");
+        if ("journal".equalsIgnoreCase(backend)) {
+            Path directory = Path.of(env.getProperty("persistence.journal-dir", "data/journal"));
+            long segmentBytes = Long.parseLong(env.getProperty("persistence.journal-segment-mb", "64")) << 20;
+            long syncMillis = Long.parseLong(env.getProperty("persistence.journal-sync-millis", "1000"));
+            GameJournal journal = GameJournal.open(directory, segmentBytes, syncMillis);
+            journal.compact();
+            return new JournalGameStore(journal);
+        }
+        return new JpaGameStore(gameRepository, moveRepository, snapshotRepository, moveWriter);
+    }
+
+    /**
+     * Creates the transposition table shared by every bot search on the server, sized by the
+     * bot.transposition-table-mb property. The memory is allocated once, at startup.
+     *
+     * @param env the environment containing the properties
+     * @return the transposition table
+     */
+    @Bean
+    public TranspositionTable transpositionTable(Environment env) {
+        long megabytes = Long.parseLong(env.getProperty("bot.transposition-table-mb", "64"));
+        return new TranspositionTable(megabytes << 20);
+    }
+
+    /**
+     * Creates the pool that runs the threads of parallel bot searches. Its size, the bot.search-pool-size
+     * property or the number of processors when 0, bounds the search threads of all tables together. The pool
+     * runs in FIFO mode so the decisions of different bots are served in turn.
+     *
+     * @param env the environment containing the properties
+     * @return the pool
+     */
+    @Bean
+    public ForkJoinPool searchPool(Environment env) {
+        int size = Integer.parseInt(env.getProperty("bot.search-pool-size", "0"));
+        int parallelism = size > 0 ? size : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+    }
+
+    /**
+     * Creates the search settings shared by every bot: the default time budget, the threads per decision, the
+     * transposition table, the search pool, the endgame table and the opening book. The strategies of the
+     * bot.strategies property are checked here as well, so a bad entry stops the server at startup.
+     *
+     * @param env                the environment containing the properties
+     * @param transpositionTable the shared transposition table
+     * @param searchPool         the shared search pool
+     * @return the search settings
+     */
+    @Bean
+    public SearchSettings searchSettings(Environment env, TranspositionTable transpositionTable, ForkJoinPool searchPool) {
+        int searchMillis = Integer.parseInt(env.getProperty("bot.search-time", "300"));
+        int threads = Integer.parseInt(env.getProperty("bot.search-threads", "4"));
+        checkBotStrategies(env);
+        return new SearchSettings(searchMillis, Math.min(threads, searchPool.getParallelism()), transpositionTable, searchPool,
+                loadEndgameTable(env), loadOpeningBook(env));
+    }
+
+    /**
+     * Checks every entry of the comma-separated bot.strategies property.
+     *
+     * @param env the environment containing the properties
+     * @throws IllegalArgumentException naming the property and the first bad entry
+     */
+    private void checkBotStrategies(Environment env) {
+        for (String strategy : env.getProperty("bot.strategies", "greedy").split(",")) {
+            try {
+                Bot.parseStrategy(strategy);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("bot.strategies: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Maps the endgame table file named by the bot.endgame-table property. The file is written by the
+     * endgame-table build profile; without it, or with an empty property, the bots play on without a table.
+     *
+     * @param env the environment containing the properties
+     * @return the endgame table, or null if there is none
+     */
+    private EndgameTable loadEndgameTable(Environment env) {
+        String file = env.getProperty("bot.endgame-table", "data/endgame.bin");
+        if (file.isBlank() || !Files.exists(Path.of(file))) {
+            return null;
+        }
+        try {
+            return EndgameTable.load(Path.of(file));
+        } catch (IOException e) {
+            System.err.println("Error loading endgame table: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Maps the opening book file named by the bot.opening-book property. The file is written by the opening-book
+     * build profile; without it, or with an empty property, the bots search from the first move.
+     *
+     * @param env the environment containing the properties
+     * @return the opening book, or null if there is none
+     */
+    private OpeningBook loadOpeningBook(Environment env) {
+        String file = env.getProperty("bot.opening-book", "data/opening.bin");
+        if (file.isBlank() || !Files.exists(Path.of(file))) {
+            return null;
+        }
+        try {
+            return OpeningBook.load(Path.of(file));
+        } catch (IOException e) {
+            System.err.println("Error loading opening book: " + e.getMessage());
+            return null;
+        }
+    }
 }
\ No newline at end of file
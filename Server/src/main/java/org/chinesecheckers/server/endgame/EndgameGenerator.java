@@ -0,0 +1,224 @@
+package org.chinesecheckers.server.endgame;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.JumpChainGenerator;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Writes an {@link EndgameTable} file. This is a build step rather than part of the server: run it with the
+ * {@code endgame-table} Maven profile, or directly.
+ * <p>
+ * Steps and jump chains can always be played backwards, so the moves-to-finish of every position is its distance
+ * from the finished position in the move graph. The generator finds all of them with one breadth-first search
+ * from the finished position, over the positions with at most the specified number of pawns outside the target
+ * triangle; a shortest path that needs more pawns outside is not seen, so the table is exact within its own
+ * positions. The other players are left off the board.
+ * <p>
+ * Usage: {@code EndgameGenerator <file> [max pawns outside]}.
+ */
+public class EndgameGenerator {
+    private static final int DEFAULT_MAX_OUTSIDE = 2;
+
+    private final EndgameLayout m_layout;
+    private final int m_maxOutside;
+    private final BitBoard m_board;
+    private final NeighbourTable m_neighbourTable;
+    private final JumpChainGenerator m_chainGenerator = new JumpChainGenerator();
+    private final byte[] m_entries;
+    private final int[] m_empty;
+    private final int[] m_pawns;
+    private final int[] m_cells;
+
+    /**
+     * Constructs a generator.
+     *
+     * @param layout     the layout of the positions
+     * @param maxOutside the largest number of pawns outside the target triangle to cover
+     */
+    EndgameGenerator(EndgameLayout layout, int maxOutside) {
+        this.m_layout = layout;
+        this.m_maxOutside = maxOutside;
+        this.m_board = layout.board().getBitBoard().emptyCopy();
+        this.m_neighbourTable = layout.neighbourTable();
+        this.m_entries = new byte[Math.toIntExact(layout.offset(maxOutside + 1))];
+        this.m_empty = new int[maxOutside + 1];
+        this.m_pawns = new int[maxOutside + 1];
+        this.m_cells = new int[layout.targetCount()];
+    }
+
+    /**
+     * Generates a table and writes it to a file.
+     *
+     * @param args the path of the file, and optionally the largest number of pawns outside
+     * @throws IOException if the file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: EndgameGenerator <file> [max pawns outside]");
+            return;
+        }
+        Path path = Path.of(args[0]);
+        int maxOutside = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_MAX_OUTSIDE;
+        long start = System.nanoTime();
+        EndgameGenerator generator = new EndgameGenerator(EndgameTable.layout(), maxOutside);
+        generator.generate();
+        generator.write(path);
+        System.out.printf("%d positions with up to %d pawns outside in %.1f s, longest finish %d moves: %s%n",
+                generator.m_entries.length, maxOutside, (System.nanoTime() - start) / 1e9, generator.longest(), path);
+    }
+
+    /**
+     * Fills in the moves-to-finish of every position reachable from the finished one.
+     */
+    void generate() {
+        Arrays.fill(m_entries, (byte) EndgameTable.UNKNOWN);
+        int[] queue = new int[m_entries.length];
+        int head = 0;
+        int tail = 0;
+        m_entries[0] = 0;
+        queue[tail++] = 0;
+        while (head < tail) {
+            int number = queue[head++];
+            int distance = m_entries[number] & 0xFF;
+            if (distance + 1 >= EndgameTable.UNKNOWN) {
+                throw new IllegalStateException("Finish too long to store: " + (distance + 1));
+            }
+            place(number);
+            for (int cell : m_cells) {
+                int count = m_chainGenerator.generate(m_board, m_neighbourTable, cell);
+                for (int i = 0; i < count; i++) {
+                    int next = numberAfter(cell, m_chainGenerator.getDestination(i));
+                    if (next >= 0 && m_entries[next] == (byte) EndgameTable.UNKNOWN) {
+                        m_entries[next] = (byte) (distance + 1);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            clear();
+        }
+    }
+
+    /**
+     * Puts the pawns of a position on the scratch board.
+     *
+     * @param number the number of the position
+     */
+    private void place(int number) {
+        int outside = outsideOf(number);
+        m_layout.unrank(number - m_layout.offset(outside), outside, m_empty, m_pawns);
+        int targets = m_layout.targetCount();
+        int k = 0;
+        int e = 0;
+        for (int slot = 0; slot < targets; slot++) {
+            if (e < outside && m_empty[e] == slot) {
+                e++;
+            } else {
+                m_cells[k++] = m_layout.cell(slot);
+            }
+        }
+        for (int i = 0; i < outside; i++) {
+            m_cells[k++] = m_layout.cell(targets + m_pawns[i]);
+        }
+        for (int cell : m_cells) {
+            m_board.setColor(cell, PlayerColor.RED);
+        }
+    }
+
+    /**
+     * Takes the pawns of the current position off the scratch board.
+     */
+    private void clear() {
+        for (int cell : m_cells) {
+            m_board.setColor(cell, PlayerColor.NONE);
+        }
+    }
+
+    /**
+     * Numbers the position after a pawn of the current position moves.
+     *
+     * @param from the bit index of the cell the pawn leaves
+     * @param to   the bit index of the cell it lands on
+     * @return the number, or -1 if the position has too many pawns outside
+     */
+    private int numberAfter(int from, int to) {
+        int targets = m_layout.targetCount();
+        int filled = 0;
+        int outside = 0;
+        for (int cell : m_cells) {
+            int code = m_layout.code(PlayerColor.RED, cell == from ? to : cell);
+            if (code < targets) {
+                filled |= 1 << code;
+            } else if (outside == m_maxOutside) {
+                return -1;
+            } else {
+                EndgameLayout.insert(m_pawns, outside++, code - targets);
+            }
+        }
+        return (int) m_layout.rank(filled, m_pawns, outside);
+    }
+
+    /**
+     * Finds the number of pawns outside the target triangle in a position.
+     *
+     * @param number the number of the position
+     * @return the number of pawns outside
+     */
+    private int outsideOf(int number) {
+        int outside = 0;
+        while (outside < m_maxOutside && number >= m_layout.offset(outside + 1)) {
+            outside++;
+        }
+        return outside;
+    }
+
+    /**
+     * Finds the longest finish in the table.
+     *
+     * @return the largest number of moves
+     */
+    private int longest() {
+        int longest = 0;
+        for (byte entry : m_entries) {
+            if (entry != (byte) EndgameTable.UNKNOWN) {
+                longest = Math.max(longest, entry & 0xFF);
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Writes the header and the entries to a file.
+     *
+     * @param path the path of the file
+     * @throws IOException if the file cannot be written
+     */
+    void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        ByteBuffer header = ByteBuffer.allocate(EndgameTable.HEADER_BYTES)
+                .putInt(EndgameTable.MAGIC)
+                .putInt(EndgameTable.VERSION)
+                .putInt(m_maxOutside)
+                .putInt(m_layout.targetCount())
+                .putInt(m_layout.outsideCount())
+                .flip();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.write(header);
+            ByteBuffer entries = ByteBuffer.wrap(m_entries);
+            while (entries.hasRemaining()) {
+                channel.write(entries);
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,324 @@
+package org.chinesecheckers.server.endgame;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.Board;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+
+import java.util.Arrays;
+
+/**
+ * The numbering of endgame positions on the default star board. Positions are seen from one player only, in a
+ * canonical orientation: the target triangle of red. Every other target triangle is a rotation of it about the
+ * center cell, so the positions of every color map onto the same numbers.
+ * <p>
+ * A position with k pawns outside the target triangle has k empty target cells. It is numbered by the set of
+ * empty target cells and the set of outside cells holding a pawn, each ranked in the combinatorial number system,
+ * after the positions with fewer pawns outside.
+ */
+final class EndgameLayout {
+    static final int NOT_PLAYABLE = -1;
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    private static final PlayerColor CANONICAL = PlayerColor.RED;
+    private static final int ROTATIONS = 6;
+
+    private final Board m_board;
+    private final int[] m_targets;
+    private final int[] m_outside;
+    private final int[][] m_codes;
+    private final int[][] m_cells;
+    private final long[][] m_binomials;
+
+    /**
+     * Builds the layout of the default board.
+     */
+    EndgameLayout() {
+        try {
+            this.m_board = new DefaultBoardFactory().createBoard(6);
+        } catch (GameException e) {
+            throw new IllegalStateException(e);
+        }
+        BitBoard bitBoard = m_board.getBitBoard();
+        int size = bitBoard.size();
+        int targetCount = 0;
+        int outsideCount = 0;
+        for (int index = 0; index < size; index++) {
+            if (bitBoard.isTarget(index, CANONICAL)) {
+                targetCount++;
+            } else if (bitBoard.isPlayable(index)) {
+                outsideCount++;
+            }
+        }
+        this.m_targets = new int[targetCount];
+        this.m_outside = new int[outsideCount];
+        targetCount = 0;
+        outsideCount = 0;
+        for (int index = 0; index < size; index++) {
+            if (bitBoard.isTarget(index, CANONICAL)) {
+                m_targets[targetCount++] = index;
+            } else if (bitBoard.isPlayable(index)) {
+                m_outside[outsideCount++] = index;
+            }
+        }
+        this.m_codes = new int[COLORS.length][];
+        this.m_cells = new int[COLORS.length][];
+        for (PlayerColor color : COLORS) {
+            if (color != PlayerColor.NONE) {
+                orient(bitBoard, color);
+            }
+        }
+        int cells = Math.max(targetCount, outsideCount);
+        this.m_binomials = new long[cells + 1][];
+        for (int n = 0; n <= cells; n++) {
+            m_binomials[n] = new long[n + 1];
+            m_binomials[n][0] = 1;
+            m_binomials[n][n] = 1;
+            for (int k = 1; k < n; k++) {
+                m_binomials[n][k] = m_binomials[n - 1][k - 1] + m_binomials[n - 1][k];
+            }
+        }
+    }
+
+    /**
+     * Finds the rotation that turns the target triangle of red into that of a color, and numbers the cells of
+     * the board as seen by that color. Colors without a matching rotation are left out.
+     *
+     * @param bitBoard the board
+     * @param color    the color
+     */
+    private void orient(BitBoard bitBoard, PlayerColor color) {
+        for (int turns = 0; turns < ROTATIONS; turns++) {
+            int[] cells = new int[m_targets.length + m_outside.length];
+            boolean matches = true;
+            for (int code = 0; code < cells.length && matches; code++) {
+                int cell = rotate(bitBoard, code < m_targets.length ? m_targets[code] : m_outside[code - m_targets.length], turns);
+                matches = cell >= 0 && bitBoard.isPlayable(cell) && (code < m_targets.length) == bitBoard.isTarget(cell, color);
+                cells[code] = cell;
+            }
+            if (matches) {
+                int[] codes = new int[bitBoard.size()];
+                Arrays.fill(codes, NOT_PLAYABLE);
+                for (int code = 0; code < cells.length; code++) {
+                    codes[cells[code]] = code;
+                }
+                m_codes[color.ordinal()] = codes;
+                m_cells[color.ordinal()] = cells;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rotates a cell about the center of the board by a number of sixth turns. Rows are offset as in
+     * {@link org.chinesecheckers.server.serverBoard.GoalDistanceTable#hexDistance}, with the axial column
+     * x - (y + 1) / 2.
+     *
+     * @param bitBoard the board
+     * @param index    the bit index of the cell
+     * @param turns    the number of sixth turns
+     * @return the bit index of the rotated cell, or -1 if it falls off the board
+     */
+    private static int rotate(BitBoard bitBoard, int index, int turns) {
+        int columns = bitBoard.getX(bitBoard.size() - 1);
+        int rows = bitBoard.getY(bitBoard.size() - 1);
+        int centerY = (rows + 1) / 2;
+        int centerQ = (columns + 1) / 2 - (centerY + 1) / 2;
+        int y = bitBoard.getY(index);
+        int dq = bitBoard.getX(index) - (y + 1) / 2 - centerQ;
+        int dr = y - centerY;
+        for (int i = 0; i < turns; i++) {
+            int q = -dr;
+            dr = dq + dr;
+            dq = q;
+        }
+        y = centerY + dr;
+        int x = centerQ + dq + (y + 1) / 2;
+        if (x < 1 || x > columns || y < 1 || y > rows) {
+            return -1;
+        }
+        return bitBoard.index(x, y);
+    }
+
+    /**
+     * Gets the canonical board, with the pawns of a six-player game on it.
+     *
+     * @return the board
+     */
+    Board board() {
+        return m_board;
+    }
+
+    /**
+     * Gets the number of target cells of a player.
+     *
+     * @return the number of target cells, which is also the number of pawns
+     */
+    int targetCount() {
+        return m_targets.length;
+    }
+
+    /**
+     * Gets the number of playable cells outside the target triangle.
+     *
+     * @return the number of outside cells
+     */
+    int outsideCount() {
+        return m_outside.length;
+    }
+
+    /**
+     * Checks if the positions of a color can be numbered, that is if its target cells on a board are those of
+     * the default geometry.
+     *
+     * @param bitBoard the board
+     * @param color    the color
+     * @return true if the color is covered, otherwise false
+     */
+    boolean covers(BitBoard bitBoard, PlayerColor color) {
+        int[] cells = m_cells[color.ordinal()];
+        if (cells == null || bitBoard.size() != m_codes[color.ordinal()].length) {
+            return false;
+        }
+        for (int code = 0; code < m_targets.length; code++) {
+            if (!bitBoard.isTarget(cells[code], color)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the code of a cell as seen by a color: the slot of a target cell, or the number of target cells plus
+     * the slot of an outside cell.
+     *
+     * @param color the color
+     * @param index the bit index of the cell
+     * @return the code, or {@link #NOT_PLAYABLE}
+     */
+    int code(PlayerColor color, int index) {
+        return m_codes[color.ordinal()][index];
+    }
+
+    /**
+     * Gets the cell of the canonical board with a code.
+     *
+     * @param code the code
+     * @return the bit index of the cell
+     */
+    int cell(int code) {
+        return m_cells[CANONICAL.ordinal()][code];
+    }
+
+    /**
+     * Gets the number of positions with a number of pawns outside the target triangle.
+     *
+     * @param outside the number of pawns outside
+     * @return the number of positions
+     */
+    long count(int outside) {
+        return m_binomials[m_targets.length][outside] * m_binomials[m_outside.length][outside];
+    }
+
+    /**
+     * Gets the number of the first position with a number of pawns outside the target triangle.
+     *
+     * @param outside the number of pawns outside
+     * @return the offset of the positions
+     */
+    long offset(int outside) {
+        long offset = 0;
+        for (int k = 0; k < outside; k++) {
+            offset += count(k);
+        }
+        return offset;
+    }
+
+    /**
+     * Numbers a position.
+     *
+     * @param filled  the mask of the target cells holding a pawn, bit i for slot i
+     * @param pawns   the slots of the outside cells holding a pawn, in ascending order
+     * @param outside the number of pawns outside, the length used of the array
+     * @return the number of the position
+     */
+    long rank(int filled, int[] pawns, int outside) {
+        long empty = 0;
+        int members = 0;
+        for (int slot = 0; slot < m_targets.length; slot++) {
+            if ((filled & 1 << slot) == 0) {
+                members++;
+                empty += slot >= members ? m_binomials[slot][members] : 0;
+            }
+        }
+        long pawnSets = m_binomials[m_outside.length][outside];
+        long rank = 0;
+        for (int i = 0; i < outside; i++) {
+            rank += pawns[i] >= i + 1 ? m_binomials[pawns[i]][i + 1] : 0;
+        }
+        return offset(outside) + empty * pawnSets + rank;
+    }
+
+    /**
+     * Inserts a slot into the sorted start of an array.
+     *
+     * @param slots the array
+     * @param size  the number of slots already in it
+     * @param slot  the slot
+     */
+    static void insert(int[] slots, int size, int slot) {
+        int i = size;
+        while (i > 0 && slots[i - 1] > slot) {
+            slots[i] = slots[i - 1];
+            i--;
+        }
+        slots[i] = slot;
+    }
+
+    /**
+     * Turns the number of a position with a known number of pawns outside back into its sets.
+     *
+     * @param number  the number of the position within those with the same number of pawns outside
+     * @param outside the number of pawns outside
+     * @param empty   receives the slots of the empty target cells, in ascending order
+     * @param pawns   receives the slots of the outside cells holding a pawn, in ascending order
+     */
+    void unrank(long number, int outside, int[] empty, int[] pawns) {
+        long pawnSets = m_binomials[m_outside.length][outside];
+        unrank(number / pawnSets, outside, m_targets.length, empty);
+        unrank(number % pawnSets, outside, m_outside.length, pawns);
+    }
+
+    /**
+     * Turns a rank in the combinatorial number system back into its set.
+     *
+     * @param rank  the rank
+     * @param size  the size of the set
+     * @param range the number of possible members
+     * @param slots receives the members, in ascending order
+     */
+    private void unrank(long rank, int size, int range, int[] slots) {
+        int slot = range - 1;
+        for (int i = size; i > 0; i--) {
+            while (slot >= i && m_binomials[slot][i] > rank) {
+                slot--;
+            }
+            if (slot < i) {
+                slot = i - 1;
+            }
+            slots[i - 1] = slot;
+            rank -= slot >= i ? m_binomials[slot][i] : 0;
+            slot--;
+        }
+    }
+
+    /**
+     * Gets the neighbour table of the board.
+     *
+     * @return the neighbour table
+     */
+    NeighbourTable neighbourTable() {
+        return m_board.getNeighbourTable();
+    }
+}
\ No newline at end of file
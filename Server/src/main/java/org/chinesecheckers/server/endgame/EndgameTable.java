@@ -0,0 +1,138 @@
+package org.chinesecheckers.server.endgame;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only database of exact moves-to-finish for the last pawns of a player on the default board, written
+ * offline by {@link EndgameGenerator}. It covers every position of a player with at most a few pawns outside
+ * its target triangle, and gives the fewest moves that bring them all home when the other players are ignored.
+ * <p>
+ * The file is a small header followed by one byte per position, numbered by {@link EndgameLayout}. It is mapped
+ * into memory rather than read, so loading costs nothing until positions are probed, and every server process
+ * on the machine shares the same pages. A table is immutable and may be probed from any thread.
+ */
+public final class EndgameTable {
+    static final int MAGIC = 0x43434547;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 5 * Integer.BYTES;
+    static final int UNKNOWN = 0xFF;
+
+    private static final EndgameLayout LAYOUT = new EndgameLayout();
+
+    private final ByteBuffer m_entries;
+    private final int m_maxOutside;
+
+    /**
+     * Constructs a table over the specified entries.
+     *
+     * @param entries    the entries, one byte per position
+     * @param maxOutside the largest number of pawns outside the target triangle the entries cover
+     */
+    private EndgameTable(ByteBuffer entries, int maxOutside) {
+        this.m_entries = entries;
+        this.m_maxOutside = maxOutside;
+    }
+
+    /**
+     * Maps a table file into memory.
+     *
+     * @param path the path of the file
+     * @return the table
+     * @throws IOException if the file cannot be read or was written for another layout
+     */
+    public static EndgameTable load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an endgame table: " + path);
+            }
+            int maxOutside = buffer.getInt(8);
+            if (buffer.getInt(12) != LAYOUT.targetCount() || buffer.getInt(16) != LAYOUT.outsideCount()
+                    || maxOutside < 0 || maxOutside > LAYOUT.targetCount()
+                    || buffer.capacity() != HEADER_BYTES + LAYOUT.offset(maxOutside + 1)) {
+                throw new IOException("Endgame table written for another board: " + path);
+            }
+            return new EndgameTable(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES), maxOutside);
+        }
+    }
+
+    /**
+     * Gets the largest number of pawns outside the target triangle the table covers.
+     *
+     * @return the number of pawns
+     */
+    public int getMaxOutside() {
+        return m_maxOutside;
+    }
+
+    /**
+     * Looks up the moves a player needs to bring all its pawns home.
+     *
+     * @param bitBoard the board
+     * @param color    the color of the player
+     * @return the number of moves, or -1 if the position is not in the table
+     */
+    public int movesToFinish(BitBoard bitBoard, PlayerColor color) {
+        return movesToFinish(bitBoard, color, -1, -1);
+    }
+
+    /**
+     * Looks up the moves a player would need to bring all its pawns home after moving one pawn. The board itself
+     * is left as it is.
+     *
+     * @param bitBoard the board
+     * @param color    the color of the player
+     * @param from     the bit index of the cell the pawn leaves
+     * @param to       the bit index of the cell the pawn lands on
+     * @return the number of moves after the move, or -1 if that position is not in the table
+     */
+    public int movesToFinish(BitBoard bitBoard, PlayerColor color, int from, int to) {
+        if (!LAYOUT.covers(bitBoard, color)) {
+            return -1;
+        }
+        int targets = LAYOUT.targetCount();
+        int[] pawns = new int[m_maxOutside + 1];
+        int outside = 0;
+        int filled = 0;
+        int count = 0;
+        for (int index = bitBoard.nextPiece(color, 0); index >= 0; index = bitBoard.nextPiece(color, index + 1)) {
+            int code = LAYOUT.code(color, index == from ? to : index);
+            if (code == EndgameLayout.NOT_PLAYABLE) {
+                return -1;
+            }
+            count++;
+            if (code < targets) {
+                filled |= 1 << code;
+            } else if (outside == m_maxOutside) {
+                return -1;
+            } else {
+                EndgameLayout.insert(pawns, outside++, code - targets);
+            }
+        }
+        if (count != targets) {
+            return -1;
+        }
+        if (outside == 0) {
+            return 0;
+        }
+        int entry = m_entries.get((int) LAYOUT.rank(filled, pawns, outside)) & 0xFF;
+        return entry == UNKNOWN ? -1 : entry;
+    }
+
+    /**
+     * Gets the layout the table files are numbered by.
+     *
+     * @return the layout
+     */
+    static EndgameLayout layout() {
+        return LAYOUT;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,904 @@
+package org.chinesecheckers.server.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only journal of recorded games, kept in segment files of fixed-width records: one record starts a
+ * game, one record per move follows it, and board snapshots taken every so many moves lie among the moves.
+ * Records are gathered in a buffer and written through a {@link FileChannel}; a background thread writes and
+ * forces them to disk every sync interval, so a crash loses at most that much play. A segment is sealed once it
+ * reaches the segment size and a new one is started.
+ * <p>
+ * The positions of the records of every game are kept in an in-memory index, rebuilt by scanning the segments
+ * when the journal is opened. Moves and snapshots are read straight from the segments mapped into memory.
+ * <p>
+ * The moves of concurrent games are interleaved in the segments. {@link #compact()} rewrites all sealed
+ * segments into one, grouped by game, so that each game is read back sequentially. The compacted segment names
+ * the first segment it replaces in its header; if the journal stops before the replaced segments are deleted,
+ * they are deleted when it is opened again.
+ * <p>
+ * A record is 16 bytes: the game ID, the kind of the record, then the mode, players, bots and creation time in
+ * epoch seconds of a game, or the four coordinates of a move followed by three reserved bytes. A snapshot takes
+ * one record with the length of the board in two bytes, a reserved byte and the ply, followed by as many
+ * continuation records as its bytes need, seven to a record; a snapshot is never split across segments, and one
+ * whose continuation records were cut short is ignored. Every method may be called from any thread.
+ */
+public final class GameJournal implements Closeable {
+    static final int MAGIC = 0x43434A4E;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+    static final int RECORD_BYTES = 16;
+    private static final byte GAME = 1;
+    private static final byte MOVE = 2;
+    private static final byte SNAPSHOT = 3;
+    private static final byte SNAPSHOT_DATA = 4;
+    private static final int SNAPSHOT_CHUNK_BYTES = 7;
+    private static final int MAX_SNAPSHOT_BYTES = 0xFFFF;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+    private static final String COMPACTING_SUFFIX = ".compacting";
+    private static final String[] MODES = {"default", "diamond"};
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final Path m_directory;
+    private final long m_segmentBytes;
+    private final ByteBuffer m_pending = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final TreeMap<Integer, Segment> m_segments = new TreeMap<>();
+    private final Map<Long, GameEntry> m_games = new HashMap<>();
+    private final ScheduledExecutorService m_syncer;
+    private Segment m_active;
+    private FileChannel m_channel;
+    private long m_nextGameId = 1;
+    private boolean m_closed;
+
+    /**
+     * Constructs a journal over a directory; {@link #open} loads it.
+     *
+     * @param directory    the directory of the segment files
+     * @param segmentBytes the size at which a segment is sealed
+     * @param syncMillis   the interval between writes to disk, in milliseconds; 0 writes every record at once
+     */
+    private GameJournal(Path directory, long segmentBytes, long syncMillis) {
+        this.m_directory = directory;
+        this.m_segmentBytes = Math.max(HEADER_BYTES + RECORD_BYTES, segmentBytes);
+        if (syncMillis > 0) {
+            this.m_syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            m_syncer.scheduleWithFixedDelay(this::syncQuietly, syncMillis, syncMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.m_syncer = null;
+        }
+    }
+
+    /**
+     * Opens the journal in a directory, creating it if needed, and indexes the games in it.
+     *
+     * @param directory    the directory of the segment files
+     * @param segmentBytes the size at which a segment is sealed
+     * @param syncMillis   the interval between writes to disk, in milliseconds; 0 writes every record at once
+     * @return the journal
+     * @throws IOException if the directory cannot be read or holds a damaged segment
+     */
+    public static GameJournal open(Path directory, long segmentBytes, long syncMillis) throws IOException {
+        Files.createDirectories(directory);
+        GameJournal journal = new GameJournal(directory, segmentBytes, syncMillis);
+        try {
+            journal.load();
+        } catch (IOException e) {
+            journal.close();
+            throw e;
+        }
+        return journal;
+    }
+
+    /**
+     * Finds the segments, deletes those replaced by a compacted segment, indexes the records and opens the last
+     * segment for appending. A last segment cut short while its header was written, or in the middle of a record,
+     * is repaired.
+     *
+     * @throws IOException if a segment cannot be read or is damaged
+     */
+    private void load() throws IOException {
+        TreeMap<Integer, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(m_directory)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(PREFIX) && name.endsWith(COMPACTING_SUFFIX)) {
+                    Files.delete(path);
+                } else if (name.startsWith(PREFIX) && name.endsWith(SUFFIX)) {
+                    files.put(Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length())), path);
+                }
+            }
+        }
+        int floor = Integer.MAX_VALUE;
+        for (Map.Entry<Integer, Path> file : files.descendingMap().entrySet()) {
+            boolean torn = file.getKey().equals(files.lastKey()) && Files.size(file.getValue()) < HEADER_BYTES;
+            if (file.getKey() >= floor || torn) {
+                Files.delete(file.getValue());
+                continue;
+            }
+            Segment segment = new Segment(file.getKey(), file.getValue());
+            floor = Math.min(floor, readHeader(segment));
+            m_segments.put(segment.m_number, segment);
+        }
+
+        if (m_segments.isEmpty()) {
+            m_active = createSegment(1, 1);
+        } else {
+            m_active = m_segments.lastEntry().getValue();
+            m_channel = FileChannel.open(m_active.m_path, StandardOpenOption.WRITE);
+            long records = (m_channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            m_channel.truncate(HEADER_BYTES + records * RECORD_BYTES);
+            m_channel.position(m_channel.size());
+        }
+        index();
+    }
+
+    /**
+     * Reads the header of a segment and counts its records.
+     *
+     * @param segment the segment
+     * @return the number of the first segment it replaces, its own number unless it was compacted
+     * @throws IOException if the segment cannot be read or is not a journal segment
+     */
+    private static int readHeader(Segment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.m_path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a journal segment: " + segment.m_path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException("Not a journal segment: " + segment.m_path);
+            }
+            segment.m_records = (channel.size() - HEADER_BYTES) / RECORD_BYTES;
+            return header.getInt(8);
+        }
+    }
+
+    /**
+     * Creates an empty segment and makes it the active one.
+     *
+     * @param number the number of the segment
+     * @param first  the number of the first segment it replaces, its own number for a new segment
+     * @return the segment
+     * @throws IOException if the segment cannot be created
+     */
+    private Segment createSegment(int number, int first) throws IOException {
+        Segment segment = new Segment(number, m_directory.resolve(segmentName(number)));
+        m_channel = FileChannel.open(segment.m_path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        writeHeader(m_channel, first);
+        m_channel.force(true);
+        m_segments.put(number, segment);
+        return segment;
+    }
+
+    /**
+     * Writes the header of a segment.
+     *
+     * @param channel the channel of the segment
+     * @param first   the number of the first segment it replaces
+     * @throws IOException if the header cannot be written
+     */
+    private static void writeHeader(FileChannel channel, int first) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(first).putInt(0).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Rebuilds the index of the games from the records of every segment.
+     *
+     * @throws IOException if a segment cannot be mapped
+     */
+    private void index() throws IOException {
+        m_games.clear();
+        for (Segment segment : m_segments.values()) {
+            ByteBuffer records = view(segment);
+            for (long i = 0; i < segment.m_records; i++) {
+                int offset = (int) (HEADER_BYTES + i * RECORD_BYTES);
+                long gameId = records.getLong(offset);
+                long position = position(segment.m_number, i);
+                byte kind = records.get(offset + 8);
+                if (kind == GAME) {
+                    String mode = MODES[Math.min(records.get(offset + 9) & 0xFF, MODES.length - 1)];
+                    long created = Integer.toUnsignedLong(records.getInt(offset + 12));
+                    m_games.put(gameId, new GameEntry(mode, records.get(offset + 10) & 0xFF, records.get(offset + 11) & 0xFF,
+                            created == 0 ? null : Instant.ofEpochSecond(created), position));
+                    m_nextGameId = Math.max(m_nextGameId, gameId + 1);
+                } else if (kind == MOVE) {
+                    GameEntry game = m_games.get(gameId);
+                    if (game != null) {
+                        game.add(position);
+                    }
+                } else if (kind == SNAPSHOT) {
+                    int chunks = snapshotChunks(records, offset);
+                    GameEntry game = m_games.get(gameId);
+                    if (game != null && isWhole(records, segment, i, chunks)) {
+                        game.addSnapshot(records.getInt(offset + 12), position);
+                        i += chunks;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Records a new game.
+     *
+     * @param mode            the mode of the game
+     * @param numberOfPlayers the number of remote players
+     * @param numberOfBots    the number of bots
+     * @param createdAt       the time the game was created, kept to the second
+     * @return the ID of the game
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized long createGame(String mode, int numberOfPlayers, int numberOfBots, Instant createdAt) throws IOException {
+        long gameId = m_nextGameId++;
+        int modeCode = "diamond".equalsIgnoreCase(mode) ? 1 : 0;
+        Instant created = Instant.ofEpochSecond(createdAt.getEpochSecond());
+        long position = append(gameId, GAME, modeCode, numberOfPlayers, numberOfBots, (int) created.getEpochSecond());
+        m_games.put(gameId, new GameEntry(MODES[modeCode], numberOfPlayers, numberOfBots, created, position));
+        return gameId;
+    }
+
+    /**
+     * Counts the continuation records of a snapshot.
+     *
+     * @param records the mapped segment
+     * @param offset  the offset of the snapshot record
+     * @return the number of continuation records
+     */
+    private static int snapshotChunks(ByteBuffer records, int offset) {
+        int length = (records.get(offset + 9) & 0xFF) << 8 | records.get(offset + 10) & 0xFF;
+        return (length + SNAPSHOT_CHUNK_BYTES - 1) / SNAPSHOT_CHUNK_BYTES;
+    }
+
+    /**
+     * Checks that the continuation records of a snapshot follow it in full, as they do unless the journal stopped
+     * while writing them.
+     *
+     * @param records the mapped segment
+     * @param segment the segment
+     * @param record  the index of the snapshot record in the segment
+     * @param chunks  the number of continuation records
+     * @return true if every continuation record is there
+     */
+    private static boolean isWhole(ByteBuffer records, Segment segment, long record, int chunks) {
+        if (record + chunks >= segment.m_records) {
+            return false;
+        }
+        long gameId = records.getLong((int) (HEADER_BYTES + record * RECORD_BYTES));
+        for (long i = record + 1; i <= record + chunks; i++) {
+            int offset = (int) (HEADER_BYTES + i * RECORD_BYTES);
+            if (records.getLong(offset) != gameId || records.get(offset + 8) != SNAPSHOT_DATA) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Records a move of a game. Moves of unknown games are ignored.
+     *
+     * @param gameId the ID of the game
+     * @param fromX  the starting x-coordinate
+     * @param fromY  the starting y-coordinate
+     * @param toX    the ending x-coordinate
+     * @param toY    the ending y-coordinate
+     * @throws IOException if the record cannot be written
+     */
+    public synchronized void appendMove(long gameId, int fromX, int fromY, int toX, int toY) throws IOException {
+        GameEntry game = m_games.get(gameId);
+        if (game != null) {
+            game.add(append(gameId, MOVE, fromX, fromY, toX, toY << 24));
+        }
+    }
+
+    /**
+     * Records a board snapshot of a game, to start replays of it part-way through. Snapshots of unknown games are
+     * ignored.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made so far
+     * @param board  the snapshot of the board
+     * @throws IOException if the records cannot be written
+     */
+    public synchronized void appendSnapshot(long gameId, int ply, byte[] board) throws IOException {
+        GameEntry game = m_games.get(gameId);
+        if (game == null) {
+            return;
+        }
+        if (board.length > MAX_SNAPSHOT_BYTES) {
+            throw new IllegalArgumentException("Snapshot too large: " + board.length + " bytes");
+        }
+        int chunks = (board.length + SNAPSHOT_CHUNK_BYTES - 1) / SNAPSHOT_CHUNK_BYTES;
+        reserve(1 + chunks);
+        long position = put(gameId, SNAPSHOT, board.length >>> 8, board.length, 0, ply);
+        byte[] chunk = new byte[SNAPSHOT_CHUNK_BYTES];
+        for (int from = 0; from < board.length; from += SNAPSHOT_CHUNK_BYTES) {
+            Arrays.fill(chunk, (byte) 0);
+            System.arraycopy(board, from, chunk, 0, Math.min(SNAPSHOT_CHUNK_BYTES, board.length - from));
+            put(gameId, SNAPSHOT_DATA, chunk[0], chunk[1], chunk[2], ByteBuffer.wrap(chunk, 3, 4).getInt());
+        }
+        game.addSnapshot(ply, position);
+        if (m_syncer == null) {
+            sync();
+        }
+    }
+
+    /**
+     * Adds a record to the active segment, sealing it first if it is full.
+     *
+     * @param gameId the ID of the game
+     * @param kind   the kind of the record
+     * @param a      the first payload byte
+     * @param b      the second payload byte
+     * @param c      the third payload byte
+     * @param tail   the last four payload bytes
+     * @return the position of the record
+     * @throws IOException if the journal is closed or a segment cannot be written
+     */
+    private long append(long gameId, byte kind, int a, int b, int c, int tail) throws IOException {
+        reserve(1);
+        long position = put(gameId, kind, a, b, c, tail);
+        if (m_syncer == null) {
+            sync();
+        }
+        return position;
+    }
+
+    /**
+     * Makes room in the active segment for records that must stay together, sealing it first if they do not fit.
+     * Records that do not fit even into an empty segment go into one anyway, which then outgrows the segment size.
+     *
+     * @param records the number of records
+     * @throws IOException if the journal is closed or a segment cannot be written
+     */
+    private void reserve(int records) throws IOException {
+        if (m_closed) {
+            throw new IOException("Journal closed: " + m_directory);
+        }
+        if (m_active.m_records > 0 && HEADER_BYTES + (m_active.m_records + records) * RECORD_BYTES > m_segmentBytes) {
+            roll();
+        }
+    }
+
+    /**
+     * Buffers a record for the active segment.
+     *
+     * @param gameId the ID of the game
+     * @param kind   the kind of the record
+     * @param a      the first payload byte
+     * @param b      the second payload byte
+     * @param c      the third payload byte
+     * @param tail   the last four payload bytes
+     * @return the position of the record
+     * @throws IOException if the buffered records cannot be written
+     */
+    private long put(long gameId, byte kind, int a, int b, int c, int tail) throws IOException {
+        if (m_pending.remaining() < RECORD_BYTES) {
+            drain();
+        }
+        m_pending.putLong(gameId).put(kind).put((byte) a).put((byte) b).put((byte) c).putInt(tail);
+        return position(m_active.m_number, m_active.m_records++);
+    }
+
+    /**
+     * Seals the active segment and starts the next one.
+     *
+     * @throws IOException if a segment cannot be written
+     */
+    private void roll() throws IOException {
+        drain();
+        m_channel.force(false);
+        m_channel.close();
+        m_active = createSegment(m_active.m_number + 1, m_active.m_number + 1);
+    }
+
+    /**
+     * Writes the buffered records to the active segment.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    private void drain() throws IOException {
+        m_pending.flip();
+        while (m_pending.hasRemaining()) {
+            m_channel.write(m_pending);
+        }
+        m_pending.clear();
+    }
+
+    /**
+     * Writes the buffered records and forces them to disk.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    public synchronized void sync() throws IOException {
+        if (m_closed) {
+            return;
+        }
+        drain();
+        m_channel.force(false);
+    }
+
+    /**
+     * Syncs the journal on the sync thread, reporting failures instead of throwing them.
+     */
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            System.err.println("Error syncing game journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lists the recorded games, ordered by ID.
+     *
+     * @return the games
+     */
+    public synchronized List<JournalGame> games() {
+        List<JournalGame> games = new ArrayList<>(m_games.size());
+        for (Map.Entry<Long, GameEntry> entry : m_games.entrySet()) {
+            GameEntry game = entry.getValue();
+            games.add(new JournalGame(entry.getKey(), game.m_mode, game.m_players, game.m_bots, game.m_count, game.m_createdAt));
+        }
+        games.sort((first, second) -> Long.compare(first.id(), second.id()));
+        return games;
+    }
+
+    /**
+     * Gets one recorded game.
+     *
+     * @param gameId the ID of the game
+     * @return the game, or null if it is unknown
+     */
+    public synchronized JournalGame game(long gameId) {
+        GameEntry game = m_games.get(gameId);
+        return game == null ? null
+                : new JournalGame(gameId, game.m_mode, game.m_players, game.m_bots, game.m_count, game.m_createdAt);
+    }
+
+    /**
+     * Gets the moves of a game as recorded so far. The moves are read from the mapped segments when asked for,
+     * so this costs nothing per move; moves recorded later are not included.
+     *
+     * @param gameId the ID of the game
+     * @return the moves, or null if the game is unknown
+     * @throws IOException if a segment cannot be mapped
+     */
+    public synchronized Moves moves(long gameId) throws IOException {
+        GameEntry game = m_games.get(gameId);
+        if (game == null) {
+            return null;
+        }
+        if (m_pending.position() > 0) {
+            drain();
+        }
+        long[] positions = Arrays.copyOf(game.m_moves, game.m_count);
+        Map<Integer, ByteBuffer> views = new HashMap<>();
+        for (long position : positions) {
+            int number = (int) (position >>> 32);
+            if (!views.containsKey(number)) {
+                views.put(number, view(m_segments.get(number)));
+            }
+        }
+        return new Moves(positions, views);
+    }
+
+    /**
+     * Gets the latest snapshot of a game taken at or before a ply.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the ply
+     * @return the snapshot, or null if the game is unknown or has none that early
+     * @throws IOException if a segment cannot be mapped
+     */
+    public synchronized JournalSnapshot snapshot(long gameId, int ply) throws IOException {
+        GameEntry game = m_games.get(gameId);
+        int index = game == null ? -1 : game.findSnapshot(ply);
+        if (index < 0) {
+            return null;
+        }
+        if (m_pending.position() > 0) {
+            drain();
+        }
+        long position = game.m_snapshots[index];
+        ByteBuffer records = view(m_segments.get((int) (position >>> 32)));
+        int offset = (int) (HEADER_BYTES + (position & 0xFFFFFFFFL) * RECORD_BYTES);
+        byte[] board = new byte[(records.get(offset + 9) & 0xFF) << 8 | records.get(offset + 10) & 0xFF];
+        for (int from = 0; from < board.length; from += SNAPSHOT_CHUNK_BYTES) {
+            offset += RECORD_BYTES;
+            records.get(offset + 9, board, from, Math.min(SNAPSHOT_CHUNK_BYTES, board.length - from));
+        }
+        return new JournalSnapshot(game.m_snapshotPlies[index], board);
+    }
+
+    /**
+     * Rewrites the sealed segments into one, with the records of each game together and in game order. The
+     * active segment is sealed first, so every record written so far is compacted.
+     *
+     * @throws IOException if a segment cannot be read or written
+     */
+    public synchronized void compact() throws IOException {
+        if (m_closed) {
+            throw new IOException("Journal closed: " + m_directory);
+        }
+        roll();
+        List<Segment> sealed = new ArrayList<>(m_segments.headMap(m_active.m_number).values());
+        if (sealed.isEmpty()) {
+            return;
+        }
+        int first = sealed.getFirst().m_number;
+        int last = sealed.getLast().m_number;
+        Path target = m_directory.resolve(segmentName(last));
+        Path temporary = m_directory.resolve(PREFIX + last + COMPACTING_SUFFIX);
+        List<Long> ids = new ArrayList<>(m_games.keySet());
+        ids.sort(null);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeHeader(channel, first);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            for (long id : ids) {
+                GameEntry game = m_games.get(id);
+                copy(game.m_gamePosition, last, channel, buffer);
+                for (int i = 0; i < game.m_count; i++) {
+                    copy(game.m_moves[i], last, channel, buffer);
+                }
+                for (int i = 0; i < game.m_snapshotCount; i++) {
+                    copySnapshot(game.m_snapshots[i], last, channel, buffer);
+                }
+            }
+            write(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Segment segment : sealed) {
+            m_segments.remove(segment.m_number);
+            if (segment.m_number != last) {
+                Files.delete(segment.m_path);
+            }
+        }
+        Segment compacted = new Segment(last, target);
+        readHeader(compacted);
+        m_segments.put(last, compacted);
+        index();
+    }
+
+    /**
+     * Copies a record of a sealed segment into a compacted segment.
+     *
+     * @param position the position of the record
+     * @param last     the number of the last sealed segment; records of later segments are not copied
+     * @param channel  the channel of the compacted segment
+     * @param buffer   the write buffer of the compacted segment
+     * @throws IOException if the record cannot be read or written
+     */
+    private void copy(long position, int last, FileChannel channel, ByteBuffer buffer) throws IOException {
+        int number = (int) (position >>> 32);
+        if (number > last) {
+            return;
+        }
+        if (buffer.remaining() < RECORD_BYTES) {
+            write(channel, buffer);
+        }
+        ByteBuffer source = view(m_segments.get(number));
+        int offset = (int) (HEADER_BYTES + (position & 0xFFFFFFFFL) * RECORD_BYTES);
+        buffer.put(source.slice(offset, RECORD_BYTES));
+    }
+
+    /**
+     * Copies a snapshot of a sealed segment, with its continuation records, into a compacted segment.
+     *
+     * @param position the position of the snapshot record
+     * @param last     the number of the last sealed segment; snapshots of later segments are not copied
+     * @param channel  the channel of the compacted segment
+     * @param buffer   the write buffer of the compacted segment
+     * @throws IOException if the records cannot be read or written
+     */
+    private void copySnapshot(long position, int last, FileChannel channel, ByteBuffer buffer) throws IOException {
+        int number = (int) (position >>> 32);
+        if (number > last) {
+            return;
+        }
+        int offset = (int) (HEADER_BYTES + (position & 0xFFFFFFFFL) * RECORD_BYTES);
+        int chunks = snapshotChunks(view(m_segments.get(number)), offset);
+        for (int i = 0; i <= chunks; i++) {
+            copy(position + i, last, channel, buffer);
+        }
+    }
+
+    /**
+     * Writes a buffer to a channel and clears it.
+     *
+     * @param channel the channel
+     * @param buffer  the buffer
+     * @throws IOException if the buffer cannot be written
+     */
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Maps a segment into memory, or reuses its mapping if it still covers every written record.
+     *
+     * @param segment the segment
+     * @return the mapped segment, header included
+     * @throws IOException if the segment cannot be mapped
+     */
+    private ByteBuffer view(Segment segment) throws IOException {
+        long bytes = HEADER_BYTES + segment.m_records * RECORD_BYTES;
+        if (segment.m_view == null || segment.m_view.capacity() < bytes) {
+            try (FileChannel channel = FileChannel.open(segment.m_path, StandardOpenOption.READ)) {
+                segment.m_view = channel.map(FileChannel.MapMode.READ_ONLY, 0, bytes);
+            }
+        }
+        return segment.m_view;
+    }
+
+    /**
+     * Writes the buffered records, forces them to disk and closes the active segment.
+     *
+     * @throws IOException if the segment cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        if (m_syncer != null) {
+            m_syncer.shutdownNow();
+        }
+        synchronized (this) {
+            if (m_closed) {
+                return;
+            }
+            m_closed = true;
+            if (m_channel != null) {
+                drain();
+                m_channel.force(false);
+                m_channel.close();
+            }
+        }
+    }
+
+    /**
+     * Gets the file name of a segment.
+     *
+     * @param number the number of the segment
+     * @return the file name
+     */
+    private static String segmentName(int number) {
+        return String.format("%s%08d%s", PREFIX, number, SUFFIX);
+    }
+
+    /**
+     * Gets the position of a record.
+     *
+     * @param number the number of its segment
+     * @param record the index of the record in the segment
+     * @return the position
+     */
+    private static long position(int number, long record) {
+        return (long) number << 32 | record;
+    }
+
+    /**
+     * A recorded game.
+     *
+     * @param id              the ID of the game
+     * @param mode            the mode of the game
+     * @param numberOfPlayers the number of remote players
+     * @param numberOfBots    the number of bots
+     * @param moveCount       the number of moves recorded
+     * @param createdAt       the time the game was created, or null if the journal does not know it
+     */
+    public record JournalGame(long id, String mode, int numberOfPlayers, int numberOfBots, int moveCount, Instant createdAt) {
+    }
+
+    /**
+     * A recorded board snapshot.
+     *
+     * @param ply   the number of moves made when it was taken
+     * @param board the snapshot of the board
+     */
+    public record JournalSnapshot(int ply, byte[] board) {
+    }
+
+    /**
+     * The moves of a game, read from the mapped segments by index.
+     */
+    public static final class Moves {
+        private final long[] m_positions;
+        private final Map<Integer, ByteBuffer> m_views;
+
+        /**
+         * Constructs the moves of a game.
+         *
+         * @param positions the positions of the move records
+         * @param views     the mapped segments holding them, by number
+         */
+        private Moves(long[] positions, Map<Integer, ByteBuffer> views) {
+            this.m_positions = positions;
+            this.m_views = views;
+        }
+
+        /**
+         * Gets the number of moves.
+         *
+         * @return the number of moves
+         */
+        public int size() {
+            return m_positions.length;
+        }
+
+        /**
+         * Gets the starting x-coordinate of a move.
+         *
+         * @param i the index of the move
+         * @return the starting x-coordinate
+         */
+        public int fromX(int i) {
+            return payload(i, 0);
+        }
+
+        /**
+         * Gets the starting y-coordinate of a move.
+         *
+         * @param i the index of the move
+         * @return the starting y-coordinate
+         */
+        public int fromY(int i) {
+            return payload(i, 1);
+        }
+
+        /**
+         * Gets the ending x-coordinate of a move.
+         *
+         * @param i the index of the move
+         * @return the ending x-coordinate
+         */
+        public int toX(int i) {
+            return payload(i, 2);
+        }
+
+        /**
+         * Gets the ending y-coordinate of a move.
+         *
+         * @param i the index of the move
+         * @return the ending y-coordinate
+         */
+        public int toY(int i) {
+            return payload(i, 3);
+        }
+
+        /**
+         * Reads a payload byte of a move record.
+         *
+         * @param i         the index of the move
+         * @param byteIndex the index of the payload byte
+         * @return the byte, unsigned
+         */
+        private int payload(int i, int byteIndex) {
+            long position = m_positions[i];
+            ByteBuffer view = m_views.get((int) (position >>> 32));
+            return view.get((int) (HEADER_BYTES + (position & 0xFFFFFFFFL) * RECORD_BYTES) + 9 + byteIndex) & 0xFF;
+        }
+    }
+
+    /**
+     * A segment file.
+     */
+    private static final class Segment {
+        private final int m_number;
+        private final Path m_path;
+        private long m_records;
+        private ByteBuffer m_view;
+
+        /**
+         * Constructs a segment.
+         *
+         * @param number the number of the segment
+         * @param path   the path of its file
+         */
+        Segment(int number, Path path) {
+            this.m_number = number;
+            this.m_path = path;
+        }
+    }
+
+    /**
+     * The index entry of a game: its settings and the positions of its records. Snapshots are kept in the order
+     * of their plies, since a game records them in that order.
+     */
+    private static final class GameEntry {
+        private final String m_mode;
+        private final int m_players;
+        private final int m_bots;
+        private final Instant m_createdAt;
+        private final long m_gamePosition;
+        private long[] m_moves = new long[64];
+        private int m_count;
+        private int[] m_snapshotPlies = new int[4];
+        private long[] m_snapshots = new long[4];
+        private int m_snapshotCount;
+
+        /**
+         * Constructs the entry of a game.
+         *
+         * @param mode         the mode of the game
+         * @param players      the number of remote players
+         * @param bots         the number of bots
+         * @param createdAt    the time the game was created, or null
+         * @param gamePosition the position of the record that starts the game
+         */
+        GameEntry(String mode, int players, int bots, Instant createdAt, long gamePosition) {
+            this.m_mode = mode;
+            this.m_players = players;
+            this.m_bots = bots;
+            this.m_createdAt = createdAt;
+            this.m_gamePosition = gamePosition;
+        }
+
+        /**
+         * Adds the position of a move record.
+         *
+         * @param position the position
+         */
+        void add(long position) {
+            if (m_count == m_moves.length) {
+                m_moves = Arrays.copyOf(m_moves, m_count * 2);
+            }
+            m_moves[m_count++] = position;
+        }
+
+        /**
+         * Adds the position of a snapshot record.
+         *
+         * @param ply      the ply of the snapshot
+         * @param position the position
+         */
+        void addSnapshot(int ply, long position) {
+            if (m_snapshotCount == m_snapshots.length) {
+                m_snapshotPlies = Arrays.copyOf(m_snapshotPlies, m_snapshotCount * 2);
+                m_snapshots = Arrays.copyOf(m_snapshots, m_snapshotCount * 2);
+            }
+            m_snapshotPlies[m_snapshotCount] = ply;
+            m_snapshots[m_snapshotCount++] = position;
+        }
+
+        /**
+         * Finds the latest snapshot taken at or before a ply.
+         *
+         * @param ply the ply
+         * @return the index of the snapshot, or -1 if there is none
+         */
+        int findSnapshot(int ply) {
+            int index = Arrays.binarySearch(m_snapshotPlies, 0, m_snapshotCount, ply);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,287 @@
+package org.chinesecheckers.server.journal;
+
+import org.chinesecheckers.server.model.Game;
+import org.chinesecheckers.server.model.Move;
+import org.chinesecheckers.server.model.Snapshot;
+import org.chinesecheckers.server.repository.GameStore;
+import org.chinesecheckers.server.repository.GameSummary;
+import org.chinesecheckers.server.repository.MoveCursor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stores games in a {@link GameJournal} instead of the database. Games, moves and snapshots come back as
+ * unmanaged {@link Game}, {@link Move} and {@link Snapshot} objects, so callers need not know which store they use.
+ */
+public class JournalGameStore implements GameStore, Closeable {
+    private final GameJournal m_journal;
+
+    /**
+     * Constructs a JournalGameStore.
+     *
+     * @param journal the journal
+     */
+    public JournalGameStore(GameJournal journal) {
+        this.m_journal = journal;
+    }
+
+    /**
+     * Records a new game in the journal and gives it the ID of its record.
+     *
+     * @param game the game, with its mode and seats filled in
+     * @return the same game, with its ID set
+     */
+    @Override
+    public Game saveGame(Game game) {
+        try {
+            Instant createdAt = game.getCreatedAt() != null ? game.getCreatedAt() : Instant.now();
+            game.setId(m_journal.createGame(game.getMode(), game.getNumberOfPlayers(), game.getNumberOfBots(), createdAt));
+            return game;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a move to the journal.
+     *
+     * @param gameId the ID of the game
+     * @param ply    ignored; the journal keeps the moves of a game in order
+     * @param fromX  the starting x-coordinate
+     * @param fromY  the starting y-coordinate
+     * @param toX    the ending x-coordinate
+     * @param toY    the ending y-coordinate
+     */
+    @Override
+    public void saveMove(Long gameId, int ply, int fromX, int fromY, int toX, int toY) {
+        try {
+            m_journal.appendMove(gameId, fromX, fromY, toX, toY);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends a board snapshot to the journal.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made so far
+     * @param board  the snapshot of the board
+     */
+    @Override
+    public void saveSnapshot(Long gameId, int ply, byte[] board) {
+        try {
+            m_journal.appendSnapshot(gameId, ply, board);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the buffered records of the journal and forces them to disk.
+     *
+     * @return true if the records were written
+     */
+    @Override
+    public boolean flush() {
+        try {
+            m_journal.sync();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error syncing game journal: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Lists a page of the games of the journal, from its in-memory index.
+     *
+     * @param page the index of the page, from 0
+     * @param size the number of games per page
+     * @return the summaries of the page
+     */
+    @Override
+    public List<GameSummary> findGameSummaries(int page, int size) {
+        List<GameJournal.JournalGame> games = m_journal.games();
+        int from = (int) Math.min((long) page * size, games.size());
+        int to = (int) Math.min((long) from + size, games.size());
+        List<GameSummary> summaries = new ArrayList<>(to - from);
+        for (GameJournal.JournalGame game : games.subList(from, to)) {
+            summaries.add(summarize(game));
+        }
+        return summaries;
+    }
+
+    /**
+     * Gets the summary of one game of the journal, from its in-memory index.
+     *
+     * @param gameId the ID of the game
+     * @return the summary, or null if the journal has no such game
+     */
+    @Override
+    public GameSummary findGameSummary(Long gameId) {
+        GameJournal.JournalGame game = m_journal.game(gameId);
+        return game == null ? null : summarize(game);
+    }
+
+    /**
+     * Turns a game of the journal into a summary.
+     *
+     * @param game the game
+     * @return the summary
+     */
+    private static GameSummary summarize(GameJournal.JournalGame game) {
+        return new GameSummary(game.id(), game.mode(), game.numberOfPlayers(), game.numberOfBots(), game.moveCount(),
+                game.createdAt());
+    }
+
+    /**
+     * Reads the moves of a game from the journal.
+     *
+     * @param gameId the ID of the game
+     * @return the moves of the game, empty if it is unknown
+     */
+    @Override
+    public List<Move> findMovesByGameId(Long gameId) {
+        try {
+            GameJournal.Moves moves = m_journal.moves(gameId);
+            List<Move> result = new ArrayList<>(moves == null ? 0 : moves.size());
+            for (int i = 0; moves != null && i < moves.size(); i++) {
+                Move move = new Move();
+                move.setFromX(moves.fromX(i));
+                move.setFromY(moves.fromY(i));
+                move.setToX(moves.toX(i));
+                move.setToY(moves.toY(i));
+                result.add(move);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the latest snapshot of a game taken at or before a ply from the journal.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the ply
+     * @return the snapshot, or null if there is none
+     */
+    @Override
+    public Snapshot findSnapshot(Long gameId, int ply) {
+        try {
+            GameJournal.JournalSnapshot found = m_journal.snapshot(gameId, ply);
+            if (found == null) {
+                return null;
+            }
+            Snapshot snapshot = new Snapshot();
+            snapshot.setPly(found.ply());
+            snapshot.setBoard(found.board());
+            return snapshot;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a cursor over the moves of a game, read in place from the mapped segments; the fetch size does not
+     * matter, since nothing is copied.
+     *
+     * @param gameId    the ID of the game
+     * @param fromPly   the ply of the first move to read
+     * @param fetchSize ignored
+     * @return the cursor
+     */
+    @Override
+    public MoveCursor openMoves(Long gameId, int fromPly, int fetchSize) {
+        try {
+            return new JournalMoveCursor(m_journal.moves(gameId), fromPly);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the journal.
+     *
+     * @throws IOException if the journal cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        m_journal.close();
+    }
+
+    /**
+     * Walks the moves of a game as the journal recorded them.
+     */
+    private static class JournalMoveCursor implements MoveCursor {
+        private final GameJournal.Moves m_moves;
+        private int m_index;
+
+        /**
+         * Constructs a JournalMoveCursor before a move.
+         *
+         * @param moves   the moves, or null if the game is unknown
+         * @param fromPly the ply of the first move to read
+         */
+        JournalMoveCursor(GameJournal.Moves moves, int fromPly) {
+            this.m_moves = moves;
+            this.m_index = Math.max(0, fromPly) - 1;
+        }
+
+        /**
+         * Advances to the next move.
+         *
+         * @return true if there is a next move
+         */
+        @Override
+        public boolean next() {
+            return m_moves != null && ++m_index < m_moves.size();
+        }
+
+        /**
+         * Gets the starting x-coordinate of the current move.
+         *
+         * @return the starting x-coordinate
+         */
+        @Override
+        public int fromX() {
+            return m_moves.fromX(m_index);
+        }
+
+        /**
+         * Gets the starting y-coordinate of the current move.
+         *
+         * @return the starting y-coordinate
+         */
+        @Override
+        public int fromY() {
+            return m_moves.fromY(m_index);
+        }
+
+        /**
+         * Gets the ending x-coordinate of the current move.
+         *
+         * @return the ending x-coordinate
+         */
+        @Override
+        public int toX() {
+            return m_moves.toX(m_index);
+        }
+
+        /**
+         * Gets the ending y-coordinate of the current move.
+         *
+         * @return the ending y-coordinate
+         */
+        @Override
+        public int toY() {
+            return m_moves.toY(m_index);
+        }
+    }
+}
\ No newline at end of file
@@ -1,44 +1,83 @@
 package org.chinesecheckers.server.main;
 
 import org.chinesecheckers.server.model.Game;
-import org.chinesecheckers.server.model.Move;
-import org.chinesecheckers.server.repository.GameRepository;
-import org.chinesecheckers.server.repository.MoveRepository;
+import org.chinesecheckers.server.model.Snapshot;
+import org.chinesecheckers.server.repository.GameStore;
+import org.chinesecheckers.server.repository.GameSummary;
+import org.chinesecheckers.server.repository.MoveCursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import org.chinesecheckers.common.Coord;
+import org.chinesecheckers.common.MessageTokenizer;
+import org.chinesecheckers.common.MovedMessage;
 import org.chinesecheckers.common.PlayerColor;
-import org.chinesecheckers.common.Response;
-import org.chinesecheckers.common.ResponseInterpreter;
 import org.chinesecheckers.server.movement.*;
 import org.chinesecheckers.server.player.Bot;
+import org.chinesecheckers.server.player.LocalPlayer;
 import org.chinesecheckers.server.player.Player;
 import org.chinesecheckers.server.player.PlayerEntity;
 import org.chinesecheckers.server.player.PlayerLeftException;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.search.SearchSettings;
 import org.chinesecheckers.server.serverBoard.BoardFactory;
 import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
 import org.chinesecheckers.server.serverBoard.DiamondBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.transport.Connection;
 import org.chinesecheckers.server.movement.GameHandler;
-import java.net.Socket;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Manages a game session, including initializing the game, handling player moves, and managing game state.
+ * Every table gets its own session, with its own GameHandler and board.
+ * <p>
+ * After every move the players receive a {@code MOVED seq fromX fromY toX toY} delta. The full board is sent
+ * as {@code SYNC seq@BOARD ...} at the start, every {@link #SNAPSHOT_INTERVAL} moves and whenever a player
+ * asks for it with {@code SYNC}.
+ * <p>
+ * In-process players such as bots implement {@link LocalPlayer} and receive typed events instead; protocol
+ * lines are only built when at least one remote player is seated.
+ * <p>
+ * The first move of a turn may be a whole jump chain, {@code MOVE x1 y1 ... xn yn} or just its ends; it is
+ * applied and broadcast as a single move and ends the turn. Local players always move this way.
+ * <p>
+ * Every {@link #SNAPSHOT_INTERVAL} moves the pawns are also stored as a board snapshot next to the moves.
+ * <p>
+ * A session can also replay a recorded game to viewers with the same messages, steered by a
+ * {@link ReplayControl}. The moves are read through a {@link MoveCursor}, a fetch at a time, so a replay holds
+ * only the board and one batch of moves however long the game was. A seek starts from the nearest stored
+ * snapshot, so it applies fewer than {@link #SNAPSHOT_INTERVAL} moves wherever it lands.
  */
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 class GameSession {
-    @Autowired
-    private GameRepository m_gameRepository;
+    static final int SNAPSHOT_INTERVAL = 32;
+    private static final int JUMP_CHAIN = 3;
 
-    @Autowired
-    private MoveRepository m_moveRepository;
+    private final GameStore m_gameStore;
 
     private Game m_currentGame;
 
     @Autowired
     private GameHandler m_gameHandler;
+
+    @Value("${bot.strategies:greedy}")
+    private String m_botStrategies = "greedy";
+
+    @Value("${replay.moves-per-second:50}")
+    private int m_replaySpeed = 50;
+
+    @Value("${replay.fetch-size:256}")
+    private int m_replayFetchSize = 256;
+
+    @Autowired
+    private SearchSettings m_searchSettings = new SearchSettings(300, 1, null, null, null, null);
     private PlayerColor[] m_availableColors;
     private List<Player> m_players;
     private JumpVerificationCondition m_jumpStatus;
@@ -47,16 +86,29 @@ class GameSession {
     private int m_moveDistance = 0;
 
     private boolean m_turnFinished;
+    private int m_movesThisTurn;
     private int m_place;
+    private int m_sequence;
+    private int m_remotePlayers;
+    private String m_gameMode;
+    private int m_seats;
+    private List<Connection> m_viewers = List.of();
+    private GameSummary m_replayedGame;
+    private final MessageTokenizer m_tokenizer = new MessageTokenizer();
+    private final TurnPacer m_pacer;
 
     /**
      * Constructs a GameSession with the specified GameHandler.
      *
      * @param gameHandler the GameHandler to use for this session
+     * @param pacer the pacer of the bot decisions
+     * @param gameStore the store that records the games and serves the replays
      */
     @Autowired
-    GameSession(GameHandler gameHandler) {
+    GameSession(GameHandler gameHandler, TurnPacer pacer, GameStore gameStore) {
         this.m_gameHandler = gameHandler;
+        this.m_pacer = pacer;
+        this.m_gameStore = gameStore;
         this.m_players = new ArrayList<>();
         this.m_turnFinished = true;
         this.m_place = 1;
@@ -64,17 +116,40 @@ class GameSession {
     }
 
     /**
-     * Initializes the game session with the specified player sockets, game mode, number of bots, and sleep duration.
+     * Initializes the game session with the specified player connections, game mode and number of bots.
      *
-     * @param playerSockets the sockets of the players
+     * @param playerConnections the connections of the players
      * @param gameMode the mode of the game
      * @param numberOfBots the number of bots
-     * @param sleepDuration the sleep duration for bots
      * @throws Exception if an error occurs during initialization
      */
-    void initialize(List<Socket> playerSockets, String gameMode, int numberOfBots, int sleepDuration) throws Exception {
+    void initialize(List<Connection> playerConnections, String gameMode, int numberOfBots) throws Exception {
         m_players.clear(); // Clear the players list at the beginning
 
+        int numberOfPlayers = playerConnections.size();
+        initializeBoard(gameMode, numberOfPlayers + numberOfBots);
+
+        addPlayers(playerConnections);
+        addBots(numberOfBots, playerConnections.size());
+        m_remotePlayers = playerConnections.size();
+
+        // Initialize and save the game
+        m_currentGame = new Game();
+        m_currentGame.setMode(gameMode);
+        m_currentGame.setNumberOfPlayers(numberOfPlayers);
+        m_currentGame.setNumberOfBots(numberOfBots); // Save the number of bots
+        m_currentGame.setCreatedAt(Instant.now());
+        m_gameStore.saveGame(m_currentGame);
+    }
+
+    /**
+     * Sets up the starting board of a game and the colors of its seats.
+     *
+     * @param gameMode the mode of the game
+     * @param seats    the number of seats, bots included
+     * @throws GameException if the board cannot be created
+     */
+    private void initializeBoard(String gameMode, int seats) throws GameException {
         BoardFactory boardFactory;
         MovementStrategy movementStrategy;
 
@@ -86,53 +161,43 @@ class GameSession {
             movementStrategy = new DefaultMovementStrategy();
         }
 
-        int numberOfPlayers = playerSockets.size();
-        int total = numberOfPlayers + numberOfBots;
-
-        m_gameHandler.initialize(boardFactory, movementStrategy, total);
-        m_availableColors = m_gameHandler.getPossibleColorsForPlayers(total);
-
-        addPlayers(playerSockets);
-        addBots(numberOfBots, playerSockets.size(), sleepDuration);
-
-        // Initialize and save the game
-        m_currentGame = new Game();
-        m_currentGame.setMode(gameMode);
-        m_currentGame.setNumberOfPlayers(numberOfPlayers);
-        m_currentGame.setNumberOfBots(numberOfBots); // Save the number of bots
-        m_gameRepository.save(m_currentGame);
+        m_gameHandler.initialize(boardFactory, movementStrategy, seats);
+        m_availableColors = m_gameHandler.getPossibleColorsForPlayers(seats);
+        m_gameMode = gameMode;
+        m_seats = seats;
+        m_sequence = 0;
     }
 
     /**
      * Adds players to the game session.
      *
-     * @param playerSockets the sockets of the players
-     * @throws Exception if an error occurs while adding players
+     * @param playerConnections the connections of the players
      */
-    private void addPlayers(List<Socket> playerSockets) throws Exception {
-        int numberOfPlayers = playerSockets.size();
+    private void addPlayers(List<Connection> playerConnections) {
+        int numberOfPlayers = playerConnections.size();
 
         for (int i = 0; i < numberOfPlayers; i++) {
-            m_players.add(new PlayerEntity(playerSockets.get(i), m_availableColors[i]));
+            m_players.add(new PlayerEntity(playerConnections.get(i), m_availableColors[i]));
         }
     }
 
     /**
-     * Adds bots to the game session.
+     * Adds bots to the game session. The strategies listed in bot.strategies are given to the bots in turn.
      *
      * @param numberOfBots the number of bots
      * @param colorIndex the starting index for bot colors
-     * @param sleepDuration the sleep duration for bots
      */
-    private void addBots(int numberOfBots, int colorIndex, int sleepDuration) {
+    private void addBots(int numberOfBots, int colorIndex) {
+        String[] strategies = m_botStrategies.split(",");
         for (int i = colorIndex; i < numberOfBots + colorIndex; i++) {
             System.out.print("Added bot");
-            m_players.add(new Bot(m_availableColors[i], m_gameHandler, sleepDuration));
+            String strategy = strategies[(i - colorIndex) % strategies.length];
+            m_players.add(Bot.create(strategy, m_availableColors[i], m_gameHandler, m_searchSettings));
         }
     }
 
     /**
-     * Starts the game session.
+     * Starts the game session. Once the game is over, its moves are flushed to the database.
      */
     void start() {
         try {
@@ -145,6 +210,10 @@ class GameSession {
             System.err.println("Error " + e.getMessage());
             e.printStackTrace();
             endMatchWithError("Connection lost");
+        } finally {
+            if (!m_gameStore.flush()) {
+                System.err.println("Some moves of game " + m_currentGame.getId() + " could not be recorded");
+            }
         }
     }
 
@@ -153,16 +222,20 @@ class GameSession {
      */
     private void sendWelcomeToPlayers() {
         for (int i = 0; i < m_players.size(); i++) {
-            m_players.get(i).sendCommand("WELCOME " + m_availableColors[i]);
+            if (!(m_players.get(i) instanceof LocalPlayer)) {
+                m_players.get(i).sendCommand("WELCOME " + m_availableColors[i]);
+            }
         }
     }
 
     /**
-     * Sends the start board to all players.
+     * Sends the start board to all remote players.
      */
     private void sendStartBoardToPlayers() {
-        String command = "START@BOARD " + m_gameHandler.getBoardAsString();
-        sendToAll(command);
+        if (m_remotePlayers > 0) {
+            String command = "START@" + getSnapshotCommand();
+            sendToAll(command);
+        }
     }
 
     /**
@@ -187,11 +260,34 @@ class GameSession {
      */
     private void playTurnForPlayer(Player player) throws PlayerLeftException {
         setDefaultSettingsForNewTurn();
+        if (player instanceof LocalPlayer localPlayer) {
+            playLocalTurn(player, localPlayer);
+            return;
+        }
         player.sendCommand("YOU");
         System.out.println("Starts: " + player.getColor().toString());
         readResponsesAndExecute(player);
     }
 
+    /**
+     * Plays a turn for an in-process player, which makes one move: a step or a whole jump chain. A rejected
+     * move ends the turn as well, so a faulty player cannot stall the table. The decision is released by the
+     * pacer, which counts the time the player spent thinking against the move delay.
+     *
+     * @param player      the player whose turn it is
+     * @param localPlayer the same player, as an in-process player
+     */
+    private void playLocalTurn(Player player, LocalPlayer localPlayer) {
+        long decisionStart = System.nanoTime();
+        localPlayer.onTurnStarted();
+        PlayerMove move = localPlayer.nextMove();
+        m_pacer.awaitRelease(decisionStart);
+        if (move != null) {
+            verifyMoveAndExecute(player, move.fromX(), move.fromY(), move.toX(), move.toY());
+        }
+        m_turnFinished = true;
+    }
+
     /**
      * Sets the default settings for a new turn.
      */
@@ -201,6 +297,7 @@ class GameSession {
         m_conditions = new MoveValidationCondition[]{m_jumpStatus, m_previousPawn};
 
         m_turnFinished = false;
+        m_movesThisTurn = 0;
     }
 
     /**
@@ -211,28 +308,29 @@ class GameSession {
      */
     private void readResponsesAndExecute(Player player) throws PlayerLeftException {
         do {
-            Response response = readResponseFromPlayer(player);
-            executeResponse(player, response);
+            readResponseFromPlayerAndExecute(player);
         } while (!m_turnFinished);
     }
 
     /**
-     * Reads a response from the specified player.
+     * Reads a response from the specified player and executes its first message.
      *
      * @param player the player to read the response from
-     * @return the response from the player
      * @throws PlayerLeftException if the player leaves the game
      */
-    private Response readResponseFromPlayer(Player player) throws PlayerLeftException {
+    private void readResponseFromPlayerAndExecute(Player player) throws PlayerLeftException {
         String line = player.readResponse();
         if (line == null) {
             throw new PlayerLeftException("Player " + player.getColor().toString() + " left the game.");
         }
-        Response[] responses = ResponseInterpreter.getResponses(line);
-        if (responses.length != 1) {
+        int count = m_tokenizer.tokenize(line, response -> {
+            if (response.getIndex() == 0) {
+                executeResponse(player, response);
+            }
+        });
+        if (count != 1) {
             System.err.println("Error " + player.getColor().toString());
         }
-        return responses[0];
     }
 
     /**
@@ -241,12 +339,13 @@ class GameSession {
      * @param player the player who sent the response
      * @param response the response to execute
      */
-    private void executeResponse(Player player, Response response) {
+    private void executeResponse(Player player, MessageTokenizer response) {
         String responseType = response.getCode();
         switch (responseType) {
             case "SKIP" -> sendStopAndFinishTurn(player);
             case "CLUES" -> executeMovesResponse(player, response);
             case "MOVE" -> executeMoveResponse(player, response);
+            case "SYNC" -> player.sendCommand(getSnapshotCommand() + "@YOU");
             default -> sendNokAndPrintIncorrectResponse(player);
         }
     }
@@ -267,11 +366,11 @@ class GameSession {
      * @param player the player who sent the response
      * @param response the response to execute
      */
-    private void executeMovesResponse(Player player, Response response) {
-        boolean correctCluesResponse = response.getCode().equals("CLUES") && response.getNumbers().length == 2;
+    private void executeMovesResponse(Player player, MessageTokenizer response) {
+        boolean correctCluesResponse = response.isCode("CLUES") && response.getNumberCount() == 2;
         if (correctCluesResponse) {
-            int x = response.getNumbers()[0];
-            int y = response.getNumbers()[1];
+            int x = response.getNumber(0);
+            int y = response.getNumber(1);
             sendMoves(player, x, y);
         } else {
             sendNokAndPrintIncorrectResponse(player);
@@ -300,13 +399,14 @@ class GameSession {
      * @param player the player who sent the response
      * @param response the response to execute
      */
-    private void executeMoveResponse(Player player, Response response) {
-        boolean correctMoveResponse = response.getCode().equals("MOVE") && response.getNumbers().length == 4;
+    private void executeMoveResponse(Player player, MessageTokenizer response) {
+        int count = response.getNumberCount();
+        boolean correctMoveResponse = response.isCode("MOVE") && count >= 4 && count % 2 == 0;
         if (correctMoveResponse) {
-            int fromX = response.getNumbers()[0];
-            int fromY = response.getNumbers()[1];
-            int toX = response.getNumbers()[2];
-            int toY = response.getNumbers()[3];
+            int fromX = response.getNumber(0);
+            int fromY = response.getNumber(1);
+            int toX = response.getNumber(count - 2);
+            int toY = response.getNumber(count - 1);
             verifyMoveAndExecute(player, fromX, fromY, toX, toY);
         } else {
             sendNokAndPrintIncorrectResponse(player);
@@ -314,7 +414,8 @@ class GameSession {
     }
 
     /**
-     * Verifies and executes a move from the player.
+     * Verifies and executes a move from the player. A move that is not a single step or jump is accepted as a
+     * jump chain when it is the first move of the turn and the pawn can reach its destination by jumping.
      *
      * @param player the player who sent the move
      * @param fromX the starting x-coordinate
@@ -326,7 +427,13 @@ class GameSession {
         m_previousPawn.setCurrentXY(fromX, fromY);
 
         m_moveDistance = m_gameHandler.verifyMove(fromX, fromY, toX, toY, m_conditions);
-        if (m_moveDistance == 0) {
+        if (m_moveDistance == 0 && m_movesThisTurn == 0 && m_gameHandler.findJumpChain(fromX, fromY, toX, toY) != null) {
+            m_moveDistance = JUMP_CHAIN;
+        }
+        if (m_moveDistance == 0 && player instanceof LocalPlayer) {
+            System.err.println("Rejected move of " + player.getColor().toString());
+            m_turnFinished = true;
+        } else if (m_moveDistance == 0) {
             player.sendCommand("NOK");
         } else {
             makeMove(player, fromX, fromY, toX, toY);
@@ -334,7 +441,8 @@ class GameSession {
     }
 
     /**
-     * Makes a move for the player and updates the game state.
+     * Makes a move for the player and updates the game state. The move is handed to the game store, which may
+     * write it later, followed by a snapshot of the board every {@link #SNAPSHOT_INTERVAL} moves.
      *
      * @param player the player making the move
      * @param fromX the starting x-coordinate
@@ -343,28 +451,28 @@ class GameSession {
      * @param toY the ending y-coordinate
      */
     private void makeMove(Player player, int fromX, int fromY, int toX, int toY) {
+        m_movesThisTurn++;
         m_jumpStatus.setStatus(m_moveDistance);
         m_previousPawn.setPreviousXY(toX, toY);
         m_gameHandler.makeMove(fromX, fromY, toX, toY);
-
-        Move move = new Move();
-        move.setFromX(fromX);
-        move.setFromY(fromY);
-        move.setToX(toX);
-        move.setToY(toY);
-        move.setGame(m_currentGame);
-        m_moveRepository.save(move);
+        m_gameStore.saveMove(m_currentGame.getId(), m_sequence, fromX, fromY, toX, toY);
+        m_sequence++;
+        if (m_sequence % SNAPSHOT_INTERVAL == 0) {
+            m_gameStore.saveSnapshot(m_currentGame.getId(), m_sequence, m_gameHandler.getBoard().getBitBoard().snapshot());
+        }
 
         boolean playerFinished = m_gameHandler.isWinner(player.getColor());
+        MovedMessage update = m_remotePlayers == 0 ? null : new MovedMessage(m_sequence, fromX, fromY, toX, toY);
+        broadcastMove(fromX, fromY, toX, toY);
 
         if (playerFinished) {
-            makePlayerFinishedAndSendResponses(player);
+            makePlayerFinishedAndSendResponses(player, update);
             m_turnFinished = true;
-        } else if (m_moveDistance == 1) {
-            sendResponsesAfterShortJump(player);
+        } else if (m_moveDistance != 2 || player instanceof LocalPlayer) {
+            sendResponsesAfterShortJump(player, update);
             m_turnFinished = true;
         } else {
-            sendResponsesAfterLongJump(player);
+            sendResponsesAfterLongJump(player, update);
         }
     }
 
@@ -372,36 +480,86 @@ class GameSession {
      * Marks the player as finished and sends the appropriate responses.
      *
      * @param player the player who finished
+     * @param update the delta of the move, or null if no remote player is seated
      */
-    private void makePlayerFinishedAndSendResponses(Player player) {
+    private void makePlayerFinishedAndSendResponses(Player player, MovedMessage update) {
         System.out.println("Player " + player.getColor().toString() + " ended on " + m_place);
-        player.sendCommand("END " + m_place);
+        if (!(player instanceof LocalPlayer)) {
+            player.sendCommand("END " + m_place);
+        }
         player.setFinished(true);
         m_place++;
-        sendToAll("BOARD " + m_gameHandler.getBoardAsString());
+        sendUpdateToRemote(update, null);
     }
 
     /**
-     * Sends responses after a short jump move.
+     * Sends responses after a move that ends the turn: a step, a jump chain or any move of a local player.
      *
      * @param player the player who made the move
+     * @param update the delta of the move, or null if no remote player is seated
      */
-    private void sendResponsesAfterShortJump(Player player) {
-        player.sendCommand("OK@STOP");
-        sendToAll("BOARD " + m_gameHandler.getBoardAsString());
+    private void sendResponsesAfterShortJump(Player player, MovedMessage update) {
+        if (!(player instanceof LocalPlayer)) {
+            player.sendCommand("OK@STOP");
+        }
+        sendUpdateToRemote(update, null);
     }
 
     /**
      * Sends responses after a long jump move.
      *
      * @param player the player who made the move
+     * @param update the delta of the move
      */
-    private void sendResponsesAfterLongJump(Player player) {
-        String command = "OK@BOARD " + m_gameHandler.getBoardAsString();
-        player.sendCommand(command);
+    private void sendResponsesAfterLongJump(Player player, MovedMessage update) {
+        player.sendCommand("OK@" + getUpdateCommand(update));
+        sendUpdateToRemote(update, player);
+    }
+
+    /**
+     * Tells every in-process player about a move applied to the board.
+     *
+     * @param fromX the starting x-coordinate
+     * @param fromY the starting y-coordinate
+     * @param toX the ending x-coordinate
+     * @param toY the ending y-coordinate
+     */
+    private void broadcastMove(int fromX, int fromY, int toX, int toY) {
+        for (Player player : m_players) {
+            if (player instanceof LocalPlayer localPlayer) {
+                localPlayer.onMoveApplied(fromX, fromY, toX, toY);
+            }
+        }
+    }
+
+    /**
+     * Checks whether the move that brought the board to the current sequence number is sent as a full snapshot
+     * instead of a delta, which happens every {@link #SNAPSHOT_INTERVAL} moves. The caller advances the sequence
+     * number first.
+     *
+     * @return true if the board is sent in full
+     */
+    private boolean isSnapshotDue() {
+        return m_sequence % SNAPSHOT_INTERVAL == 0;
+    }
 
-        String msg = "BOARD " + m_gameHandler.getBoardAsString();
-        sendToAllExceptOne(msg, player);
+    /**
+     * Gets the board update of a move as a line: its delta, or the full snapshot when one is due.
+     *
+     * @param update the delta of the move
+     * @return the board update command
+     */
+    private String getUpdateCommand(MovedMessage update) {
+        return isSnapshotDue() ? getSnapshotCommand() : update.toString();
+    }
+
+    /**
+     * Gets the full board snapshot tagged with the current sequence number.
+     *
+     * @return the snapshot command
+     */
+    private String getSnapshotCommand() {
+        return "SYNC " + m_sequence + "@BOARD " + m_gameHandler.getBoardAsString();
     }
 
     /**
@@ -469,14 +627,26 @@ class GameSession {
     }
 
     /**
-     * Sends a command to all players except one.
+     * Sends the board update of a move to all remote players except one: the delta as it is, or the full
+     * snapshot when one is due.
      *
-     * @param command the command to send
-     * @param excluded the player to exclude
+     * @param update the delta of the move, or null if no remote player is seated
+     * @param excluded the player to exclude, or null
      */
-    private void sendToAllExceptOne(String command, Player excluded) {
+    private void sendUpdateToRemote(MovedMessage update, Player excluded) {
+        if (update == null) {
+            return;
+        }
+        String snapshot = isSnapshotDue() ? getSnapshotCommand() : null;
         for (Player player : m_players) {
-            if (player != excluded) player.sendCommand(command);
+            if (player == excluded || player instanceof LocalPlayer) {
+                continue;
+            }
+            if (snapshot != null) {
+                player.sendCommand(snapshot);
+            } else {
+                player.sendMoved(update);
+            }
         }
     }
 
@@ -515,21 +685,172 @@ class GameSession {
     }
 
     /**
-     * Replays the moves for the specified game ID.
+     * Prepares the session to replay a recorded game: sets up the starting board of the game, without seating
+     * players or recording a new game.
      *
-     * @param gameId the ID of the game to replay
+     * @param viewers the connections of the viewers; with none, the moves are printed to the console
+     * @param gameId  the ID of the game
+     * @return true if the game was found
+     * @throws GameException if the board cannot be created
      */
-    void replayMoves(Long gameId) {
-        List<Move> moves = m_moveRepository.findMovesByGameId(gameId);
-        for (Move move : moves) {
-            System.out.println("Move from (" + move.getFromX() + ", " + move.getFromY() + ") to (" + move.getToX() + ", " + move.getToY() + ")");
-            m_gameHandler.makeMove(move.getFromX(), move.getFromY(), move.getToX(), move.getToY());
-            sendToAll("BOARD " + m_gameHandler.getBoardAsString());
-            try {
-                Thread.sleep(20); // Add delay to simulate real-time replay
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
+    boolean initializeReplay(List<Connection> viewers, Long gameId) throws GameException {
+        GameSummary game = m_gameStore.findGameSummary(gameId);
+        if (game == null) {
+            return false;
+        }
+        m_players.clear();
+        m_viewers = List.copyOf(viewers);
+        m_remotePlayers = m_viewers.size();
+        m_replayedGame = game;
+        initializeBoard(game.mode(), game.numberOfPlayers() + game.numberOfBots());
+        return true;
+    }
+
+    /**
+     * Creates a control for a replay of this session, starting at the configured replay.moves-per-second.
+     *
+     * @param holdAtEnd whether the replay waits for a seek at the end of the game instead of finishing
+     * @return the control
+     */
+    ReplayControl newReplayControl(boolean holdAtEnd) {
+        return new ReplayControl(m_replaySpeed, holdAtEnd);
+    }
+
+    /**
+     * Replays the game prepared by {@link #initializeReplay}. The viewers get the starting board, then a delta
+     * per move at the speed of the control, with a full board every {@link #SNAPSHOT_INTERVAL} moves. At max
+     * speed only the full boards are sent, so a fast replay cannot flood their queues. A seek jumps to the
+     * nearest stored snapshot when that is closer, applies the moves up to its ply without sending anything and
+     * then sends the board once.
+     *
+     * @param control the control that steers the replay
+     * @throws GameException if the board cannot be set up again for a seek back
+     */
+    void replay(ReplayControl control) throws GameException {
+        MoveCursor cursor = m_gameStore.openMoves(m_replayedGame.id(), 0, m_replayFetchSize);
+        int target = -1;
+        boolean behind = false;
+        sendBoardToViewers("START@");
+        long lastShown = System.nanoTime();
+        while (!control.isStopped()) {
+            int seek = control.takeSeek();
+            if (seek >= 0) {
+                cursor = jumpTowards(seek, cursor);
+                target = seek;
+            }
+
+            if (target >= 0) {
+                if (m_sequence < target && cursor.next()) {
+                    applyReplayedMove(cursor);
+                    m_sequence++;
+                    continue;
+                }
+                target = -1;
+                sendBoardToViewers("");
+                behind = false;
+                lastShown = System.nanoTime();
+            } else if (control.awaitNextMove(lastShown)) {
+                if (!cursor.next()) {
+                    if (behind) {
+                        sendBoardToViewers("");
+                        behind = false;
+                    }
+                    if (!control.awaitSeekAtEnd()) {
+                        break;
+                    }
+                    continue;
+                }
+                applyReplayedMove(cursor);
+                m_sequence++;
+                if (control.isMaxSpeed()) {
+                    behind = m_sequence % SNAPSHOT_INTERVAL != 0;
+                    if (!behind) {
+                        sendBoardToViewers("");
+                    }
+                } else {
+                    sendUpdateToViewers(cursor);
+                    behind = false;
+                }
+                lastShown = System.nanoTime();
             }
         }
     }
+
+    /**
+     * Moves the board of a replay to the latest snapshot at or before a ply, when that is closer to the ply than
+     * the current board, and opens a cursor at the snapshot. Going back with no snapshot to go to starts again
+     * from the first move.
+     *
+     * @param ply    the ply the replay seeks to
+     * @param cursor the cursor of the replay
+     * @return the cursor to continue from
+     * @throws GameException if the board cannot be set up again
+     */
+    private MoveCursor jumpTowards(int ply, MoveCursor cursor) throws GameException {
+        boolean back = ply < m_sequence;
+        Snapshot snapshot = m_gameStore.findSnapshot(m_replayedGame.id(), ply);
+        if (snapshot != null && (back || snapshot.getPly() > m_sequence)) {
+            m_gameHandler.getBoard().getBitBoard().restore(snapshot.getBoard());
+            m_sequence = snapshot.getPly();
+        } else if (back) {
+            initializeBoard(m_gameMode, m_seats);
+        } else {
+            return cursor;
+        }
+        return m_gameStore.openMoves(m_replayedGame.id(), m_sequence, m_replayFetchSize);
+    }
+
+    /**
+     * Applies the current move of a replay to the board, and prints it when nobody is watching remotely.
+     *
+     * @param cursor the cursor, on the move
+     */
+    private void applyReplayedMove(MoveCursor cursor) {
+        if (m_viewers.isEmpty()) {
+            System.out.println("Move from (" + cursor.fromX() + ", " + cursor.fromY() + ") to (" + cursor.toX() + ", " + cursor.toY() + ")");
+        }
+        m_gameHandler.makeMove(cursor.fromX(), cursor.fromY(), cursor.toX(), cursor.toY());
+    }
+
+    /**
+     * Sends the full board to the viewers of a replay, if there are any.
+     *
+     * @param prefix the commands to send before the board
+     */
+    private void sendBoardToViewers(String prefix) {
+        if (!m_viewers.isEmpty()) {
+            sendToViewers(prefix + getSnapshotCommand());
+        }
+    }
+
+    /**
+     * Sends the board update of the current move of a replay to its viewers: the delta as it is, or the full
+     * snapshot when one is due.
+     *
+     * @param cursor the cursor, on the move
+     */
+    private void sendUpdateToViewers(MoveCursor cursor) {
+        if (isSnapshotDue()) {
+            sendBoardToViewers("");
+            return;
+        }
+        if (m_viewers.isEmpty()) {
+            return;
+        }
+        MovedMessage update = new MovedMessage(m_sequence, cursor.fromX(), cursor.fromY(), cursor.toX(), cursor.toY());
+        for (Connection viewer : m_viewers) {
+            viewer.writeMoved(update);
+        }
+    }
+
+    /**
+     * Sends a command to the viewers of a replay.
+     *
+     * @param command the command to send
+     */
+    private void sendToViewers(String command) {
+        for (Connection viewer : m_viewers) {
+            viewer.writeLine(command);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,328 @@
+package org.chinesecheckers.server.main;
+
+import org.chinesecheckers.common.ClientMessage;
+import org.chinesecheckers.server.transport.Connection;
+import org.chinesecheckers.server.transport.Transport;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Accepts connections continuously and groups them into tables by the requested game mode and player count.
+ * Connections come from the configured {@link Transport}; every join handshake and every full table run on their
+ * own virtual threads, so idle connections and blocked sessions do not hold platform threads.
+ * <p>
+ * A client opens with {@code JOIN <mode> <players> <bots>}, where players is the table size including bots,
+ * or with {@code REPLAY <gameId>} to watch a recorded game. A viewer steers its replay with {@code PAUSE},
+ * {@code RESUME}, {@code SPEED <moves per second>} (0 for max speed), {@code SEEK <ply>} and {@code STOP}; the
+ * replay waits at the end of the game until the viewer seeks back or stops.
+ */
+@Component
+class Lobby {
+    private final ObjectProvider<GameSession> m_sessionProvider;
+    private final ExecutorService m_executor;
+    private final Map<TableKey, List<Connection>> m_waiting = new HashMap<>();
+    private final Map<GameSession, TableKey> m_runningTables = new ConcurrentHashMap<>();
+    private final Transport m_transport;
+
+    /**
+     * Constructs a Lobby that creates sessions through the specified provider.
+     *
+     * @param sessionProvider the provider of new game sessions
+     * @param transport       the transport that accepts the connections
+     */
+    Lobby(ObjectProvider<GameSession> sessionProvider, Transport transport) {
+        this.m_sessionProvider = sessionProvider;
+        this.m_transport = transport;
+        this.m_executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * Starts accepting connections in the background. The join handshake runs off the transport thread.
+     *
+     * @throws Exception if the transport cannot be started
+     */
+    void start() throws Exception {
+        m_transport.start(connection -> m_executor.execute(() -> handshake(connection)));
+    }
+
+    /**
+     * Reads the join request of a new connection and places it at a waiting table.
+     *
+     * @param connection the new connection
+     */
+    private void handshake(Connection connection) {
+        try {
+            String line = connection.readLine();
+            long replayedGame = line == null ? -1 : readReplayRequest(line);
+            if (replayedGame >= 0) {
+                startReplay(replayedGame, connection);
+                return;
+            }
+            TableKey key = line == null ? null : readJoinRequest(line);
+            if (key == null) {
+                connection.writeLine("ERROR Wrong join request");
+                connection.close();
+                return;
+            }
+            join(key, connection);
+        } catch (Exception e) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Parses a join request.
+     *
+     * @param line the line sent by the client
+     * @return the requested table, or null if the request is invalid
+     */
+    private TableKey readJoinRequest(String line) {
+        ClientMessage[] responses = ClientMessage.getResponses(line);
+        if (responses.length != 1 || !responses[0].getCode().equals("JOIN")) {
+            return null;
+        }
+        String[] words = responses[0].getWords();
+        int[] numbers = responses[0].getNumbers();
+        if (words.length != 1 || numbers.length < 1 || numbers.length > 2) {
+            return null;
+        }
+        String mode = words[0].toLowerCase();
+        int players = numbers[0];
+        int bots = numbers.length == 2 ? numbers[1] : 0;
+        boolean correctMode = mode.equals("default") || mode.equals("diamond");
+        boolean correctPlayers = players == 2 || players == 3 || players == 4 || players == 6;
+        if (!correctMode || !correctPlayers || bots < 0 || bots >= players) {
+            return null;
+        }
+        return new TableKey(mode, players, bots);
+    }
+
+    /**
+     * Parses a replay request.
+     *
+     * @param line the line sent by the client
+     * @return the ID of the game to replay, or -1 if the line is not a replay request
+     */
+    private long readReplayRequest(String line) {
+        ClientMessage[] responses = ClientMessage.getResponses(line);
+        if (responses.length != 1 || !responses[0].getCode().equals("REPLAY") || responses[0].getNumbers().length != 1) {
+            return -1;
+        }
+        return responses[0].getNumbers()[0];
+    }
+
+    /**
+     * Adds a connection to the waiting table and starts the table once enough players have joined. Players who
+     * left while waiting are dropped from the table first, so a table never starts with an empty seat; a player
+     * who leaves later is dropped as soon as the connection ends.
+     *
+     * @param key        the requested table
+     * @param connection the connection of the player
+     */
+    private void join(TableKey key, Connection connection) {
+        List<Connection> seated = null;
+        synchronized (m_waiting) {
+            List<Connection> waiting = m_waiting.computeIfAbsent(key, k -> new ArrayList<>());
+            waiting.removeIf(Connection::isClosed);
+            waiting.add(connection);
+            if (waiting.size() == key.humans()) {
+                seated = waiting;
+                m_waiting.remove(key);
+            }
+        }
+        if (seated != null) {
+            startTable(key, seated);
+        } else {
+            connection.onClose(() -> leave(key, connection));
+        }
+    }
+
+    /**
+     * Drops a player who left from the waiting table. Does nothing if the table has started already.
+     *
+     * @param key        the requested table
+     * @param connection the connection of the player
+     */
+    private void leave(TableKey key, Connection connection) {
+        synchronized (m_waiting) {
+            List<Connection> waiting = m_waiting.get(key);
+            if (waiting != null && waiting.remove(connection) && waiting.isEmpty()) {
+                m_waiting.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Creates a session for a full table and plays it on its own virtual thread.
+     *
+     * @param key         the table
+     * @param connections the connections of the seated players
+     */
+    private void startTable(TableKey key, List<Connection> connections) {
+        GameSession session = m_sessionProvider.getObject();
+        m_executor.execute(() -> {
+            m_runningTables.put(session, key);
+            try {
+                System.out.println("Game starts: " + key);
+                session.initialize(connections, key.mode(), key.bots());
+                session.start();
+            } catch (Exception e) {
+                System.err.println("Error " + e.getMessage());
+            } finally {
+                m_runningTables.remove(session);
+                for (Connection connection : connections) {
+                    connection.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Replays a recorded game to a viewer on its own virtual thread, while another reads the commands of the
+     * viewer.
+     *
+     * @param gameId     the ID of the game
+     * @param connection the connection of the viewer
+     */
+    private void startReplay(long gameId, Connection connection) {
+        GameSession session = m_sessionProvider.getObject();
+        ReplayControl control = session.newReplayControl(true);
+        m_executor.execute(() -> {
+            try {
+                if (!session.initializeReplay(List.of(connection), gameId)) {
+                    connection.writeLine("ERROR Unknown game");
+                    return;
+                }
+                m_executor.execute(() -> readReplayCommands(connection, control));
+                session.replay(control);
+            } catch (Exception e) {
+                System.err.println("Error " + e.getMessage());
+            } finally {
+                control.stop();
+                connection.close();
+            }
+        });
+    }
+
+    /**
+     * Reads the commands of a viewer and applies them to its replay until the viewer leaves or the replay ends.
+     *
+     * @param connection the connection of the viewer
+     * @param control    the control of the replay
+     */
+    private void readReplayCommands(Connection connection, ReplayControl control) {
+        try {
+            for (String line = connection.readLine(); line != null && !control.isStopped(); line = connection.readLine()) {
+                for (ClientMessage command : ClientMessage.getResponses(line)) {
+                    boolean oneNumber = command.getNumbers().length == 1;
+                    switch (command.getCode()) {
+                        case "PAUSE" -> control.pause();
+                        case "RESUME" -> control.resume();
+                        case "SPEED" -> {
+                            if (oneNumber) {
+                                control.setSpeed(command.getNumbers()[0]);
+                            } else {
+                                connection.writeLine("NOK");
+                            }
+                        }
+                        case "SEEK" -> {
+                            if (oneNumber) {
+                                control.seek(command.getNumbers()[0]);
+                            } else {
+                                connection.writeLine("NOK");
+                            }
+                        }
+                        case "STOP" -> control.stop();
+                        default -> connection.writeLine("NOK");
+                    }
+                }
+            }
+        } catch (Exception ignored) {
+        } finally {
+            control.stop();
+        }
+    }
+
+    /**
+     * Describes the tables currently being played.
+     *
+     * @return a description of each running table
+     */
+    List<String> describeRunningTables() {
+        List<String> descriptions = new ArrayList<>();
+        for (TableKey key : m_runningTables.values()) {
+            descriptions.add(key.toString());
+        }
+        return descriptions;
+    }
+
+    /**
+     * Counts the players waiting for their table to fill up.
+     *
+     * @return the number of waiting players
+     */
+    int countWaitingPlayers() {
+        synchronized (m_waiting) {
+            int count = 0;
+            for (List<Connection> waiting : m_waiting.values()) {
+                count += waiting.size();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Stops accepting connections and disconnects waiting players.
+     */
+    @PreDestroy
+    void stop() {
+        m_transport.stop();
+        synchronized (m_waiting) {
+            for (List<Connection> waiting : m_waiting.values()) {
+                for (Connection connection : waiting) {
+                    connection.close();
+                }
+            }
+            m_waiting.clear();
+        }
+        m_executor.shutdownNow();
+    }
+
+    /**
+     * Identifies a kind of table: the game mode, the table size and how many of the seats are bots.
+     *
+     * @param mode    the game mode
+     * @param players the number of seats, bots included
+     * @param bots    the number of bots
+     */
+    private record TableKey(String mode, int players, int bots) {
+
+        /**
+         * Gets the number of human players needed to start the table.
+         *
+         * @return the number of human players
+         */
+        int humans() {
+            return players - bots;
+        }
+
+        /**
+         * Returns a string representation of the table.
+         *
+         * @return a string representation of the table
+         */
+        @Override
+        public String toString() {
+            return mode + " table, " + humans() + " players and " + bots + " bots";
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,185 @@
+package org.chinesecheckers.server.main;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Steers a replay while it runs: its speed, pausing and seeking. The replay runs on its own thread and asks the
+ * control before every move how long to wait; viewers change the control from theirs. The replay waits on a lock
+ * condition rather than a monitor, so a paused replay on a virtual thread does not hold its carrier.
+ * <p>
+ * The speed is in moves per second; 0 is max speed, at which the replay no longer waits between moves.
+ */
+class ReplayControl {
+    private final ReentrantLock m_lock = new ReentrantLock();
+    private final Condition m_changed = m_lock.newCondition();
+    private final boolean m_holdAtEnd;
+    private int m_movesPerSecond;
+    private boolean m_paused;
+    private boolean m_stopped;
+    private int m_seekPly = -1;
+
+    /**
+     * Constructs a ReplayControl.
+     *
+     * @param movesPerSecond the speed to start at, in moves per second; 0 is max speed
+     * @param holdAtEnd      whether the replay waits for a seek at the end of the game instead of finishing
+     */
+    ReplayControl(int movesPerSecond, boolean holdAtEnd) {
+        this.m_movesPerSecond = Math.max(0, movesPerSecond);
+        this.m_holdAtEnd = holdAtEnd;
+    }
+
+    /**
+     * Sets the speed of the replay. A replay waiting for its next move uses the new speed at once.
+     *
+     * @param movesPerSecond the speed in moves per second; 0 is max speed
+     */
+    void setSpeed(int movesPerSecond) {
+        update(() -> m_movesPerSecond = Math.max(0, movesPerSecond));
+    }
+
+    /**
+     * Checks if the replay runs at max speed.
+     *
+     * @return true at max speed
+     */
+    boolean isMaxSpeed() {
+        m_lock.lock();
+        try {
+            return m_movesPerSecond == 0;
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Pauses the replay before its next move.
+     */
+    void pause() {
+        update(() -> m_paused = true);
+    }
+
+    /**
+     * Resumes a paused replay.
+     */
+    void resume() {
+        update(() -> m_paused = false);
+    }
+
+    /**
+     * Asks the replay to show the board after the specified number of moves. The moves up to it are applied
+     * without being shown; a paused replay seeks as well and stays paused there.
+     *
+     * @param ply the number of moves from the start of the game
+     */
+    void seek(int ply) {
+        update(() -> m_seekPly = Math.max(0, ply));
+    }
+
+    /**
+     * Stops the replay before its next move.
+     */
+    void stop() {
+        update(() -> m_stopped = true);
+    }
+
+    /**
+     * Checks if the replay has been stopped.
+     *
+     * @return true if it has been stopped
+     */
+    boolean isStopped() {
+        m_lock.lock();
+        try {
+            return m_stopped;
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the pending seek, if any.
+     *
+     * @return the ply to seek to, or -1 if no seek is pending
+     */
+    int takeSeek() {
+        m_lock.lock();
+        try {
+            int ply = m_seekPly;
+            m_seekPly = -1;
+            return ply;
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until the next move is due: while the replay is paused, and until a move's time at the current speed
+     * has passed since the last move was shown. Returns early when a seek is asked for or the replay is stopped.
+     *
+     * @param lastShownNanos the value of {@link System#nanoTime()} when the last move was shown
+     * @return true if the next move is due, false if a seek is pending or the replay was stopped
+     */
+    boolean awaitNextMove(long lastShownNanos) {
+        m_lock.lock();
+        try {
+            while (!m_stopped && m_seekPly < 0) {
+                long remaining = m_movesPerSecond == 0 ? 0
+                        : lastShownNanos + TimeUnit.SECONDS.toNanos(1) / m_movesPerSecond - System.nanoTime();
+                if (!m_paused && remaining <= 0) {
+                    return true;
+                }
+                if (m_paused) {
+                    m_changed.await();
+                } else {
+                    m_changed.awaitNanos(remaining);
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            m_stopped = true;
+            return false;
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Called when the replay has shown the last move. Waits for a seek if the control holds replays at the end.
+     *
+     * @return true if a seek is pending, false if the replay should finish
+     */
+    boolean awaitSeekAtEnd() {
+        m_lock.lock();
+        try {
+            while (m_holdAtEnd && !m_stopped && m_seekPly < 0) {
+                m_changed.await();
+            }
+            return !m_stopped && m_seekPly >= 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            m_stopped = true;
+            return false;
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Applies a change under the lock and wakes the replay.
+     *
+     * @param change the change
+     */
+    private void update(Runnable change) {
+        m_lock.lock();
+        try {
+            change.run();
+            m_changed.signalAll();
+        } finally {
+            m_lock.unlock();
+        }
+    }
+}
\ No newline at end of file
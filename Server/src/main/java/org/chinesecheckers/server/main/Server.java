@@ -1,284 +1,116 @@
 package org.chinesecheckers.server.main;
 
-import org.chinesecheckers.server.model.Game;
-import org.chinesecheckers.server.repository.GameRepository;
+import org.chinesecheckers.server.repository.GameStore;
+import org.chinesecheckers.server.repository.GameSummary;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.net.ServerSocket;
-import java.net.Socket;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
 /**
- * The Server class manages the server operations, including starting new games and replaying recorded games.
+ * The Server class manages the server operations: it runs the lobby that hosts the tables and lets the operator
+ * inspect running tables or replay recorded games.
  */
 @Component
 class Server {
-    private final ServerSocket m_serverSocket;
+    private static final int REPLAY_PAGE_SIZE = 20;
+
     @Autowired
-    private GameRepository gameRepository;
+    private GameStore m_gameStore;
     @Autowired
-    private GameSession m_gameSession;
-    private List<Socket> m_playerSockets;
-
-    private int m_numberOfPlayers = 1;
-    private String m_gameMode = "default"; // Add game mode
-    private int m_numberOfBots = 0;
-    private int m_sleepDuration = 400; // Default sleep duration
+    private ObjectProvider<GameSession> m_sessionProvider;
+    @Autowired
+    private Lobby m_lobby;
 
     /**
-     * Constructs a Server with the specified port.
-     *
-     * @param port the port to bind the server socket to
-     * @throws Exception if an error occurs while starting the server
+     * Constructs a Server.
      */
-    Server(int port) throws Exception {
+    Server() {
         System.out.println("Server is starting");
-        try {
-            m_serverSocket = new ServerSocket(port);
-        } catch (Exception e) {
-            throw new Exception("Port error " + port);
-        }
     }
 
     /**
-     * Runs the server, allowing users to start new games or replay recorded games.
+     * Runs the server. Players join tables through the lobby while the operator can list the running tables
+     * or replay recorded games.
      */
     public void run() {
+        try {
+            m_lobby.start();
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
         while (true) {
             try {
-                System.out.println("Choose an option: 1) Start new game 2) Replay recorded game");
+                System.out.println("Choose an option: 1) Show running tables 2) Replay recorded game");
                 Scanner scanner = new Scanner(System.in);
                 int choice = scanner.nextInt();
 
                 if (choice == 1) {
-                    readNumberOfPlayers();
-                    readNumberOfBots();
-                    if (m_numberOfBots > 0) {
-                        readSleepDuration();
-                    }
-                    m_numberOfPlayers -= m_numberOfBots;
-                    readGameMode();
-                    startMatch(m_numberOfPlayers, m_gameMode, m_numberOfBots, m_sleepDuration);
+                    showRunningTables();
                 } else if (choice == 2) {
                     replayRecordedGame();
                 }
             } catch (Exception e) {
                 System.out.println("Error: " + e.getMessage());
             }
-
-            closeAllSockets();
-            m_playerSockets = null;
         }
     }
 
     /**
-     * Starts a new match with the specified parameters.
-     *
-     * @param numberOfPlayers the number of players
-     * @param gameMode        the game mode
-     * @param numberOfBots    the number of bots
-     * @param sleepDuration   the sleep duration for bots
-     * @throws Exception if an error occurs while starting the match
-     */
-    private void startMatch(int numberOfPlayers, String gameMode, int numberOfBots, int sleepDuration) throws Exception {
-        System.out.println("Game starts: " + numberOfPlayers + " players and " + numberOfBots + " bots");
-
-        createMatch(numberOfPlayers, gameMode, numberOfBots, sleepDuration);
-        m_gameSession.start();
-    }
-
-    /**
-     * Creates a new match by connecting players and initializing the game session.
-     *
-     * @param numberOfPlayers the number of players
-     * @param gameMode        the game mode
-     * @param numberOfBots    the number of bots
-     * @param sleepDuration   the sleep duration for bots
-     * @throws Exception if an error occurs while creating the match
-     */
-    private void createMatch(int numberOfPlayers, String gameMode, int numberOfBots, int sleepDuration) throws Exception {
-        connectPlayers(numberOfPlayers);
-        m_gameSession.initialize(m_playerSockets, gameMode, numberOfBots, sleepDuration);
-    }
-
-    /**
-     * Connects the specified number of players to the server.
-     *
-     * @param numberOfPlayersToConnect the number of players to connect
-     * @throws Exception if an error occurs while connecting players
+     * Prints the tables currently being played and the number of players waiting in the lobby.
      */
-    private void connectPlayers(int numberOfPlayersToConnect) throws Exception {
-        m_playerSockets = new ArrayList<>();
-        try {
-            for (int i = 0; i < numberOfPlayersToConnect; i++) {
-                System.out.println("Waiting for player " + (i + 1));
-                m_playerSockets.add(m_serverSocket.accept());
-            }
-        } catch (Exception e) {
-            throw new Exception("Error " + e.getMessage());
+    private void showRunningTables() {
+        List<String> tables = m_lobby.describeRunningTables();
+        System.out.println("Running tables: " + tables.size() + ", waiting players: " + m_lobby.countWaitingPlayers());
+        for (String table : tables) {
+            System.out.println(" - " + table);
         }
     }
 
     /**
-     * Replays a recorded game by selecting a game from the repository and replaying its moves.
+     * Replays a recorded game by selecting a game from the game store and replaying its moves. The games are
+     * listed a page at a time, so only the summaries of one page are loaded.
      */
     private void replayRecordedGame() {
-        List<Game> games = gameRepository.findAllGames();
-        if (games.isEmpty()) {
-            System.out.println("No recorded games found. Please create a new game.");
-            try {
-                readNumberOfPlayers();
-                readNumberOfBots();
-                if (m_numberOfBots > 0) {
-                    readSleepDuration();
-                }
-                m_numberOfPlayers -= m_numberOfBots;
-                readGameMode();
-                startMatch(m_numberOfPlayers, m_gameMode, m_numberOfBots, m_sleepDuration);
-            } catch (Exception e) {
-                System.out.println("Error: " + e.getMessage());
+        Scanner scanner = new Scanner(System.in);
+        GameSummary selectedGame = null;
+        for (int page = 0; selectedGame == null; ) {
+            List<GameSummary> games = m_gameStore.findGameSummaries(page, REPLAY_PAGE_SIZE);
+            if (games.isEmpty()) {
+                System.out.println(page == 0 ? "No recorded games found." : "No more recorded games.");
+                return;
             }
-            return;
-        }
 
-        System.out.println("Choose a game to replay:");
-        for (int i = 0; i < games.size(); i++) {
-            System.out.println((i + 1) + ") Game ID: " + games.get(i).getId() + ", Mode: " + games.get(i).getMode());
-        }
+            System.out.println("Choose a game to replay" + (games.size() == REPLAY_PAGE_SIZE ? " (0 for more):" : ":"));
+            for (int i = 0; i < games.size(); i++) {
+                GameSummary game = games.get(i);
+                System.out.println((i + 1) + ") Game ID: " + game.id() + ", Mode: " + game.mode()
+                        + ", Players: " + game.numberOfPlayers() + ", Bots: " + game.numberOfBots()
+                        + ", Moves: " + game.moveCount() + (game.createdAt() != null ? ", Created: " + game.createdAt() : ""));
+            }
 
-        Scanner scanner = new Scanner(System.in);
-        int gameChoice = scanner.nextInt();
-        if (gameChoice < 1 || gameChoice > games.size()) {
-            System.out.println("Invalid choice.");
-            return;
+            int gameChoice = scanner.nextInt();
+            if (gameChoice == 0 && games.size() == REPLAY_PAGE_SIZE) {
+                page++;
+            } else if (gameChoice < 1 || gameChoice > games.size()) {
+                System.out.println("Invalid choice.");
+                return;
+            } else {
+                selectedGame = games.get(gameChoice - 1);
+            }
         }
-
-        Game selectedGame = games.get(gameChoice - 1);
-        System.out.println("Replaying game ID: " + selectedGame.getId() + ", Mode: " + selectedGame.getMode());
+        System.out.println("Replaying game ID: " + selectedGame.id() + ", Mode: " + selectedGame.mode());
 
         try {
-            m_playerSockets = new ArrayList<>(); // Initialize m_playerSockets as an empty list
-            int numberOfPlayers = selectedGame.getNumberOfPlayers(); // Retrieve the number of players from the game
-            int numberOfBots = selectedGame.getNumberOfBots(); // Retrieve the number of bots from the game
-            m_gameSession.initialize(new ArrayList<>(), selectedGame.getMode(), numberOfBots, m_sleepDuration);
-            m_gameSession.replayMoves(selectedGame.getId());
+            GameSession gameSession = m_sessionProvider.getObject();
+            gameSession.initializeReplay(new ArrayList<>(), selectedGame.id());
+            gameSession.replay(gameSession.newReplayControl(false));
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
         }
     }
-
-    /**
-     * Reads the number of players from the user input.
-     */
-    private void readNumberOfPlayers() {
-        boolean inputCorrect;
-        do {
-            inputCorrect = true;
-            System.out.println("Number of Players(2,3,4,6):");
-            Scanner scanner = new Scanner(System.in);
-
-            try {
-                int newNumberOfRealPlayers = scanner.nextInt();
-                if (newNumberOfRealPlayers == 2 || newNumberOfRealPlayers == 3 || newNumberOfRealPlayers == 4 || newNumberOfRealPlayers == 6) {
-                    m_numberOfPlayers = newNumberOfRealPlayers;
-                } else {
-                    System.out.println("Wrong number. Should be 2||3||4||6");
-                    inputCorrect = false;
-                }
-            } catch (Exception e) {
-                System.out.println("Wrong number.");
-                inputCorrect = false;
-            }
-        } while (!inputCorrect);
-    }
-
-    /**
-     * Reads the number of bots from the user input.
-     */
-    private void readNumberOfBots() {
-        boolean inputCorrect;
-        do {
-            inputCorrect = true;
-            System.out.println("Number of Bots (0-" + m_numberOfPlayers + "):");
-            Scanner scanner = new Scanner(System.in);
-
-            try {
-                int newNumberOfBots = scanner.nextInt();
-                if (newNumberOfBots >= 0 && newNumberOfBots <= m_numberOfPlayers) {
-                    m_numberOfBots = newNumberOfBots;
-                } else {
-                    System.out.println("Wrong number. Should be between 0 and " + m_numberOfPlayers);
-                    inputCorrect = false;
-                }
-            } catch (Exception e) {
-                System.out.println("Wrong number.");
-                inputCorrect = false;
-            }
-        } while (!inputCorrect);
-    }
-
-    /**
-     * Reads the sleep duration for bots from the user input.
-     */
-    private void readSleepDuration() {
-        boolean inputCorrect;
-        do {
-            inputCorrect = true;
-            System.out.println("Enter sleep duration for bots (in milliseconds):");
-            Scanner scanner = new Scanner(System.in);
-
-            try {
-                int newSleepDuration = scanner.nextInt();
-                if (newSleepDuration > 0) {
-                    m_sleepDuration = newSleepDuration;
-                } else {
-                    System.out.println("Wrong number. Should be greater than 0");
-                    inputCorrect = false;
-                }
-            } catch (Exception e) {
-                System.out.println("Wrong number.");
-                inputCorrect = false;
-            }
-        } while (!inputCorrect);
-    }
-
-    /**
-     * Reads the game mode from the user input.
-     */
-    private void readGameMode() {
-        boolean inputCorrect;
-        do {
-            inputCorrect = true;
-            System.out.println("Game Mode (default / diamond(ダイヤモンドゲーム)):");
-            Scanner scanner = new Scanner(System.in);
-
-            try {
-                String mode = scanner.next();
-                if ("default".equalsIgnoreCase(mode) || "diamond".equalsIgnoreCase(mode)) {
-                    m_gameMode = mode;
-                } else {
-                    System.out.println("Wrong mode. Should be default or diamond(ダイヤモンドゲーム)");
-                    inputCorrect = false;
-                }
-            } catch (Exception e) {
-                System.out.println("Wrong mode.");
-                inputCorrect = false;
-            }
-        } while (!inputCorrect);
-    }
-
-    /**
-     * Closes all player sockets.
-     */
-    private void closeAllSockets() {
-        for (Socket socket : m_playerSockets) {
-            try {
-                socket.close();
-            } catch (Exception ignored) {
-            }
-        }
-    }
 }
\ No newline at end of file
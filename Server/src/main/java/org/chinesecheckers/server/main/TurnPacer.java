@@ -0,0 +1,54 @@
+package org.chinesecheckers.server.main;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces the decisions of in-process players so that human-facing tables stay watchable. Every decision is
+ * released no earlier than the move delay after the player started thinking, so the time spent computing the
+ * move counts against the delay. The session thread parks for the rest of the delay, which on a virtual thread
+ * frees its carrier; no timer thread or future is involved, so there is nothing to shut down.
+ * <p>
+ * A delay of 0 is turbo mode: decisions are released immediately.
+ */
+@Component
+class TurnPacer {
+    private static final TurnPacer TURBO = new TurnPacer(0);
+
+    private final long m_delayNanos;
+
+    /**
+     * Constructs a TurnPacer with the specified move delay.
+     *
+     * @param moveDelay the minimum time between the start of a decision and its release, in milliseconds
+     */
+    TurnPacer(@Value("${bot.sleep-duration:400}") int moveDelay) {
+        this.m_delayNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, moveDelay));
+    }
+
+    /**
+     * Gets the pacer of turbo mode, which never delays a decision.
+     *
+     * @return the turbo pacer
+     */
+    static TurnPacer turbo() {
+        return TURBO;
+    }
+
+    /**
+     * Waits until the move delay has elapsed since the decision started. Returns at once in turbo mode or when
+     * computing the decision already took longer than the delay. An interrupt ends the wait early and stays set.
+     *
+     * @param startNanos the value of {@link System#nanoTime()} when the decision started
+     */
+    void awaitRelease(long startNanos) {
+        long remaining = m_delayNanos - (System.nanoTime() - startNanos);
+        while (remaining > 0 && !Thread.currentThread().isInterrupted()) {
+            LockSupport.parkNanos(this, remaining);
+            remaining = m_delayNanos - (System.nanoTime() - startNanos);
+        }
+    }
+}
\ No newline at end of file
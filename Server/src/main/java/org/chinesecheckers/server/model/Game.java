@@ -2,10 +2,12 @@ package org.chinesecheckers.server.model;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
 import java.util.List;
 
 /**
- * Represents a game entity in the Chinese Checkers server application.
+ * Represents a game entity in the Chinese Checkers server application. Its moves are only loaded when they are
+ * asked for; listings use {@link org.chinesecheckers.server.repository.GameSummary} instead.
  */
 @Entity
 public class Game {
@@ -13,12 +15,13 @@ public class Game {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, fetch = FetchType.EAGER)
+    @OneToMany(mappedBy = "game", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Move> moves;
 
     private String mode;
     private int numberOfPlayers;
     private int numberOfBots;
+    private Instant createdAt;
 
     /**
      * Gets the ID of the game.
@@ -109,4 +112,22 @@ public class Game {
     public void setNumberOfBots(int numberOfBots) {
         this.numberOfBots = numberOfBots;
     }
+
+    /**
+     * Gets the time the game was created.
+     *
+     * @return the creation time, or null for games recorded before it was kept
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Sets the time the game was created.
+     *
+     * @param createdAt the creation time
+     */
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
 }
\ No newline at end of file
@@ -3,9 +3,11 @@ package org.chinesecheckers.server.model;
 import jakarta.persistence.*;
 
 /**
- * Represents a move entity in the Chinese Checkers server application.
+ * Represents a move entity in the Chinese Checkers server application. The ply is the number of moves made in the
+ * game before this one; moves are indexed by game and ply, so a replay can start reading anywhere in a game.
  */
 @Entity
+@Table(indexes = @Index(name = "idx_move_game_ply", columnList = "game_id, ply"))
 public class Move {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,8 +17,9 @@ public class Move {
     private int fromY;
     private int toX;
     private int toY;
+    private int ply;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "game_id")
     private Game game;
 
@@ -127,4 +130,22 @@ public class Move {
     public void setGame(Game game) {
         this.game = game;
     }
+
+    /**
+     * Gets the ply of the move: the number of moves made in the game before it.
+     *
+     * @return the ply
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Sets the ply of the move.
+     *
+     * @param ply the number of moves made in the game before it
+     */
+    public void setPly(int ply) {
+        this.ply = ply;
+    }
 }
\ No newline at end of file
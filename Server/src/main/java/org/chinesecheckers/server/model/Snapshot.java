@@ -0,0 +1,97 @@
+package org.chinesecheckers.server.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Represents a snapshot entity: the pawns of a recorded game after a number of moves, in the compact form of
+ * {@link org.chinesecheckers.server.serverBoard.BitBoard#snapshot()}. Sessions store one every few dozen moves,
+ * so the position at any ply can be rebuilt from the nearest snapshot and the few moves after it.
+ */
+@Entity
+@Table(indexes = @Index(name = "idx_snapshot_game_ply", columnList = "game_id, ply"))
+public class Snapshot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private int ply;
+
+    @Column(length = 512)
+    private byte[] board;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "game_id")
+    private Game game;
+
+    /**
+     * Gets the ID of the snapshot.
+     *
+     * @return the snapshot ID
+     */
+    public Long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the snapshot.
+     *
+     * @param id the snapshot ID
+     */
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    /**
+     * Gets the number of moves made in the game before the snapshot was taken.
+     *
+     * @return the ply
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Sets the number of moves made in the game before the snapshot was taken.
+     *
+     * @param ply the ply
+     */
+    public void setPly(int ply) {
+        this.ply = ply;
+    }
+
+    /**
+     * Gets the pawns of the snapshot.
+     *
+     * @return the snapshot of the board
+     */
+    public byte[] getBoard() {
+        return board;
+    }
+
+    /**
+     * Sets the pawns of the snapshot.
+     *
+     * @param board the snapshot of the board
+     */
+    public void setBoard(byte[] board) {
+        this.board = board;
+    }
+
+    /**
+     * Gets the game of the snapshot.
+     *
+     * @return the game
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * Sets the game of the snapshot.
+     *
+     * @param game the game
+     */
+    public void setGame(Game game) {
+        this.game = game;
+    }
+}
\ No newline at end of file
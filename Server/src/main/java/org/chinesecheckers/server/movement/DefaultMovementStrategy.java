@@ -4,8 +4,6 @@ import org.chinesecheckers.server.serverBoard.Board;
 import org.chinesecheckers.server.serverBoard.GameException;
 import org.springframework.stereotype.Component;
 
-import static org.chinesecheckers.common.PlayerColor.NONE;
-
 /**
  * Implements the default movement strategy for the Chinese Checkers game.
  */
@@ -48,7 +46,7 @@ public class DefaultMovementStrategy implements MovementStrategy {
                         return moveValidationConditions[0].verify() ? 1 : 0;
                     }
                     case 2: {
-                        if (!board.getField((x1 + x2) / 2, y1).getCurrentColor().equals(NONE)) {
+                        if (board.isOccupied((x1 + x2) / 2, y1)) {
                             return 2;
                         } else {
                             return 0;
@@ -76,17 +74,17 @@ public class DefaultMovementStrategy implements MovementStrategy {
                     return 0;
                 }
                 if (y1 % 2 == 0) {
-                    if (x2 < x1 && !board.getField(x1, (y1 + y2) / 2).getCurrentColor().equals(NONE)) {
+                    if (x2 < x1 && board.isOccupied(x1, (y1 + y2) / 2)) {
                         return 2;
-                    } else if (x2 > x1 && !board.getField(x1 + 1, (y2 + y1) / 2).getCurrentColor().equals(NONE)) {
+                    } else if (x2 > x1 && board.isOccupied(x1 + 1, (y2 + y1) / 2)) {
                         return 2;
                     } else {
                         return 0;
                     }
                 } else {
-                    if (x2 < x1 && !board.getField(x1 - 1, (y1 + y2) / 2).getCurrentColor().equals(NONE)) {
+                    if (x2 < x1 && board.isOccupied(x1 - 1, (y1 + y2) / 2)) {
                         return 2;
-                    } else if (x2 > x1 && !board.getField(x1, (y1 + y2) / 2).getCurrentColor().equals(NONE)) {
+                    } else if (x2 > x1 && board.isOccupied(x1, (y1 + y2) / 2)) {
                         return 2;
                     } else {
                         return 0;
@@ -110,7 +108,7 @@ public class DefaultMovementStrategy implements MovementStrategy {
      * @return true if any of the cells are illegal, otherwise false
      */
     private boolean IllegalCells(Board board, int x1, int y1, int x2, int y2) {
-        return board.getField(x1, y1) == null || board.getField(x2, y2) == null || !board.getField(x1, y1).isPlayable() || !board.getField(x2, y2).isPlayable();
+        return !board.isPlayable(x1, y1) || !board.isPlayable(x2, y2);
     }
 
     /**
@@ -124,7 +122,7 @@ public class DefaultMovementStrategy implements MovementStrategy {
      * @return true if the pawn state is incorrect, otherwise false
      */
     private boolean isWrongPawnState(Board board, int x1, int y1, int x2, int y2) {
-        return !board.getField(x2, y2).getCurrentColor().equals(NONE) || board.getField(x1, y1).getCurrentColor().equals(NONE);
+        return board.isOccupied(x2, y2) || !board.isOccupied(x1, y1);
     }
 
     /**
@@ -1,7 +1,6 @@
 package org.chinesecheckers.server.movement;
 
 import org.chinesecheckers.server.serverBoard.Board;
-import org.chinesecheckers.server.serverBoard.Cell;
 import org.springframework.stereotype.Component;
 
 /**
@@ -23,19 +22,12 @@ public class DiamondMovementStrategy extends DefaultMovementStrategy {
      */
     @Override
     public int verifyMove(Board board, int x1, int y1, int x2, int y2, MoveValidationCondition[] moveValidationConditions) {
-        Cell from = board.getField(x1, y1);
-        Cell to = board.getField(x2, y2);
-
-        if (from == null || to == null) {
-            return 0; // Invalid move if either cell is null
-        }
-
-        if (from.isKing()) {
+        if (board.isKing(x1, y1)) {
             // King piece can jump over common pieces
             return super.verifyMove(board, x1, y1, x2, y2, moveValidationConditions);
         } else {
             // Common pieces cannot jump over the king piece
-            if (to.isKing()) {
+            if (board.isKing(x2, y2)) {
                 return 0;
             }
             return super.verifyMove(board, x1, y1, x2, y2, moveValidationConditions);
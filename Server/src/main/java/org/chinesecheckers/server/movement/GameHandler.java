@@ -2,11 +2,16 @@ package org.chinesecheckers.server.movement;
 
 import org.chinesecheckers.common.Coord;
 import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
 import org.chinesecheckers.server.serverBoard.Board;
 import org.chinesecheckers.server.serverBoard.BoardFactory;
 import org.chinesecheckers.server.serverBoard.DefaultBoard;
 import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+import org.chinesecheckers.server.serverBoard.ZobristKeys;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -14,12 +19,15 @@ import java.util.List;
 
 /**
  * Handles the game logic and interactions with the board and movement strategies.
+ * A new instance is created for every game session.
  */
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class GameHandler {
     private MovementStrategy m_movementStrategy;
     private BoardFactory m_boardFactory;
     private Board m_board;
+    private final JumpChainGenerator m_chainGenerator = new JumpChainGenerator();
 
     /**
      * Constructs a GameHandler with the specified movement strategy and board factory.
@@ -117,17 +125,61 @@ public class GameHandler {
      * @return a list of possible moves
      */
     public List<Coord> getPossibleMovesForCell(int x, int y, MoveValidationCondition[] moveValidationConditions) {
-        int result;
         List<Coord> possibleMoves = new ArrayList<>();
-        List<Coord> nearbyCoords = m_board.getNearbyCells(x, y);
-        for (Coord coord : nearbyCoords) {
-            result = verifyMove(x, y, coord.getX(), coord.getY(), moveValidationConditions);
-            if (result != 0) possibleMoves.add(coord);
+        if (x < 1 || x > m_board.getColumns() || y < 1 || y > m_board.getRows()) {
+            return possibleMoves;
+        }
+        NeighbourTable neighbourTable = m_board.getNeighbourTable();
+        int from = m_board.getBitBoard().index(x, y);
+        for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+            addIfValid(possibleMoves, x, y, neighbourTable.step(from, direction), moveValidationConditions);
+        }
+        for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+            addIfValid(possibleMoves, x, y, neighbourTable.jump(from, direction), moveValidationConditions);
         }
 
         return possibleMoves;
     }
 
+    /**
+     * Finds the chain of jumps that takes the pawn on the starting cell to the ending cell in one turn.
+     *
+     * @param x1 the starting x-coordinate
+     * @param y1 the starting y-coordinate
+     * @param x2 the ending x-coordinate
+     * @param y2 the ending y-coordinate
+     * @return the bit indexes of the cells of the chain, from start to end, or null if the pawn cannot reach the
+     *         ending cell by jumping
+     */
+    public int[] findJumpChain(int x1, int y1, int x2, int y2) {
+        if (!m_board.isPlayable(x1, y1) || !m_board.isPlayable(x2, y2) || !m_board.isOccupied(x1, y1)) {
+            return null;
+        }
+        BitBoard bitBoard = m_board.getBitBoard();
+        m_chainGenerator.generate(bitBoard, m_board.getNeighbourTable(), bitBoard.index(x1, y1));
+        int i = m_chainGenerator.indexOf(bitBoard.index(x2, y2));
+        return i >= 0 && m_chainGenerator.isJump(i) ? m_chainGenerator.getPath(i) : null;
+    }
+
+    /**
+     * Adds the target cell to the list of possible moves if moving there is valid.
+     *
+     * @param possibleMoves            the list of possible moves
+     * @param x                        the starting x-coordinate
+     * @param y                        the starting y-coordinate
+     * @param target                   the bit index of the target cell, or -1 if it is outside the board
+     * @param moveValidationConditions the conditions to validate the move
+     */
+    private void addIfValid(List<Coord> possibleMoves, int x, int y, int target, MoveValidationCondition[] moveValidationConditions) {
+        if (target < 0) {
+            return;
+        }
+        BitBoard bitBoard = m_board.getBitBoard();
+        if (verifyMove(x, y, bitBoard.getX(target), bitBoard.getY(target), moveValidationConditions) != 0) {
+            possibleMoves.add(m_board.getNeighbourTable().getCoord(target));
+        }
+    }
+
     /**
      * Checks if the specified player color has won the game.
      *
@@ -147,6 +199,17 @@ public class GameHandler {
         return m_board.getAsString();
     }
 
+    /**
+     * Gets the Zobrist key of the current position: the pawns, the king cells and the player to move. It is kept
+     * up to date by every change to the board, so reading it costs nothing.
+     *
+     * @param sideToMove the color of the player to move
+     * @return the key
+     */
+    public long getPositionKey(PlayerColor sideToMove) {
+        return m_board.getBitBoard().getKey() ^ ZobristKeys.side(sideToMove);
+    }
+
     /**
      * Gets the current game board.
      *
@@ -0,0 +1,193 @@
+package org.chinesecheckers.server.movement;
+
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates the destinations of a pawn for one turn: the empty cells it can step to, then every cell it can
+ * reach with a chain of jumps. Chains are found by a breadth-first flood fill over the jump graph with a visited
+ * bitmap, so each destination is listed once, with the shortest chain that reaches it. A cell that is both a
+ * step and a chain destination is listed as a step, but chains still continue through it.
+ * <p>
+ * The cell the pawn leaves counts as empty while it jumps. As in the diamond mode, a pawn may only land on a king
+ * cell when it leaves one; boards without king cells are unaffected. The buffers are reused by every call, so a
+ * generator must not be shared between threads.
+ */
+public class JumpChainGenerator {
+    private long[] m_visited = new long[0];
+    private int[] m_parent = new int[0];
+    private int[] m_queue = new int[0];
+    private int[] m_destinations = new int[0];
+    private int m_count;
+    private int m_stepCount;
+    private int m_from;
+
+    /**
+     * Lists the destinations of the pawn on the specified cell.
+     *
+     * @param bitBoard       the board
+     * @param neighbourTable the geometry of the board
+     * @param from           the bit index of the pawn
+     * @return the number of destinations
+     */
+    public int generate(BitBoard bitBoard, NeighbourTable neighbourTable, int from) {
+        ensureCapacity(bitBoard.size());
+        Arrays.fill(m_visited, 0);
+        m_from = from;
+        m_count = 0;
+        for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+            int step = neighbourTable.step(from, direction);
+            if (step >= 0 && canLand(bitBoard, from, step)) {
+                m_destinations[m_count++] = step;
+            }
+        }
+        m_stepCount = m_count;
+
+        visit(from);
+        int head = 0;
+        int tail = 0;
+        m_queue[tail++] = from;
+        while (head < tail) {
+            int cell = m_queue[head++];
+            for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+                int over = neighbourTable.step(cell, direction);
+                int landing = neighbourTable.jump(cell, direction);
+                if (landing < 0 || over == from || isVisited(landing) || !bitBoard.isOccupied(over)
+                        || !canLand(bitBoard, cell, landing)) {
+                    continue;
+                }
+                visit(landing);
+                m_parent[landing] = cell;
+                m_queue[tail++] = landing;
+                if (!isStep(landing)) {
+                    m_destinations[m_count++] = landing;
+                }
+            }
+        }
+        return m_count;
+    }
+
+    /**
+     * Gets a destination of the last generated pawn.
+     *
+     * @param i the index of the destination
+     * @return the bit index of the destination
+     */
+    public int getDestination(int i) {
+        return m_destinations[i];
+    }
+
+    /**
+     * Checks if a destination is reached by jumping rather than by a single step.
+     *
+     * @param i the index of the destination
+     * @return true for a jump chain, false for a step
+     */
+    public boolean isJump(int i) {
+        return i >= m_stepCount;
+    }
+
+    /**
+     * Gets the cells a destination is reached through, from the cell of the pawn to the destination.
+     *
+     * @param i the index of the destination
+     * @return the bit indexes of the path
+     */
+    public int[] getPath(int i) {
+        int destination = m_destinations[i];
+        if (!isJump(i)) {
+            return new int[]{m_from, destination};
+        }
+        int length = 1;
+        for (int cell = destination; cell != m_from; cell = m_parent[cell]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int cell = destination; length > 0; cell = m_parent[cell]) {
+            path[--length] = cell;
+            if (cell == m_from) {
+                break;
+            }
+        }
+        return path;
+    }
+
+    /**
+     * Finds a destination among those of the last generated pawn.
+     *
+     * @param destination the bit index of the destination
+     * @return the index of the destination, or -1 if the pawn cannot reach it
+     */
+    public int indexOf(int destination) {
+        for (int i = 0; i < m_count; i++) {
+            if (m_destinations[i] == destination) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a pawn may land on a cell: the cell must be playable and empty, and only pawns leaving a king
+     * cell may land on one.
+     *
+     * @param bitBoard the board
+     * @param cell     the bit index of the cell the pawn leaves
+     * @param landing  the bit index of the cell
+     * @return true if the pawn may land on the cell, otherwise false
+     */
+    private static boolean canLand(BitBoard bitBoard, int cell, int landing) {
+        return bitBoard.isPlayable(landing) && !bitBoard.isOccupied(landing)
+                && (bitBoard.isKing(cell) || !bitBoard.isKing(landing));
+    }
+
+    /**
+     * Checks if a cell is one of the step destinations.
+     *
+     * @param cell the bit index of the cell
+     * @return true if the pawn can step to the cell, otherwise false
+     */
+    private boolean isStep(int cell) {
+        for (int i = 0; i < m_stepCount; i++) {
+            if (m_destinations[i] == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marks a cell as reached by the flood fill.
+     *
+     * @param cell the bit index of the cell
+     */
+    private void visit(int cell) {
+        m_visited[cell >>> 6] |= 1L << cell;
+    }
+
+    /**
+     * Checks if a cell has been reached by the flood fill.
+     *
+     * @param cell the bit index of the cell
+     * @return true if the cell has been reached, otherwise false
+     */
+    private boolean isVisited(int cell) {
+        return (m_visited[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * Grows the buffers to the size of a board.
+     *
+     * @param size the number of cells of the board
+     */
+    private void ensureCapacity(int size) {
+        if (m_parent.length < size) {
+            m_visited = new long[(size + 63) >>> 6];
+            m_parent = new int[size];
+            m_queue = new int[size];
+            m_destinations = new int[size + NeighbourTable.DIRECTIONS];
+        }
+    }
+}
\ No newline at end of file
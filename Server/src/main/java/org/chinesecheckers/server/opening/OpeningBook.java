@@ -0,0 +1,123 @@
+package org.chinesecheckers.server.opening;
+
+import org.chinesecheckers.server.player.PlayerMove;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only book of opening moves learned from self-play by {@link OpeningBookBuilder}: for each position seen
+ * in the first plies of the games, the move that scored best for the player to move. Positions are found by
+ * their Zobrist key with the player to move, so one book serves every board and player count.
+ * <p>
+ * The file is a small header followed by an open-addressing hash table of fixed-size slots: the key, the move
+ * and the number of games behind it. It is mapped into memory rather than read, and a lookup touches one or two
+ * slots. A book is immutable and may be probed from any thread.
+ */
+public final class OpeningBook {
+    static final int MAGIC = 0x4343424B;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 4 * Integer.BYTES;
+    static final int SLOT_BYTES = Long.BYTES + 2 * Integer.BYTES;
+
+    private final ByteBuffer m_slots;
+    private final int m_mask;
+    private final int m_plies;
+
+    /**
+     * Constructs a book over the specified slots.
+     *
+     * @param slots     the slots; their number is a power of two
+     * @param slotCount the number of slots
+     * @param plies     the number of plies from the start the book covers
+     */
+    private OpeningBook(ByteBuffer slots, int slotCount, int plies) {
+        this.m_slots = slots;
+        this.m_mask = slotCount - 1;
+        this.m_plies = plies;
+    }
+
+    /**
+     * Maps a book file into memory.
+     *
+     * @param path the path of the file
+     * @return the book
+     * @throws IOException if the file cannot be read or is not a book
+     */
+    public static OpeningBook load(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            int slotCount = buffer.getInt(12);
+            if (Integer.bitCount(slotCount) != 1 || buffer.capacity() != HEADER_BYTES + (long) slotCount * SLOT_BYTES) {
+                throw new IOException("Damaged opening book: " + path);
+            }
+            return new OpeningBook(buffer.slice(HEADER_BYTES, buffer.capacity() - HEADER_BYTES), slotCount, buffer.getInt(8));
+        }
+    }
+
+    /**
+     * Gets the number of plies from the start of a game the book covers; later positions are never in it.
+     *
+     * @return the number of plies
+     */
+    public int getPlies() {
+        return m_plies;
+    }
+
+    /**
+     * Looks up the book move of a position. The move is not checked against the board; a key collision could
+     * return a move of another position.
+     *
+     * @param key the position key, with the player to move
+     * @return the move, or null if the position is not in the book
+     */
+    public PlayerMove probe(long key) {
+        for (int slot = slotOf(key, m_mask); ; slot = (slot + 1) & m_mask) {
+            long stored = m_slots.getLong(slot * SLOT_BYTES);
+            if (stored == key) {
+                return unpack(m_slots.getInt(slot * SLOT_BYTES + Long.BYTES));
+            }
+            if (stored == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Packs a move into the form stored in a slot: one byte per coordinate, so the same form fits every board.
+     *
+     * @param move the move
+     * @return the packed move
+     */
+    static int pack(PlayerMove move) {
+        return move.fromX() | move.fromY() << 8 | move.toX() << 16 | move.toY() << 24;
+    }
+
+    /**
+     * Unpacks a move stored in a slot.
+     *
+     * @param packed the packed move
+     * @return the move
+     */
+    private static PlayerMove unpack(int packed) {
+        return new PlayerMove(packed & 0xFF, packed >>> 8 & 0xFF, packed >>> 16 & 0xFF, packed >>> 24);
+    }
+
+    /**
+     * Gets the home slot of a key.
+     *
+     * @param key  the key
+     * @param mask the number of slots minus one
+     * @return the slot
+     */
+    static int slotOf(long key, int mask) {
+        return (int) (key ^ key >>> 32) & mask;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,314 @@
+package org.chinesecheckers.server.opening;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.movement.JumpChainGenerator;
+import org.chinesecheckers.server.player.LocalPlayer;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.search.TranspositionTable;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+import org.chinesecheckers.server.simulation.BotStrategy;
+import org.chinesecheckers.server.simulation.GameRecorder;
+import org.chinesecheckers.server.simulation.SelfPlaySimulator;
+import org.chinesecheckers.server.simulation.SimulationReport;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Writes an {@link OpeningBook} file from self-play. This is a build step rather than part of the server: run it
+ * with the {@code opening-book} Maven profile, or directly.
+ * <p>
+ * For every setup of the default and diamond modes, the builder plays games between searching bots. In the
+ * opening a bot sometimes plays a random forward move instead of its own, so the games branch out. Each move of
+ * the first plies is scored by whether its player went on to finish first, and the book keeps, for every
+ * position seen in enough games, the move with the best score. Games stopped at the turn limit are left out.
+ * <p>
+ * Usage: {@code OpeningBookBuilder <file> [games per setup] [plies] [strategy] [threads]}.
+ */
+public class OpeningBookBuilder {
+    private static final String[] MODES = {"default", "diamond"};
+    private static final int[] PLAYER_COUNTS = {2, 3, 4, 6};
+    private static final int MIN_GAMES = 4;
+    private static final double EXPLORATION = 0.25;
+    private static final int TURN_LIMIT = 600;
+    private static final long TABLE_BYTES = 64 << 20;
+
+    private final int m_plies;
+    private final Map<Long, Map<Integer, int[]>> m_results = new HashMap<>();
+
+    /**
+     * Constructs a builder.
+     *
+     * @param plies the number of plies from the start of a game to learn
+     */
+    OpeningBookBuilder(int plies) {
+        this.m_plies = plies;
+    }
+
+    /**
+     * Builds a book and writes it to a file.
+     *
+     * @param args the path of the file, then optionally the number of games per setup, the number of plies, the
+     *             strategy of the bots and the number of threads
+     * @throws Exception if a game fails or the file cannot be written
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: OpeningBookBuilder <file> [games per setup] [plies] [strategy] [threads]");
+            return;
+        }
+        Path path = Path.of(args[0]);
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 40;
+        int plies = args.length > 2 ? Integer.parseInt(args[2]) : 12;
+        String strategy = args.length > 3 ? args[3] : "paranoid:10";
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        long start = System.nanoTime();
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        TranspositionTable table = new TranspositionTable(TABLE_BYTES);
+        for (String mode : MODES) {
+            for (int players : PLAYER_COUNTS) {
+                BotStrategy[] seats = new BotStrategy[players];
+                for (int i = 0; i < players; i++) {
+                    seats[i] = builder.exploring(SelfPlaySimulator.strategy(strategy, table, null, null), players);
+                }
+                SelfPlaySimulator simulator = new SelfPlaySimulator(mode, seats, threads, TURN_LIMIT);
+                simulator.setRecorders(builder::newRecorder);
+                SimulationReport report = simulator.run(games);
+                System.out.printf("%s, %d players: %d games, %.1f turns per game%n", mode, players, report.getGames(),
+                        report.getAverageTurns());
+            }
+        }
+        int entries = builder.write(path);
+        System.out.printf("%d positions in %.1f s: %s%n", entries, (System.nanoTime() - start) / 1e9, path);
+    }
+
+    /**
+     * Wraps a strategy so that its players sometimes play a random forward move in the opening.
+     *
+     * @param strategy the strategy
+     * @param players  the number of players of the games
+     * @return the exploring strategy
+     */
+    BotStrategy exploring(BotStrategy strategy, int players) {
+        return (color, gameHandler) -> new ExploringPlayer(strategy.create(color, gameHandler), color, gameHandler,
+                (m_plies + players - 1) / players);
+    }
+
+    /**
+     * Creates the recorder of a game.
+     *
+     * @return the recorder
+     */
+    GameRecorder newRecorder() {
+        return new Recorder();
+    }
+
+    /**
+     * Adds the moves of a finished game to the results.
+     *
+     * @param keys   the position keys before the moves
+     * @param moves  the moves, packed as in the book
+     * @param seats  the seats that made the moves
+     * @param winner the seat that finished first, or -1
+     */
+    private synchronized void addGame(List<Long> keys, List<Integer> moves, List<Integer> seats, int winner) {
+        for (int i = 0; i < keys.size(); i++) {
+            int[] result = m_results.computeIfAbsent(keys.get(i), key -> new HashMap<>())
+                    .computeIfAbsent(moves.get(i), move -> new int[2]);
+            result[0]++;
+            if (seats.get(i) == winner) {
+                result[1]++;
+            }
+        }
+    }
+
+    /**
+     * Writes the best move of every position, among the moves played in enough games to judge them.
+     *
+     * @param path the path of the file
+     * @return the number of positions written
+     * @throws IOException if the file cannot be written
+     */
+    int write(Path path) throws IOException {
+        Map<Long, int[]> book = new HashMap<>();
+        for (Map.Entry<Long, Map<Integer, int[]>> position : m_results.entrySet()) {
+            int[] best = null;
+            double bestScore = -1;
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                int[] result = move.getValue();
+                double score = (result[1] + 1.0) / (result[0] + 2.0);
+                if (result[0] >= MIN_GAMES && score > bestScore) {
+                    bestScore = score;
+                    best = new int[]{move.getKey(), result[0]};
+                }
+            }
+            if (best != null && position.getKey() != 0) {
+                book.put(position.getKey(), best);
+            }
+        }
+
+        int slotCount = Integer.highestOneBit(Math.max(1, book.size() * 2 - 1)) << 1;
+        ByteBuffer buffer = ByteBuffer.allocate(OpeningBook.HEADER_BYTES + slotCount * OpeningBook.SLOT_BYTES);
+        buffer.putInt(OpeningBook.MAGIC).putInt(OpeningBook.VERSION).putInt(m_plies).putInt(slotCount);
+        for (Map.Entry<Long, int[]> entry : book.entrySet()) {
+            int slot = OpeningBook.slotOf(entry.getKey(), slotCount - 1);
+            while (buffer.getLong(OpeningBook.HEADER_BYTES + slot * OpeningBook.SLOT_BYTES) != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            int offset = OpeningBook.HEADER_BYTES + slot * OpeningBook.SLOT_BYTES;
+            buffer.putLong(offset, entry.getKey());
+            buffer.putInt(offset + Long.BYTES, entry.getValue()[0]);
+            buffer.putInt(offset + Long.BYTES + Integer.BYTES, entry.getValue()[1]);
+        }
+        buffer.clear();
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        return book.size();
+    }
+
+    /**
+     * Collects the opening moves of one game and hands them over when it ends.
+     */
+    private class Recorder implements GameRecorder {
+        private final List<Long> m_keys = new ArrayList<>();
+        private final List<Integer> m_moves = new ArrayList<>();
+        private final List<Integer> m_seats = new ArrayList<>();
+
+        /**
+         * Keeps a move of the opening.
+         *
+         * @param ply  the number of moves made so far in the game
+         * @param seat the seat that moves
+         * @param key  the position key before the move
+         * @param move the move
+         */
+        @Override
+        public void onMove(int ply, int seat, long key, PlayerMove move) {
+            if (ply >= m_plies) {
+                return;
+            }
+            m_keys.add(key);
+            m_moves.add(OpeningBook.pack(move));
+            m_seats.add(seat);
+        }
+
+        /**
+         * Adds the game to the results.
+         *
+         * @param winner the seat that finished first, or -1
+         */
+        @Override
+        public void onGameEnded(int winner) {
+            if (winner >= 0) {
+                addGame(m_keys, m_moves, m_seats, winner);
+            }
+        }
+    }
+
+    /**
+     * A seat that sometimes plays a random forward move in its first turns instead of the move of its own player,
+     * so that the games of a setup do not all follow one line.
+     */
+    private static class ExploringPlayer implements LocalPlayer {
+        private final LocalPlayer m_player;
+        private final PlayerColor m_color;
+        private final GameHandler m_gameHandler;
+        private final int m_exploringTurns;
+        private final JumpChainGenerator m_chainGenerator = new JumpChainGenerator();
+        private int m_turns;
+        private PlayerMove m_randomMove;
+
+        /**
+         * Constructs an ExploringPlayer.
+         *
+         * @param player         the player of the seat
+         * @param color          the color of the seat
+         * @param gameHandler    the game handler of the game
+         * @param exploringTurns the number of turns from the start in which to explore
+         */
+        ExploringPlayer(LocalPlayer player, PlayerColor color, GameHandler gameHandler, int exploringTurns) {
+            this.m_player = player;
+            this.m_color = color;
+            this.m_gameHandler = gameHandler;
+            this.m_exploringTurns = exploringTurns;
+        }
+
+        /**
+         * Starts a turn with a random forward move now and then, otherwise with the player of the seat.
+         */
+        @Override
+        public void onTurnStarted() {
+            m_randomMove = m_turns++ < m_exploringTurns && ThreadLocalRandom.current().nextDouble() < EXPLORATION
+                    ? randomForwardMove() : null;
+            if (m_randomMove == null) {
+                m_player.onTurnStarted();
+            }
+        }
+
+        /**
+         * Passes a move on to the player of the seat.
+         *
+         * @param fromX the starting x-coordinate
+         * @param fromY the starting y-coordinate
+         * @param toX   the ending x-coordinate
+         * @param toY   the ending y-coordinate
+         */
+        @Override
+        public void onMoveApplied(int fromX, int fromY, int toX, int toY) {
+            m_player.onMoveApplied(fromX, fromY, toX, toY);
+        }
+
+        /**
+         * Chooses the random move of the turn, or else the move of the player of the seat.
+         *
+         * @return the move
+         */
+        @Override
+        public PlayerMove nextMove() {
+            return m_randomMove != null ? m_randomMove : m_player.nextMove();
+        }
+
+        /**
+         * Picks one of the moves that bring a pawn closer to its goal.
+         *
+         * @return the move, or null if there is none
+         */
+        private PlayerMove randomForwardMove() {
+            BitBoard bitBoard = m_gameHandler.getBoard().getBitBoard();
+            NeighbourTable neighbourTable = m_gameHandler.getBoard().getNeighbourTable();
+            List<PlayerMove> forward = new ArrayList<>();
+            for (int index = bitBoard.nextPiece(m_color, 0); index >= 0; index = bitBoard.nextPiece(m_color, index + 1)) {
+                int distance = bitBoard.goalDistance(m_color, index);
+                int count = m_chainGenerator.generate(bitBoard, neighbourTable, index);
+                for (int i = 0; i < count; i++) {
+                    int destination = m_chainGenerator.getDestination(i);
+                    if (bitBoard.goalDistance(m_color, destination) < distance) {
+                        forward.add(new PlayerMove(bitBoard.getX(index), bitBoard.getY(index),
+                                bitBoard.getX(destination), bitBoard.getY(destination)));
+                    }
+                }
+            }
+            return forward.isEmpty() ? null : forward.get(ThreadLocalRandom.current().nextInt(forward.size()));
+        }
+    }
+}
\ No newline at end of file
@@ -1,46 +1,149 @@
 package org.chinesecheckers.server.player;
 
 import org.chinesecheckers.common.*;
+import org.chinesecheckers.server.endgame.EndgameTable;
 import org.chinesecheckers.server.movement.GameHandler;
-import org.chinesecheckers.server.movement.JumpVerificationCondition;
-import org.chinesecheckers.server.movement.MoveValidationCondition;
-import org.chinesecheckers.server.movement.PawnVerificationCondition;
+import org.chinesecheckers.server.movement.JumpChainGenerator;
+import org.chinesecheckers.server.opening.OpeningBook;
+import org.chinesecheckers.server.search.MultiplayerSearch;
+import org.chinesecheckers.server.search.SearchEngine;
+import org.chinesecheckers.server.search.SearchSettings;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.GoalDistanceTable;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 /**
  * Represents a bot player in the Chinese Checkers game.
+ * Sessions drive bots through the {@link LocalPlayer} events; the protocol methods remain for callers that still
+ * talk to players in text.
+ * <p>
+ * Without a search engine the bot is a one-ply greedy player; with one, it plays the move the engine finds at
+ * the start of its turn. See {@link #create} for the strategy names. Either way, the bot plays the book move
+ * while its position is in the opening book, and once its last pawns are few enough for the endgame table, the
+ * move the table says finishes soonest.
  */
-public class Bot extends Player {
+public class Bot extends Player implements LocalPlayer {
     private final GameHandler m_gameHandler;
-    private final JumpVerificationCondition m_jumpVerificationCondition;
-    private final PawnVerificationCondition m_pawnVerificationCondition;
-    private final MoveValidationCondition[] m_verifyConditions;
-    private final int m_sleepDuration;
+    private final JumpChainGenerator m_chainGenerator = new JumpChainGenerator();
     List<Move> moves;
     boolean strayMode = false;
-    private GridCoordinate m_target;
     private int m_skipCount;
+    private final MessageTokenizer m_tokenizer = new MessageTokenizer();
+    private final MessageVisitor m_responseVisitor = this::executeResponse;
+    private final SearchEngine m_searchEngine;
+    private final EndgameTable m_endgameTable;
+    private int m_endgameRecord = Integer.MAX_VALUE;
+    private final OpeningBook m_openingBook;
+    private int m_turns;
+    private PlayerMove m_plannedMove;
 
     /**
-     * Constructs a Bot with the specified player color, game handler, and sleep duration.
+     * Constructs a Bot with the specified player color and game handler. The bot decides as fast as it can;
+     * pacing is up to the session.
      *
      * @param color         the player color
      * @param gameHandler   the game handler
-     * @param m_sleepDuration the sleep duration in milliseconds
      */
-    public Bot(PlayerColor color, GameHandler gameHandler, int m_sleepDuration) {
+    public Bot(PlayerColor color, GameHandler gameHandler) {
+        this(color, gameHandler, null);
+    }
+
+    /**
+     * Constructs a Bot that chooses its moves with the specified search engine.
+     *
+     * @param color         the player color
+     * @param gameHandler   the game handler
+     * @param searchEngine  the search engine, or null for the greedy strategy
+     */
+    public Bot(PlayerColor color, GameHandler gameHandler, SearchEngine searchEngine) {
+        this(color, gameHandler, searchEngine, null);
+    }
+
+    /**
+     * Constructs a Bot that chooses its moves with the specified search engine, and with the endgame table once
+     * the table covers its position.
+     *
+     * @param color         the player color
+     * @param gameHandler   the game handler
+     * @param searchEngine  the search engine, or null for the greedy strategy
+     * @param endgameTable  the endgame table, or null
+     */
+    public Bot(PlayerColor color, GameHandler gameHandler, SearchEngine searchEngine, EndgameTable endgameTable) {
+        this(color, gameHandler, searchEngine, endgameTable, null);
+    }
+
+    /**
+     * Constructs a Bot that plays from the opening book while it can, then chooses its moves with the specified
+     * search engine, and with the endgame table once the table covers its position.
+     *
+     * @param color         the player color
+     * @param gameHandler   the game handler
+     * @param searchEngine  the search engine, or null for the greedy strategy
+     * @param endgameTable  the endgame table, or null
+     * @param openingBook   the opening book, or null
+     */
+    public Bot(PlayerColor color, GameHandler gameHandler, SearchEngine searchEngine, EndgameTable endgameTable,
+               OpeningBook openingBook) {
         this.m_gameHandler = gameHandler;
-        this.m_sleepDuration = m_sleepDuration;
+        this.m_searchEngine = searchEngine;
+        this.m_endgameTable = endgameTable;
+        this.m_openingBook = openingBook;
         moves = new ArrayList<>();
         this.color = Colors.valueOf(color.name());
-        setTarget();
-        m_jumpVerificationCondition = new JumpVerificationCondition(0);
-        m_pawnVerificationCondition = new PawnVerificationCondition();
-        m_verifyConditions = new MoveValidationCondition[]{m_jumpVerificationCondition, m_pawnVerificationCondition};
+    }
+
+    /**
+     * Creates a bot from a strategy name, optionally followed by a time budget in milliseconds and a maximum
+     * depth: {@code greedy}, {@code paranoid[:millis[:depth]]} or {@code maxn[:millis[:depth]]}. Both searching
+     * strategies use alpha-beta in two-player games.
+     *
+     * @param strategy     the strategy
+     * @param color        the player color
+     * @param gameHandler  the game handler
+     * @param settings     the shared search resources and the default time budget
+     * @return the bot
+     * @throws IllegalArgumentException if the strategy is unknown or malformed
+     */
+    public static Bot create(String strategy, PlayerColor color, GameHandler gameHandler, SearchSettings settings) {
+        String[] parts = parseStrategy(strategy);
+        int millis = parts.length > 1 ? Integer.parseInt(parts[1]) : settings.searchMillis();
+        int depth = parts.length > 2 ? Integer.parseInt(parts[2]) : Integer.MAX_VALUE;
+        return switch (parts[0].toLowerCase()) {
+            case "greedy" -> new Bot(color, gameHandler, null, settings.endgameTable(), settings.openingBook());
+            case "paranoid" -> new Bot(color, gameHandler, settings.createEngine(millis, depth, MultiplayerSearch.PARANOID),
+                    settings.endgameTable(), settings.openingBook());
+            case "maxn" -> new Bot(color, gameHandler, settings.createEngine(millis, depth, MultiplayerSearch.MAX_N),
+                    settings.endgameTable(), settings.openingBook());
+            default -> throw new IllegalArgumentException("Unknown bot strategy: " + strategy);
+        };
+    }
+
+    /**
+     * Splits a strategy as {@link #create} reads it and checks it, so that the server can reject a bad
+     * bot.strategies entry when it starts instead of when the first bot is seated.
+     *
+     * @param strategy the strategy
+     * @return the name of the strategy, followed by the time budget and the maximum depth if they are given
+     * @throws IllegalArgumentException naming the strategy if it is unknown or its numbers are not positive integers
+     */
+    public static String[] parseStrategy(String strategy) {
+        String[] parts = strategy.trim().split(":");
+        boolean valid = parts.length <= 3 && switch (parts[0].toLowerCase()) {
+            case "greedy", "paranoid", "maxn" -> true;
+            default -> false;
+        };
+        for (int i = 1; i < parts.length && valid; i++) {
+            valid = parts[i].matches("[0-9]{1,9}") && Integer.parseInt(parts[i]) > 0;
+        }
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid bot strategy '" + strategy
+                    + "', expected greedy, paranoid[:millis[:depth]] or maxn[:millis[:depth]]");
+        }
+        return parts;
     }
 
     /**
@@ -50,8 +153,7 @@ public class Bot extends Player {
      */
     @Override
     public void sendCommand(String command) {
-        ClientMessage[] responses = ClientMessage.getResponses(command);
-        executeResponses(responses);
+        m_tokenizer.tokenize(command, m_responseVisitor);
     }
 
     /**
@@ -61,177 +163,225 @@ public class Bot extends Player {
      */
     @Override
     public String readResponse() {
-        try {
-            TimeUnit.MILLISECONDS.sleep(m_sleepDuration);
-        } catch (InterruptedException ex) {
-            throw new RuntimeException();
-        }
-        if (moves.isEmpty() || bestMove().getValue() <= 0) {
-            m_skipCount++;
-            if (m_skipCount > 1) {
-                activateStrayMode();
-            }
+        PlayerMove move = nextMove();
+        if (move == null) {
             return "SKIP";
-        } else {
-            m_skipCount = 0;
-            return makeMoveCommand(bestMove());
         }
+        return "MOVE " + move.fromX() + " " + move.fromY() + " " + move.toX() + " " + move.toY();
     }
 
     /**
-     * Lists all possible moves for the bot.
+     * Starts a turn by looking the position up in the opening book and the endgame table, or else by searching or
+     * by listing and evaluating the moves of every pawn.
      */
-    void listMoves() {
-        List<Coord> possibleMoves;
-        moves.clear();
-        for (int i = 1; i <= m_gameHandler.getBoard().getColumns(); i++) {
-            for (int j = 1; j <= m_gameHandler.getBoard().getRows(); j++) {
-                if (m_gameHandler.getBoard().getField(i, j).getCurrentColor() == PlayerColor.valueOf(color.name())) {
-                    if (!strayMode || m_gameHandler.getBoard().getField(i, j).getTargetColor() != PlayerColor.valueOf(color.name())) {
-                        m_pawnVerificationCondition.setCurrentXY(i, j);
-                        possibleMoves = m_gameHandler.getPossibleMovesForCell(i, j, m_verifyConditions);
-                        for (Coord temp : possibleMoves) {
-                            moves.add(new Move(new GridCoordinate(i, j), new GridCoordinate(temp.getX(), temp.getY())));
-                        }
-                    }
-                }
-            }
+    @Override
+    public void onTurnStarted() {
+        m_plannedMove = bookMove();
+        if (m_plannedMove == null) {
+            m_plannedMove = endgameMove();
         }
-        System.out.println("Bot " + color + " listed moves: " + moves);
-    }
-
-    /**
-     * Evaluates all possible moves for the bot.
-     */
-    void evaluateMoves() {
-        if (moves.isEmpty()) {
+        if (m_plannedMove != null) {
             return;
         }
-        Double prevDistance, currDistance;
-        for (Move temp : moves) {
-            prevDistance = calcDistance(temp.from, m_target);
-            currDistance = calcDistance(temp.to, m_target);
-            temp.setValue(prevDistance - currDistance);
+        if (m_searchEngine != null) {
+            m_plannedMove = m_gameHandler.getBoard().isWinner(getColor()) ? null : m_searchEngine.findMove(m_gameHandler, getColor());
+            return;
         }
-        moves.sort(Collections.reverseOrder());
-        updateVerifyConditions(bestMove());
-        System.out.println("Bot " + color + " evaluated moves: " + moves);
+        listMoves();
+        evaluateMoves();
     }
 
     /**
-     * Gets the best move for the bot.
+     * Ignores moves applied to the board; the bot reads the shared board when its turn comes.
      *
-     * @return the best move
+     * @param fromX the starting x-coordinate
+     * @param fromY the starting y-coordinate
+     * @param toX   the ending x-coordinate
+     * @param toY   the ending y-coordinate
      */
-    Move bestMove() {
-        return !moves.isEmpty() ? moves.getFirst() : null;
+    @Override
+    public void onMoveApplied(int fromX, int fromY, int toX, int toY) {
     }
 
     /**
-     * Calculates the distance between two coordinates.
+     * Chooses the best evaluated move, a step or a whole jump chain. The greedy bot skips when no move brings it
+     * closer to its target, and switches to stray mode after skipping twice in a row. A searching bot, or any bot
+     * in a position of the endgame table, plays the move found at the start of the turn.
      *
-     * @param c1 the first coordinate
-     * @param c2 the second coordinate
-     * @return the distance between the coordinates
+     * @return the best move, or null to skip
      */
-    Double calcDistance(GridCoordinate c1, GridCoordinate c2) {
-        return Math.sqrt(Math.pow(c1.getX() - c2.getX(), 2) + Math.pow(c1.getY() - c2.getY(), 2));
+    @Override
+    public PlayerMove nextMove() {
+        if (m_plannedMove != null || m_searchEngine != null) {
+            m_skipCount = 0;
+            PlayerMove move = m_plannedMove;
+            m_plannedMove = null;
+            return move;
+        }
+        if (moves.isEmpty() || bestMove().getValue() <= 0) {
+            m_skipCount++;
+            if (m_skipCount > 1) {
+                activateStrayMode();
+            }
+            return null;
+        } else {
+            m_skipCount = 0;
+            Move best = bestMove();
+            return new PlayerMove(best.from.getX(), best.from.getY(), best.to.getX(), best.to.getY());
+        }
     }
 
     /**
-     * Creates a move command string.
+     * Looks the position up in the opening book during the first turns of the game. The book move is only played
+     * if it is legal here, so a key collision cannot make the bot cheat.
      *
-     * @param move the move to create the command for
-     * @return the move command string
+     * @return the book move, or null if the book has no legal move for the position
      */
-    String makeMoveCommand(Move move) {
-        return "MOVE " + move.from.getX() + " " + move.from.getY() + " " + move.to.getX() + " " + move.to.getY();
+    private PlayerMove bookMove() {
+        if (m_openingBook == null || m_turns++ >= m_openingBook.getPlies()) {
+            return null;
+        }
+        PlayerMove move = m_openingBook.probe(m_gameHandler.getPositionKey(getColor()));
+        if (move == null) {
+            return null;
+        }
+        BitBoard bitBoard = m_gameHandler.getBoard().getBitBoard();
+        int columns = bitBoard.getX(bitBoard.size() - 1);
+        int rows = bitBoard.getY(bitBoard.size() - 1);
+        if (move.fromX() < 1 || move.fromX() > columns || move.fromY() < 1 || move.fromY() > rows
+                || move.toX() < 1 || move.toX() > columns || move.toY() < 1 || move.toY() > rows) {
+            return null;
+        }
+        int from = bitBoard.index(move.fromX(), move.fromY());
+        if (!bitBoard.hasPiece(from, getColor())) {
+            return null;
+        }
+        m_chainGenerator.generate(bitBoard, m_gameHandler.getBoard().getNeighbourTable(), from);
+        return m_chainGenerator.indexOf(bitBoard.index(move.toX(), move.toY())) >= 0 ? move : null;
     }
 
     /**
-     * Updates the verification conditions based on the specified move.
+     * Finds the legal move that leaves the fewest moves to finish by the endgame table. The table ignores the
+     * other players, so its best move may be blocked. Only moves that beat the best position reached since the
+     * table took over are played; otherwise the bot falls back to its own strategy, which the table then does
+     * not undo.
      *
-     * @param move the move to update the conditions for
+     * @return the move, or null if the table does not cover the position or no move improves on it
      */
-    void updateVerifyConditions(Move move) {
-        resetVerifyConditions();
-        m_pawnVerificationCondition.setCurrentXY(move.to.getX(), move.to.getY());
-        m_jumpVerificationCondition.setStatus(m_gameHandler.verifyMove(move.from.getX(), move.from.getY(), move.to.getX(), move.to.getY(), m_verifyConditions));
-        m_pawnVerificationCondition.setPreviousXY(move.to.getX(), move.to.getY());
+    private PlayerMove endgameMove() {
+        if (m_endgameTable == null || m_gameHandler.getBoard().isWinner(getColor())) {
+            return null;
+        }
+        BitBoard bitBoard = m_gameHandler.getBoard().getBitBoard();
+        PlayerColor ownColor = getColor();
+        int current = m_endgameTable.movesToFinish(bitBoard, ownColor);
+        if (current < 0) {
+            m_endgameRecord = Integer.MAX_VALUE;
+            return null;
+        }
+        m_endgameRecord = Math.min(m_endgameRecord, current);
+        int best = m_endgameRecord;
+        NeighbourTable neighbourTable = m_gameHandler.getBoard().getNeighbourTable();
+        PlayerMove move = null;
+        for (int index = bitBoard.nextPiece(ownColor, 0); index >= 0; index = bitBoard.nextPiece(ownColor, index + 1)) {
+            int count = m_chainGenerator.generate(bitBoard, neighbourTable, index);
+            for (int i = 0; i < count; i++) {
+                int destination = m_chainGenerator.getDestination(i);
+                int remaining = m_endgameTable.movesToFinish(bitBoard, ownColor, index, destination);
+                if (remaining >= 0 && remaining < best) {
+                    best = remaining;
+                    move = new PlayerMove(bitBoard.getX(index), bitBoard.getY(index), bitBoard.getX(destination), bitBoard.getY(destination));
+                }
+            }
+        }
+        if (move != null) {
+            m_endgameRecord = best;
+        }
+        return move;
     }
 
     /**
-     * Resets the verification conditions.
+     * Lists all possible moves for the bot: the steps and the jump chain destinations of every pawn.
      */
-    void resetVerifyConditions() {
-        m_jumpVerificationCondition.setStatus(0);
-        m_pawnVerificationCondition.setCurrentXY(0, 0);
-        m_pawnVerificationCondition.setPreviousXY(0, 0);
+    void listMoves() {
+        moves.clear();
+        BitBoard bitBoard = m_gameHandler.getBoard().getBitBoard();
+        NeighbourTable neighbourTable = m_gameHandler.getBoard().getNeighbourTable();
+        PlayerColor ownColor = getColor();
+        for (int index = bitBoard.nextPiece(ownColor, 0); index >= 0; index = bitBoard.nextPiece(ownColor, index + 1)) {
+            if (!strayMode || !bitBoard.isTarget(index, ownColor)) {
+                GridCoordinate from = new GridCoordinate(bitBoard.getX(index), bitBoard.getY(index));
+                int count = m_chainGenerator.generate(bitBoard, neighbourTable, index);
+                for (int i = 0; i < count; i++) {
+                    int destination = m_chainGenerator.getDestination(i);
+                    moves.add(new Move(from, new GridCoordinate(bitBoard.getX(destination), bitBoard.getY(destination))));
+                }
+            }
+        }
     }
 
     /**
-     * Executes the specified responses.
-     *
-     * @param responses the responses to execute
+     * Evaluates all possible moves for the bot by the distance they gain toward their goal, the nearest free cell
+     * of the deepest row of the target triangle that still has room. In stray mode the goal is any empty target
+     * cell instead, for when the goal is held by a pawn of another color.
      */
-    void executeResponses(ClientMessage[] responses) {
-        for (ClientMessage response : responses) {
-            executeResponse(response);
+    void evaluateMoves() {
+        if (moves.isEmpty()) {
+            return;
+        }
+        BitBoard bitBoard = m_gameHandler.getBoard().getBitBoard();
+        for (Move temp : moves) {
+            int prevDistance = distance(bitBoard, bitBoard.index(temp.from.getX(), temp.from.getY()));
+            int currDistance = distance(bitBoard, bitBoard.index(temp.to.getX(), temp.to.getY()));
+            temp.setValue(prevDistance - currDistance);
         }
+        moves.sort(Collections.reverseOrder());
     }
 
     /**
-     * Executes the specified response.
+     * Gets the distance from a cell to the goal of the bot.
      *
-     * @param response the response to execute
+     * @param bitBoard the board
+     * @param index    the bit index of the cell
+     * @return the hex distance to the goal, or to the nearest empty target cell in stray mode
      */
-    void executeResponse(ClientMessage response) {
-        switch (response.getCode()) {
-            case "YOU" -> {
-                resetVerifyConditions();
-                listMoves();
-                evaluateMoves();
-            }
-            case "OK" -> {
-                listMoves();
-                evaluateMoves();
-            }
+    private int distance(BitBoard bitBoard, int index) {
+        if (!strayMode) {
+            return bitBoard.goalDistance(getColor(), index);
+        }
+        int nearest = Integer.MAX_VALUE;
+        for (int target = bitBoard.nextFreeTarget(getColor(), 0); target >= 0; target = bitBoard.nextFreeTarget(getColor(), target + 1)) {
+            nearest = Math.min(nearest, GoalDistanceTable.hexDistance(bitBoard, index, target));
         }
+        return nearest == Integer.MAX_VALUE ? 0 : nearest;
     }
 
     /**
-     * Activates the stray mode for the bot.
+     * Gets the best move for the bot.
+     *
+     * @return the best move
      */
-    void activateStrayMode() {
-        strayMode = true;
-        setStrayTarget();
+    Move bestMove() {
+        return !moves.isEmpty() ? moves.getFirst() : null;
     }
 
     /**
-     * Sets the stray target for the bot.
+     * Executes the specified response.
+     *
+     * @param response the response to execute
      */
-    void setStrayTarget() {
-        for (int i = 1; i <= m_gameHandler.getBoard().getColumns(); i++) {
-            for (int j = 1; j <= m_gameHandler.getBoard().getRows(); j++) {
-                if (m_gameHandler.getBoard().getField(i, j).getTargetColor() == PlayerColor.valueOf(color.name()) && m_gameHandler.getBoard().getField(i, j).getCurrentColor() == PlayerColor.NONE) {
-                    m_target = new GridCoordinate(i, j);
-                }
-            }
+    void executeResponse(MessageTokenizer response) {
+        if (response.isCode("YOU")) {
+            onTurnStarted();
         }
     }
 
     /**
-     * Sets the target for the bot based on its color.
+     * Activates the stray mode for the bot: pawns already on target cells stay there, and the others head for
+     * the nearest empty target cell.
      */
-    void setTarget() {
-        switch (color) {
-            case RED -> m_target = new GridCoordinate(7, 1);
-            case GREEN -> m_target = new GridCoordinate(7, 17);
-            case BLUE -> m_target = new GridCoordinate(13, 13);
-            case ORANGE -> m_target = new GridCoordinate(1, 5);
-            case VIOLET -> m_target = new GridCoordinate(13, 5);
-            case YELLOW -> m_target = new GridCoordinate(1, 13);
-        }
+    void activateStrayMode() {
+        strayMode = true;
     }
 
     /**
@@ -239,7 +389,7 @@ public class Bot extends Player {
      */
     static class Move implements Comparable<Move> {
         GridCoordinate from, to;
-        Double value;
+        int value;
 
         /**
          * Constructs a Move with the specified from and to coordinates.
@@ -260,7 +410,7 @@ public class Bot extends Player {
          */
         @Override
         public int compareTo(Move o) {
-            return this.value.compareTo(o.value);
+            return Integer.compare(this.value, o.value);
         }
 
         /**
@@ -268,7 +418,7 @@ public class Bot extends Player {
          *
          * @return the value of the move
          */
-        Double getValue() {
+        int getValue() {
             return value;
         }
 
@@ -277,7 +427,7 @@ public class Bot extends Player {
          *
          * @param value the value to set
          */
-        void setValue(Double value) {
+        void setValue(int value) {
             this.value = value;
         }
 
@@ -0,0 +1,31 @@
+package org.chinesecheckers.server.player;
+
+/**
+ * A player running inside the server, such as a bot. The session drives it through typed events and asks it
+ * for structured moves instead of exchanging protocol lines, so no command is formatted or parsed for it.
+ */
+public interface LocalPlayer {
+
+    /**
+     * Called when the turn of this player starts.
+     */
+    void onTurnStarted();
+
+    /**
+     * Called after any move has been applied to the board, including the moves of this player.
+     *
+     * @param fromX the starting x-coordinate
+     * @param fromY the starting y-coordinate
+     * @param toX   the ending x-coordinate
+     * @param toY   the ending y-coordinate
+     */
+    void onMoveApplied(int fromX, int fromY, int toX, int toY);
+
+    /**
+     * Chooses the move of the current turn: a single step, or a whole jump chain given by its start and its
+     * destination. The turn ends after the move.
+     *
+     * @return the move, or null to skip the turn
+     */
+    PlayerMove nextMove();
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.chinesecheckers.server.player;
 
 import org.chinesecheckers.common.Colors;
+import org.chinesecheckers.common.MovedMessage;
 import org.chinesecheckers.common.PlayerColor;
 
 /**
@@ -17,6 +18,15 @@ public abstract class Player {
      */
     public abstract void sendCommand(String command);
 
+    /**
+     * Sends a board delta to the player. Players that cannot send it as it is send its line.
+     *
+     * @param moved the delta to send
+     */
+    public void sendMoved(MovedMessage moved) {
+        sendCommand(moved.toString());
+    }
+
     /**
      * Reads the response from the player.
      *
@@ -1,7 +1,10 @@
 package org.chinesecheckers.server.player;
 
 import org.chinesecheckers.common.Colors;
+import org.chinesecheckers.common.MovedMessage;
 import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.transport.CommunicationManager;
+import org.chinesecheckers.server.transport.Connection;
 
 import java.net.Socket;
 
@@ -9,7 +12,7 @@ import java.net.Socket;
  * Represents a player entity in the Chinese Checkers game.
  */
 public class PlayerEntity extends Player {
-    private final CommunicationManager m_communicationManager;
+    private final Connection m_communicationManager;
 
     /**
      * Constructs a PlayerEntity with the specified socket and player color.
@@ -19,8 +22,18 @@ public class PlayerEntity extends Player {
      * @throws Exception if an error occurs while setting up the communication manager
      */
     public PlayerEntity(Socket socket, PlayerColor color) throws Exception {
+        this(new CommunicationManager(socket), color);
+    }
+
+    /**
+     * Constructs a PlayerEntity with an already established connection and the specified player color.
+     *
+     * @param communicationManager the connection of the player
+     * @param color                the player color
+     */
+    public PlayerEntity(Connection communicationManager, PlayerColor color) {
         this.color = Colors.valueOf(color.name());
-        m_communicationManager = new CommunicationManager(socket);
+        m_communicationManager = communicationManager;
     }
 
     /**
@@ -33,6 +46,16 @@ public class PlayerEntity extends Player {
         m_communicationManager.writeLine(command);
     }
 
+    /**
+     * Sends a board delta to the player, leaving it to the connection to encode.
+     *
+     * @param moved the delta to send
+     */
+    @Override
+    public void sendMoved(MovedMessage moved) {
+        m_communicationManager.writeMoved(moved);
+    }
+
     /**
      * Reads the response from the player.
      *
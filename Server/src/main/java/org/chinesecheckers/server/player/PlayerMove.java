@@ -0,0 +1,12 @@
+package org.chinesecheckers.server.player;
+
+/**
+ * A single move chosen by an in-process player: one pawn from one cell to another.
+ *
+ * @param fromX the starting x-coordinate
+ * @param fromY the starting y-coordinate
+ * @param toX   the ending x-coordinate
+ * @param toY   the ending y-coordinate
+ */
+public record PlayerMove(int fromX, int fromY, int toX, int toY) {
+}
\ No newline at end of file
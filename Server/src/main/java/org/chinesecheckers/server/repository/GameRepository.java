@@ -1,12 +1,13 @@
 package org.chinesecheckers.server.repository;
 
 import org.chinesecheckers.server.model.Game;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
-
 /**
  * Repository interface for accessing Game entities.
  */
@@ -14,10 +15,26 @@ import java.util.List;
 public interface GameRepository extends JpaRepository<Game, Long> {
 
     /**
-     * Retrieves all games from the database.
+     * Retrieves a page of game summaries, ordered by game ID. The moves are counted by the database rather than
+     * loaded.
+     *
+     * @param pageable the page to retrieve
+     * @return the page of summaries
+     */
+    @Query(value = "SELECT new org.chinesecheckers.server.repository.GameSummary(g.id, g.mode, g.numberOfPlayers, "
+            + "g.numberOfBots, COUNT(m), g.createdAt) FROM Game g LEFT JOIN g.moves m "
+            + "GROUP BY g.id, g.mode, g.numberOfPlayers, g.numberOfBots, g.createdAt ORDER BY g.id",
+            countQuery = "SELECT COUNT(g) FROM Game g")
+    Page<GameSummary> findGameSummaries(Pageable pageable);
+
+    /**
+     * Retrieves the summary of one game.
      *
-     * @return a list of all games
+     * @param gameId the ID of the game
+     * @return the summary, or null if there is no such game
      */
-    @Query("SELECT g FROM Game g")
-    List<Game> findAllGames();
+    @Query("SELECT new org.chinesecheckers.server.repository.GameSummary(g.id, g.mode, g.numberOfPlayers, "
+            + "g.numberOfBots, COUNT(m), g.createdAt) FROM Game g LEFT JOIN g.moves m WHERE g.id = :gameId "
+            + "GROUP BY g.id, g.mode, g.numberOfPlayers, g.numberOfBots, g.createdAt")
+    GameSummary findGameSummary(@Param("gameId") Long gameId);
 }
\ No newline at end of file
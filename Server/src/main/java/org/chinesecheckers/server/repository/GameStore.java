@@ -0,0 +1,97 @@
+package org.chinesecheckers.server.repository;
+
+import org.chinesecheckers.server.model.Game;
+import org.chinesecheckers.server.model.Move;
+import org.chinesecheckers.server.model.Snapshot;
+
+import java.util.List;
+
+/**
+ * Stores recorded games and their moves for the sessions and the replay menu, whatever keeps them: the JPA
+ * repositories or the binary journal, as chosen by the persistence.backend property.
+ */
+public interface GameStore {
+
+    /**
+     * Records a new game and gives it its ID.
+     *
+     * @param game the game, with its mode and seats filled in
+     * @return the same game, with its ID set
+     */
+    Game saveGame(Game game);
+
+    /**
+     * Records a move of a game. The move may be written later; see {@link #flush()}.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made in the game before this one
+     * @param fromX  the starting x-coordinate
+     * @param fromY  the starting y-coordinate
+     * @param toX    the ending x-coordinate
+     * @param toY    the ending y-coordinate
+     */
+    void saveMove(Long gameId, int ply, int fromX, int fromY, int toX, int toY);
+
+    /**
+     * Records the pawns of a game after a number of moves, so that later reads can start there. It may be
+     * written later, like the moves, and stores may keep no snapshots at all.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made so far
+     * @param board  the snapshot of the board, see {@link org.chinesecheckers.server.serverBoard.BitBoard#snapshot()}
+     */
+    void saveSnapshot(Long gameId, int ply, byte[] board);
+
+    /**
+     * Waits until every move recorded so far is stored.
+     *
+     * @return true if the moves are stored, false if some could not be
+     */
+    boolean flush();
+
+    /**
+     * Retrieves a page of recorded games as summaries, ordered by game ID, without loading their moves.
+     *
+     * @param page the index of the page, from 0
+     * @param size the number of games per page
+     * @return the summaries of the page, fewer than the page size on the last page
+     */
+    List<GameSummary> findGameSummaries(int page, int size);
+
+    /**
+     * Retrieves the summary of one recorded game.
+     *
+     * @param gameId the ID of the game
+     * @return the summary, or null if the game is unknown
+     */
+    GameSummary findGameSummary(Long gameId);
+
+    /**
+     * Retrieves the moves of a game in the order they were played.
+     *
+     * @param gameId the ID of the game
+     * @return the moves of the game
+     */
+    List<Move> findMovesByGameId(Long gameId);
+
+    /**
+     * Finds the latest snapshot of a game taken at or before a ply.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the ply
+     * @return the snapshot, or null if there is none
+     */
+    Snapshot findSnapshot(Long gameId, int ply);
+
+    /**
+     * Opens a cursor over the moves of a game in the order they were played, starting at a ply, for reading long
+     * games without holding all their moves. Moves recorded after the cursor has read past them are not
+     * guaranteed to appear.
+     *
+     * @param gameId    the ID of the game
+     * @param fromPly   the ply of the first move to read
+     * @param fetchSize the number of moves to read at a time
+     * @return the cursor, with no moves if the game is unknown
+     */
+    MoveCursor openMoves(Long gameId, int fromPly, int fetchSize);
+}
\ No newline at end of file
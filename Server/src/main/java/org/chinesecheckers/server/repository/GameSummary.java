@@ -0,0 +1,17 @@
+package org.chinesecheckers.server.repository;
+
+import java.time.Instant;
+
+/**
+ * What a listing shows of a recorded game, without its moves.
+ *
+ * @param id              the ID of the game
+ * @param mode            the mode of the game
+ * @param numberOfPlayers the number of remote players
+ * @param numberOfBots    the number of bots
+ * @param moveCount       the number of moves recorded
+ * @param createdAt       the time the game was created, or null if it is not known
+ */
+public record GameSummary(Long id, String mode, int numberOfPlayers, int numberOfBots, long moveCount,
+                          Instant createdAt) {
+}
\ No newline at end of file
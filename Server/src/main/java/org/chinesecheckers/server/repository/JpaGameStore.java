@@ -0,0 +1,233 @@
+package org.chinesecheckers.server.repository;
+
+import org.chinesecheckers.server.model.Game;
+import org.chinesecheckers.server.model.Move;
+import org.chinesecheckers.server.model.Snapshot;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+/**
+ * Stores games through the JPA repositories. Games are saved as entities; moves and board snapshots go through
+ * the {@link MoveWriter}, which inserts them in batches behind the game loop.
+ */
+public class JpaGameStore implements GameStore {
+    private final GameRepository m_gameRepository;
+    private final MoveRepository m_moveRepository;
+    private final SnapshotRepository m_snapshotRepository;
+    private final MoveWriter m_moveWriter;
+
+    /**
+     * Constructs a JpaGameStore.
+     *
+     * @param gameRepository     the repository of the games
+     * @param moveRepository     the repository of the moves
+     * @param snapshotRepository the repository of the board snapshots
+     * @param moveWriter         the writer of the moves and snapshots
+     */
+    public JpaGameStore(GameRepository gameRepository, MoveRepository moveRepository,
+                        SnapshotRepository snapshotRepository, MoveWriter moveWriter) {
+        this.m_gameRepository = gameRepository;
+        this.m_moveRepository = moveRepository;
+        this.m_snapshotRepository = snapshotRepository;
+        this.m_moveWriter = moveWriter;
+    }
+
+    /**
+     * Saves a new game entity, which gives it its ID.
+     *
+     * @param game the game, with its mode and seats filled in
+     * @return the saved game
+     */
+    @Override
+    public Game saveGame(Game game) {
+        return m_gameRepository.save(game);
+    }
+
+    /**
+     * Hands a move to the move writer.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made in the game before this one
+     * @param fromX  the starting x-coordinate
+     * @param fromY  the starting y-coordinate
+     * @param toX    the ending x-coordinate
+     * @param toY    the ending y-coordinate
+     */
+    @Override
+    public void saveMove(Long gameId, int ply, int fromX, int fromY, int toX, int toY) {
+        m_moveWriter.write(gameId, ply, fromX, fromY, toX, toY);
+    }
+
+    /**
+     * Hands a board snapshot to the move writer, which writes it in order with the moves.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made so far
+     * @param board  the snapshot of the board
+     */
+    @Override
+    public void saveSnapshot(Long gameId, int ply, byte[] board) {
+        m_moveWriter.writeSnapshot(gameId, ply, board);
+    }
+
+    /**
+     * Waits until the move writer has written every queued move.
+     *
+     * @return true if the moves were written
+     */
+    @Override
+    public boolean flush() {
+        return m_moveWriter.flush();
+    }
+
+    /**
+     * Retrieves a page of game summaries from the database.
+     *
+     * @param page the index of the page, from 0
+     * @param size the number of games per page
+     * @return the summaries of the page
+     */
+    @Override
+    public List<GameSummary> findGameSummaries(int page, int size) {
+        return m_gameRepository.findGameSummaries(PageRequest.of(page, size)).getContent();
+    }
+
+    /**
+     * Retrieves the moves of a game from the database.
+     *
+     * @param gameId the ID of the game
+     * @return the moves of the game, ordered by move ID
+     */
+    @Override
+    public List<Move> findMovesByGameId(Long gameId) {
+        return m_moveRepository.findMovesByGameId(gameId);
+    }
+
+    /**
+     * Retrieves the summary of one game from the database.
+     *
+     * @param gameId the ID of the game
+     * @return the summary, or null if there is no such game
+     */
+    @Override
+    public GameSummary findGameSummary(Long gameId) {
+        return m_gameRepository.findGameSummary(gameId);
+    }
+
+    /**
+     * Finds the latest snapshot of a game taken at or before a ply in the database.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the ply
+     * @return the snapshot, or null if there is none
+     */
+    @Override
+    public Snapshot findSnapshot(Long gameId, int ply) {
+        List<Snapshot> snapshots = m_snapshotRepository.findSnapshotsUpTo(gameId, ply, PageRequest.of(0, 1));
+        return snapshots.isEmpty() ? null : snapshots.getFirst();
+    }
+
+    /**
+     * Opens a cursor that reads the moves of a game a page at a time, each page starting after the last move
+     * read.
+     *
+     * @param gameId    the ID of the game
+     * @param fromPly   the ply of the first move to read
+     * @param fetchSize the number of moves per page
+     * @return the cursor
+     */
+    @Override
+    public MoveCursor openMoves(Long gameId, int fromPly, int fetchSize) {
+        return new PagedMoveCursor(gameId, fromPly, Math.max(1, fetchSize));
+    }
+
+    /**
+     * Reads the moves of a game with one query per page, keyed by the ply after the last move read, so that no
+     * database resources are held while the reader waits between moves.
+     */
+    private class PagedMoveCursor implements MoveCursor {
+        private final Long m_gameId;
+        private final PageRequest m_page;
+        private List<Move> m_moves = List.of();
+        private int m_index = -1;
+        private int m_nextPly;
+        private boolean m_exhausted;
+
+        /**
+         * Constructs a PagedMoveCursor before a move of a game.
+         *
+         * @param gameId    the ID of the game
+         * @param fromPly   the ply of the first move to read
+         * @param fetchSize the number of moves per page
+         */
+        PagedMoveCursor(Long gameId, int fromPly, int fetchSize) {
+            this.m_gameId = gameId;
+            this.m_nextPly = fromPly;
+            this.m_page = PageRequest.of(0, fetchSize);
+        }
+
+        /**
+         * Advances to the next move, reading the next page when the current one is used up.
+         *
+         * @return true if there is a next move
+         */
+        @Override
+        public boolean next() {
+            if (++m_index < m_moves.size()) {
+                return true;
+            }
+            if (m_exhausted) {
+                return false;
+            }
+            m_moves = m_moveRepository.findMovesFrom(m_gameId, m_nextPly, m_page);
+            m_exhausted = m_moves.size() < m_page.getPageSize();
+            m_index = 0;
+            if (m_moves.isEmpty()) {
+                return false;
+            }
+            m_nextPly = m_moves.getLast().getPly() + 1;
+            return true;
+        }
+
+        /**
+         * Gets the starting x-coordinate of the current move.
+         *
+         * @return the starting x-coordinate
+         */
+        @Override
+        public int fromX() {
+            return m_moves.get(m_index).getFromX();
+        }
+
+        /**
+         * Gets the starting y-coordinate of the current move.
+         *
+         * @return the starting y-coordinate
+         */
+        @Override
+        public int fromY() {
+            return m_moves.get(m_index).getFromY();
+        }
+
+        /**
+         * Gets the ending x-coordinate of the current move.
+         *
+         * @return the ending x-coordinate
+         */
+        @Override
+        public int toX() {
+            return m_moves.get(m_index).getToX();
+        }
+
+        /**
+         * Gets the ending y-coordinate of the current move.
+         *
+         * @return the ending y-coordinate
+         */
+        @Override
+        public int toY() {
+            return m_moves.get(m_index).getToY();
+        }
+    }
+}
\ No newline at end of file
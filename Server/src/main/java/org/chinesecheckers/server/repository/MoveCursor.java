@@ -0,0 +1,43 @@
+package org.chinesecheckers.server.repository;
+
+/**
+ * Reads the moves of a recorded game one at a time, in the order they were made. A cursor holds at most one
+ * batch of moves, however long the game; it may be dropped at any point without being closed.
+ */
+public interface MoveCursor {
+
+    /**
+     * Advances to the next move.
+     *
+     * @return true if there is a next move, false once every move has been read
+     */
+    boolean next();
+
+    /**
+     * Gets the starting x-coordinate of the current move.
+     *
+     * @return the starting x-coordinate
+     */
+    int fromX();
+
+    /**
+     * Gets the starting y-coordinate of the current move.
+     *
+     * @return the starting y-coordinate
+     */
+    int fromY();
+
+    /**
+     * Gets the ending x-coordinate of the current move.
+     *
+     * @return the ending x-coordinate
+     */
+    int toX();
+
+    /**
+     * Gets the ending y-coordinate of the current move.
+     *
+     * @return the ending y-coordinate
+     */
+    int toY();
+}
\ No newline at end of file
@@ -1,6 +1,7 @@
 package org.chinesecheckers.server.repository;
 
 import org.chinesecheckers.server.model.Move;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,4 +23,17 @@ public interface MoveRepository extends JpaRepository<Move, Long> {
      */
     @Query("SELECT m FROM Move m WHERE m.game.id = :gameId ORDER BY m.id")
     List<Move> findMovesByGameId(@Param("gameId") Long gameId);
+
+    /**
+     * Retrieves the moves of a game from a given ply on, ordered by ply. Reading a game this way, one page after
+     * another, keeps neither a transaction nor a result set open in between, and the index on game and ply lets
+     * a read start anywhere in the game.
+     *
+     * @param gameId  the ID of the game
+     * @param fromPly the ply of the first move to retrieve
+     * @param limit   the page holding the number of moves to retrieve; only its size is used
+     * @return the moves
+     */
+    @Query("SELECT m FROM Move m WHERE m.game.id = :gameId AND m.ply >= :fromPly ORDER BY m.ply")
+    List<Move> findMovesFrom(@Param("gameId") Long gameId, @Param("fromPly") int fromPly, Pageable limit);
 }
\ No newline at end of file
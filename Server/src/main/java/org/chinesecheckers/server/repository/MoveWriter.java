@@ -0,0 +1,323 @@
+package org.chinesecheckers.server.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.BatchUpdateException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes the moves of every table to the database behind the game loop. Sessions queue a move and carry on; one
+ * writer thread takes the queued moves in batches and stores each batch with a single JDBC batch insert, so the
+ * database sees a few round trips per second instead of one persist and flush per hop.
+ * <p>
+ * How much may be lost is set by the persistence.move-durability property:
+ * <ul>
+ *     <li>{@code write-behind}, the default: a queued move is written within persistence.move-flush-millis, so a
+ *     crash loses at most that much play. A session flushes its moves when its game ends, and all queued moves
+ *     are written when the server shuts down. The game loop only waits if the database has fallen a full queue
+ *     behind. The rows of a batch insert that fails are inserted one by one, and a flush reports any row that
+ *     still could not be written.</li>
+ *     <li>{@code immediate}: every move is inserted before the session goes on, as a single row.</li>
+ * </ul>
+ * The rows are those of {@link org.chinesecheckers.server.model.Move} and of the board snapshots,
+ * {@link org.chinesecheckers.server.model.Snapshot}, which share the queue; a game keeps its rows in order, since
+ * one thread writes them all.
+ */
+@Component
+public class MoveWriter {
+    private static final String INSERT = "INSERT INTO move (fromx, fromy, tox, toy, ply, game_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SNAPSHOT = "INSERT INTO snapshot (ply, board, game_id) VALUES (?, ?, ?)";
+    private static final PendingRow FLUSH = new PendingRow(0L, 0, 0, 0, 0, 0, null);
+    private static final long FLUSH_TIMEOUT_MILLIS = 10_000;
+
+    private final JdbcTemplate m_jdbcTemplate;
+    private final boolean m_immediate;
+    private final int m_batchSize;
+    private final long m_flushNanos;
+    private final BlockingQueue<PendingRow> m_queue;
+    private final AtomicLong m_queued = new AtomicLong();
+    private final Object m_writtenLock = new Object();
+    private long m_processed;
+    private long m_failed;
+    private volatile boolean m_stopped;
+    private final Thread m_writer;
+
+    /**
+     * Constructs a MoveWriter and starts its writer thread, unless moves are written immediately.
+     *
+     * @param jdbcTemplate the JDBC template of the game database
+     * @param durability   {@code write-behind} or {@code immediate}
+     * @param queueSize    the largest number of rows waiting to be written
+     * @param batchSize    the largest number of rows per batch
+     * @param flushMillis  the longest time a queued move waits for its batch to fill, in milliseconds
+     */
+    @Autowired
+    public MoveWriter(JdbcTemplate jdbcTemplate,
+                      @Value("${persistence.move-durability:write-behind}") String durability,
+                      @Value("${persistence.move-queue-size:8192}") int queueSize,
+                      @Value("${persistence.move-batch-size:256}") int batchSize,
+                      @Value("${persistence.move-flush-millis:100}") long flushMillis) {
+        this.m_jdbcTemplate = jdbcTemplate;
+        this.m_immediate = switch (durability.trim().toLowerCase()) {
+            case "write-behind" -> false;
+            case "immediate" -> true;
+            default -> throw new IllegalArgumentException("Unknown move durability: " + durability);
+        };
+        this.m_batchSize = Math.max(1, batchSize);
+        this.m_flushNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, flushMillis));
+        this.m_queue = new ArrayBlockingQueue<>(Math.max(1, queueSize));
+        this.m_writer = m_immediate ? null : Thread.ofPlatform().name("move-writer").daemon().start(this::writeLoop);
+    }
+
+    /**
+     * Writes a move of a game, or queues it to be written.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made in the game before this one
+     * @param fromX  the starting x-coordinate
+     * @param fromY  the starting y-coordinate
+     * @param toX    the ending x-coordinate
+     * @param toY    the ending y-coordinate
+     */
+    public void write(Long gameId, int ply, int fromX, int fromY, int toX, int toY) {
+        enqueue(new PendingRow(gameId, ply, fromX, fromY, toX, toY, null));
+    }
+
+    /**
+     * Writes a board snapshot of a game, or queues it to be written behind the moves before it.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the number of moves made so far
+     * @param board  the snapshot of the board
+     */
+    public void writeSnapshot(Long gameId, int ply, byte[] board) {
+        enqueue(new PendingRow(gameId, ply, 0, 0, 0, 0, board));
+    }
+
+    /**
+     * Queues a row, or inserts it at once if rows are written immediately or the writer has stopped.
+     *
+     * @param row the row
+     */
+    private void enqueue(PendingRow row) {
+        if (m_immediate || m_stopped) {
+            insert(row);
+            return;
+        }
+        m_queued.incrementAndGet();
+        try {
+            m_queue.put(row);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            m_queued.decrementAndGet();
+            insert(row);
+        }
+    }
+
+    /**
+     * Inserts a single row.
+     *
+     * @param row the row
+     */
+    private void insert(PendingRow row) {
+        if (row.board() != null) {
+            m_jdbcTemplate.update(INSERT_SNAPSHOT, row.ply(), row.board(), row.gameId());
+        } else {
+            m_jdbcTemplate.update(INSERT, row.fromX(), row.fromY(), row.toX(), row.toY(), row.ply(), row.gameId());
+        }
+    }
+
+    /**
+     * Waits until every move and snapshot queued so far, by any session, has been written or has failed.
+     *
+     * @return true if the rows were written, false if a row could not be written while waiting, or the wait timed
+     * out or was interrupted
+     */
+    public boolean flush() {
+        if (m_immediate) {
+            return true;
+        }
+        long target = m_queued.get();
+        long failed;
+        synchronized (m_writtenLock) {
+            failed = m_failed;
+        }
+        m_queue.offer(FLUSH);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_TIMEOUT_MILLIS);
+        synchronized (m_writtenLock) {
+            while (m_processed < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    System.err.println("Timed out flushing moves: " + (target - m_processed) + " not yet written");
+                    return false;
+                }
+                try {
+                    m_writtenLock.wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return m_failed == failed;
+        }
+    }
+
+    /**
+     * Writes the queued moves in batches until the writer is stopped and the queue is empty. A batch is written
+     * when it is full, when its first move has waited the flush interval, or when a flush is requested.
+     */
+    private void writeLoop() {
+        List<PendingRow> batch = new ArrayList<>(m_batchSize);
+        while (!m_stopped || !m_queue.isEmpty()) {
+            try {
+                batch.add(m_queue.take());
+                long deadline = System.nanoTime() + m_flushNanos;
+                boolean flushRequested = batch.getFirst() == FLUSH;
+                while (!flushRequested && batch.size() < m_batchSize) {
+                    PendingRow next = m_queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    int size = batch.size();
+                    batch.add(next);
+                    m_queue.drainTo(batch, m_batchSize - batch.size());
+                    for (int i = size; i < batch.size() && !flushRequested; i++) {
+                        flushRequested = batch.get(i) == FLUSH;
+                    }
+                }
+            } catch (InterruptedException e) {
+                m_stopped = true;
+                m_queue.drainTo(batch);
+            }
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Inserts a batch of moves and snapshots, one batch insert for each table. The rows of a batch insert that
+     * fails are inserted one by one; a row that fails on its own is reported and counted as failed, so that flushes
+     * neither wait for it forever nor report it written.
+     *
+     * @param batch the rows, with any flush requests among them
+     */
+    private void writeBatch(List<PendingRow> batch) {
+        List<PendingRow> moves = new ArrayList<>(batch.size());
+        List<PendingRow> snapshots = new ArrayList<>();
+        for (PendingRow row : batch) {
+            if (row == FLUSH) {
+                continue;
+            }
+            if (row.board() != null) {
+                snapshots.add(row);
+            } else {
+                moves.add(row);
+            }
+        }
+        int failed = batchInsert(INSERT, moves) + batchInsert(INSERT_SNAPSHOT, snapshots);
+        synchronized (m_writtenLock) {
+            m_processed += moves.size() + snapshots.size();
+            m_failed += failed;
+            m_writtenLock.notifyAll();
+        }
+    }
+
+    /**
+     * Inserts rows of one table with one batch insert. If the batch insert fails, the rows it did not insert are
+     * inserted one by one.
+     *
+     * @param sql  the insert statement
+     * @param rows the rows
+     * @return the number of rows that could not be inserted
+     */
+    private int batchInsert(String sql, List<PendingRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> args = new ArrayList<>(rows.size());
+        for (PendingRow row : rows) {
+            args.add(row.board() != null ? new Object[]{row.ply(), row.board(), row.gameId()}
+                    : new Object[]{row.fromX(), row.fromY(), row.toX(), row.toY(), row.ply(), row.gameId()});
+        }
+        int[] updateCounts;
+        try {
+            m_jdbcTemplate.batchUpdate(sql, args);
+            return 0;
+        } catch (DataAccessException e) {
+            System.err.println("Error writing a batch of " + rows.size() + " rows, retrying them one by one: "
+                    + e.getMessage());
+            updateCounts = updateCounts(e);
+        }
+        int failed = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            if (i < updateCounts.length && updateCounts[i] != Statement.EXECUTE_FAILED) {
+                continue;
+            }
+            try {
+                insert(rows.get(i));
+            } catch (DataAccessException e) {
+                System.err.println("Error writing a row of game " + rows.get(i).gameId() + ": " + e.getMessage());
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Finds which rows of a failed batch insert were inserted, from the update counts of the driver. A driver that
+     * stops at the first failing row reports only the rows before it; one that goes on marks each failing row.
+     *
+     * @param e the failure of the batch insert
+     * @return the update count of each row the driver reports on, or none if it reports none
+     */
+    private static int[] updateCounts(DataAccessException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BatchUpdateException batchFailure && batchFailure.getUpdateCounts() != null) {
+                return batchFailure.getUpdateCounts();
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Writes the queued rows and stops the writer thread. Rows written afterwards are inserted immediately.
+     */
+    @PreDestroy
+    public void close() {
+        if (m_writer == null) {
+            return;
+        }
+        m_stopped = true;
+        m_queue.offer(FLUSH);
+        try {
+            m_writer.join(FLUSH_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A move or board snapshot waiting to be written.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the ply of the move, or the number of moves before the snapshot
+     * @param fromX  the starting x-coordinate
+     * @param fromY  the starting y-coordinate
+     * @param toX    the ending x-coordinate
+     * @param toY    the ending y-coordinate
+     * @param board  the snapshot of the board, or null for a move
+     */
+    private record PendingRow(Long gameId, int ply, int fromX, int fromY, int toX, int toY, byte[] board) {
+    }
+}
\ No newline at end of file
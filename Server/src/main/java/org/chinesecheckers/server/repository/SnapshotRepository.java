@@ -0,0 +1,28 @@
+package org.chinesecheckers.server.repository;
+
+import org.chinesecheckers.server.model.Snapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for accessing Snapshot entities.
+ */
+@Repository
+public interface SnapshotRepository extends JpaRepository<Snapshot, Long> {
+
+    /**
+     * Retrieves the snapshots of a game taken at or before a ply, latest first.
+     *
+     * @param gameId the ID of the game
+     * @param ply    the ply
+     * @param limit  the page holding the number of snapshots to retrieve; only its size is used
+     * @return the snapshots
+     */
+    @Query("SELECT s FROM Snapshot s WHERE s.game.id = :gameId AND s.ply <= :ply ORDER BY s.ply DESC")
+    List<Snapshot> findSnapshotsUpTo(@Param("gameId") Long gameId, @Param("ply") int ply, Pageable limit);
+}
\ No newline at end of file
@@ -0,0 +1,463 @@
+package org.chinesecheckers.server.search;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.movement.JumpChainGenerator;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+import org.chinesecheckers.server.serverBoard.ZobristKeys;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches the game tree with iterative deepening under a time budget per move. Two-player games use
+ * alpha-beta; games of more players use either paranoid alpha-beta or Max^n, see {@link MultiplayerSearch}.
+ * <p>
+ * A move is a single step or a whole jump chain, after which the turn passes to the next player who has not
+ * finished. Moves are ordered by how much closer they bring the pawn to its target, and the best move of the
+ * previous iteration is searched first. An iteration cut short by the budget is discarded, so the result is
+ * always the best move of the deepest completed iteration.
+ * <p>
+ * Alpha-beta searches store their results in a {@link TranspositionTable} when one is given. Scores are kept
+ * for the searching player, whose color is mixed into the keys. A stored result cuts the search when it is deep
+ * enough and its bound allows it; otherwise its best move is searched first. Max^n does not use the table.
+ * <p>
+ * The search copies the board once and walks the tree on that copy, making and taking back each move with
+ * {@link BitBoard#doMove} and {@link BitBoard#undoMove}, so no node allocates.
+ * <p>
+ * A search reuses its move buffers and is therefore not thread-safe; every bot owns its engine. The table may
+ * be shared.
+ */
+public class GameTreeSearch implements SearchEngine {
+    private static final int MAX_PLY = 32;
+    private static final int MAX_MOVES = 512;
+    private static final int TIME_CHECK_INTERVAL = 1024;
+    private static final int INFINITY = Integer.MAX_VALUE;
+
+    private final long m_budgetNanos;
+    private final int m_maxDepth;
+    private final MultiplayerSearch m_multiplayer;
+    private final TranspositionTable m_table;
+    private final int[][] m_moves = new int[MAX_PLY + 1][MAX_MOVES];
+    private final int[][] m_moveScores = new int[MAX_PLY + 1][MAX_MOVES];
+    private final JumpChainGenerator m_chainGenerator = new JumpChainGenerator();
+    private int[][] m_vectors;
+
+    private NeighbourTable m_neighbourTable;
+    private PlayerColor[] m_colors;
+    private PositionEvaluator m_evaluator;
+    private int m_root;
+    private long m_perspective;
+    private long m_deadline;
+    private AtomicBoolean m_stop;
+    private int m_completedDepth;
+    private int m_nodes;
+    private boolean m_timeUp;
+
+    /**
+     * Constructs a GameTreeSearch.
+     *
+     * @param budgetMillis the time budget per move in milliseconds
+     * @param maxDepth     the maximum depth in moves, capped at 32
+     * @param multiplayer  the algorithm for games of more than two players
+     */
+    public GameTreeSearch(int budgetMillis, int maxDepth, MultiplayerSearch multiplayer) {
+        this(budgetMillis, maxDepth, multiplayer, null);
+    }
+
+    /**
+     * Constructs a GameTreeSearch that stores its results in a transposition table.
+     *
+     * @param budgetMillis the time budget per move in milliseconds
+     * @param maxDepth     the maximum depth in moves, capped at 32
+     * @param multiplayer  the algorithm for games of more than two players
+     * @param table        the transposition table, or null to search without one
+     */
+    public GameTreeSearch(int budgetMillis, int maxDepth, MultiplayerSearch multiplayer, TranspositionTable table) {
+        this.m_budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.m_maxDepth = Math.min(maxDepth, MAX_PLY);
+        this.m_multiplayer = multiplayer;
+        this.m_table = table;
+    }
+
+    /**
+     * Finds the best move of a player with iterative deepening until the budget or the maximum depth is reached.
+     *
+     * @param gameHandler the game handler of the game
+     * @param color       the color of the player to move
+     * @return the best move, or null if the player has no move
+     */
+    @Override
+    public PlayerMove findMove(GameHandler gameHandler, PlayerColor color) {
+        if (m_table != null) {
+            m_table.newSearch();
+        }
+        return search(gameHandler, color, System.nanoTime() + m_budgetNanos, 1, null);
+    }
+
+    /**
+     * Runs the iterative deepening of a search, possibly as one of several threads searching the same position
+     * with a shared transposition table.
+     *
+     * @param gameHandler the game handler of the game
+     * @param color       the color of the player to move
+     * @param deadline    the {@link System#nanoTime()} at which the search stops
+     * @param startDepth  the depth of the first iteration
+     * @param stop        the flag that stops the search early once set, or null
+     * @return the best move of the deepest completed iteration, or null if the player has no move
+     */
+    PlayerMove search(GameHandler gameHandler, PlayerColor color, long deadline, int startDepth, AtomicBoolean stop) {
+        return search(gameHandler, gameHandler.getBoard().getBitBoard().copy(), color, deadline, startDepth, stop);
+    }
+
+    /**
+     * Runs the iterative deepening of a search on the specified board. Every move made on it is taken back, so
+     * the board is left as it was found.
+     *
+     * @param gameHandler the game handler of the game
+     * @param bitBoard    the board to search on, holding the position of the game
+     * @param color       the color of the player to move
+     * @param deadline    the {@link System#nanoTime()} at which the search stops
+     * @param startDepth  the depth of the first iteration
+     * @param stop        the flag that stops the search early once set, or null
+     * @return the best move of the deepest completed iteration, or null if the player has no move
+     */
+    PlayerMove search(GameHandler gameHandler, BitBoard bitBoard, PlayerColor color, long deadline, int startDepth,
+                      AtomicBoolean stop) {
+        m_deadline = deadline;
+        m_stop = stop;
+        m_timeUp = false;
+        m_nodes = 0;
+        m_completedDepth = 0;
+        m_neighbourTable = gameHandler.getBoard().getNeighbourTable();
+        m_colors = colorsInPlay(gameHandler, bitBoard);
+        m_root = seatOf(color);
+        m_perspective = ZobristKeys.perspective(color);
+        m_evaluator = new PositionEvaluator(m_colors);
+        m_vectors = new int[MAX_PLY + 2][m_colors.length];
+
+        int count = generateMoves(bitBoard, m_root, 0);
+        if (count == 0) {
+            return null;
+        }
+        int best = m_moves[0][0];
+        for (int depth = startDepth; depth <= m_maxDepth; depth++) {
+            int result = searchRoot(bitBoard, count, depth);
+            if (m_timeUp) {
+                break;
+            }
+            best = result;
+            m_completedDepth = depth;
+            moveToFront(m_moves[0], count, best);
+        }
+        return new PlayerMove(bitBoard.getX(from(best)), bitBoard.getY(from(best)), bitBoard.getX(to(best)), bitBoard.getY(to(best)));
+    }
+
+    /**
+     * Searches every root move to the specified depth.
+     *
+     * @param bitBoard the current position
+     * @param count    the number of root moves
+     * @param depth    the depth of the iteration
+     * @return the best root move, meaningless if the time ran out
+     */
+    private int searchRoot(BitBoard bitBoard, int count, int depth) {
+        boolean paranoid = m_colors.length == 2 || m_multiplayer == MultiplayerSearch.PARANOID;
+        int alpha = -INFINITY;
+        int bestMove = m_moves[0][0];
+        for (int i = 0; i < count; i++) {
+            int move = m_moves[0][i];
+            int token = bitBoard.doMove(from(move), to(move), m_colors[m_root]);
+            int next = nextSeat(bitBoard, m_root);
+            int value;
+            if (paranoid) {
+                value = paranoid(bitBoard, depth - 1, next, 1, alpha, INFINITY);
+            } else {
+                maxN(bitBoard, depth - 1, next, 1);
+                value = m_vectors[1][m_root];
+            }
+            bitBoard.undoMove(token);
+            if (m_timeUp) {
+                return bestMove;
+            }
+            if (value > alpha) {
+                alpha = value;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Searches a position with alpha-beta, the root player maximizing and every opponent minimizing. With two
+     * players this is plain alpha-beta.
+     *
+     * @param bitBoard the position
+     * @param depth    the remaining depth
+     * @param seat     the seat of the player to move
+     * @param ply      the distance from the root
+     * @param alpha    the score the root player is already assured of
+     * @param beta     the score the opponents are already assured of
+     * @return the score of the position for the root player
+     */
+    private int paranoid(BitBoard bitBoard, int depth, int seat, int ply, int alpha, int beta) {
+        if (bitBoard.allOnTarget(m_colors[m_root])) {
+            return m_evaluator.relativeScore(bitBoard, m_root) + depth;
+        }
+        if (depth == 0 || isTimeUp()) {
+            return m_evaluator.relativeScore(bitBoard, m_root);
+        }
+        long key = bitBoard.getKey() ^ ZobristKeys.side(m_colors[seat]) ^ m_perspective;
+        int hashMove = 0;
+        if (m_table != null) {
+            long entry = m_table.probe(key);
+            if (entry != 0) {
+                int score = fromTable(TranspositionTable.score(entry), depth);
+                int bound = TranspositionTable.bound(entry);
+                if (TranspositionTable.depth(entry) >= depth && (bound == TranspositionTable.EXACT
+                        || bound == TranspositionTable.LOWER && score >= beta
+                        || bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+                hashMove = TranspositionTable.move(entry);
+            }
+        }
+        int count = generateMoves(bitBoard, seat, ply);
+        if (count == 0) {
+            return paranoid(bitBoard, depth - 1, nextSeat(bitBoard, seat), ply + 1, alpha, beta);
+        }
+        if (hashMove != 0) {
+            moveToFront(m_moves[ply], count, hashMove);
+        }
+        boolean maximizing = seat == m_root;
+        int originalAlpha = alpha;
+        int originalBeta = beta;
+        int best = maximizing ? -INFINITY : INFINITY;
+        int bestMove = m_moves[ply][0];
+        for (int i = 0; i < count && alpha < beta; i++) {
+            int move = m_moves[ply][i];
+            int token = bitBoard.doMove(from(move), to(move), m_colors[seat]);
+            int value = paranoid(bitBoard, depth - 1, nextSeat(bitBoard, seat), ply + 1, alpha, beta);
+            bitBoard.undoMove(token);
+            if (maximizing ? value > best : value < best) {
+                best = value;
+                bestMove = move;
+            }
+            if (maximizing) {
+                alpha = Math.max(alpha, value);
+            } else {
+                beta = Math.min(beta, value);
+            }
+        }
+        if (m_table != null && !m_timeUp) {
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                    : best >= originalBeta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            m_table.store(key, depth, bound, toTable(best, depth), bestMove);
+        }
+        return best;
+    }
+
+    /**
+     * Converts a score for storing in the table. A win of the root player scores higher the more depth is left
+     * when it is reached; the stored score counts that depth from the stored position instead, so it stays
+     * right when the position is found again at another depth.
+     *
+     * @param score the score
+     * @param depth the remaining depth at the position
+     * @return the score to store
+     */
+    private static int toTable(int score, int depth) {
+        return score > PositionEvaluator.WIN / 2 ? score - depth : score;
+    }
+
+    /**
+     * Converts a stored score back for the remaining depth at the position, see {@link #toTable}.
+     *
+     * @param score the stored score
+     * @param depth the remaining depth at the position
+     * @return the score
+     */
+    private static int fromTable(int score, int depth) {
+        return score > PositionEvaluator.WIN / 2 ? score + depth : score;
+    }
+
+    /**
+     * Searches a position with Max^n: every player chooses the move that maximizes its own score. The scores of
+     * all players are stored in the vector of the ply.
+     *
+     * @param bitBoard the position
+     * @param depth    the remaining depth
+     * @param seat     the seat of the player to move
+     * @param ply      the distance from the root
+     */
+    private void maxN(BitBoard bitBoard, int depth, int seat, int ply) {
+        int[] result = m_vectors[ply];
+        if (depth == 0 || isTimeUp()) {
+            m_evaluator.relativeScores(bitBoard, result);
+            return;
+        }
+        int count = generateMoves(bitBoard, seat, ply);
+        if (count == 0) {
+            maxN(bitBoard, depth - 1, nextSeat(bitBoard, seat), ply + 1);
+            System.arraycopy(m_vectors[ply + 1], 0, result, 0, result.length);
+            return;
+        }
+        int best = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = m_moves[ply][i];
+            int token = bitBoard.doMove(from(move), to(move), m_colors[seat]);
+            maxN(bitBoard, depth - 1, nextSeat(bitBoard, seat), ply + 1);
+            bitBoard.undoMove(token);
+            int[] values = m_vectors[ply + 1];
+            if (values[seat] > best) {
+                best = values[seat];
+                System.arraycopy(values, 0, result, 0, result.length);
+            }
+        }
+    }
+
+    /**
+     * Lists the steps and jump chain destinations of a player into the move buffer of a ply, best first by the
+     * distance they gain toward the target.
+     *
+     * @param bitBoard the position
+     * @param seat     the seat of the player
+     * @param ply      the distance from the root
+     * @return the number of moves
+     */
+    private int generateMoves(BitBoard bitBoard, int seat, int ply) {
+        PlayerColor color = m_colors[seat];
+        int[] moves = m_moves[ply];
+        int[] scores = m_moveScores[ply];
+        int count = 0;
+        for (int from = bitBoard.nextPiece(color, 0); from >= 0; from = bitBoard.nextPiece(color, from + 1)) {
+            int destinations = m_chainGenerator.generate(bitBoard, m_neighbourTable, from);
+            for (int d = 0; d < destinations && count < MAX_MOVES; d++) {
+                int target = m_chainGenerator.getDestination(d);
+                int score = bitBoard.goalDistance(color, from) - bitBoard.goalDistance(color, target);
+                int i = count++;
+                while (i > 0 && scores[i - 1] < score) {
+                    moves[i] = moves[i - 1];
+                    scores[i] = scores[i - 1];
+                    i--;
+                }
+                moves[i] = from | target << 8;
+                scores[i] = score;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the seat after the specified one, skipping the players who have finished.
+     *
+     * @param bitBoard the position
+     * @param seat     the current seat
+     * @return the next seat, or the current one if every other player has finished
+     */
+    private int nextSeat(BitBoard bitBoard, int seat) {
+        int next = seat;
+        do {
+            next = (next + 1) % m_colors.length;
+        } while (next != seat && bitBoard.allOnTarget(m_colors[next]));
+        return next;
+    }
+
+    /**
+     * Moves a move to the front of a move list, keeping the order of the others. A move that is not in the list
+     * is left out.
+     *
+     * @param moves the move list
+     * @param count the number of moves
+     * @param move  the move
+     */
+    private static void moveToFront(int[] moves, int count, int move) {
+        int i = 0;
+        while (i < count && moves[i] != move) {
+            i++;
+        }
+        if (i == count) {
+            return;
+        }
+        for (; i > 0; i--) {
+            moves[i] = moves[i - 1];
+        }
+        moves[0] = move;
+    }
+
+    /**
+     * Gets the depth of the deepest iteration the last search completed.
+     *
+     * @return the depth, 0 if no iteration completed
+     */
+    int getCompletedDepth() {
+        return m_completedDepth;
+    }
+
+    /**
+     * Counts visited nodes and checks the clock and the stop flag every {@link #TIME_CHECK_INTERVAL} nodes.
+     *
+     * @return true once the budget is spent or the search is stopped, otherwise false
+     */
+    private boolean isTimeUp() {
+        if (!m_timeUp && (++m_nodes & (TIME_CHECK_INTERVAL - 1)) == 0
+                && (System.nanoTime() > m_deadline || m_stop != null && m_stop.get())) {
+            m_timeUp = true;
+        }
+        return m_timeUp;
+    }
+
+    /**
+     * Gets the colors of the game in turn order.
+     *
+     * @param gameHandler the game handler of the game
+     * @param bitBoard    the position
+     * @return the colors of the players
+     */
+    private static PlayerColor[] colorsInPlay(GameHandler gameHandler, BitBoard bitBoard) {
+        int players = 0;
+        for (PlayerColor color : PlayerColor.values()) {
+            if (bitBoard.countPieces(color) > 0) {
+                players++;
+            }
+        }
+        return gameHandler.getPossibleColorsForPlayers(players);
+    }
+
+    /**
+     * Gets the seat of a color.
+     *
+     * @param color the color
+     * @return the seat
+     */
+    private int seatOf(PlayerColor color) {
+        for (int i = 0; i < m_colors.length; i++) {
+            if (m_colors[i] == color) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Color not in play: " + color);
+    }
+
+    /**
+     * Gets the starting cell of a move.
+     *
+     * @param move the move
+     * @return the bit index of the starting cell
+     */
+    private static int from(int move) {
+        return move & 0xFF;
+    }
+
+    /**
+     * Gets the landing cell of a move.
+     *
+     * @param move the move
+     * @return the bit index of the landing cell
+     */
+    private static int to(int move) {
+        return move >>> 8;
+    }
+}
\ No newline at end of file
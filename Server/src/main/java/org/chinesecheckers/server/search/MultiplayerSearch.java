@@ -0,0 +1,16 @@
+package org.chinesecheckers.server.search;
+
+/**
+ * The algorithm used to search games of more than two players. Two-player games always use alpha-beta.
+ */
+public enum MultiplayerSearch {
+    /**
+     * Assumes all opponents play against the searching player, which turns the game into a two-sided one that
+     * alpha-beta can prune.
+     */
+    PARANOID,
+    /**
+     * Lets every player maximize its own score. Closer to real play but without pruning, so it searches less deep.
+     */
+    MAX_N
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package org.chinesecheckers.server.search;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.player.PlayerMove;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Searches with several threads in the style of lazy SMP: every thread runs the same iterative deepening on its
+ * own {@link GameTreeSearch}, and they share work only through the transposition table. Half of the helpers start
+ * one iteration deeper, so the threads spread over different parts of the tree and fill the table for each
+ * other. The move of the deepest completed iteration wins, the first thread on ties.
+ * <p>
+ * The threads run as tasks of a pool shared by all bots. A pool in FIFO mode serves the decisions of different
+ * bots in the order they are started, and its size caps the threads that search at once, however many tables
+ * are running. All threads of a decision share one deadline; when the first thread finishes, the others stop
+ * at their next clock check.
+ */
+public class ParallelSearch implements SearchEngine {
+    private final long m_budgetNanos;
+    private final TranspositionTable m_table;
+    private final ForkJoinPool m_pool;
+    private final GameTreeSearch[] m_workers;
+
+    /**
+     * Constructs a ParallelSearch.
+     *
+     * @param budgetMillis the time budget per move in milliseconds
+     * @param maxDepth     the maximum depth in moves
+     * @param multiplayer  the algorithm for games of more than two players
+     * @param table        the transposition table shared by the threads
+     * @param pool         the pool that runs the threads
+     * @param threads      the number of threads per decision
+     */
+    public ParallelSearch(int budgetMillis, int maxDepth, MultiplayerSearch multiplayer, TranspositionTable table,
+                          ForkJoinPool pool, int threads) {
+        this.m_budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.m_table = table;
+        this.m_pool = pool;
+        this.m_workers = new GameTreeSearch[threads];
+        for (int i = 0; i < threads; i++) {
+            m_workers[i] = new GameTreeSearch(budgetMillis, maxDepth, multiplayer, table);
+        }
+    }
+
+    /**
+     * Finds the best move of a player with all threads of the decision.
+     *
+     * @param gameHandler the game handler of the game
+     * @param color       the color of the player to move
+     * @return the best move, or null if the player has no move
+     */
+    @Override
+    public PlayerMove findMove(GameHandler gameHandler, PlayerColor color) {
+        m_table.newSearch();
+        long deadline = System.nanoTime() + m_budgetNanos;
+        AtomicBoolean stop = new AtomicBoolean();
+        List<ForkJoinTask<PlayerMove>> tasks = new ArrayList<>(m_workers.length);
+        for (int i = 0; i < m_workers.length; i++) {
+            GameTreeSearch worker = m_workers[i];
+            int startDepth = 1 + i % 2;
+            tasks.add(m_pool.submit(() -> {
+                if (stop.get()) {
+                    return null;
+                }
+                try {
+                    return worker.search(gameHandler, color, deadline, startDepth, stop);
+                } finally {
+                    stop.set(true);
+                }
+            }));
+        }
+
+        PlayerMove best = null;
+        int bestDepth = -1;
+        for (int i = 0; i < tasks.size(); i++) {
+            PlayerMove move = tasks.get(i).join();
+            int depth = m_workers[i].getCompletedDepth();
+            if (move != null && depth > bestDepth) {
+                best = move;
+                bestDepth = depth;
+            }
+        }
+        return best;
+    }
+}
\ No newline at end of file
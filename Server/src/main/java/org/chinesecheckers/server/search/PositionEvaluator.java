@@ -0,0 +1,84 @@
+package org.chinesecheckers.server.search;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+
+/**
+ * Scores the progress of the players of a game. The score of a player is minus the sum of the hex distances of
+ * its pawns to their goal, the nearest free cell of the deepest row of its target triangle with room, plus a large
+ * bonus once all its pawns are on target cells.
+ * <p>
+ * The distances are kept by the board as its target cells fill, see {@link BitBoard#goalDistance}, so scoring a
+ * position only adds up table entries.
+ */
+class PositionEvaluator {
+    static final int WIN = 1_000_000;
+
+    private final PlayerColor[] m_colors;
+
+    /**
+     * Constructs a PositionEvaluator for the specified colors.
+     *
+     * @param colors the colors of the players
+     */
+    PositionEvaluator(PlayerColor[] colors) {
+        this.m_colors = colors;
+    }
+
+    /**
+     * Scores the progress of a player.
+     *
+     * @param bitBoard the board
+     * @param player   the index of the player
+     * @return the score, higher is better
+     */
+    int score(BitBoard bitBoard, int player) {
+        PlayerColor color = m_colors[player];
+        if (bitBoard.allOnTarget(color)) {
+            return WIN;
+        }
+        int sum = 0;
+        for (int index = bitBoard.nextPiece(color, 0); index >= 0; index = bitBoard.nextPiece(color, index + 1)) {
+            sum += bitBoard.goalDistance(color, index);
+        }
+        return -sum;
+    }
+
+    /**
+     * Scores the position for one player against the others: its own score times the number of opponents
+     * minus the scores of the opponents.
+     *
+     * @param bitBoard the board
+     * @param player   the index of the player
+     * @return the relative score, higher is better
+     */
+    int relativeScore(BitBoard bitBoard, int player) {
+        int total = 0;
+        int own = 0;
+        for (int i = 0; i < m_colors.length; i++) {
+            int score = score(bitBoard, i);
+            total += score;
+            if (i == player) {
+                own = score;
+            }
+        }
+        return own * (m_colors.length - 1) - (total - own);
+    }
+
+    /**
+     * Scores the position for every player against the others.
+     *
+     * @param bitBoard the board
+     * @param scores   the array that receives the relative score of each player
+     */
+    void relativeScores(BitBoard bitBoard, int[] scores) {
+        int total = 0;
+        for (int i = 0; i < m_colors.length; i++) {
+            scores[i] = score(bitBoard, i);
+            total += scores[i];
+        }
+        for (int i = 0; i < m_colors.length; i++) {
+            scores[i] = scores[i] * (m_colors.length - 1) - (total - scores[i]);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package org.chinesecheckers.server.search;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.player.PlayerMove;
+
+/**
+ * Chooses the move of a bot by searching the game tree from the current position.
+ */
+public interface SearchEngine {
+
+    /**
+     * Finds the best move of a player in the current position of a game.
+     *
+     * @param gameHandler the game handler of the game
+     * @param color       the color of the player to move
+     * @return the best move, or null if the player has no move
+     */
+    PlayerMove findMove(GameHandler gameHandler, PlayerColor color);
+}
\ No newline at end of file
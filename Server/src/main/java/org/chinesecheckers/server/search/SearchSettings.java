@@ -0,0 +1,36 @@
+package org.chinesecheckers.server.search;
+
+import org.chinesecheckers.server.endgame.EndgameTable;
+import org.chinesecheckers.server.opening.OpeningBook;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The resources and defaults the bots of a node share.
+ *
+ * @param searchMillis the time budget per move when a strategy does not give one
+ * @param threads      the number of threads per decision; more than one needs a table and a pool
+ * @param table        the transposition table shared by the searches, or null
+ * @param pool         the pool that runs parallel searches, or null to search on the calling thread
+ * @param endgameTable the endgame table every bot probes, or null
+ * @param openingBook  the opening book every bot probes, or null
+ */
+public record SearchSettings(int searchMillis, int threads, TranspositionTable table, ForkJoinPool pool,
+                             EndgameTable endgameTable, OpeningBook openingBook) {
+
+    /**
+     * Creates the engine of a searching strategy: a parallel search when the settings allow one, otherwise a
+     * single-threaded search.
+     *
+     * @param budgetMillis the time budget per move in milliseconds
+     * @param maxDepth     the maximum depth in moves
+     * @param multiplayer  the algorithm for games of more than two players
+     * @return the search engine
+     */
+    public SearchEngine createEngine(int budgetMillis, int maxDepth, MultiplayerSearch multiplayer) {
+        if (threads > 1 && table != null && pool != null) {
+            return new ParallelSearch(budgetMillis, maxDepth, multiplayer, table, pool, threads);
+        }
+        return new GameTreeSearch(budgetMillis, maxDepth, multiplayer, table);
+    }
+}
\ No newline at end of file
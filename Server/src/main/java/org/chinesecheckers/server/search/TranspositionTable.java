@@ -0,0 +1,247 @@
+package org.chinesecheckers.server.search;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size table of search results keyed by the Zobrist key of the position, shared by every search on the
+ * node. An entry holds the depth, the bound type, the score and the best move of a searched position.
+ * <p>
+ * The table is a single {@code long[]} of two-entry buckets, sized once from a memory budget and never grown.
+ * The first entry of a bucket keeps the deepest recent result, the second one always takes the newest result, so
+ * deep results survive while shallow ones still get stored. Every search on the node starts a generation, so
+ * concurrent searches keep moving it on; a deep result therefore stays protected for {@link #MAX_AGE}
+ * generations rather than only for its own, and is replaced by any result after that.
+ * <p>
+ * Entries are written without locks: an entry is the pair (key XOR data, data), so a reader that sees halves of
+ * two different writes computes a key that does not match and treats the entry as a miss. A lost or torn write
+ * only costs a re-search, never a wrong result.
+ */
+public class TranspositionTable {
+    /**
+     * The score is exact.
+     */
+    public static final int EXACT = 1;
+    /**
+     * The score is a lower bound: the search failed high.
+     */
+    public static final int LOWER = 2;
+    /**
+     * The score is an upper bound: the search failed low.
+     */
+    public static final int UPPER = 3;
+
+    private static final int BYTES_PER_BUCKET = 4 * Long.BYTES;
+    private static final int MAX_DEPTH = 0xFF;
+    private static final int GENERATIONS = 0x40;
+    /**
+     * The number of generations a deep result is protected from shallower ones.
+     */
+    static final int MAX_AGE = 16;
+
+    private final long[] m_table;
+    private final int m_mask;
+    private volatile int m_generation;
+    private final LongAdder m_probes = new LongAdder();
+    private final LongAdder m_hits = new LongAdder();
+    private final LongAdder m_stores = new LongAdder();
+
+    /**
+     * Constructs a TranspositionTable that uses at most the specified memory. The number of buckets is the
+     * largest power of two that fits; a budget below one bucket gives a table that stores nothing.
+     *
+     * @param budgetBytes the memory budget in bytes
+     */
+    public TranspositionTable(long budgetBytes) {
+        long buckets = budgetBytes / BYTES_PER_BUCKET;
+        int capacity = buckets <= 0 ? 0 : (int) Long.highestOneBit(Math.min(buckets, 1 << 28));
+        this.m_table = new long[capacity * 4];
+        this.m_mask = capacity - 1;
+    }
+
+    /**
+     * Starts a new search generation. Deep results older than {@link #MAX_AGE} generations are replaced first.
+     */
+    public void newSearch() {
+        m_generation = (m_generation + 1) & (GENERATIONS - 1);
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key the key of the position
+     * @return the data of the entry, or 0 if the position is not stored
+     */
+    public long probe(long key) {
+        if (m_table.length == 0) {
+            return 0;
+        }
+        m_probes.increment();
+        int slot = bucketOf(key);
+        for (int i = 0; i < 2; i++, slot += 2) {
+            long data = m_table[slot + 1];
+            if ((m_table[slot] ^ data) == key && data != 0) {
+                m_hits.increment();
+                return data;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stores the result of a search.
+     *
+     * @param key   the key of the position
+     * @param depth the depth the position was searched to
+     * @param bound the bound type: {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     * @param score the score of the position
+     * @param move  the best move, 0 if there is none
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        if (m_table.length == 0) {
+            return;
+        }
+        m_stores.increment();
+        int generation = m_generation;
+        long data = (score & 0xFFFF_FFFFL) | (long) (move & 0xFFFF) << 32 | (long) Math.min(depth, MAX_DEPTH) << 48
+                | (long) bound << 56 | (long) generation << 58;
+        int slot = bucketOf(key);
+        long deepest = m_table[slot + 1];
+        boolean sameKey = (m_table[slot] ^ deepest) == key;
+        if (deepest == 0 || sameKey || ageOf(deepest, generation) > MAX_AGE || depth(deepest) <= depth) {
+            m_table[slot] = key ^ data;
+            m_table[slot + 1] = data;
+        } else {
+            m_table[slot + 2] = key ^ data;
+            m_table[slot + 3] = data;
+        }
+    }
+
+    /**
+     * Gets the score of an entry.
+     *
+     * @param data the data of the entry
+     * @return the score
+     */
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Gets the best move of an entry.
+     *
+     * @param data the data of the entry
+     * @return the move, 0 if there is none
+     */
+    public static int move(long data) {
+        return (int) (data >>> 32) & 0xFFFF;
+    }
+
+    /**
+     * Gets the depth of an entry.
+     *
+     * @param data the data of the entry
+     * @return the depth the position was searched to
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+
+    /**
+     * Gets the bound type of an entry.
+     *
+     * @param data the data of the entry
+     * @return {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 56) & 0x3;
+    }
+
+    /**
+     * Gets the generation of an entry.
+     *
+     * @param data the data of the entry
+     * @return the generation
+     */
+    private static int generationOf(long data) {
+        return (int) (data >>> 58);
+    }
+
+    /**
+     * Gets the number of generations started since an entry was stored. The generation counter wraps, so an
+     * entry looks new again after {@code GENERATIONS} generations; it then stays only until a deeper result lands.
+     *
+     * @param data       the data of the entry
+     * @param generation the current generation
+     * @return the age of the entry in generations
+     */
+    private static int ageOf(long data, int generation) {
+        return (generation - generationOf(data)) & (GENERATIONS - 1);
+    }
+
+    /**
+     * Gets the first slot of the bucket of a key.
+     *
+     * @param key the key
+     * @return the index of the first slot in the table
+     */
+    private int bucketOf(long key) {
+        return ((int) (key ^ key >>> 32) & m_mask) << 2;
+    }
+
+    /**
+     * Gets the number of entries the table can hold.
+     *
+     * @return the number of entries
+     */
+    public int getCapacity() {
+        return m_table.length / 2;
+    }
+
+    /**
+     * Gets the number of lookups since the table was created.
+     *
+     * @return the number of lookups
+     */
+    public long getProbes() {
+        return m_probes.sum();
+    }
+
+    /**
+     * Gets the number of lookups that found their position.
+     *
+     * @return the number of hits
+     */
+    public long getHits() {
+        return m_hits.sum();
+    }
+
+    /**
+     * Gets the number of stored results since the table was created.
+     *
+     * @return the number of stores
+     */
+    public long getStores() {
+        return m_stores.sum();
+    }
+
+    /**
+     * Gets the share of lookups that found their position.
+     *
+     * @return the hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long probes = getProbes();
+        return probes == 0 ? 0 : (double) getHits() / probes;
+    }
+
+    /**
+     * Returns the size and the counters of the table.
+     *
+     * @return the statistics of the table
+     */
+    @Override
+    public String toString() {
+        return String.format("transposition table: %d entries, %d probes, %.1f%% hits, %d stores",
+                getCapacity(), getProbes(), 100 * getHitRate(), getStores());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,618 @@
+package org.chinesecheckers.server.serverBoard;
+
+import org.chinesecheckers.common.PlayerColor;
+
+/**
+ * Compact bitboard representation of the cell states of a board.
+ * Cell (x, y) is stored at bit index (y - 1) * columns + (x - 1); every player color owns one bit set,
+ * and the playable, king, native and target cells are kept as precomputed masks.
+ * <p>
+ * The bitboard also keeps the Zobrist key of its pawns and king cells, see {@link ZobristKeys}, updated with
+ * every change.
+ * <p>
+ * {@link #doMove} and {@link #undoMove} move a pawn without any checks and return or take an undo token, so a
+ * search can walk the game tree on a single bitboard. Cell indexes must stay below 256 to fit in a token.
+ */
+public class BitBoard {
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    private final int m_columns;
+    private final int m_rows;
+    private final int m_words;
+    private final long[] m_pieces;
+    private final long[] m_occupied;
+    private long[] m_playable;
+    private long[] m_kings;
+    private long[] m_natives;
+    private long[] m_targets;
+    private boolean m_masksShared;
+    private long m_key;
+    private GoalDistances m_goals;
+
+    /**
+     * Constructs an empty BitBoard with the specified number of columns and rows.
+     *
+     * @param columns the number of columns
+     * @param rows    the number of rows
+     */
+    public BitBoard(int columns, int rows) {
+        this.m_columns = columns;
+        this.m_rows = rows;
+        this.m_words = (columns * rows + 63) >>> 6;
+        this.m_pieces = new long[COLORS.length * m_words];
+        this.m_occupied = new long[m_words];
+        this.m_playable = new long[m_words];
+        this.m_kings = new long[m_words];
+        this.m_natives = new long[COLORS.length * m_words];
+        this.m_targets = new long[COLORS.length * m_words];
+    }
+
+    /**
+     * Constructs a copy of the specified BitBoard. The cell masks are shared until one of the copies changes them.
+     *
+     * @param other the bitboard to copy
+     */
+    private BitBoard(BitBoard other) {
+        this.m_columns = other.m_columns;
+        this.m_rows = other.m_rows;
+        this.m_words = other.m_words;
+        this.m_pieces = other.m_pieces.clone();
+        this.m_occupied = other.m_occupied.clone();
+        this.m_playable = other.m_playable;
+        this.m_kings = other.m_kings;
+        this.m_natives = other.m_natives;
+        this.m_targets = other.m_targets;
+        this.m_masksShared = true;
+        this.m_key = other.m_key;
+        this.m_goals = other.m_goals != null ? new GoalDistances(other.m_goals) : null;
+        other.m_masksShared = true;
+    }
+
+    /**
+     * Creates a copy of this bitboard. Only the piece bit sets and the goal distances are duplicated.
+     *
+     * @return the copy of this bitboard
+     */
+    public BitBoard copy() {
+        return new BitBoard(this);
+    }
+
+    /**
+     * Creates a bitboard with the cells of this one and no pawns, as scratch space for positions built up from
+     * nothing. It gets goal distances only when one is first asked for, so placing pawns on it is cheap.
+     *
+     * @return the empty copy
+     */
+    public BitBoard emptyCopy() {
+        BitBoard board = new BitBoard(this);
+        board.m_goals = null;
+        for (int index = board.nextOccupied(0); index >= 0; index = board.nextOccupied(index + 1)) {
+            board.setColor(index, PlayerColor.NONE);
+        }
+        return board;
+    }
+
+    /**
+     * Gets the bit index of the specified coordinates.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the bit index
+     */
+    public int index(int x, int y) {
+        return (y - 1) * m_columns + (x - 1);
+    }
+
+    /**
+     * Gets the x-coordinate of the specified bit index.
+     *
+     * @param index the bit index
+     * @return the x-coordinate
+     */
+    public int getX(int index) {
+        return index % m_columns + 1;
+    }
+
+    /**
+     * Gets the y-coordinate of the specified bit index.
+     *
+     * @param index the bit index
+     * @return the y-coordinate
+     */
+    public int getY(int index) {
+        return index / m_columns + 1;
+    }
+
+    /**
+     * Gets the number of cells covered by this bitboard.
+     *
+     * @return the number of cells
+     */
+    public int size() {
+        return m_columns * m_rows;
+    }
+
+    /**
+     * Gets the color of the piece at the specified index.
+     *
+     * @param index the bit index
+     * @return the color of the piece, or NONE if the cell is empty
+     */
+    public PlayerColor getColor(int index) {
+        if (!test(m_occupied, 0, index)) {
+            return PlayerColor.NONE;
+        }
+        for (PlayerColor color : COLORS) {
+            if (color != PlayerColor.NONE && test(m_pieces, color.ordinal() * m_words, index)) {
+                return color;
+            }
+        }
+        return PlayerColor.NONE;
+    }
+
+    /**
+     * Sets the color of the piece at the specified index. NONE or null empties the cell.
+     *
+     * @param index the bit index
+     * @param color the color of the piece
+     */
+    public void setColor(int index, PlayerColor color) {
+        PlayerColor current = getColor(index);
+        if (current != PlayerColor.NONE) {
+            clear(m_pieces, current.ordinal() * m_words, index);
+            clear(m_occupied, 0, index);
+            m_key ^= ZobristKeys.piece(current, index);
+            if (m_goals != null && m_goals.isTarget(current, index)) {
+                m_goals.onFreed(current, index);
+            }
+        }
+        if (color != null && color != PlayerColor.NONE) {
+            set(m_pieces, color.ordinal() * m_words, index);
+            set(m_occupied, 0, index);
+            m_key ^= ZobristKeys.piece(color, index);
+            if (m_goals != null && m_goals.isTarget(color, index)) {
+                m_goals.onFilled(this, color, index);
+            }
+        }
+    }
+
+    /**
+     * Moves the pawn of the specified color from one cell to another. Nothing is checked: the pawn must stand on
+     * the starting cell and the landing cell must be empty.
+     *
+     * @param from  the bit index of the starting cell
+     * @param to    the bit index of the landing cell
+     * @param color the color of the pawn
+     * @return the token that takes the move back, see {@link #undoMove}
+     */
+    public int doMove(int from, int to, PlayerColor color) {
+        movePiece(from, to, color);
+        return from | to << 8 | color.ordinal() << 16;
+    }
+
+    /**
+     * Moves the pawn on a cell to another cell. Nothing is checked: the landing cell must be empty.
+     *
+     * @param from the bit index of the starting cell
+     * @param to   the bit index of the landing cell
+     * @return the token that takes the move back, see {@link #undoMove}
+     */
+    public int doMove(int from, int to) {
+        return doMove(from, to, getColor(from));
+    }
+
+    /**
+     * Takes back the last move made with {@link #doMove}. Moves must be taken back in the reverse order.
+     *
+     * @param token the token of the move
+     */
+    public void undoMove(int token) {
+        movePiece(token >>> 8 & 0xFF, token & 0xFF, COLORS[token >>> 16]);
+    }
+
+    /**
+     * Moves the bits of a pawn and updates the key.
+     *
+     * @param from  the bit index of the starting cell
+     * @param to    the bit index of the landing cell
+     * @param color the color of the pawn
+     */
+    private void movePiece(int from, int to, PlayerColor color) {
+        int base = color.ordinal() * m_words;
+        clear(m_pieces, base, from);
+        clear(m_occupied, 0, from);
+        set(m_pieces, base, to);
+        set(m_occupied, 0, to);
+        m_key ^= ZobristKeys.piece(color, from) ^ ZobristKeys.piece(color, to);
+        if (m_goals != null) {
+            if (m_goals.isTarget(color, from)) {
+                m_goals.onFreed(color, from);
+            }
+            if (m_goals.isTarget(color, to)) {
+                m_goals.onFilled(this, color, to);
+            }
+        }
+    }
+
+    /**
+     * Gets the distance from a cell to the goal of a color: the nearest target cell of the color, in the deepest
+     * row of its triangle that still has a cell without a pawn of that color. A target cell at least as deep as
+     * that row is at its goal, one in front of a free deeper cell is not. The distances are kept up to date as
+     * target cells fill and empty, so this is an array lookup. A bitboard that did not get the table of its
+     * geometry from its factory builds one on first use.
+     *
+     * @param color the color
+     * @param index the bit index of the cell
+     * @return the hex distance, 0 once every target cell of the color is filled
+     */
+    public int goalDistance(PlayerColor color, int index) {
+        if (m_goals == null) {
+            m_goals = new GoalDistances(new GoalDistanceTable(this), this);
+        }
+        return m_goals.get(color, index);
+    }
+
+    /**
+     * Starts keeping the goal distances of the specified geometry up to date.
+     *
+     * @param table the distance table of the geometry of this bitboard
+     */
+    void setGoalDistances(GoalDistanceTable table) {
+        m_goals = new GoalDistances(table, this);
+    }
+
+    /**
+     * Gets the Zobrist key of the pawns and king cells. The player to move is not part of it.
+     *
+     * @return the key
+     */
+    public long getKey() {
+        return m_key;
+    }
+
+    /**
+     * Checks if the cell at the specified index holds a piece.
+     *
+     * @param index the bit index
+     * @return true if the cell is occupied, otherwise false
+     */
+    public boolean isOccupied(int index) {
+        return test(m_occupied, 0, index);
+    }
+
+    /**
+     * Checks if the cell at the specified index holds a piece of the specified color.
+     *
+     * @param index the bit index
+     * @param color the player color
+     * @return true if the cell holds a piece of the color, otherwise false
+     */
+    public boolean hasPiece(int index, PlayerColor color) {
+        return color != PlayerColor.NONE && test(m_pieces, color.ordinal() * m_words, index);
+    }
+
+    /**
+     * Checks if the cell at the specified index is playable.
+     *
+     * @param index the bit index
+     * @return true if the cell is playable, otherwise false
+     */
+    public boolean isPlayable(int index) {
+        return test(m_playable, 0, index);
+    }
+
+    /**
+     * Checks if the cell at the specified index is a king cell.
+     *
+     * @param index the bit index
+     * @return true if the cell is a king cell, otherwise false
+     */
+    public boolean isKing(int index) {
+        return test(m_kings, 0, index);
+    }
+
+    /**
+     * Checks if the cell at the specified index is a target cell of the specified color.
+     *
+     * @param index the bit index
+     * @param color the player color
+     * @return true if the cell is a target of the color, otherwise false
+     */
+    public boolean isTarget(int index, PlayerColor color) {
+        return color != PlayerColor.NONE && test(m_targets, color.ordinal() * m_words, index);
+    }
+
+    /**
+     * Gets the index of the next piece of the specified color, starting at the specified index.
+     *
+     * @param color     the player color
+     * @param fromIndex the index to start from (inclusive)
+     * @return the index of the next piece, or -1 if there is none
+     */
+    public int nextPiece(PlayerColor color, int fromIndex) {
+        if (color == PlayerColor.NONE) {
+            return -1;
+        }
+        return nextSetBit(m_pieces, color.ordinal() * m_words, fromIndex);
+    }
+
+    /**
+     * Gets the index of the next occupied cell, starting at the specified index.
+     *
+     * @param fromIndex the index to start from (inclusive)
+     * @return the index of the next occupied cell, or -1 if there is none
+     */
+    public int nextOccupied(int fromIndex) {
+        return nextSetBit(m_occupied, 0, fromIndex);
+    }
+
+    /**
+     * Gets the index of the next empty target cell of the specified color, starting at the specified index.
+     *
+     * @param color     the player color
+     * @param fromIndex the index to start from (inclusive)
+     * @return the index of the next empty target cell, or -1 if there is none
+     */
+    public int nextFreeTarget(PlayerColor color, int fromIndex) {
+        if (color == PlayerColor.NONE || fromIndex >= size()) {
+            return -1;
+        }
+        int base = color.ordinal() * m_words;
+        int word = fromIndex >>> 6;
+        long bits = (m_targets[base + word] & ~m_occupied[word]) & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == m_words) {
+                return -1;
+            }
+            bits = m_targets[base + word] & ~m_occupied[word];
+        }
+    }
+
+    /**
+     * Counts the pieces of the specified color.
+     *
+     * @param color the player color
+     * @return the number of pieces
+     */
+    public int countPieces(PlayerColor color) {
+        if (color == PlayerColor.NONE) {
+            return 0;
+        }
+        int base = color.ordinal() * m_words;
+        int count = 0;
+        for (int i = 0; i < m_words; i++) {
+            count += Long.bitCount(m_pieces[base + i]);
+        }
+        return count;
+    }
+
+    /**
+     * Checks if every piece of the specified color stands on a target cell of that color.
+     *
+     * @param color the player color
+     * @return true if all pieces are on target cells, otherwise false
+     */
+    public boolean allOnTarget(PlayerColor color) {
+        if (color == PlayerColor.NONE) {
+            return false;
+        }
+        int base = color.ordinal() * m_words;
+        for (int i = 0; i < m_words; i++) {
+            if ((m_pieces[base + i] & ~m_targets[base + i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Captures the pawns on the board in a compact form: for every color with pawns, its ordinal and the number of
+     * its pawns, followed by their bit indices, one byte each. The cells themselves are not captured; they never
+     * change during a game.
+     *
+     * @return the snapshot
+     * @throws IllegalStateException if the board has too many cells for one-byte indices
+     */
+    public byte[] snapshot() {
+        if (size() > 256) {
+            throw new IllegalStateException("Board too large for a snapshot: " + size() + " cells");
+        }
+        int length = 0;
+        for (PlayerColor color : COLORS) {
+            int count = countPieces(color);
+            length += count > 0 ? 2 + count : 0;
+        }
+        byte[] snapshot = new byte[length];
+        int position = 0;
+        for (PlayerColor color : COLORS) {
+            int count = countPieces(color);
+            if (count == 0) {
+                continue;
+            }
+            snapshot[position++] = (byte) color.ordinal();
+            snapshot[position++] = (byte) count;
+            for (int index = nextPiece(color, 0); index >= 0; index = nextPiece(color, index + 1)) {
+                snapshot[position++] = (byte) index;
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replaces the pawns on the board with those of a snapshot taken on a board of the same shape. The Zobrist
+     * key and the goal distances follow, as for any other change of a cell.
+     *
+     * @param snapshot the snapshot, see {@link #snapshot()}
+     * @throws IllegalArgumentException if the snapshot is damaged
+     */
+    public void restore(byte[] snapshot) {
+        for (int index = nextOccupied(0); index >= 0; index = nextOccupied(index + 1)) {
+            setColor(index, PlayerColor.NONE);
+        }
+        int position = 0;
+        while (position < snapshot.length) {
+            int ordinal = snapshot[position++] & 0xFF;
+            int count = position < snapshot.length ? snapshot[position++] & 0xFF : -1;
+            if (ordinal >= COLORS.length || count < 0 || position + count > snapshot.length) {
+                throw new IllegalArgumentException("Damaged board snapshot");
+            }
+            for (int i = 0; i < count; i++) {
+                setColor(snapshot[position++] & 0xFF, COLORS[ordinal]);
+            }
+        }
+    }
+
+    /**
+     * Marks the cell at the specified index as playable or not.
+     *
+     * @param index    the bit index
+     * @param playable whether the cell is playable
+     */
+    void setPlayable(int index, boolean playable) {
+        ownMasks();
+        assign(m_playable, 0, index, playable);
+    }
+
+    /**
+     * Marks the cell at the specified index as a king cell or not.
+     *
+     * @param index the bit index
+     * @param king  whether the cell is a king cell
+     */
+    void setKing(int index, boolean king) {
+        ownMasks();
+        if (isKing(index) != king) {
+            m_key ^= ZobristKeys.king(index);
+        }
+        assign(m_kings, 0, index, king);
+    }
+
+    /**
+     * Sets the native color of the cell at the specified index.
+     *
+     * @param index the bit index
+     * @param color the native color, or NONE
+     */
+    void setNativeColor(int index, PlayerColor color) {
+        ownMasks();
+        assignColorMask(m_natives, index, color);
+    }
+
+    /**
+     * Sets the target color of the cell at the specified index.
+     *
+     * @param index the bit index
+     * @param color the target color, or NONE
+     */
+    void setTargetColor(int index, PlayerColor color) {
+        ownMasks();
+        assignColorMask(m_targets, index, color);
+    }
+
+    /**
+     * Copies the cell masks before the first write if they are shared with another bitboard.
+     */
+    private void ownMasks() {
+        if (m_masksShared) {
+            m_playable = m_playable.clone();
+            m_kings = m_kings.clone();
+            m_natives = m_natives.clone();
+            m_targets = m_targets.clone();
+            m_masksShared = false;
+        }
+    }
+
+    /**
+     * Moves the bit of the specified index to the slot of the specified color in a per-color mask.
+     *
+     * @param mask  the per-color mask
+     * @param index the bit index
+     * @param color the color, or NONE to clear the bit
+     */
+    private void assignColorMask(long[] mask, int index, PlayerColor color) {
+        for (PlayerColor c : COLORS) {
+            clear(mask, c.ordinal() * m_words, index);
+        }
+        if (color != null && color != PlayerColor.NONE) {
+            set(mask, color.ordinal() * m_words, index);
+        }
+    }
+
+    /**
+     * Finds the next set bit of a bit set stored at the specified offset.
+     *
+     * @param bits      the backing array
+     * @param base      the offset of the bit set in the array
+     * @param fromIndex the index to start from (inclusive)
+     * @return the index of the next set bit, or -1 if there is none
+     */
+    private int nextSetBit(long[] bits, int base, int fromIndex) {
+        if (fromIndex >= size()) {
+            return -1;
+        }
+        int word = fromIndex >>> 6;
+        long current = bits[base + word] & (-1L << fromIndex);
+        while (true) {
+            if (current != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(current);
+            }
+            if (++word == m_words) {
+                return -1;
+            }
+            current = bits[base + word];
+        }
+    }
+
+    /**
+     * Tests a bit of a bit set stored at the specified offset.
+     *
+     * @param bits  the backing array
+     * @param base  the offset of the bit set in the array
+     * @param index the bit index
+     * @return true if the bit is set, otherwise false
+     */
+    private static boolean test(long[] bits, int base, int index) {
+        return (bits[base + (index >>> 6)] & (1L << index)) != 0;
+    }
+
+    /**
+     * Sets a bit of a bit set stored at the specified offset.
+     *
+     * @param bits  the backing array
+     * @param base  the offset of the bit set in the array
+     * @param index the bit index
+     */
+    private static void set(long[] bits, int base, int index) {
+        bits[base + (index >>> 6)] |= 1L << index;
+    }
+
+    /**
+     * Clears a bit of a bit set stored at the specified offset.
+     *
+     * @param bits  the backing array
+     * @param base  the offset of the bit set in the array
+     * @param index the bit index
+     */
+    private static void clear(long[] bits, int base, int index) {
+        bits[base + (index >>> 6)] &= ~(1L << index);
+    }
+
+    /**
+     * Sets or clears a bit of a bit set stored at the specified offset.
+     *
+     * @param bits  the backing array
+     * @param base  the offset of the bit set in the array
+     * @param index the bit index
+     * @param value true to set the bit, false to clear it
+     */
+    private static void assign(long[] bits, int base, int index, boolean value) {
+        if (value) {
+            set(bits, base, index);
+        } else {
+            clear(bits, base, index);
+        }
+    }
+}
\ No newline at end of file
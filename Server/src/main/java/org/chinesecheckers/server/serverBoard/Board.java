@@ -3,7 +3,6 @@ package org.chinesecheckers.server.serverBoard;
 import org.chinesecheckers.common.Coord;
 import org.chinesecheckers.common.PlayerColor;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -11,6 +10,8 @@ import java.util.List;
  */
 public abstract class Board {
     protected final Cell[][] cells;
+    protected final BitBoard bitBoard;
+    protected final NeighbourTable neighbourTable;
     private final int columns;
     private final int rows;
 
@@ -21,9 +22,22 @@ public abstract class Board {
      * @param rows    the number of rows
      */
     public Board(int columns, int rows) {
+        this(columns, rows, new NeighbourTable(columns, rows));
+    }
+
+    /**
+     * Constructs a Board with the specified number of columns and rows that shares a precomputed neighbour table.
+     *
+     * @param columns        the number of columns
+     * @param rows           the number of rows
+     * @param neighbourTable the neighbour table of the board geometry
+     */
+    public Board(int columns, int rows, NeighbourTable neighbourTable) {
         this.columns = columns;
         this.rows = rows;
         this.cells = new Cell[columns + 1][rows + 1];
+        this.bitBoard = new BitBoard(columns, rows);
+        this.neighbourTable = neighbourTable;
         initializeBoard();
     }
 
@@ -34,6 +48,7 @@ public abstract class Board {
         for (int x = 1; x <= columns; x++) {
             for (int y = 1; y <= rows; y++) {
                 cells[x][y] = new Cell();
+                cells[x][y].attach(bitBoard, bitBoard.index(x, y));
             }
         }
     }
@@ -48,10 +63,11 @@ public abstract class Board {
      */
     public void addPiece(int x, int y, PlayerColor color) throws GameException {
         validateCoordinates(x, y);
-        if (!cells[x][y].isPlayable()) {
+        int index = bitBoard.index(x, y);
+        if (!bitBoard.isPlayable(index)) {
             throw new GameException("Cell is not playable");
         }
-        cells[x][y].setCurrentColor(color);
+        bitBoard.setColor(index, color);
     }
 
     /**
@@ -63,10 +79,34 @@ public abstract class Board {
      */
     public void removePiece(int x, int y) throws GameException {
         validateCoordinates(x, y);
-        if (!cells[x][y].isPlayable()) {
+        int index = bitBoard.index(x, y);
+        if (!bitBoard.isPlayable(index)) {
             throw new GameException("Cell is not playable");
         }
-        cells[x][y].setCurrentColor(PlayerColor.NONE);
+        bitBoard.setColor(index, PlayerColor.NONE);
+    }
+
+    /**
+     * Moves the piece on a cell to another cell without validating anything, for moves that are already known
+     * to be legal.
+     *
+     * @param x1 the x-coordinate of the starting cell
+     * @param y1 the y-coordinate of the starting cell
+     * @param x2 the x-coordinate of the landing cell
+     * @param y2 the y-coordinate of the landing cell
+     * @return the token that takes the move back, see {@link #undoMove}
+     */
+    public int doMove(int x1, int y1, int x2, int y2) {
+        return bitBoard.doMove(bitBoard.index(x1, y1), bitBoard.index(x2, y2));
+    }
+
+    /**
+     * Takes back a move made with {@link #doMove}. Moves must be taken back in the reverse order.
+     *
+     * @param token the token of the move
+     */
+    public void undoMove(int token) {
+        bitBoard.undoMove(token);
     }
 
     /**
@@ -79,7 +119,8 @@ public abstract class Board {
      */
     public PlayerColor getColor(int x, int y) throws GameException {
         validateCoordinates(x, y);
-        return cells[x][y].getCurrentColor();
+        int index = bitBoard.index(x, y);
+        return bitBoard.isPlayable(index) ? bitBoard.getColor(index) : cells[x][y].getCurrentColor();
     }
 
     /**
@@ -105,7 +146,11 @@ public abstract class Board {
      */
     public void setCell(int x, int y, Cell cell) throws GameException {
         validateCoordinates(x, y);
+        if (cells[x][y] != null) {
+            cells[x][y].detach();
+        }
         cells[x][y] = cell;
+        cell.attach(bitBoard, bitBoard.index(x, y));
     }
 
     /**
@@ -122,6 +167,48 @@ public abstract class Board {
         return cells[x][y];
     }
 
+    /**
+     * Checks if the specified cell is playable. Out-of-bounds coordinates are not playable.
+     *
+     * @param x the x-coordinate of the cell
+     * @param y the y-coordinate of the cell
+     * @return true if the cell is playable, otherwise false
+     */
+    public boolean isPlayable(int x, int y) {
+        return isValidCoordinate(x, y) && bitBoard.isPlayable(bitBoard.index(x, y));
+    }
+
+    /**
+     * Checks if the specified cell holds a piece. Out-of-bounds coordinates are never occupied.
+     *
+     * @param x the x-coordinate of the cell
+     * @param y the y-coordinate of the cell
+     * @return true if the cell holds a piece, otherwise false
+     */
+    public boolean isOccupied(int x, int y) {
+        return isValidCoordinate(x, y) && bitBoard.isOccupied(bitBoard.index(x, y));
+    }
+
+    /**
+     * Checks if the specified cell is a king cell. Out-of-bounds coordinates are never king cells.
+     *
+     * @param x the x-coordinate of the cell
+     * @param y the y-coordinate of the cell
+     * @return true if the cell is a king cell, otherwise false
+     */
+    public boolean isKing(int x, int y) {
+        return isValidCoordinate(x, y) && bitBoard.isKing(bitBoard.index(x, y));
+    }
+
+    /**
+     * Gets the bitboard backing this board.
+     *
+     * @return the bitboard
+     */
+    public BitBoard getBitBoard() {
+        return bitBoard;
+    }
+
     /**
      * Validates the specified coordinates.
      *
@@ -140,26 +227,22 @@ public abstract class Board {
      *
      * @param x the x-coordinate
      * @param y the y-coordinate
-     * @return a list of nearby coordinates
+     * @return an unmodifiable list of nearby coordinates, steps first and jumps second
      */
     public List<Coord> getNearbyCells(int x, int y) {
-        List<Coord> coords = new ArrayList<>();
-        int[][] offsets = {{-1, 0}, {1, 0}, // Horizontal
-                {y % 2 == 0 ? 0 : -1, -1}, {y % 2 == 0 ? 1 : 0, -1}, // Upper
-                {y % 2 == 0 ? 0 : -1, 1}, {y % 2 == 0 ? 1 : 0, 1}, // Lower
-                {-2, 0}, {2, 0}, // Long horizontal
-                {-1, -2}, {1, -2}, // Upper jumps
-                {-1, 2}, {1, 2} // Lower jumps
-        };
-
-        for (int[] offset : offsets) {
-            int newX = x + offset[0];
-            int newY = y + offset[1];
-            if (isValidCoordinate(newX, newY)) {
-                coords.add(new Coord(newX, newY));
-            }
+        if (!isValidCoordinate(x, y)) {
+            return List.of();
         }
-        return coords;
+        return neighbourTable.getNearbyCells(bitBoard.index(x, y));
+    }
+
+    /**
+     * Gets the precomputed neighbour table of the board geometry.
+     *
+     * @return the neighbour table
+     */
+    public NeighbourTable getNeighbourTable() {
+        return neighbourTable;
     }
 
     /**
@@ -14,6 +14,8 @@ public class Cell {
     private boolean m_isKing;
     private boolean m_special; // Add this field
     private double m_alpha; // Add this field
+    private BitBoard m_bitBoard;
+    private int m_index;
 
     /**
      * Constructs an empty Cell.
@@ -64,6 +66,9 @@ public class Cell {
      * @return the current color
      */
     public PlayerColor getCurrentColor() {
+        if (m_bitBoard != null && m_playable) {
+            return m_bitBoard.getColor(m_index);
+        }
         return m_currentColor;
     }
 
@@ -74,6 +79,9 @@ public class Cell {
      */
     void setCurrentColor(PlayerColor m_currentColor) {
         this.m_currentColor = m_currentColor;
+        if (m_bitBoard != null) {
+            m_bitBoard.setColor(m_index, m_currentColor);
+        }
     }
 
     /**
@@ -119,6 +127,9 @@ public class Cell {
      */
     public void setKing(boolean m_isKing) {
         this.m_isKing = m_isKing;
+        if (m_bitBoard != null) {
+            m_bitBoard.setKing(m_index, m_isKing);
+        }
     }
 
     /**
@@ -146,5 +157,34 @@ public class Cell {
      */
     public void setNativeColor(PlayerColor nativeColor) {
         this.m_nativeColor = nativeColor;
+        if (m_bitBoard != null) {
+            m_bitBoard.setNativeColor(m_index, nativeColor);
+        }
+    }
+
+    /**
+     * Binds the cell to a slot of a bitboard, which becomes the owner of the cell state.
+     *
+     * @param bitBoard the bitboard backing the board
+     * @param index    the bit index of the cell
+     */
+    void attach(BitBoard bitBoard, int index) {
+        this.m_bitBoard = bitBoard;
+        this.m_index = index;
+        bitBoard.setPlayable(index, m_playable);
+        bitBoard.setKing(index, m_isKing);
+        bitBoard.setNativeColor(index, m_nativeColor);
+        bitBoard.setTargetColor(index, m_targetColor);
+        bitBoard.setColor(index, m_playable ? m_currentColor : PlayerColor.NONE);
+    }
+
+    /**
+     * Unbinds the cell from its bitboard, keeping the last known color.
+     */
+    void detach() {
+        if (m_bitBoard != null) {
+            m_currentColor = getCurrentColor();
+            m_bitBoard = null;
+        }
     }
 }
\ No newline at end of file
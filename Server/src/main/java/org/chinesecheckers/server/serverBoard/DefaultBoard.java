@@ -17,6 +17,17 @@ public class DefaultBoard extends Board {
         super(columns, rows);
     }
 
+    /**
+     * Constructs a DefaultBoard with the specified number of columns and rows that shares a neighbour table.
+     *
+     * @param columns        the number of columns
+     * @param rows           the number of rows
+     * @param neighbourTable the neighbour table of the board geometry
+     */
+    public DefaultBoard(int columns, int rows, NeighbourTable neighbourTable) {
+        super(columns, rows, neighbourTable);
+    }
+
     /**
      * Gets the board as a string representation.
      *
@@ -27,9 +38,9 @@ public class DefaultBoard extends Board {
         StringBuilder sb = new StringBuilder();
         for (int x = 1; x <= getColumns(); x++) {
             for (int y = 1; y <= getRows(); y++) {
-                Cell cell = cells[x][y];
-                if (cell.isPlayable() && cell.getCurrentColor() != PlayerColor.NONE) {
-                    appendCellState(sb, cell, x, y);
+                int index = bitBoard.index(x, y);
+                if (bitBoard.isOccupied(index)) {
+                    appendCellState(sb, bitBoard.getColor(index), x, y);
                 }
             }
         }
@@ -39,14 +50,14 @@ public class DefaultBoard extends Board {
     /**
      * Appends the state of a cell to the string builder.
      *
-     * @param sb   the string builder
-     * @param cell the cell
-     * @param x    the x-coordinate of the cell
-     * @param y    the y-coordinate of the cell
+     * @param sb    the string builder
+     * @param color the color of the piece in the cell
+     * @param x     the x-coordinate of the cell
+     * @param y     the y-coordinate of the cell
      */
-    protected void appendCellState(StringBuilder sb, Cell cell, int x, int y) {
+    protected void appendCellState(StringBuilder sb, PlayerColor color, int x, int y) {
         if (sb.length() > 0) sb.append(" ");
-        sb.append(cell.getCurrentColor().name()).append(" ").append(x).append(" ").append(y);
+        sb.append(color.name()).append(" ").append(x).append(" ").append(y);
     }
 
     /**
@@ -57,15 +68,7 @@ public class DefaultBoard extends Board {
      */
     @Override
     public boolean isWinner(PlayerColor color) {
-        for (int x = 1; x <= getColumns(); x++) {
-            for (int y = 1; y <= getRows(); y++) {
-                Cell cell = cells[x][y];
-                if (cell.isPlayable() && cell.getCurrentColor() == color && cell.getCurrentColor() != cell.getTargetColor()) {
-                    return false;
-                }
-            }
-        }
-        return true;
+        return bitBoard.allOnTarget(color);
     }
 
     /**
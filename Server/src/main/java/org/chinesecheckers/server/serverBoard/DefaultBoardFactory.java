@@ -4,10 +4,15 @@ import org.chinesecheckers.common.PlayerColor;
 
 /**
  * Factory class for creating the default game board for Chinese Checkers.
+ * <p>
+ * The goal distance table of the geometry is built once, from a six-player layout so that it covers every
+ * color, and handed to every board the factory creates.
  */
 public class DefaultBoardFactory implements BoardFactory {
     protected static final int COLUMNS = 13;
     protected static final int ROWS = 17;
+    protected static final NeighbourTable NEIGHBOUR_TABLE = new NeighbourTable(COLUMNS, ROWS);
+    protected static final GoalDistanceTable GOAL_DISTANCES = buildGoalDistances();
 
     /**
      * Creates a game board for the specified number of players.
@@ -19,12 +24,28 @@ public class DefaultBoardFactory implements BoardFactory {
     @Override
     public Board createBoard(int numberOfPlayers) throws GameException {
         validatePlayerCount(numberOfPlayers);
-        Board board = new DefaultBoard(COLUMNS, ROWS);
+        Board board = new DefaultBoard(COLUMNS, ROWS, NEIGHBOUR_TABLE);
         configurePlayers(board, numberOfPlayers);
         initializeCentralCells(board);
+        board.getBitBoard().setGoalDistances(GOAL_DISTANCES);
         return board;
     }
 
+    /**
+     * Builds the goal distance table of the geometry from a board with the target cells of all six colors.
+     *
+     * @return the goal distance table
+     */
+    private static GoalDistanceTable buildGoalDistances() {
+        Board board = new DefaultBoard(COLUMNS, ROWS, NEIGHBOUR_TABLE);
+        try {
+            new DefaultBoardFactory().configurePlayers(board, 6);
+        } catch (GameException e) {
+            throw new IllegalStateException(e);
+        }
+        return new GoalDistanceTable(board.getBitBoard());
+    }
+
     /**
      * Configures the players on the board based on the number of players.
      *
@@ -14,4 +14,15 @@ public class DiamondBoard extends DefaultBoard {
     public DiamondBoard(int columns, int rows) {
         super(columns, rows);
     }
+
+    /**
+     * Constructs a DiamondBoard with the specified number of columns and rows that shares a neighbour table.
+     *
+     * @param columns        the number of columns
+     * @param rows           the number of rows
+     * @param neighbourTable the neighbour table of the board geometry
+     */
+    public DiamondBoard(int columns, int rows, NeighbourTable neighbourTable) {
+        super(columns, rows, neighbourTable);
+    }
 }
\ No newline at end of file
@@ -6,9 +6,10 @@ public class DiamondBoardFactory extends DefaultBoardFactory {
     @Override
     public Board createBoard(int numberOfPlayers) throws GameException {
         validatePlayerCount(numberOfPlayers);
-        Board board = new DiamondBoard(COLUMNS, ROWS);
+        Board board = new DiamondBoard(COLUMNS, ROWS, NEIGHBOUR_TABLE);
         configurePlayers(board, numberOfPlayers);
         initializeCentralCells(board);
+        board.getBitBoard().setGoalDistances(GOAL_DISTANCES);
         return board;
     }
 
@@ -26,7 +27,6 @@ protected void setPlayer(Board board, PlayerColor color, int[][] positions, bool
                 cell.setKing(true);
                 cell.setM_alpha(0.5);
                 board.setCell(pos[0], pos[1], cell);
-                System.out.println("king is " + pos[0] +" " + pos[1]);
                 break;
             default:
                 Cell defaultCell = createCell(color, active);
@@ -0,0 +1,220 @@
+package org.chinesecheckers.server.serverBoard;
+
+import org.chinesecheckers.common.PlayerColor;
+
+/**
+ * Precomputed hex distances from every cell of a board geometry to the target cells of every color. For each cell
+ * and color the target cells are also listed in the order they should be filled: deepest first, that is farthest
+ * from the center of the board, and nearest first within a depth. {@link GoalDistances} finds the goal of a cell
+ * by skipping the filled ones, so pawns head for the nearest cell of the deepest row that still has room, and a
+ * triangle fills from its tip instead of its mouth being closed off first. A table is immutable and shared by all
+ * boards of its geometry.
+ */
+public final class GoalDistanceTable {
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    private final int m_size;
+    private final int[][] m_targets;
+    private final int[][] m_slots;
+    private final byte[][] m_order;
+    private final byte[][] m_positions;
+    private final byte[][] m_distances;
+
+    /**
+     * Builds the table from the target cells of a board.
+     *
+     * @param bitBoard a board with the target cells of every color set
+     */
+    public GoalDistanceTable(BitBoard bitBoard) {
+        this.m_size = bitBoard.size();
+        this.m_targets = new int[COLORS.length][];
+        this.m_slots = new int[COLORS.length][];
+        this.m_order = new byte[COLORS.length][];
+        this.m_positions = new byte[COLORS.length][];
+        this.m_distances = new byte[COLORS.length][];
+        for (PlayerColor color : COLORS) {
+            build(bitBoard, color);
+        }
+    }
+
+    /**
+     * Lists the target cells of a color and sorts them by distance from every cell.
+     *
+     * @param bitBoard the board
+     * @param color    the color
+     */
+    private void build(BitBoard bitBoard, PlayerColor color) {
+        int c = color.ordinal();
+        int count = 0;
+        int[] slots = new int[m_size];
+        for (int index = 0; index < m_size; index++) {
+            slots[index] = bitBoard.isTarget(index, color) ? count++ : -1;
+        }
+        int[] targets = new int[count];
+        for (int index = 0; index < m_size; index++) {
+            if (slots[index] >= 0) {
+                targets[slots[index]] = index;
+            }
+        }
+        int center = bitBoard.index((bitBoard.getX(m_size - 1) + 1) / 2, (bitBoard.getY(m_size - 1) + 1) / 2);
+        int[] depths = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            depths[slot] = hexDistance(bitBoard, targets[slot], center);
+        }
+        byte[] order = new byte[m_size * count];
+        byte[] positions = new byte[m_size * count];
+        byte[] distances = new byte[m_size * count];
+        for (int cell = 0; cell < m_size; cell++) {
+            int base = cell * count;
+            for (int slot = 0; slot < count; slot++) {
+                distances[base + slot] = (byte) hexDistance(bitBoard, cell, targets[slot]);
+                int k = slot;
+                while (k > 0 && fillsAfter(depths, distances, base, order[base + k - 1], slot)) {
+                    order[base + k] = order[base + k - 1];
+                    k--;
+                }
+                order[base + k] = (byte) slot;
+            }
+            for (int k = 0; k < count; k++) {
+                positions[base + order[base + k]] = (byte) k;
+            }
+            if (slots[cell] >= 0) {
+                settle(depths, distances, base, depths[slots[cell]]);
+            }
+        }
+        m_targets[c] = targets;
+        m_slots[c] = slots;
+        m_order[c] = order;
+        m_positions[c] = positions;
+        m_distances[c] = distances;
+    }
+
+    /**
+     * Clears the distances from a target cell to the target cells no deeper than itself. A pawn there is already
+     * as deep as its goal, so moving on within the triangle gains nothing; otherwise a pawn at the tip would count
+     * the row it left as its new goal and step back and forth.
+     *
+     * @param depths    the depths of the target cells
+     * @param distances the distances of the target cells from the cell
+     * @param base      the offset of the cell in the distances
+     * @param depth     the depth of the cell
+     */
+    private static void settle(int[] depths, byte[] distances, int base, int depth) {
+        for (int slot = 0; slot < depths.length; slot++) {
+            if (depths[slot] <= depth) {
+                distances[base + slot] = 0;
+            }
+        }
+    }
+
+    /**
+     * Checks if a target cell is filled after another one, as seen from a cell.
+     *
+     * @param depths    the depths of the target cells
+     * @param distances the distances of the target cells from the cell
+     * @param base      the offset of the cell in the distances
+     * @param slot      the slot of the first target cell
+     * @param other     the slot of the other target cell
+     * @return true if the first target cell is shallower, or as deep and farther, otherwise false
+     */
+    private static boolean fillsAfter(int[] depths, byte[] distances, int base, int slot, int other) {
+        if (depths[slot] != depths[other]) {
+            return depths[slot] < depths[other];
+        }
+        return distances[base + slot] > distances[base + other];
+    }
+
+    /**
+     * Computes the number of single steps between two cells. Rows are offset so that even rows are shifted by
+     * half a cell to the right, which gives the axial column x - (y + 1) / 2.
+     *
+     * @param bitBoard the board
+     * @param a        the bit index of the first cell
+     * @param b        the bit index of the second cell
+     * @return the hex distance
+     */
+    public static int hexDistance(BitBoard bitBoard, int a, int b) {
+        int ya = bitBoard.getY(a);
+        int yb = bitBoard.getY(b);
+        int dq = (bitBoard.getX(a) - (ya + 1) / 2) - (bitBoard.getX(b) - (yb + 1) / 2);
+        int dr = ya - yb;
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
+    /**
+     * Gets the number of cells of the geometry.
+     *
+     * @return the number of cells
+     */
+    int size() {
+        return m_size;
+    }
+
+    /**
+     * Gets the number of target cells of a color.
+     *
+     * @param color the color
+     * @return the number of target cells
+     */
+    int targetCount(PlayerColor color) {
+        return m_targets[color.ordinal()].length;
+    }
+
+    /**
+     * Gets a target cell of a color.
+     *
+     * @param color the color
+     * @param slot  the slot of the target cell
+     * @return the bit index of the target cell
+     */
+    int target(PlayerColor color, int slot) {
+        return m_targets[color.ordinal()][slot];
+    }
+
+    /**
+     * Gets the slot of a cell among the target cells of a color.
+     *
+     * @param color the color
+     * @param index the bit index of the cell
+     * @return the slot, or -1 if the cell is not a target cell of the color
+     */
+    int slotOf(PlayerColor color, int index) {
+        return m_slots[color.ordinal()][index];
+    }
+
+    /**
+     * Gets the k-th target cell of a color in the fill order seen from a cell.
+     *
+     * @param color the color
+     * @param cell  the bit index of the cell
+     * @param k     the rank, 0 for the first
+     * @return the slot of the target cell
+     */
+    int nearest(PlayerColor color, int cell, int k) {
+        return m_order[color.ordinal()][cell * targetCount(color) + k];
+    }
+
+    /**
+     * Gets the rank of a target cell of a color in the fill order seen from a cell.
+     *
+     * @param color the color
+     * @param cell  the bit index of the cell
+     * @param slot  the slot of the target cell
+     * @return the rank, 0 for the first
+     */
+    int rankOf(PlayerColor color, int cell, int slot) {
+        return m_positions[color.ordinal()][cell * targetCount(color) + slot];
+    }
+
+    /**
+     * Gets the distance from a cell to a target cell of a color.
+     *
+     * @param color the color
+     * @param cell  the bit index of the cell
+     * @param slot  the slot of the target cell
+     * @return the hex distance
+     */
+    int distance(PlayerColor color, int cell, int slot) {
+        return m_distances[color.ordinal()][cell * targetCount(color) + slot];
+    }
+}
\ No newline at end of file
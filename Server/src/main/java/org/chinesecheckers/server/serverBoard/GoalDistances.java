@@ -0,0 +1,126 @@
+package org.chinesecheckers.server.serverBoard;
+
+import org.chinesecheckers.common.PlayerColor;
+
+/**
+ * The distance from every cell to its goal for every color on one board: the first free target cell of the color
+ * in the fill order of {@link GoalDistanceTable}, the nearest free cell of the deepest row with room. A target
+ * cell is free while no pawn of its color stands on it. The distances are kept up to date by the bitboard: when a
+ * pawn fills a target cell of its color, only the cells whose goal it was move on to their next one, and when it
+ * leaves, only the cells that rank it before their current goal move back.
+ */
+final class GoalDistances {
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    private final GoalDistanceTable m_table;
+    private final int m_size;
+    private final int[] m_ranks;
+    private final int[] m_distances;
+
+    /**
+     * Computes the distances of a board.
+     *
+     * @param table    the distance table of the geometry of the board
+     * @param bitBoard the board
+     */
+    GoalDistances(GoalDistanceTable table, BitBoard bitBoard) {
+        this.m_table = table;
+        this.m_size = table.size();
+        this.m_ranks = new int[COLORS.length * m_size];
+        this.m_distances = new int[COLORS.length * m_size];
+        for (PlayerColor color : COLORS) {
+            for (int cell = 0; cell < m_size; cell++) {
+                advance(bitBoard, color, cell, 0);
+            }
+        }
+    }
+
+    /**
+     * Constructs a copy of the distances of another board.
+     *
+     * @param other the distances to copy
+     */
+    GoalDistances(GoalDistances other) {
+        this.m_table = other.m_table;
+        this.m_size = other.m_size;
+        this.m_ranks = other.m_ranks.clone();
+        this.m_distances = other.m_distances.clone();
+    }
+
+    /**
+     * Gets the distance of a cell to its goal for a color.
+     *
+     * @param color the color
+     * @param cell  the bit index of the cell
+     * @return the hex distance, 0 if every target cell is filled
+     */
+    int get(PlayerColor color, int cell) {
+        return m_distances[color.ordinal() * m_size + cell];
+    }
+
+    /**
+     * Checks if a cell is a target cell of a color in the geometry of the table.
+     *
+     * @param color the color
+     * @param cell  the bit index of the cell
+     * @return true if the cell is a target cell of the color, otherwise false
+     */
+    boolean isTarget(PlayerColor color, int cell) {
+        return m_table.slotOf(color, cell) >= 0;
+    }
+
+    /**
+     * Updates the distances after a pawn has filled a target cell of its color.
+     *
+     * @param bitBoard the board, already updated
+     * @param color    the color of the pawn
+     * @param target   the bit index of the target cell
+     */
+    void onFilled(BitBoard bitBoard, PlayerColor color, int target) {
+        int slot = m_table.slotOf(color, target);
+        int base = color.ordinal() * m_size;
+        int count = m_table.targetCount(color);
+        for (int cell = 0; cell < m_size; cell++) {
+            int rank = m_ranks[base + cell];
+            if (rank < count && m_table.nearest(color, cell, rank) == slot) {
+                advance(bitBoard, color, cell, rank + 1);
+            }
+        }
+    }
+
+    /**
+     * Updates the distances after a pawn has left a target cell of its color.
+     *
+     * @param color  the color of the pawn
+     * @param target the bit index of the target cell
+     */
+    void onFreed(PlayerColor color, int target) {
+        int slot = m_table.slotOf(color, target);
+        int base = color.ordinal() * m_size;
+        for (int cell = 0; cell < m_size; cell++) {
+            int rank = m_table.rankOf(color, cell, slot);
+            if (rank < m_ranks[base + cell]) {
+                m_ranks[base + cell] = rank;
+                m_distances[base + cell] = m_table.distance(color, cell, slot);
+            }
+        }
+    }
+
+    /**
+     * Moves a cell on to its first free target cell, starting from the specified rank.
+     *
+     * @param bitBoard the board
+     * @param color    the color
+     * @param cell     the bit index of the cell
+     * @param rank     the first rank to check
+     */
+    private void advance(BitBoard bitBoard, PlayerColor color, int cell, int rank) {
+        int count = m_table.targetCount(color);
+        while (rank < count && bitBoard.hasPiece(m_table.target(color, m_table.nearest(color, cell, rank)), color)) {
+            rank++;
+        }
+        int index = color.ordinal() * m_size + cell;
+        m_ranks[index] = rank;
+        m_distances[index] = rank < count ? m_table.distance(color, cell, m_table.nearest(color, cell, rank)) : 0;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,154 @@
+package org.chinesecheckers.server.serverBoard;
+
+import org.chinesecheckers.common.Coord;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Precomputed adjacency and jump-over tables of a board geometry.
+ * For every cell and each of the six hex directions the table holds the step target, which is also the cell
+ * jumped over, and the landing cell of a jump. Cells use the same bit index as {@link BitBoard}.
+ */
+public class NeighbourTable {
+    /**
+     * The number of hex directions: left, right, upper left, upper right, lower left and lower right.
+     */
+    public static final int DIRECTIONS = 6;
+
+    private final int m_columns;
+    private final int m_rows;
+    private final int[] m_steps;
+    private final int[] m_jumps;
+    private final Coord[] m_coords;
+    private final List<List<Coord>> m_nearbyCells;
+
+    /**
+     * Constructs a NeighbourTable for a board with the specified number of columns and rows.
+     *
+     * @param columns the number of columns
+     * @param rows    the number of rows
+     */
+    public NeighbourTable(int columns, int rows) {
+        this.m_columns = columns;
+        this.m_rows = rows;
+        int size = columns * rows;
+        this.m_steps = new int[size * DIRECTIONS];
+        this.m_jumps = new int[size * DIRECTIONS];
+        this.m_coords = new Coord[size];
+        this.m_nearbyCells = new ArrayList<>(size);
+        for (int index = 0; index < size; index++) {
+            m_coords[index] = new Coord(index % columns + 1, index / columns + 1);
+        }
+        for (int index = 0; index < size; index++) {
+            buildCell(index);
+        }
+    }
+
+    /**
+     * Fills the step and jump entries and the nearby cell list of a single cell.
+     *
+     * @param index the bit index of the cell
+     */
+    private void buildCell(int index) {
+        int x = index % m_columns + 1;
+        int y = index / m_columns + 1;
+        int[][] steps = {{-1, 0}, {1, 0}, // Horizontal
+                {y % 2 == 0 ? 0 : -1, -1}, {y % 2 == 0 ? 1 : 0, -1}, // Upper
+                {y % 2 == 0 ? 0 : -1, 1}, {y % 2 == 0 ? 1 : 0, 1} // Lower
+        };
+        int[][] jumps = {{-2, 0}, {2, 0}, // Long horizontal
+                {-1, -2}, {1, -2}, // Upper jumps
+                {-1, 2}, {1, 2} // Lower jumps
+        };
+
+        List<Coord> nearby = new ArrayList<>();
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int target = indexOf(x + steps[direction][0], y + steps[direction][1]);
+            m_steps[index * DIRECTIONS + direction] = target;
+            if (target >= 0) nearby.add(m_coords[target]);
+        }
+        for (int direction = 0; direction < DIRECTIONS; direction++) {
+            int landing = indexOf(x + jumps[direction][0], y + jumps[direction][1]);
+            m_jumps[index * DIRECTIONS + direction] = landing;
+            if (landing >= 0) nearby.add(m_coords[landing]);
+        }
+        m_nearbyCells.add(Collections.unmodifiableList(nearby));
+    }
+
+    /**
+     * Gets the bit index of the specified coordinates.
+     *
+     * @param x the x-coordinate
+     * @param y the y-coordinate
+     * @return the bit index, or -1 if the coordinates are outside the board
+     */
+    private int indexOf(int x, int y) {
+        if (x < 1 || x > m_columns || y < 1 || y > m_rows) {
+            return -1;
+        }
+        return (y - 1) * m_columns + (x - 1);
+    }
+
+    /**
+     * Gets the cell reached by a single step in the specified direction. It is also the cell jumped over
+     * by a jump in that direction.
+     *
+     * @param index     the bit index of the starting cell
+     * @param direction the direction, from 0 to {@link #DIRECTIONS} - 1
+     * @return the bit index of the step target, or -1 if it is outside the board
+     */
+    public int step(int index, int direction) {
+        return m_steps[index * DIRECTIONS + direction];
+    }
+
+    /**
+     * Gets the cell reached by a jump in the specified direction.
+     *
+     * @param index     the bit index of the starting cell
+     * @param direction the direction, from 0 to {@link #DIRECTIONS} - 1
+     * @return the bit index of the landing cell, or -1 if it is outside the board
+     */
+    public int jump(int index, int direction) {
+        return m_jumps[index * DIRECTIONS + direction];
+    }
+
+    /**
+     * Gets the shared coordinate of the specified bit index.
+     *
+     * @param index the bit index
+     * @return the coordinate
+     */
+    public Coord getCoord(int index) {
+        return m_coords[index];
+    }
+
+    /**
+     * Gets the step and jump targets of the specified cell, steps first.
+     *
+     * @param index the bit index of the cell
+     * @return an unmodifiable list of nearby coordinates
+     */
+    public List<Coord> getNearbyCells(int index) {
+        return m_nearbyCells.get(index);
+    }
+
+    /**
+     * Gets the number of columns of the geometry.
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return m_columns;
+    }
+
+    /**
+     * Gets the number of rows of the geometry.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return m_rows;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package org.chinesecheckers.server.serverBoard;
+
+import org.chinesecheckers.common.PlayerColor;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random 64-bit keys for Zobrist hashing of positions. The key of a position is the XOR of the keys of its
+ * pawns, by color and cell, of its king cells and of the player to move, so it can be updated with one XOR per
+ * change. The keys come from a fixed seed and are the same in every run, which lets keys be stored in files.
+ */
+public final class ZobristKeys {
+    private static final int MAX_CELLS = 256;
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    private static final long[] PIECES = new long[COLORS.length * MAX_CELLS];
+    private static final long[] KINGS = new long[MAX_CELLS];
+    private static final long[] SIDES = new long[COLORS.length];
+    private static final long[] PERSPECTIVES = new long[COLORS.length];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4EC_4E25L);
+        for (int i = 0; i < PIECES.length; i++) {
+            PIECES[i] = random.nextLong();
+        }
+        for (int i = 0; i < KINGS.length; i++) {
+            KINGS[i] = random.nextLong();
+        }
+        for (int i = 0; i < SIDES.length; i++) {
+            SIDES[i] = random.nextLong();
+        }
+        for (int i = 0; i < PERSPECTIVES.length; i++) {
+            PERSPECTIVES[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private ZobristKeys() {
+    }
+
+    /**
+     * Gets the key of a pawn of the specified color on the specified cell.
+     *
+     * @param color the color of the pawn
+     * @param index the bit index of the cell
+     * @return the key
+     */
+    public static long piece(PlayerColor color, int index) {
+        return PIECES[color.ordinal() * MAX_CELLS + index];
+    }
+
+    /**
+     * Gets the key of a king cell.
+     *
+     * @param index the bit index of the cell
+     * @return the key
+     */
+    public static long king(int index) {
+        return KINGS[index];
+    }
+
+    /**
+     * Gets the key of the player to move.
+     *
+     * @param color the color of the player to move
+     * @return the key
+     */
+    public static long side(PlayerColor color) {
+        return SIDES[color.ordinal()];
+    }
+
+    /**
+     * Gets the key of the player a score is computed for. Searches that score positions for one player mix it
+     * into their table keys, so their results are not mistaken for those of another player.
+     *
+     * @param color the color of the player
+     * @return the key
+     */
+    public static long perspective(PlayerColor color) {
+        return PERSPECTIVES[color.ordinal()];
+    }
+}
\ No newline at end of file
@@ -0,0 +1,21 @@
+package org.chinesecheckers.server.simulation;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.player.LocalPlayer;
+
+/**
+ * Creates the in-process player of one seat of a simulated game.
+ */
+@FunctionalInterface
+public interface BotStrategy {
+
+    /**
+     * Creates a player for a new game.
+     *
+     * @param color       the color of the seat
+     * @param gameHandler the game handler of the game
+     * @return the player
+     */
+    LocalPlayer create(PlayerColor color, GameHandler gameHandler);
+}
\ No newline at end of file
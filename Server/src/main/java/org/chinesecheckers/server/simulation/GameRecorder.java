@@ -0,0 +1,27 @@
+package org.chinesecheckers.server.simulation;
+
+import org.chinesecheckers.server.player.PlayerMove;
+
+/**
+ * Follows one simulated game move by move, for tools that learn from self-play. A simulator creates one recorder
+ * per game, so a recorder is only called from the thread playing its game.
+ */
+public interface GameRecorder {
+
+    /**
+     * Called before a move is applied.
+     *
+     * @param ply  the number of moves made so far in the game, a jump chain counting as one
+     * @param seat the seat that moves
+     * @param key  the position key before the move, with the seat to move
+     * @param move the move
+     */
+    void onMove(int ply, int seat, long key, PlayerMove move);
+
+    /**
+     * Called when the game is over or stopped.
+     *
+     * @param winner the seat that finished first, or -1 if none did
+     */
+    void onGameEnded(int winner);
+}
\ No newline at end of file
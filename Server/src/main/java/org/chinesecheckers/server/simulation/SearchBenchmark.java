@@ -0,0 +1,150 @@
+package org.chinesecheckers.server.simulation;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.DefaultMovementStrategy;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.player.Bot;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.search.MultiplayerSearch;
+import org.chinesecheckers.server.search.SearchEngine;
+import org.chinesecheckers.server.search.SearchSettings;
+import org.chinesecheckers.server.search.TranspositionTable;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how parallel search scales with the number of threads: the time to search a fixed set of positions
+ * to a fixed depth, from one thread up to the specified number, each with its own pool and a fresh table. The
+ * positions are taken from a greedy game on the default board, and are searched once before timing to warm up
+ * the JIT compiler.
+ * <p>
+ * Usage: {@code SearchBenchmark [players] [depth] [max threads] [positions]}.
+ */
+public class SearchBenchmark {
+    private static final int TABLE_BYTES = 64 << 20;
+    private static final int NO_TIME_LIMIT = 3_600_000;
+    private static final int MOVES_BETWEEN_POSITIONS = 6;
+
+    /**
+     * Prevents instantiation.
+     */
+    private SearchBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark and prints one line per thread count.
+     *
+     * @param args optionally the number of players, the depth, the maximum number of threads and the number of
+     *             positions
+     * @throws GameException if the board cannot be created
+     */
+    public static void main(String[] args) throws GameException {
+        int players = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 6;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        int positions = args.length > 3 ? Integer.parseInt(args[3]) : 8;
+
+        List<GameHandler> games = positions(players, positions);
+        measure(games, players, depth, 1);
+        long single = 0;
+        for (int threads = 1; threads <= maxThreads; threads++) {
+            long elapsed = measure(games, players, depth, threads);
+            if (threads == 1) {
+                single = elapsed;
+            }
+            System.out.printf("%d threads: %d ms, speedup %.2f%n", threads, elapsed / 1_000_000, (double) single / elapsed);
+        }
+    }
+
+    /**
+     * Searches every position with the specified number of threads.
+     *
+     * @param games   the positions
+     * @param players the number of players
+     * @param depth   the depth
+     * @param threads the number of threads
+     * @return the elapsed time in nanoseconds
+     */
+    private static long measure(List<GameHandler> games, int players, int depth, int threads) {
+        ForkJoinPool pool = new ForkJoinPool(threads, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        SearchSettings settings = new SearchSettings(NO_TIME_LIMIT, threads, new TranspositionTable(TABLE_BYTES), pool, null, null);
+        SearchEngine engine = settings.createEngine(NO_TIME_LIMIT, depth, MultiplayerSearch.PARANOID);
+        long start = System.nanoTime();
+        for (GameHandler game : games) {
+            engine.findMove(game, game.getPossibleColorsForPlayers(players)[0]);
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        return elapsed;
+    }
+
+    /**
+     * Plays a greedy game and keeps a copy of the position every few moves.
+     *
+     * @param players   the number of players
+     * @param positions the number of positions
+     * @return the game handlers of the positions
+     * @throws GameException if the board cannot be created
+     */
+    private static List<GameHandler> positions(int players, int positions) throws GameException {
+        GameHandler game = newGame(players);
+        PlayerColor[] colors = game.getPossibleColorsForPlayers(players);
+        Bot[] bots = new Bot[players];
+        for (int i = 0; i < players; i++) {
+            bots[i] = new Bot(colors[i], game);
+        }
+        List<GameHandler> result = new ArrayList<>();
+        List<PlayerMove> history = new ArrayList<>();
+        for (int seat = 0; result.size() < positions; seat = (seat + 1) % players) {
+            if (history.size() % MOVES_BETWEEN_POSITIONS == 0 && seat == 0) {
+                result.add(replay(players, history));
+            }
+            bots[seat].onTurnStarted();
+            PlayerMove move = bots[seat].nextMove();
+            if (move == null) {
+                continue;
+            }
+            game.makeMove(move.fromX(), move.fromY(), move.toX(), move.toY());
+            history.add(move);
+            for (Bot bot : bots) {
+                bot.onMoveApplied(move.fromX(), move.fromY(), move.toX(), move.toY());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates a game and plays the specified moves on it.
+     *
+     * @param players the number of players
+     * @param moves   the moves
+     * @return the game handler of the game
+     * @throws GameException if the board cannot be created
+     */
+    private static GameHandler replay(int players, List<PlayerMove> moves) throws GameException {
+        GameHandler game = newGame(players);
+        for (PlayerMove move : moves) {
+            game.makeMove(move.fromX(), move.fromY(), move.toX(), move.toY());
+        }
+        return game;
+    }
+
+    /**
+     * Creates a game on the default board.
+     *
+     * @param players the number of players
+     * @return the game handler of the game
+     * @throws GameException if the board cannot be created
+     */
+    private static GameHandler newGame(int players) throws GameException {
+        DefaultBoardFactory boardFactory = new DefaultBoardFactory();
+        DefaultMovementStrategy movementStrategy = new DefaultMovementStrategy();
+        GameHandler game = new GameHandler(movementStrategy, boardFactory);
+        game.initialize(boardFactory, movementStrategy, players);
+        return game;
+    }
+}
\ No newline at end of file
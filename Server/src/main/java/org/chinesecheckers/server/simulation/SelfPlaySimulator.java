@@ -0,0 +1,353 @@
+package org.chinesecheckers.server.simulation;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.endgame.EndgameTable;
+import org.chinesecheckers.server.movement.DefaultMovementStrategy;
+import org.chinesecheckers.server.movement.DiamondMovementStrategy;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.movement.JumpChainGenerator;
+import org.chinesecheckers.server.movement.JumpVerificationCondition;
+import org.chinesecheckers.server.movement.MoveValidationCondition;
+import org.chinesecheckers.server.movement.MovementStrategy;
+import org.chinesecheckers.server.movement.PawnVerificationCondition;
+import org.chinesecheckers.server.opening.OpeningBook;
+import org.chinesecheckers.server.player.Bot;
+import org.chinesecheckers.server.player.LocalPlayer;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.search.SearchSettings;
+import org.chinesecheckers.server.search.TranspositionTable;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.BoardFactory;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.DiamondBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Plays complete bot-versus-bot games without Spring, sockets or a database, to tune bots and regression-test
+ * the rules. Games are independent, each with its own board and game handler, and run in parallel on a fixed
+ * pool of worker threads, one per core by default.
+ * <p>
+ * The rules are those of a game session: a turn is one step, or a chain of jumps by the same pawn, and a game
+ * ends when all players but one have reached their target. Games that reach the turn limit are stopped and
+ * counted as unfinished. Moves a strategy gets wrong are dropped, end the turn and are counted in the report.
+ * <p>
+ * The strategies take turns at the colors from game to game, so each of them moves first equally often. Bots
+ * play the same game every time from the same position, so the first moves of a game can be random forward
+ * moves; they come from a seeded generator per game, which makes a run repeatable whatever the threads do.
+ * <p>
+ * Usage: {@code SelfPlaySimulator <games> [default|diamond] [strategy,strategy,...] [threads] [turn limit] [table megabytes]
+ * [endgame table file] [opening book file] [random moves] [seed]}.
+ */
+public class SelfPlaySimulator {
+    private static final int DEFAULT_RANDOM_MOVES = 4;
+
+    private final String m_mode;
+    private final BotStrategy[] m_seats;
+    private final int m_threads;
+    private final int m_turnLimit;
+    private Supplier<GameRecorder> m_recorders = () -> null;
+    private int m_randomMoves;
+    private long m_seed;
+
+    /**
+     * Constructs a SelfPlaySimulator.
+     *
+     * @param mode      the game mode, "default" or "diamond"
+     * @param seats     the strategy of each seat; 2, 3, 4 or 6 seats
+     * @param threads   the number of worker threads
+     * @param turnLimit the number of turns after which a game is stopped
+     */
+    public SelfPlaySimulator(String mode, BotStrategy[] seats, int threads, int turnLimit) {
+        this.m_mode = mode;
+        this.m_seats = seats.clone();
+        this.m_threads = threads;
+        this.m_turnLimit = turnLimit;
+    }
+
+    /**
+     * Sets where the recorders of the games come from; each game gets a new one. No games are recorded by
+     * default.
+     *
+     * @param recorders creates the recorder of a game, or returns null to leave the game unrecorded
+     */
+    public void setRecorders(Supplier<GameRecorder> recorders) {
+        this.m_recorders = recorders;
+    }
+
+    /**
+     * Starts every game with random forward moves instead of the moves of the strategies. No moves are random by
+     * default.
+     *
+     * @param randomMoves the number of moves of a game, counted over all seats, that are random
+     * @param seed        the seed the generator of every game is derived from
+     */
+    public void setRandomOpening(int randomMoves, long seed) {
+        this.m_randomMoves = randomMoves;
+        this.m_seed = seed;
+    }
+
+    /**
+     * Plays the specified number of games and reports their statistics.
+     *
+     * @param games the number of games
+     * @return the report
+     * @throws Exception if a game fails
+     */
+    public SimulationReport run(int games) throws Exception {
+        AtomicInteger nextGame = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(m_threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<SimulationReport>> workers = new ArrayList<>();
+            for (int i = 0; i < m_threads; i++) {
+                workers.add(executor.submit(() -> {
+                    SimulationReport report = new SimulationReport(m_seats.length);
+                    int game;
+                    while ((game = nextGame.getAndIncrement()) < games) {
+                        playGame(game, report);
+                    }
+                    return report;
+                }));
+            }
+            SimulationReport total = new SimulationReport(m_seats.length);
+            for (Future<SimulationReport> worker : workers) {
+                total.merge(worker.get());
+            }
+            total.setElapsedNanos(System.nanoTime() - start);
+            return total;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Plays one game and records it. The seats move in the order of their colors, and the colors are shifted by
+     * one seat from game to game.
+     *
+     * @param game   the number of the game
+     * @param report the report of the worker
+     * @throws GameException if the board cannot be created
+     */
+    private void playGame(int game, SimulationReport report) throws GameException {
+        boolean diamond = "diamond".equalsIgnoreCase(m_mode);
+        BoardFactory boardFactory = diamond ? new DiamondBoardFactory() : new DefaultBoardFactory();
+        MovementStrategy movementStrategy = diamond ? new DiamondMovementStrategy() : new DefaultMovementStrategy();
+        GameHandler gameHandler = new GameHandler(movementStrategy, boardFactory);
+        gameHandler.initialize(boardFactory, movementStrategy, m_seats.length);
+
+        PlayerColor[] possibleColors = gameHandler.getPossibleColorsForPlayers(m_seats.length);
+        int shift = game % m_seats.length;
+        PlayerColor[] colors = new PlayerColor[m_seats.length];
+        LocalPlayer[] players = new LocalPlayer[m_seats.length];
+        for (int i = 0; i < players.length; i++) {
+            colors[i] = possibleColors[(i + shift) % possibleColors.length];
+            players[i] = m_seats[i].create(colors[i], gameHandler);
+        }
+
+        GameRecorder recorder = m_recorders.get();
+        Random random = m_randomMoves > 0 ? new Random(m_seed ^ game * 0x9E37_79B9_7F4A_7C15L) : null;
+        Turn turn = new Turn(gameHandler, players, colors, recorder, random, m_randomMoves);
+        boolean[] finished = new boolean[players.length];
+        int finishedCount = 0;
+        int winner = -1;
+        int turns = 0;
+        int seat = (players.length - shift) % players.length;
+        while (finishedCount < players.length - 1 && turns < m_turnLimit) {
+            if (!finished[seat]) {
+                turn.play(seat);
+                turns++;
+                if (gameHandler.isWinner(colors[seat])) {
+                    finished[seat] = true;
+                    finishedCount++;
+                    if (winner < 0) {
+                        winner = seat;
+                    }
+                }
+            }
+            seat = (seat + 1) % players.length;
+        }
+        report.record(winner, finishedCount == players.length - 1, turns, turn.getMoves(), turn.getIllegalMoves());
+        if (recorder != null) {
+            recorder.onGameEnded(winner);
+        }
+    }
+
+    /**
+     * Plays the turns of one game with the rules of a game session, reusing its move conditions.
+     */
+    private static class Turn {
+        private final GameHandler m_gameHandler;
+        private final LocalPlayer[] m_players;
+        private final PlayerColor[] m_colors;
+        private final GameRecorder m_recorder;
+        private final JumpVerificationCondition m_jumpStatus = new JumpVerificationCondition(0);
+        private final PawnVerificationCondition m_previousPawn = new PawnVerificationCondition();
+        private final MoveValidationCondition[] m_conditions = {m_jumpStatus, m_previousPawn};
+        private final JumpChainGenerator m_chainGenerator = new JumpChainGenerator();
+        private final Random m_random;
+        private final int m_randomMoves;
+        private int m_moves;
+        private int m_illegalMoves;
+
+        /**
+         * Constructs a Turn for the specified game.
+         *
+         * @param gameHandler the game handler of the game
+         * @param players     the players of the game, by seat
+         * @param colors      the colors of the players, by seat
+         * @param recorder    the recorder of the game, or null
+         * @param random      the generator of the random opening moves, or null
+         * @param randomMoves the number of moves of the game that are random
+         */
+        Turn(GameHandler gameHandler, LocalPlayer[] players, PlayerColor[] colors, GameRecorder recorder,
+             Random random, int randomMoves) {
+            this.m_gameHandler = gameHandler;
+            this.m_players = players;
+            this.m_colors = colors;
+            this.m_recorder = recorder;
+            this.m_random = random;
+            this.m_randomMoves = random == null ? 0 : randomMoves;
+        }
+
+        /**
+         * Plays the turn of a seat: one step or one whole jump chain, random in the opening. An illegal move is
+         * counted, dropped and ends the turn.
+         *
+         * @param seat the seat whose turn it is
+         */
+        void play(int seat) {
+            LocalPlayer player = m_players[seat];
+            m_jumpStatus.setStatus(0);
+            m_previousPawn.setCurrentXY(0, 0);
+            m_previousPawn.setPreviousXY(0, 0);
+            PlayerMove move = m_moves < m_randomMoves ? randomForwardMove(m_colors[seat]) : null;
+            if (move == null) {
+                player.onTurnStarted();
+                move = player.nextMove();
+            }
+            if (move == null) {
+                return;
+            }
+            m_previousPawn.setCurrentXY(move.fromX(), move.fromY());
+            boolean legal = m_gameHandler.verifyMove(move.fromX(), move.fromY(), move.toX(), move.toY(), m_conditions) != 0
+                    || m_gameHandler.findJumpChain(move.fromX(), move.fromY(), move.toX(), move.toY()) != null;
+            if (!legal) {
+                m_illegalMoves++;
+                return;
+            }
+            if (m_recorder != null) {
+                m_recorder.onMove(m_moves, seat, m_gameHandler.getPositionKey(m_colors[seat]), move);
+            }
+            m_gameHandler.makeMove(move.fromX(), move.fromY(), move.toX(), move.toY());
+            m_moves++;
+            for (LocalPlayer other : m_players) {
+                other.onMoveApplied(move.fromX(), move.fromY(), move.toX(), move.toY());
+            }
+        }
+
+        /**
+         * Picks one of the moves that bring a pawn of a color closer to its goal.
+         *
+         * @param color the color to move
+         * @return the move, or null if there is none
+         */
+        private PlayerMove randomForwardMove(PlayerColor color) {
+            BitBoard bitBoard = m_gameHandler.getBoard().getBitBoard();
+            NeighbourTable neighbourTable = m_gameHandler.getBoard().getNeighbourTable();
+            List<PlayerMove> forward = new ArrayList<>();
+            for (int index = bitBoard.nextPiece(color, 0); index >= 0; index = bitBoard.nextPiece(color, index + 1)) {
+                int distance = bitBoard.goalDistance(color, index);
+                int count = m_chainGenerator.generate(bitBoard, neighbourTable, index);
+                for (int i = 0; i < count; i++) {
+                    int destination = m_chainGenerator.getDestination(i);
+                    if (bitBoard.goalDistance(color, destination) < distance) {
+                        forward.add(new PlayerMove(bitBoard.getX(index), bitBoard.getY(index),
+                                bitBoard.getX(destination), bitBoard.getY(destination)));
+                    }
+                }
+            }
+            return forward.isEmpty() ? null : forward.get(m_random.nextInt(forward.size()));
+        }
+
+        /**
+         * Gets the number of moves made so far, a jump chain counting as one.
+         *
+         * @return the number of moves
+         */
+        int getMoves() {
+            return m_moves;
+        }
+
+        /**
+         * Gets the number of illegal moves the players tried so far.
+         *
+         * @return the number of illegal moves
+         */
+        int getIllegalMoves() {
+            return m_illegalMoves;
+        }
+    }
+
+    /**
+     * Gets a strategy by name, in the format of {@link Bot#create}. Searching strategies default to 50 ms
+     * per move.
+     *
+     * @param name         the name of the strategy
+     * @param table        the transposition table shared by the searches, or null
+     * @param endgameTable the endgame table, or null
+     * @param openingBook  the opening book, or null
+     * @return the strategy
+     * @throws IllegalArgumentException if no strategy has the name
+     */
+    public static BotStrategy strategy(String name, TranspositionTable table, EndgameTable endgameTable,
+                                       OpeningBook openingBook) {
+        SearchSettings settings = new SearchSettings(50, 1, table, null, endgameTable, openingBook);
+        return (color, gameHandler) -> Bot.create(name, color, gameHandler, settings);
+    }
+
+    /**
+     * Runs a simulation from the command line and prints its report.
+     *
+     * @param args the number of games, then optionally the mode, the comma-separated seat strategies, the number
+     *             of threads, the turn limit, the size of the shared transposition table in megabytes, the
+     *             path of an endgame table file, the path of an opening book file, the number of random
+     *             opening moves per game and the seed of the random moves
+     * @throws Exception if a game fails
+     */
+    public static void main(String[] args) throws Exception {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String mode = args.length > 1 ? args[1] : "default";
+        String[] names = (args.length > 2 ? args[2] : "greedy,greedy").split(",");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        int turnLimit = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+        TranspositionTable table = new TranspositionTable((args.length > 5 ? Long.parseLong(args[5]) : 64) << 20);
+        EndgameTable endgameTable = args.length > 6 && !args[6].isEmpty() ? EndgameTable.load(Path.of(args[6])) : null;
+        OpeningBook openingBook = args.length > 7 && !args[7].isEmpty() ? OpeningBook.load(Path.of(args[7])) : null;
+        int randomMoves = args.length > 8 ? Integer.parseInt(args[8]) : DEFAULT_RANDOM_MOVES;
+        long seed = args.length > 9 ? Long.parseLong(args[9]) : 1;
+
+        BotStrategy[] seats = new BotStrategy[names.length];
+        for (int i = 0; i < names.length; i++) {
+            seats[i] = strategy(names[i], table, endgameTable, openingBook);
+        }
+        SelfPlaySimulator simulator = new SelfPlaySimulator(mode, seats, threads, turnLimit);
+        simulator.setRandomOpening(randomMoves, seed);
+        SimulationReport report = simulator.run(games);
+        System.out.print(report);
+        System.out.println(table);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,152 @@
+package org.chinesecheckers.server.simulation;
+
+/**
+ * Statistics of a batch of simulated games. Every worker fills its own report, and the reports are merged at
+ * the end, so recording a game needs no synchronization.
+ */
+public class SimulationReport {
+    private final int[] m_wins;
+    private long m_games;
+    private long m_unfinishedGames;
+    private long m_turns;
+    private long m_moves;
+    private long m_illegalMoves;
+    private long m_elapsedNanos;
+
+    /**
+     * Constructs an empty report for the specified number of seats.
+     *
+     * @param seats the number of seats
+     */
+    SimulationReport(int seats) {
+        this.m_wins = new int[seats];
+    }
+
+    /**
+     * Records a played game.
+     *
+     * @param winner the seat that finished first, or -1 if the game hit the turn limit before anyone finished
+     * @param finished true if the game ended normally, false if it hit the turn limit
+     * @param turns the number of turns played
+     * @param moves the number of moves made, a jump chain counting as one
+     * @param illegalMoves the number of illegal moves the players tried, which were dropped
+     */
+    void record(int winner, boolean finished, int turns, int moves, int illegalMoves) {
+        m_games++;
+        if (winner >= 0) {
+            m_wins[winner]++;
+        }
+        if (!finished) {
+            m_unfinishedGames++;
+        }
+        m_turns += turns;
+        m_moves += moves;
+        m_illegalMoves += illegalMoves;
+    }
+
+    /**
+     * Adds the games of another report to this one.
+     *
+     * @param other the other report
+     */
+    void merge(SimulationReport other) {
+        for (int i = 0; i < m_wins.length; i++) {
+            m_wins[i] += other.m_wins[i];
+        }
+        m_games += other.m_games;
+        m_unfinishedGames += other.m_unfinishedGames;
+        m_turns += other.m_turns;
+        m_moves += other.m_moves;
+        m_illegalMoves += other.m_illegalMoves;
+    }
+
+    /**
+     * Sets the wall time the batch took.
+     *
+     * @param elapsedNanos the wall time in nanoseconds
+     */
+    void setElapsedNanos(long elapsedNanos) {
+        this.m_elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of played games.
+     *
+     * @return the number of games
+     */
+    public long getGames() {
+        return m_games;
+    }
+
+    /**
+     * Gets the number of games stopped at the turn limit.
+     *
+     * @return the number of unfinished games
+     */
+    public long getUnfinishedGames() {
+        return m_unfinishedGames;
+    }
+
+    /**
+     * Gets the number of illegal moves the players tried over all games. Any is a bug in a strategy.
+     *
+     * @return the number of illegal moves
+     */
+    public long getIllegalMoves() {
+        return m_illegalMoves;
+    }
+
+    /**
+     * Gets the number of games played per second of wall time.
+     *
+     * @return the throughput
+     */
+    public double getGamesPerSecond() {
+        return m_elapsedNanos == 0 ? 0 : m_games * 1e9 / m_elapsedNanos;
+    }
+
+    /**
+     * Gets the average number of turns, a turn being all the moves of one player before the next one plays.
+     *
+     * @return the average number of turns per game
+     */
+    public double getAverageTurns() {
+        return m_games == 0 ? 0 : (double) m_turns / m_games;
+    }
+
+    /**
+     * Gets the average number of moves per game, a jump chain counting as one.
+     *
+     * @return the average number of moves per game
+     */
+    public double getAverageMoves() {
+        return m_games == 0 ? 0 : (double) m_moves / m_games;
+    }
+
+    /**
+     * Gets the share of the games a seat finished first.
+     *
+     * @param seat the seat
+     * @return the win rate, between 0 and 1
+     */
+    public double getWinRate(int seat) {
+        return m_games == 0 ? 0 : (double) m_wins[seat] / m_games;
+    }
+
+    /**
+     * Returns a summary of the report.
+     *
+     * @return the summary
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d games in %.1f s: %.1f games/s, %.1f turns and %.1f moves per game, %d unfinished, "
+                        + "%d illegal moves%n", m_games, m_elapsedNanos / 1e9, getGamesPerSecond(), getAverageTurns(),
+                getAverageMoves(), m_unfinishedGames, m_illegalMoves));
+        for (int seat = 0; seat < m_wins.length; seat++) {
+            sb.append(String.format("seat %d: %.1f%% wins%n", seat, getWinRate(seat) * 100));
+        }
+        return sb.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+package org.chinesecheckers.server.transport;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.function.Consumer;
+
+/**
+ * Transport based on java.net.ServerSocket, with a reader and a writer virtual thread per connection.
+ */
+public class BlockingTransport implements Transport {
+    private final int m_port;
+    private final int m_inboundCapacity;
+    private final int m_outboundCapacity;
+    private final boolean m_binaryEnabled;
+    private ServerSocket m_serverSocket;
+    private volatile boolean m_running;
+
+    /**
+     * Constructs a BlockingTransport listening on the specified port.
+     *
+     * @param port             the port to listen on
+     * @param inboundCapacity  the capacity of the inbound queue of every connection
+     * @param outboundCapacity the capacity of the outbound queue of every connection
+     * @param binaryEnabled    whether clients may switch to the binary protocol
+     */
+    public BlockingTransport(int port, int inboundCapacity, int outboundCapacity, boolean binaryEnabled) {
+        this.m_port = port;
+        this.m_inboundCapacity = inboundCapacity;
+        this.m_outboundCapacity = outboundCapacity;
+        this.m_binaryEnabled = binaryEnabled;
+    }
+
+    /**
+     * Binds the server socket and accepts connections on a virtual thread.
+     *
+     * @param onConnection called for every new connection
+     * @throws Exception if the port cannot be bound
+     */
+    @Override
+    public void start(Consumer<Connection> onConnection) throws Exception {
+        try {
+            m_serverSocket = new ServerSocket(m_port);
+        } catch (Exception e) {
+            throw new Exception("Port error " + m_port);
+        }
+        m_running = true;
+        Thread.ofVirtual().name("transport-accept").start(() -> acceptConnections(onConnection));
+    }
+
+    /**
+     * Accepts connections until the transport is stopped.
+     *
+     * @param onConnection called for every new connection
+     */
+    private void acceptConnections(Consumer<Connection> onConnection) {
+        while (m_running) {
+            try {
+                Socket socket = m_serverSocket.accept();
+                try {
+                    onConnection.accept(new CommunicationManager(socket, m_inboundCapacity, m_outboundCapacity, m_binaryEnabled));
+                } catch (Exception e) {
+                    socket.close();
+                }
+            } catch (Exception e) {
+                if (m_running) {
+                    System.err.println("Error accepting connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections.
+     */
+    @Override
+    public void stop() {
+        m_running = false;
+        try {
+            if (m_serverSocket != null) m_serverSocket.close();
+        } catch (Exception ignored) {
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,50 @@
+package org.chinesecheckers.server.transport;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The actions to run once a connection has closed, shared by the connections of every transport. An action added
+ * after the connection has closed runs at once, so no caller misses the close.
+ */
+class CloseListeners {
+    private final List<Runnable> m_listeners = new ArrayList<>();
+    private boolean m_closed;
+
+    /**
+     * Adds an action to run once the connection has closed, or runs it now if it already has.
+     *
+     * @param listener the action
+     */
+    void add(Runnable listener) {
+        synchronized (m_listeners) {
+            if (!m_closed) {
+                m_listeners.add(listener);
+                return;
+            }
+        }
+        listener.run();
+    }
+
+    /**
+     * Runs the actions added so far, once; called by the connection when it has closed.
+     */
+    void fire() {
+        List<Runnable> listeners;
+        synchronized (m_listeners) {
+            if (m_closed) {
+                return;
+            }
+            m_closed = true;
+            listeners = new ArrayList<>(m_listeners);
+            m_listeners.clear();
+        }
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                System.err.println("Error running close listener: " + e.getMessage());
+            }
+        }
+    }
+}
\ No newline at end of file
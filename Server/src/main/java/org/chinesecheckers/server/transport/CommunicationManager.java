@@ -0,0 +1,255 @@
+package org.chinesecheckers.server.transport;
+
+import org.chinesecheckers.common.BinaryCodec;
+import org.chinesecheckers.common.MovedMessage;
+import org.chinesecheckers.common.WireCodec;
+import org.chinesecheckers.common.WireInput;
+import org.chinesecheckers.common.WireOutput;
+
+import java.net.Socket;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Manages communication with a player through a socket connection.
+ * Reading and writing the socket happen on two virtual threads per connection, which exchange lines with the
+ * session through bounded inbound and outbound queues. A client that does not drain its outbound queue is
+ * disconnected instead of stalling the session. The outbound queue holds lines and board deltas, which the writer
+ * encodes from their numbers.
+ * <p>
+ * If the first line of the client is {@link WireCodec#HELLO_BINARY}, the reader answers it and both threads
+ * switch to the binary protocol; the greeting is not passed on to the session.
+ */
+public class CommunicationManager implements Connection {
+    static final int DEFAULT_INBOUND_CAPACITY = 16;
+    static final int DEFAULT_OUTBOUND_CAPACITY = 256;
+    private static final String END_OF_STREAM = new String("END_OF_STREAM");
+    private static final String SWITCH_TO_BINARY = new String(WireCodec.HELLO_BINARY);
+
+    private final Socket m_socket;
+    private final WireInput m_in;
+    private final WireOutput m_out;
+    private final boolean m_binaryEnabled;
+    private final BlockingQueue<String> m_inbound;
+    private final BlockingQueue<Object> m_outbound;
+    private final Thread m_reader;
+    private final Thread m_writer;
+    private final CloseListeners m_closeListeners = new CloseListeners();
+    private volatile boolean m_closed;
+
+    /**
+     * Constructs a CommunicationManager with the specified socket and the default queue capacities.
+     *
+     * @param s the socket for communication
+     * @throws Exception if an error occurs while setting up the input or output streams
+     */
+    public CommunicationManager(Socket s) throws Exception {
+        this(s, DEFAULT_INBOUND_CAPACITY, DEFAULT_OUTBOUND_CAPACITY, true);
+    }
+
+    /**
+     * Constructs a CommunicationManager with the specified socket and queue capacities, and starts its
+     * reader and writer virtual threads.
+     *
+     * @param s                the socket for communication
+     * @param inboundCapacity  the maximum number of received lines not yet read by the session
+     * @param outboundCapacity the maximum number of lines waiting to be written to the socket
+     * @param binaryEnabled    whether the client may switch to the binary protocol
+     * @throws Exception if an error occurs while setting up the input or output streams
+     */
+    public CommunicationManager(Socket s, int inboundCapacity, int outboundCapacity, boolean binaryEnabled) throws Exception {
+        m_socket = s;
+        m_binaryEnabled = binaryEnabled;
+        try {
+            m_in = new WireInput(m_socket.getInputStream());
+            m_out = new WireOutput(m_socket.getOutputStream());
+        } catch (Exception e) {
+            throw new Exception("Player connection error");
+        }
+        m_inbound = new ArrayBlockingQueue<>(inboundCapacity);
+        m_outbound = new ArrayBlockingQueue<>(outboundCapacity);
+        m_reader = Thread.ofVirtual().name("connection-reader").start(this::readLoop);
+        m_writer = Thread.ofVirtual().name("connection-writer").start(this::writeLoop);
+    }
+
+    /**
+     * Reads lines from the socket into the inbound queue until the stream ends, then queues the end-of-stream
+     * marker. Lines not yet read when the socket was closed locally are dropped.
+     */
+    private void readLoop() {
+        try {
+            String line = m_in.readLine();
+            if (line != null && line.equals(WireCodec.HELLO_BINARY)) {
+                negotiate();
+                line = m_in.readLine();
+            }
+            while (line != null) {
+                m_inbound.put(line);
+                line = m_in.readLine();
+            }
+        } catch (Exception ignored) {
+        } finally {
+            m_closed = true;
+            m_outbound.offer(END_OF_STREAM);
+            if (m_socket.isClosed()) {
+                m_inbound.clear();
+            }
+            try {
+                m_inbound.put(END_OF_STREAM);
+            } catch (InterruptedException e) {
+                m_inbound.clear();
+                m_inbound.offer(END_OF_STREAM);
+            }
+            m_closeListeners.fire();
+        }
+    }
+
+    /**
+     * Answers the binary protocol greeting of the client. The reader switches right away, the writer once it has
+     * sent the answer in text.
+     */
+    private void negotiate() {
+        if (m_binaryEnabled) {
+            m_in.setCodec(new BinaryCodec());
+            m_outbound.offer(SWITCH_TO_BINARY);
+        } else {
+            m_outbound.offer(WireCodec.HELLO_TEXT);
+        }
+    }
+
+    /**
+     * Writes lines from the outbound queue to the socket, flushing once the queue is drained, and closes the
+     * socket when the end-of-stream marker is reached.
+     */
+    private void writeLoop() {
+        try {
+            while (true) {
+                Object message = m_outbound.take();
+                if (message == END_OF_STREAM) {
+                    break;
+                }
+                if (message == SWITCH_TO_BINARY) {
+                    m_out.writeLine(WireCodec.HELLO_BINARY);
+                    m_out.setCodec(new BinaryCodec());
+                } else if (message instanceof MovedMessage moved) {
+                    m_out.writeMoved(moved);
+                } else {
+                    m_out.writeLine((String) message);
+                }
+                if (m_outbound.isEmpty()) {
+                    m_out.flush();
+                }
+            }
+            m_out.flush();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Disconnecting client: " + e.getMessage());
+        } catch (Exception ignored) {
+        } finally {
+            closeSocket();
+        }
+    }
+
+    /**
+     * Reads a line of text from the input stream.
+     *
+     * @return the line of text read, or null if the connection is closed
+     * @throws Exception if an error occurs while reading the line
+     */
+    @Override
+    public String readLine() throws Exception {
+        String line = m_inbound.take();
+        if (line == END_OF_STREAM) {
+            m_inbound.offer(END_OF_STREAM);
+            return null;
+        }
+        return line;
+    }
+
+    /**
+     * Writes a line of text to the output stream. The line is queued and never blocks the caller;
+     * if the outbound queue is full the client is too slow and gets disconnected.
+     *
+     * @param line the line of text to write
+     */
+    @Override
+    public void writeLine(String line) {
+        queue(line);
+    }
+
+    /**
+     * Queues a board delta for the writer, like a line.
+     *
+     * @param moved the delta
+     */
+    @Override
+    public void writeMoved(MovedMessage moved) {
+        queue(moved);
+    }
+
+    /**
+     * Queues a line or a board delta for the writer, disconnecting the client if the outbound queue is full.
+     *
+     * @param message the line or the delta
+     */
+    private void queue(Object message) {
+        if (m_closed) {
+            return;
+        }
+        if (!m_outbound.offer(message)) {
+            System.err.println("Disconnecting slow client " + m_socket.getRemoteSocketAddress());
+            abort();
+        }
+    }
+
+    /**
+     * Checks if the connection is closed.
+     *
+     * @return true if the connection is closed, otherwise false
+     */
+    @Override
+    public boolean isClosed() {
+        return m_closed;
+    }
+
+    /**
+     * Registers an action to run once the reader has reached the end of the stream.
+     *
+     * @param listener the action
+     */
+    @Override
+    public void onClose(Runnable listener) {
+        m_closeListeners.add(listener);
+    }
+
+    /**
+     * Closes the connection once the lines already queued have been written.
+     */
+    @Override
+    public void close() {
+        m_closed = true;
+        if (!m_outbound.offer(END_OF_STREAM)) {
+            abort();
+        }
+    }
+
+    /**
+     * Closes the connection immediately, dropping the lines not yet written.
+     */
+    private void abort() {
+        m_closed = true;
+        m_outbound.clear();
+        m_writer.interrupt();
+        closeSocket();
+    }
+
+    /**
+     * Closes the underlying socket and wakes up the reader thread.
+     */
+    private void closeSocket() {
+        try {
+            m_socket.close();
+        } catch (Exception ignored) {
+        }
+        m_reader.interrupt();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package org.chinesecheckers.server.transport;
+
+import org.chinesecheckers.common.MovedMessage;
+
+/**
+ * A line-oriented connection to a client, independent of the transport that carries it.
+ */
+public interface Connection {
+
+    /**
+     * Reads the next line sent by the client, waiting until one arrives.
+     *
+     * @return the line, or null if the connection is closed
+     * @throws Exception if an error occurs while reading the line
+     */
+    String readLine() throws Exception;
+
+    /**
+     * Queues a line to be sent to the client. Never blocks the caller.
+     *
+     * @param line the line to send
+     */
+    void writeLine(String line);
+
+    /**
+     * Queues a board delta to be sent to the client, encoded from its numbers. Never blocks the caller.
+     *
+     * @param moved the delta
+     */
+    default void writeMoved(MovedMessage moved) {
+        writeLine(moved.toString());
+    }
+
+    /**
+     * Checks if the connection is closed.
+     *
+     * @return true if the connection is closed, otherwise false
+     */
+    boolean isClosed();
+
+    /**
+     * Registers an action to run once the inbound stream of the connection has ended, because the client left or
+     * the connection was closed here. The action runs on a transport thread, or at once if the stream has already
+     * ended, and must not block.
+     *
+     * @param listener the action
+     */
+    void onClose(Runnable listener);
+
+    /**
+     * Closes the connection once the lines already queued have been sent.
+     */
+    void close();
+}
\ No newline at end of file
@@ -0,0 +1,729 @@
+package org.chinesecheckers.server.transport;
+
+import org.chinesecheckers.common.BinaryCodec;
+import org.chinesecheckers.common.MovedMessage;
+import org.chinesecheckers.common.TextCodec;
+import org.chinesecheckers.common.WireCodec;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Transport based on a single selector thread and non-blocking channels.
+ * Reads and writes go through one direct read buffer and one direct write buffer shared by all connections, and
+ * received bytes are decoded into lines from a small per-connection buffer. Written lines are queued and the
+ * connection is marked dirty; the selector thread encodes everything queued for a connection into the write
+ * buffer and sends it with a single write per wakeup. Bytes a slow socket does not accept are kept aside until
+ * the channel is writable again. Received lines are framed in the per-connection buffer but handed to the session
+ * as strings, one per line, since the session reads them on its own thread after the buffer has been reused.
+ * <p>
+ * A client that sends lines faster than its session reads them is not read from while its inbound queue is full,
+ * so that it waits for the session as it would on a blocking socket; the line that did not fit is kept aside and
+ * reading resumes once the session takes a line.
+ * <p>
+ * Connections start with the text protocol and switch to the binary protocol if the first line of the client
+ * is {@link WireCodec#HELLO_BINARY}; the greeting is answered here and not passed on to the session.
+ */
+public class NioTransport implements Transport {
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_LINE_LENGTH = 8 * 1024;
+    private static final String END_OF_STREAM = new String("END_OF_STREAM");
+    private static final String SWITCH_TO_BINARY = new String(WireCodec.HELLO_BINARY);
+
+    private final int m_port;
+    private final int m_inboundCapacity;
+    private final int m_outboundCapacity;
+    private final boolean m_binaryEnabled;
+    private final WireCodec m_textCodec = new TextCodec();
+    private final WireCodec m_binaryCodec = new BinaryCodec();
+    private final ByteBuffer m_readBuffer;
+    private final ByteBuffer m_writeBuffer;
+    private final Queue<NioConnection> m_dirty = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean m_wakeupPending = new AtomicBoolean();
+    private Selector m_selector;
+    private ServerSocketChannel m_serverChannel;
+    private Consumer<Connection> m_onConnection;
+    private volatile boolean m_running;
+
+    /**
+     * Constructs a NioTransport listening on the specified port with the default buffer size.
+     *
+     * @param port             the port to listen on
+     * @param inboundCapacity  the capacity of the inbound queue of every connection
+     * @param outboundCapacity the capacity of the outbound queue of every connection
+     */
+    public NioTransport(int port, int inboundCapacity, int outboundCapacity) {
+        this(port, inboundCapacity, outboundCapacity, DEFAULT_BUFFER_SIZE, true);
+    }
+
+    /**
+     * Constructs a NioTransport listening on the specified port.
+     *
+     * @param port             the port to listen on
+     * @param inboundCapacity  the capacity of the inbound queue of every connection
+     * @param outboundCapacity the capacity of the outbound queue of every connection
+     * @param bufferSize       the size of the shared direct read and write buffers in bytes
+     * @param binaryEnabled    whether clients may switch to the binary protocol
+     */
+    public NioTransport(int port, int inboundCapacity, int outboundCapacity, int bufferSize, boolean binaryEnabled) {
+        this.m_port = port;
+        this.m_inboundCapacity = inboundCapacity;
+        this.m_outboundCapacity = outboundCapacity;
+        this.m_binaryEnabled = binaryEnabled;
+        this.m_readBuffer = ByteBuffer.allocateDirect(bufferSize);
+        this.m_writeBuffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * Binds the server channel and starts the selector thread.
+     *
+     * @param onConnection called on the selector thread for every new connection
+     * @throws Exception if the port cannot be bound
+     */
+    @Override
+    public void start(Consumer<Connection> onConnection) throws Exception {
+        m_onConnection = onConnection;
+        try {
+            m_selector = Selector.open();
+            m_serverChannel = ServerSocketChannel.open();
+            m_serverChannel.bind(new InetSocketAddress(m_port));
+            m_serverChannel.configureBlocking(false);
+            m_serverChannel.register(m_selector, SelectionKey.OP_ACCEPT);
+        } catch (Exception e) {
+            throw new Exception("Port error " + m_port);
+        }
+        m_running = true;
+        Thread.ofPlatform().name("transport-selector").daemon().start(this::selectLoop);
+    }
+
+    /**
+     * Gets the port the transport listens on, which the system chooses if the transport was constructed with port 0.
+     *
+     * @return the local port
+     * @throws IOException if the server channel is closed
+     */
+    int getLocalPort() throws IOException {
+        return ((InetSocketAddress) m_serverChannel.getLocalAddress()).getPort();
+    }
+
+    /**
+     * Stops the selector thread, which closes every connection.
+     */
+    @Override
+    public void stop() {
+        m_running = false;
+        if (m_selector != null) {
+            m_selector.wakeup();
+        }
+    }
+
+    /**
+     * Serves the selector until the transport is stopped: flushes the connections written to since the previous
+     * wakeup, then handles the ready channels.
+     */
+    private void selectLoop() {
+        try {
+            while (m_running) {
+                m_selector.select();
+                m_wakeupPending.set(false);
+                NioConnection dirty;
+                while ((dirty = m_dirty.poll()) != null) {
+                    dirty.m_scheduled.set(false);
+                    resumeReading(dirty);
+                    flush(dirty);
+                }
+                Iterator<SelectionKey> keys = m_selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Transport error: " + e.getMessage());
+        } finally {
+            shutdown();
+        }
+    }
+
+    /**
+     * Handles a ready key.
+     *
+     * @param key the ready key
+     */
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) {
+            return;
+        }
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        NioConnection connection = (NioConnection) key.attachment();
+        if (key.isReadable()) {
+            read(connection);
+        }
+        if (key.isValid() && key.isWritable()) {
+            flush(connection);
+        }
+    }
+
+    /**
+     * Accepts a pending connection and hands it to the callback.
+     */
+    private void accept() {
+        SocketChannel channel = null;
+        try {
+            channel = m_serverChannel.accept();
+            if (channel == null) {
+                return;
+            }
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            NioConnection connection = new NioConnection(channel);
+            connection.m_key = channel.register(m_selector, SelectionKey.OP_READ, connection);
+            m_onConnection.accept(connection);
+        } catch (Exception e) {
+            System.err.println("Error accepting connection: " + e.getMessage());
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (Exception ignored) {
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the available bytes of a connection through the shared read buffer and decodes them into lines.
+     *
+     * @param connection the readable connection
+     */
+    private void read(NioConnection connection) {
+        ByteBuffer in = m_readBuffer;
+        try {
+            while (true) {
+                in.clear();
+                int count = connection.m_channel.read(in);
+                if (count < 0) {
+                    disconnect(connection);
+                    return;
+                }
+                if (count == 0) {
+                    return;
+                }
+                in.flip();
+                if (!connection.receive(in)) {
+                    System.err.println("Disconnecting client sending malformed lines "
+                            + connection.m_channel.getRemoteAddress());
+                    disconnect(connection);
+                    return;
+                }
+                if (connection.m_readPaused) {
+                    updateInterest(connection);
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Resumes reading from a connection whose inbound queue was full, once its session has taken a line: queues
+     * the lines received meanwhile and watches the channel for reading again, unless the queue fills up again.
+     *
+     * @param connection the connection
+     */
+    private void resumeReading(NioConnection connection) {
+        SelectionKey key = connection.m_key;
+        if (!connection.m_readPaused || key == null || !key.isValid()) {
+            return;
+        }
+        try {
+            if (!connection.resume()) {
+                System.err.println("Disconnecting client sending malformed lines "
+                        + connection.m_channel.getRemoteAddress());
+                disconnect(connection);
+                return;
+            }
+            updateInterest(connection);
+        } catch (Exception e) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Watches the channel of a connection for reading unless reading is paused, and for writing while bytes are
+     * kept aside.
+     *
+     * @param connection the connection
+     */
+    private void updateInterest(NioConnection connection) {
+        connection.m_key.interestOps((connection.m_readPaused ? 0 : SelectionKey.OP_READ)
+                | (connection.hasPending() ? SelectionKey.OP_WRITE : 0));
+    }
+
+    /**
+     * Sends the bytes kept aside and the queued lines of a connection through the shared write buffer,
+     * one write per filled buffer. Whatever the socket does not accept is kept aside and the channel is
+     * watched for writability.
+     *
+     * @param connection the connection to flush
+     */
+    private void flush(NioConnection connection) {
+        SelectionKey key = connection.m_key;
+        if (key == null || !key.isValid()) {
+            return;
+        }
+        if (connection.m_aborted) {
+            disconnect(connection);
+            return;
+        }
+        ByteBuffer out = m_writeBuffer;
+        try {
+            while (true) {
+                out.clear();
+                connection.drainPending(out);
+                if (!connection.hasPending()) {
+                    connection.encodeQueued(out);
+                }
+                if (out.position() == 0) {
+                    break;
+                }
+                out.flip();
+                connection.m_channel.write(out);
+                if (out.hasRemaining()) {
+                    connection.keepPending(out);
+                    updateInterest(connection);
+                    return;
+                }
+            }
+            updateInterest(connection);
+            if (connection.m_closing) {
+                disconnect(connection);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Disconnecting client: " + e.getMessage());
+            disconnect(connection);
+        } catch (Exception e) {
+            disconnect(connection);
+        }
+    }
+
+    /**
+     * Closes the channel of a connection and ends its inbound stream.
+     *
+     * @param connection the connection to close
+     */
+    private void disconnect(NioConnection connection) {
+        connection.m_closed = true;
+        if (connection.m_key != null) {
+            connection.m_key.cancel();
+        }
+        try {
+            connection.m_channel.close();
+        } catch (Exception ignored) {
+        }
+        connection.endInbound();
+        connection.m_closeListeners.fire();
+    }
+
+    /**
+     * Closes every connection, the server channel and the selector.
+     */
+    private void shutdown() {
+        for (SelectionKey key : m_selector.keys()) {
+            if (key.attachment() instanceof NioConnection connection) {
+                disconnect(connection);
+            }
+        }
+        try {
+            m_serverChannel.close();
+            m_selector.close();
+        } catch (Exception ignored) {
+        }
+    }
+
+    /**
+     * Marks a connection dirty so the selector thread flushes it on its next wakeup. The selector is woken up
+     * once however many lines are written before it runs.
+     *
+     * @param connection the connection written to
+     */
+    private void schedule(NioConnection connection) {
+        if (connection.m_scheduled.compareAndSet(false, true)) {
+            m_dirty.add(connection);
+            if (m_wakeupPending.compareAndSet(false, true)) {
+                m_selector.wakeup();
+            }
+        }
+    }
+
+    /**
+     * A connection served by the selector thread. The session reads lines from a bounded inbound queue and
+     * writes lines and board deltas into a bounded outbound queue; neither call touches the channel.
+     */
+    private class NioConnection implements Connection {
+        private final SocketChannel m_channel;
+        private final BlockingQueue<String> m_inbound;
+        private final BlockingQueue<Object> m_outbound;
+        private final AtomicBoolean m_scheduled = new AtomicBoolean();
+        private final CloseListeners m_closeListeners = new CloseListeners();
+        private SelectionKey m_key;
+        private final StringBuilder m_decoded = new StringBuilder();
+        private ByteBuffer m_input = ByteBuffer.allocate(256);
+        private WireCodec m_inputCodec = m_textCodec;
+        private WireCodec m_outputCodec = m_textCodec;
+        private boolean m_greeted;
+        private byte[] m_pending;
+        private int m_pendingOffset;
+        private String m_held;
+        private byte[] m_unread;
+        private volatile boolean m_readPaused;
+        private volatile boolean m_closed;
+        private volatile boolean m_closing;
+        private volatile boolean m_aborted;
+
+        /**
+         * Constructs a NioConnection for the specified channel.
+         *
+         * @param channel the accepted channel
+         */
+        NioConnection(SocketChannel channel) {
+            this.m_channel = channel;
+            this.m_inbound = new ArrayBlockingQueue<>(m_inboundCapacity);
+            this.m_outbound = new ArrayBlockingQueue<>(m_outboundCapacity);
+        }
+
+        /**
+         * Reads the next line received from the client.
+         *
+         * @return the line, or null if the connection is closed
+         * @throws Exception if the calling thread is interrupted
+         */
+        @Override
+        public String readLine() throws Exception {
+            String line = m_inbound.take();
+            if (line == END_OF_STREAM) {
+                m_inbound.offer(END_OF_STREAM);
+                return null;
+            }
+            if (m_readPaused) {
+                schedule(this);
+            }
+            return line;
+        }
+
+        /**
+         * Queues a line for the selector thread. If the outbound queue is full the client is too slow and
+         * gets disconnected.
+         *
+         * @param line the line to send
+         */
+        @Override
+        public void writeLine(String line) {
+            queue(line);
+        }
+
+        /**
+         * Queues a board delta for the selector thread, like a line.
+         *
+         * @param moved the delta
+         */
+        @Override
+        public void writeMoved(MovedMessage moved) {
+            queue(moved);
+        }
+
+        /**
+         * Queues a line or a board delta and marks the connection dirty, disconnecting the client if the outbound
+         * queue is full.
+         *
+         * @param message the line or the delta
+         */
+        private void queue(Object message) {
+            if (m_closed) {
+                return;
+            }
+            if (!m_outbound.offer(message)) {
+                System.err.println("Disconnecting slow client");
+                m_closed = true;
+                m_aborted = true;
+                m_outbound.clear();
+            }
+            schedule(this);
+        }
+
+        /**
+         * Checks if the connection is closed.
+         *
+         * @return true if the connection is closed, otherwise false
+         */
+        @Override
+        public boolean isClosed() {
+            return m_closed;
+        }
+
+        /**
+         * Registers an action to run once the selector thread has disconnected the channel.
+         *
+         * @param listener the action
+         */
+        @Override
+        public void onClose(Runnable listener) {
+            m_closeListeners.add(listener);
+        }
+
+        /**
+         * Closes the connection once the lines already queued have been sent.
+         */
+        @Override
+        public void close() {
+            m_closed = true;
+            m_closing = true;
+            schedule(this);
+        }
+
+        /**
+         * Copies received bytes into the input buffer and queues every line decoded from it. If the inbound queue
+         * fills up, reading pauses and the bytes not yet copied are kept aside until it resumes.
+         *
+         * @param in the read buffer, flipped for reading
+         * @return false if the client sent an overlong or malformed line
+         */
+        boolean receive(ByteBuffer in) {
+            while (in.hasRemaining()) {
+                if (m_readPaused) {
+                    m_unread = new byte[in.remaining()];
+                    in.get(m_unread);
+                    return true;
+                }
+                if (!m_input.hasRemaining() && !growInput()) {
+                    return false;
+                }
+                int limit = in.limit();
+                in.limit(in.position() + Math.min(in.remaining(), m_input.remaining()));
+                m_input.put(in);
+                in.limit(limit);
+                if (!decodeLines()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Resumes reading after the session has taken a line from the full inbound queue: queues the line kept
+         * aside, then the lines of the input buffer and of the bytes kept aside, until the queue is full again.
+         *
+         * @return false if the client sent an overlong or malformed line
+         */
+        boolean resume() {
+            if (!m_inbound.offer(m_held)) {
+                return true;
+            }
+            m_held = null;
+            m_readPaused = false;
+            if (!decodeLines()) {
+                return false;
+            }
+            if (m_unread != null) {
+                ByteBuffer unread = ByteBuffer.wrap(m_unread);
+                m_unread = null;
+                return receive(unread);
+            }
+            return true;
+        }
+
+        /**
+         * Decodes the complete lines of the input buffer into the inbound queue. The first line is checked for the
+         * binary protocol greeting. A line that does not fit into the full inbound queue is kept aside and reading
+         * pauses; the check is repeated after pausing, since the session may have taken a line meanwhile without
+         * seeing the pause.
+         *
+         * @return false if a line is malformed
+         */
+        private boolean decodeLines() {
+            m_input.flip();
+            try {
+                while (!m_readPaused) {
+                    m_decoded.setLength(0);
+                    if (!m_inputCodec.decode(m_input, m_decoded)) {
+                        return true;
+                    }
+                    if (!m_greeted) {
+                        m_greeted = true;
+                        if (WireCodec.HELLO_BINARY.contentEquals(m_decoded)) {
+                            negotiate();
+                            continue;
+                        }
+                    }
+                    String line = m_decoded.toString();
+                    if (!m_inbound.offer(line)) {
+                        m_held = line;
+                        m_readPaused = true;
+                        if (m_inbound.offer(line)) {
+                            m_held = null;
+                            m_readPaused = false;
+                        }
+                    }
+                }
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            } finally {
+                m_input.compact();
+            }
+        }
+
+        /**
+         * Answers the binary protocol greeting. Input switches right away, output once the answer has been
+         * encoded in text.
+         */
+        private void negotiate() {
+            if (m_binaryEnabled) {
+                m_inputCodec = m_binaryCodec;
+                m_outbound.offer(SWITCH_TO_BINARY);
+            } else {
+                m_outbound.offer(WireCodec.HELLO_TEXT);
+            }
+            schedule(this);
+        }
+
+        /**
+         * Doubles the input buffer, up to the maximum line length.
+         *
+         * @return false if the input buffer already has the maximum size
+         */
+        private boolean growInput() {
+            if (m_input.capacity() >= MAX_LINE_LENGTH) {
+                return false;
+            }
+            ByteBuffer input = ByteBuffer.allocate(Math.min(m_input.capacity() * 2, MAX_LINE_LENGTH));
+            m_input.flip();
+            input.put(m_input);
+            m_input = input;
+            return true;
+        }
+
+        /**
+         * Encodes queued lines and board deltas into the write buffer while they fit. A line longer than the whole
+         * buffer is encoded into the bytes kept aside instead.
+         *
+         * @param out the write buffer
+         * @throws IllegalArgumentException if a line is too long for the codec to encode at all
+         */
+        void encodeQueued(ByteBuffer out) {
+            Object message;
+            while ((message = m_outbound.peek()) != null) {
+                if (message instanceof MovedMessage moved) {
+                    if (!m_outputCodec.encode(moved, out)) {
+                        return;
+                    }
+                    m_outbound.poll();
+                    continue;
+                }
+                String text = message == SWITCH_TO_BINARY ? WireCodec.HELLO_BINARY : (String) message;
+                if (m_outputCodec.encode(text, out)) {
+                    m_outbound.poll();
+                } else if (out.position() == 0) {
+                    m_outbound.poll();
+                    keepLarge(text);
+                    drainPending(out);
+                    if (message == SWITCH_TO_BINARY) {
+                        m_outputCodec = m_binaryCodec;
+                    }
+                    return;
+                } else {
+                    return;
+                }
+                if (message == SWITCH_TO_BINARY) {
+                    m_outputCodec = m_binaryCodec;
+                }
+            }
+        }
+
+        /**
+         * Encodes a line longer than the whole write buffer into the bytes kept aside.
+         *
+         * @param text the line
+         * @throws IllegalArgumentException if the line is too long for the codec to encode at all
+         */
+        private void keepLarge(String text) {
+            ByteBuffer large = ByteBuffer.allocate(m_outputCodec.maxEncodedLength(text.length()));
+            if (!m_outputCodec.encode(text, large)) {
+                throw new IllegalArgumentException("Line too long to encode: " + text.length() + " characters");
+            }
+            m_pending = Arrays.copyOf(large.array(), large.position());
+            m_pendingOffset = 0;
+        }
+
+        /**
+         * Checks if bytes are kept aside from a previous write.
+         *
+         * @return true if bytes are kept aside, otherwise false
+         */
+        boolean hasPending() {
+            return m_pending != null;
+        }
+
+        /**
+         * Copies as many of the bytes kept aside as fit into the write buffer.
+         *
+         * @param out the write buffer
+         */
+        void drainPending(ByteBuffer out) {
+            if (m_pending == null) {
+                return;
+            }
+            int count = Math.min(m_pending.length - m_pendingOffset, out.remaining());
+            out.put(m_pending, m_pendingOffset, count);
+            m_pendingOffset += count;
+            if (m_pendingOffset == m_pending.length) {
+                m_pending = null;
+            }
+        }
+
+        /**
+         * Keeps aside the bytes of the write buffer the socket did not accept, ahead of any bytes already kept aside.
+         *
+         * @param out the write buffer after a partial write
+         */
+        void keepPending(ByteBuffer out) {
+            int rest = m_pending == null ? 0 : m_pending.length - m_pendingOffset;
+            byte[] pending = new byte[out.remaining() + rest];
+            int unsent = out.remaining();
+            out.get(pending, 0, unsent);
+            if (rest > 0) {
+                System.arraycopy(m_pending, m_pendingOffset, pending, unsent, rest);
+            }
+            m_pending = pending;
+            m_pendingOffset = 0;
+        }
+
+        /**
+         * Ends the inbound stream. Lines not yet read are dropped if the queue is full.
+         */
+        void endInbound() {
+            if (!m_inbound.offer(END_OF_STREAM)) {
+                m_inbound.clear();
+                m_inbound.offer(END_OF_STREAM);
+            }
+        }
+    }
+}
\ No newline at end of file
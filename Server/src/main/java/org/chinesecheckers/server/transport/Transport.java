@@ -0,0 +1,22 @@
+package org.chinesecheckers.server.transport;
+
+import java.util.function.Consumer;
+
+/**
+ * Accepts client connections and carries their lines.
+ */
+public interface Transport {
+
+    /**
+     * Starts accepting connections in the background.
+     *
+     * @param onConnection called for every new connection; it runs on a transport thread and must not block
+     * @throws Exception if the transport cannot be started, for example because the port is taken
+     */
+    void start(Consumer<Connection> onConnection) throws Exception;
+
+    /**
+     * Stops accepting connections and releases the transport resources.
+     */
+    void stop();
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package org.chinesecheckers.server.endgame;
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.Board;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndgameTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testLastPawnOneStepFromHome() throws IOException, GameException {
+        Path file = directory.resolve("endgame.bin");
+        EndgameGenerator generator = new EndgameGenerator(EndgameTable.layout(), 1);
+        generator.generate();
+        generator.write(file);
+        EndgameTable table = EndgameTable.load(file);
+
+        Board board = new DefaultBoardFactory().createBoard(2);
+        assertEquals(-1, table.movesToFinish(board.getBitBoard(), PlayerColor.RED));
+        for (PlayerColor color : new PlayerColor[]{PlayerColor.RED, PlayerColor.GREEN}) {
+            BitBoard bitBoard = board.getBitBoard().emptyCopy();
+            int home = -1;
+            int outside = -1;
+            for (int index = 0; index < bitBoard.size(); index++) {
+                if (!bitBoard.isTarget(index, color)) {
+                    continue;
+                }
+                bitBoard.setColor(index, color);
+                for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+                    int step = board.getNeighbourTable().step(index, direction);
+                    if (step >= 0 && bitBoard.isPlayable(step) && !bitBoard.isTarget(step, color)) {
+                        home = index;
+                        outside = step;
+                    }
+                }
+            }
+            assertEquals(0, table.movesToFinish(bitBoard, color));
+            bitBoard.doMove(home, outside);
+            assertEquals(1, table.movesToFinish(bitBoard, color));
+            assertEquals(0, table.movesToFinish(bitBoard, color, outside, home));
+        }
+    }
+}
\ No newline at end of file
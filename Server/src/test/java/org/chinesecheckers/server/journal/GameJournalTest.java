@@ -0,0 +1,136 @@
+package org.chinesecheckers.server.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameJournalTest {
+    private static final Instant CREATED = Instant.ofEpochSecond(1_700_000_000L);
+    private static final long SEGMENT_BYTES = GameJournal.HEADER_BYTES + 10 * GameJournal.RECORD_BYTES;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMovesSurviveReopenAndCompaction() throws IOException {
+        long first;
+        long second;
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 0)) {
+            first = journal.createGame("default", 1, 1, CREATED);
+            second = journal.createGame("diamond", 0, 4, CREATED);
+            for (int i = 0; i < 25; i++) {
+                journal.appendMove(first, i, 1, i, 2);
+                journal.appendMove(second, 3, i, 4, i);
+            }
+        }
+        assertTrue(countSegments() > 2);
+
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 1000)) {
+            assertMoves(journal, first, second);
+            journal.compact();
+            assertMoves(journal, first, second);
+            journal.appendMove(first, 25, 1, 25, 2);
+        }
+        assertEquals(2, countSegments());
+
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 1000)) {
+            List<GameJournal.JournalGame> games = journal.games();
+            assertEquals(new GameJournal.JournalGame(first, "default", 1, 1, 26, CREATED), games.get(0));
+            assertEquals(new GameJournal.JournalGame(second, "diamond", 0, 4, 25, CREATED), games.get(1));
+            assertEquals(25, journal.moves(first).fromX(25));
+            assertTrue(journal.createGame("default", 2, 0, CREATED) > second);
+        }
+    }
+
+    @Test
+    void testSnapshotsSurviveReopenAndCompaction() throws IOException {
+        byte[] early = board(1);
+        byte[] late = board(2);
+        long game;
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 0)) {
+            game = journal.createGame("default", 6, 0, CREATED);
+            long other = journal.createGame("default", 2, 0, CREATED);
+            for (int i = 0; i < 70; i++) {
+                journal.appendMove(game, i, 0, i, 1);
+                journal.appendMove(other, 0, i, 1, i);
+                if (i == 31) {
+                    journal.appendSnapshot(game, 32, early);
+                } else if (i == 63) {
+                    journal.appendSnapshot(game, 64, late);
+                }
+            }
+        }
+
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 1000)) {
+            assertSnapshots(journal, game, early, late);
+            journal.compact();
+            assertSnapshots(journal, game, early, late);
+        }
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 1000)) {
+            assertSnapshots(journal, game, early, late);
+            journal.appendSnapshot(game, 70, board(3));
+        }
+
+        Path last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.max(Path::compareTo).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - GameJournal.RECORD_BYTES);
+        }
+        try (GameJournal journal = GameJournal.open(directory, SEGMENT_BYTES, 1000)) {
+            assertSnapshots(journal, game, early, late);
+        }
+    }
+
+    private void assertSnapshots(GameJournal journal, long game, byte[] early, byte[] late) throws IOException {
+        assertNull(journal.snapshot(game, 31));
+        assertEquals(32, journal.snapshot(game, 32).ply());
+        assertArrayEquals(early, journal.snapshot(game, 63).board());
+        assertEquals(64, journal.snapshot(game, 500).ply());
+        assertArrayEquals(late, journal.snapshot(game, 500).board());
+        GameJournal.Moves moves = journal.moves(game);
+        assertEquals(70, moves.size());
+        for (int i = 0; i < 70; i++) {
+            assertEquals(i, moves.fromX(i));
+        }
+    }
+
+    private static byte[] board(int seed) {
+        byte[] board = new byte[72];
+        for (int i = 0; i < board.length; i++) {
+            board[i] = (byte) (i * 31 + seed);
+        }
+        return board;
+    }
+
+    private void assertMoves(GameJournal journal, long first, long second) throws IOException {
+        GameJournal.Moves firstMoves = journal.moves(first);
+        GameJournal.Moves secondMoves = journal.moves(second);
+        assertEquals(25, firstMoves.size());
+        assertEquals(25, secondMoves.size());
+        for (int i = 0; i < 25; i++) {
+            assertEquals(i, firstMoves.fromX(i));
+            assertEquals(2, firstMoves.toY(i));
+            assertEquals(i, secondMoves.fromY(i));
+            assertEquals(4, secondMoves.toX(i));
+        }
+        assertNull(journal.moves(second + 1));
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,253 @@
+package org.chinesecheckers.server.main;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.model.Game;
+import org.chinesecheckers.server.model.Move;
+import org.chinesecheckers.server.model.Snapshot;
+import org.chinesecheckers.server.movement.DefaultMovementStrategy;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.repository.GameStore;
+import org.chinesecheckers.server.repository.GameSummary;
+import org.chinesecheckers.server.repository.MoveCursor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+import org.chinesecheckers.server.transport.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionReplayTest {
+    private static final int MOVES = 100;
+
+    @Test
+    void testSeeksShowTheBoardAtTheirPly() throws Exception {
+        RecordedGame game = new RecordedGame(MOVES);
+        Viewer viewer = new Viewer();
+        GameSession session = new GameSession(start(), TurnPacer.turbo(), game);
+        assertTrue(session.initializeReplay(List.of(viewer), 1L));
+        ReplayControl control = session.newReplayControl(true);
+        control.pause();
+
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        Thread replay = new Thread(() -> {
+            try {
+                session.replay(control);
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        replay.start();
+        assertEquals("START@" + game.board(0), viewer.next());
+
+        control.seek(40);
+        assertEquals(game.board(40), viewer.next());
+        control.seek(10);
+        assertEquals(game.board(10), viewer.next());
+        control.seek(1000);
+        assertEquals(game.board(MOVES), viewer.next());
+
+        control.setSpeed(0);
+        control.resume();
+        control.seek(64);
+        assertEquals(game.board(64), viewer.next());
+        assertEquals(game.board(96), viewer.next());
+        assertEquals(game.board(MOVES), viewer.next());
+
+        control.setSpeed(1000);
+        control.seek(90);
+        assertEquals(game.board(90), viewer.next());
+        for (int ply = 91; ply <= MOVES; ply++) {
+            assertEquals(ply % GameSession.SNAPSHOT_INTERVAL == 0 ? game.board(ply) : game.moved(ply), viewer.next());
+        }
+
+        control.stop();
+        replay.join(10_000);
+        assertFalse(replay.isAlive());
+        assertNull(failure.get());
+        assertTrue(viewer.m_lines.isEmpty());
+    }
+
+    private static GameHandler start() throws GameException {
+        DefaultBoardFactory factory = new DefaultBoardFactory();
+        GameHandler gameHandler = new GameHandler(new DefaultMovementStrategy(), factory);
+        gameHandler.initialize(factory, new DefaultMovementStrategy(), 2);
+        return gameHandler;
+    }
+
+    /**
+     * A recorded two-player game of random steps, served as a game store would serve it, with a snapshot every
+     * {@link GameSession#SNAPSHOT_INTERVAL} moves. It remembers the board after every move to check the replay.
+     */
+    private static class RecordedGame implements GameStore {
+        private final List<int[]> m_moves = new ArrayList<>();
+        private final List<String> m_boards = new ArrayList<>();
+        private final TreeMap<Integer, byte[]> m_snapshots = new TreeMap<>();
+
+        RecordedGame(int moves) throws GameException {
+            GameHandler gameHandler = start();
+            PlayerColor[] colors = gameHandler.getPossibleColorsForPlayers(2);
+            Random random = new Random(7);
+            m_boards.add(gameHandler.getBoardAsString());
+            for (int ply = 1; ply <= moves; ply++) {
+                BitBoard bitBoard = gameHandler.getBoard().getBitBoard();
+                NeighbourTable neighbours = gameHandler.getBoard().getNeighbourTable();
+                List<int[]> steps = new ArrayList<>();
+                PlayerColor color = colors[ply % 2];
+                for (int from = bitBoard.nextPiece(color, 0); from >= 0; from = bitBoard.nextPiece(color, from + 1)) {
+                    for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+                        int to = neighbours.step(from, direction);
+                        if (to >= 0 && bitBoard.isPlayable(to) && !bitBoard.isOccupied(to)) {
+                            steps.add(new int[]{bitBoard.getX(from), bitBoard.getY(from),
+                                    bitBoard.getX(to), bitBoard.getY(to)});
+                        }
+                    }
+                }
+                int[] move = steps.get(random.nextInt(steps.size()));
+                gameHandler.makeMove(move[0], move[1], move[2], move[3]);
+                m_moves.add(move);
+                m_boards.add(gameHandler.getBoardAsString());
+                if (ply % GameSession.SNAPSHOT_INTERVAL == 0) {
+                    m_snapshots.put(ply, gameHandler.getBoard().getBitBoard().snapshot());
+                }
+            }
+        }
+
+        String board(int ply) {
+            return "SYNC " + ply + "@BOARD " + m_boards.get(ply);
+        }
+
+        String moved(int ply) {
+            int[] move = m_moves.get(ply - 1);
+            return "MOVED " + ply + " " + move[0] + " " + move[1] + " " + move[2] + " " + move[3];
+        }
+
+        @Override
+        public GameSummary findGameSummary(Long gameId) {
+            return new GameSummary(gameId, "default", 2, 0, m_moves.size(), null);
+        }
+
+        @Override
+        public Snapshot findSnapshot(Long gameId, int ply) {
+            Map.Entry<Integer, byte[]> entry = m_snapshots.floorEntry(ply);
+            if (entry == null) {
+                return null;
+            }
+            Snapshot snapshot = new Snapshot();
+            snapshot.setPly(entry.getKey());
+            snapshot.setBoard(entry.getValue());
+            return snapshot;
+        }
+
+        @Override
+        public MoveCursor openMoves(Long gameId, int fromPly, int fetchSize) {
+            return new MoveCursor() {
+                private int m_next = fromPly;
+                private int[] m_move;
+
+                @Override
+                public boolean next() {
+                    m_move = m_next < m_moves.size() ? m_moves.get(m_next++) : null;
+                    return m_move != null;
+                }
+
+                @Override
+                public int fromX() {
+                    return m_move[0];
+                }
+
+                @Override
+                public int fromY() {
+                    return m_move[1];
+                }
+
+                @Override
+                public int toX() {
+                    return m_move[2];
+                }
+
+                @Override
+                public int toY() {
+                    return m_move[3];
+                }
+            };
+        }
+
+        @Override
+        public Game saveGame(Game game) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveMove(Long gameId, int ply, int fromX, int fromY, int toX, int toY) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void saveSnapshot(Long gameId, int ply, byte[] board) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean flush() {
+            return true;
+        }
+
+        @Override
+        public List<GameSummary> findGameSummaries(int page, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Move> findMovesByGameId(Long gameId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * A viewer that keeps the lines the replay sends it.
+     */
+    private static class Viewer implements Connection {
+        private final BlockingQueue<String> m_lines = new LinkedBlockingQueue<>();
+
+        String next() throws InterruptedException {
+            String line = m_lines.poll(10, TimeUnit.SECONDS);
+            assertNotNull(line, "The replay sent nothing");
+            return line;
+        }
+
+        @Override
+        public String readLine() {
+            return null;
+        }
+
+        @Override
+        public void writeLine(String line) {
+            m_lines.add(line);
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void onClose(Runnable listener) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
\ No newline at end of file
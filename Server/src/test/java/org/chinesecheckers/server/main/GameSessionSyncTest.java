@@ -0,0 +1,184 @@
+package org.chinesecheckers.server.main;
+
+import org.chinesecheckers.common.BoardSequence;
+import org.chinesecheckers.common.MessageTokenizer;
+import org.chinesecheckers.server.model.Game;
+import org.chinesecheckers.server.model.Move;
+import org.chinesecheckers.server.model.Snapshot;
+import org.chinesecheckers.server.movement.DefaultMovementStrategy;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.repository.GameStore;
+import org.chinesecheckers.server.repository.GameSummary;
+import org.chinesecheckers.server.repository.MoveCursor;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.transport.Connection;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionSyncTest {
+    private static final int LAST_SEQUENCE = 70;
+    private static final int LOST_DELTA = 5;
+
+    @Test
+    void testDeltasFollowTheBoardAndAGapIsRepairedBySync() throws Exception {
+        DefaultBoardFactory factory = new DefaultBoardFactory();
+        GameHandler gameHandler = new GameHandler(new DefaultMovementStrategy(), factory);
+        GameSession session = new GameSession(gameHandler, TurnPacer.turbo(), new MemoryStore());
+        Client client = new Client(gameHandler);
+        session.initialize(List.of(client), "default", 2);
+        session.start();
+
+        assertTrue(client.m_sequence.getSequence() >= LAST_SEQUENCE, "The game stopped early");
+        assertTrue(client.m_sequence.isSynced());
+        assertTrue(client.m_refused > 0, "The lost delta went unnoticed");
+        assertEquals(0, (int) client.m_snapshots.get(0));
+        assertTrue(client.m_snapshots.contains(GameSession.SNAPSHOT_INTERVAL));
+        assertTrue(client.m_snapshots.contains(2 * GameSession.SNAPSHOT_INTERVAL));
+        assertTrue(client.m_snapshots.stream().anyMatch(sequence -> sequence > LOST_DELTA
+                && sequence % GameSession.SNAPSHOT_INTERVAL != 0), "No snapshot was asked for");
+        assertTrue(client.m_applied > LAST_SEQUENCE / 2);
+    }
+
+    private static Map<Integer, String> parseBoard(MessageTokenizer board) {
+        Map<Integer, String> cells = new HashMap<>();
+        for (int i = 0; i < board.getWordCount(); i++) {
+            cells.put(board.getNumber(2 * i) * 100 + board.getNumber(2 * i + 1), board.getWord(i));
+        }
+        return cells;
+    }
+
+    /**
+     * A remote player that never moves and keeps its board as the client does: from snapshots and from the deltas
+     * that follow them. It loses one delta on the way, asks for a snapshot on its turn once it notices, and
+     * checks its board against the board of the session after every delta it applies.
+     */
+    private static class Client implements Connection {
+        private final GameHandler m_server;
+        private final MessageTokenizer m_tokenizer = new MessageTokenizer();
+        private final BoardSequence m_sequence = new BoardSequence();
+        private final List<Integer> m_snapshots = new ArrayList<>();
+        private Map<Integer, String> m_board = new HashMap<>();
+        private String m_answer;
+        private int m_applied;
+        private int m_refused;
+        private int m_turns;
+
+        Client(GameHandler server) {
+            m_server = server;
+        }
+
+        @Override
+        public String readLine() {
+            if (m_sequence.getSequence() >= LAST_SEQUENCE || m_turns > 1000) {
+                return null;
+            }
+            return m_answer;
+        }
+
+        @Override
+        public void writeLine(String line) {
+            m_tokenizer.tokenize(line, message -> {
+                switch (message.getCode()) {
+                    case "SYNC" -> {
+                        m_sequence.sync(message);
+                        m_snapshots.add(message.getNumber(0));
+                    }
+                    case "BOARD" -> m_board = parseBoard(message);
+                    case "MOVED" -> applyDelta(message);
+                    case "YOU" -> {
+                        m_turns++;
+                        m_answer = m_sequence.isSynced() ? "SKIP" : "SYNC";
+                    }
+                    default -> {
+                    }
+                }
+            });
+        }
+
+        private void applyDelta(MessageTokenizer moved) {
+            assertNotEquals(0, moved.getNumber(0) % GameSession.SNAPSHOT_INTERVAL, "A delta replaced a snapshot");
+            if (moved.getNumber(0) == LOST_DELTA) {
+                return;
+            }
+            if (!m_sequence.advance(moved)) {
+                m_refused++;
+                return;
+            }
+            String color = m_board.remove(moved.getNumber(1) * 100 + moved.getNumber(2));
+            assertNotNull(color);
+            m_board.put(moved.getNumber(3) * 100 + moved.getNumber(4), color);
+            Map<Integer, String> server = new HashMap<>();
+            new MessageTokenizer().tokenize("BOARD " + m_server.getBoardAsString(), board -> server.putAll(parseBoard(board)));
+            assertEquals(server, m_board);
+            m_applied++;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return false;
+        }
+
+        @Override
+        public void onClose(Runnable listener) {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * A game store that keeps nothing.
+     */
+    private static class MemoryStore implements GameStore {
+
+        @Override
+        public Game saveGame(Game game) {
+            return game;
+        }
+
+        @Override
+        public void saveMove(Long gameId, int ply, int fromX, int fromY, int toX, int toY) {
+        }
+
+        @Override
+        public void saveSnapshot(Long gameId, int ply, byte[] board) {
+        }
+
+        @Override
+        public boolean flush() {
+            return true;
+        }
+
+        @Override
+        public List<GameSummary> findGameSummaries(int page, int size) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public GameSummary findGameSummary(Long gameId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Move> findMovesByGameId(Long gameId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Snapshot findSnapshot(Long gameId, int ply) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public MoveCursor openMoves(Long gameId, int fromPly, int fetchSize) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+package org.chinesecheckers.server.movement;
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.Board;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JumpChainGeneratorTest {
+
+    @Test
+    void testChainIsOneDestinationWithItsPath() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(2);
+        board.addPiece(7, 9, PlayerColor.RED);
+        board.addPiece(8, 9, PlayerColor.GREEN);
+        board.addPiece(10, 9, PlayerColor.GREEN);
+        BitBoard bitBoard = board.getBitBoard();
+
+        JumpChainGenerator generator = new JumpChainGenerator();
+        int count = generator.generate(bitBoard, board.getNeighbourTable(), bitBoard.index(7, 9));
+        int i = generator.indexOf(bitBoard.index(11, 9));
+        assertTrue(i >= 0);
+        assertTrue(generator.isJump(i));
+        assertArrayEquals(new int[]{bitBoard.index(7, 9), bitBoard.index(9, 9), bitBoard.index(11, 9)}, generator.getPath(i));
+
+        Set<Integer> destinations = new HashSet<>();
+        for (int d = 0; d < count; d++) {
+            assertTrue(destinations.add(generator.getDestination(d)));
+            assertFalse(bitBoard.isOccupied(generator.getDestination(d)));
+        }
+    }
+
+    @Test
+    void testGameHandlerFindsChainsOnly() throws GameException {
+        DefaultBoardFactory factory = new DefaultBoardFactory();
+        GameHandler gameHandler = new GameHandler(new DefaultMovementStrategy(), factory);
+        gameHandler.initialize(factory, new DefaultMovementStrategy(), 2);
+        Board board = gameHandler.getBoard();
+        board.addPiece(7, 9, PlayerColor.RED);
+        board.addPiece(8, 9, PlayerColor.GREEN);
+        board.addPiece(10, 9, PlayerColor.GREEN);
+
+        assertEquals(3, gameHandler.findJumpChain(7, 9, 11, 9).length);
+        assertNull(gameHandler.findJumpChain(7, 9, 6, 9));
+        assertNull(gameHandler.findJumpChain(7, 9, 7, 7));
+    }
+}
\ No newline at end of file
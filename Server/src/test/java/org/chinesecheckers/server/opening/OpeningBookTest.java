@@ -0,0 +1,64 @@
+package org.chinesecheckers.server.opening;
+
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.DefaultMovementStrategy;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.movement.JumpChainGenerator;
+import org.chinesecheckers.server.player.Bot;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.simulation.GameRecorder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testBotPlaysWinningBookMove() throws IOException, GameException {
+        DefaultBoardFactory factory = new DefaultBoardFactory();
+        GameHandler gameHandler = new GameHandler(new DefaultMovementStrategy(), factory);
+        gameHandler.initialize(factory, new DefaultMovementStrategy(), 2);
+        PlayerColor color = gameHandler.getPossibleColorsForPlayers(2)[0];
+        BitBoard bitBoard = gameHandler.getBoard().getBitBoard();
+        JumpChainGenerator generator = new JumpChainGenerator();
+        List<PlayerMove> moves = new ArrayList<>();
+        for (int index = bitBoard.nextPiece(color, 0); index >= 0 && moves.size() < 2; index = bitBoard.nextPiece(color, index + 1)) {
+            int count = generator.generate(bitBoard, gameHandler.getBoard().getNeighbourTable(), index);
+            for (int i = 0; i < count && moves.size() < 2; i++) {
+                int destination = generator.getDestination(i);
+                moves.add(new PlayerMove(bitBoard.getX(index), bitBoard.getY(index), bitBoard.getX(destination), bitBoard.getY(destination)));
+            }
+        }
+        long key = gameHandler.getPositionKey(color);
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(4);
+        for (int winner : new int[]{1, 1, 1, 1, 0, 0, 0, 0}) {
+            GameRecorder recorder = builder.newRecorder();
+            recorder.onMove(0, 0, key, moves.get(winner == 0 ? 1 : 0));
+            recorder.onGameEnded(winner);
+        }
+        Path file = directory.resolve("opening.bin");
+        assertEquals(1, builder.write(file));
+        OpeningBook book = OpeningBook.load(file);
+
+        assertEquals(4, book.getPlies());
+        assertEquals(moves.get(1), book.probe(key));
+        assertNull(book.probe(key + 1));
+
+        Bot bot = new Bot(color, gameHandler, null, null, book);
+        bot.onTurnStarted();
+        assertEquals(moves.get(1), bot.nextMove());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,81 @@
+package org.chinesecheckers.server.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateSettings;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoveWriterTest {
+
+    @Test
+    void testFlushWritesQueuedMovesInOrder() {
+        JdbcTemplate jdbcTemplate = createDatabase("moveWriter", 0L, 1L);
+        MoveWriter writer = new MoveWriter(jdbcTemplate, "write-behind", 64, 16, 10_000);
+        for (int i = 0; i < 1000; i++) {
+            writer.write((long) (i % 2), i / 2, i, 0, i + 1, 0);
+        }
+        writer.writeSnapshot(1L, 500, new byte[]{1, 2, 3});
+
+        assertTrue(writer.flush());
+        List<Integer> moves = jdbcTemplate.queryForList("SELECT fromx FROM move WHERE game_id = 1 ORDER BY id", Integer.class);
+        assertEquals(500, moves.size());
+        for (int i = 0; i < moves.size(); i++) {
+            assertEquals(2 * i + 1, moves.get(i));
+        }
+        assertArrayEquals(new byte[]{1, 2, 3}, jdbcTemplate.queryForObject("SELECT board FROM snapshot WHERE ply = 500", byte[].class));
+        writer.close();
+        writer.write(1L, 500, 7, 7, 8, 8);
+        assertEquals(1001, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM move", Integer.class));
+    }
+
+    @Test
+    void testFlushReportsRowsThatCannotBeWritten() {
+        JdbcTemplate jdbcTemplate = createDatabase("moveWriterFailure", 1L);
+        MoveWriter writer = new MoveWriter(jdbcTemplate, "write-behind", 64, 16, 10_000);
+        for (int i = 0; i < 100; i++) {
+            writer.write(i % 10 == 5 ? 99L : 1L, i, i, 0, i + 1, 0);
+        }
+
+        assertFalse(writer.flush());
+        assertEquals(90, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM move WHERE game_id = 1", Integer.class));
+        writer.write(1L, 100, 7, 7, 8, 8);
+        assertTrue(writer.flush());
+        writer.close();
+    }
+
+    /**
+     * Creates an in-memory database with the schema Hibernate generates from the entities, named as the server
+     * names it, and the specified games.
+     *
+     * @param name    the name of the database
+     * @param gameIds the IDs of the games to create
+     * @return the JDBC template of the database
+     */
+    private static JdbcTemplate createDatabase(String name, Long... gameIds) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        HibernateProperties hibernateProperties = new HibernateProperties();
+        hibernateProperties.setDdlAuto("create");
+        Map<String, Object> properties = hibernateProperties.determineHibernateProperties(Map.of(), new HibernateSettings());
+        LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan("org.chinesecheckers.server.model");
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(properties);
+        entityManagerFactory.afterPropertiesSet();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (Long gameId : gameIds) {
+            jdbcTemplate.update("INSERT INTO game (id, number_of_players, number_of_bots) VALUES (?, 2, 0)", gameId);
+        }
+        return jdbcTemplate;
+    }
+}
\ No newline at end of file
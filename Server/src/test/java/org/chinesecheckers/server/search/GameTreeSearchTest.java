@@ -0,0 +1,105 @@
+package org.chinesecheckers.server.search;
+import org.chinesecheckers.common.PlayerColor;
+import org.chinesecheckers.server.movement.DefaultMovementStrategy;
+import org.chinesecheckers.server.movement.GameHandler;
+import org.chinesecheckers.server.player.PlayerMove;
+import org.chinesecheckers.server.serverBoard.BitBoard;
+import org.chinesecheckers.server.serverBoard.Board;
+import org.chinesecheckers.server.serverBoard.DefaultBoardFactory;
+import org.chinesecheckers.server.serverBoard.GameException;
+import org.chinesecheckers.server.serverBoard.NeighbourTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameTreeSearchTest {
+    private static final int BUDGET_MILLIS = 60_000;
+
+    @Test
+    void testForcedFinishIsPlayed() throws GameException {
+        GameHandler gameHandler = nearlyFinished();
+        PlayerMove move = new GameTreeSearch(BUDGET_MILLIS, 3, MultiplayerSearch.PARANOID).findMove(gameHandler, PlayerColor.RED);
+
+        BitBoard bitBoard = gameHandler.getBoard().getBitBoard().copy();
+        bitBoard.doMove(bitBoard.index(move.fromX(), move.fromY()), bitBoard.index(move.toX(), move.toY()));
+        assertTrue(bitBoard.allOnTarget(PlayerColor.RED));
+    }
+
+    @Test
+    void testTranspositionTableKeepsTheMove() throws GameException {
+        assertSameMove(start(2), 3);
+        assertSameMove(nearlyFinished(), 4);
+    }
+
+    @Test
+    void testSearchLeavesTheBoardAsItFoundIt() throws GameException {
+        GameHandler twoPlayers = start(2);
+        GameHandler threePlayers = start(3);
+        assertBoardRestored(twoPlayers, new GameTreeSearch(BUDGET_MILLIS, 3, MultiplayerSearch.PARANOID,
+                new TranspositionTable(1 << 20)));
+        assertBoardRestored(threePlayers, new GameTreeSearch(BUDGET_MILLIS, 3, MultiplayerSearch.PARANOID));
+        assertBoardRestored(threePlayers, new GameTreeSearch(BUDGET_MILLIS, 2, MultiplayerSearch.MAX_N));
+    }
+
+    private static void assertSameMove(GameHandler gameHandler, int depth) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BUDGET_MILLIS);
+        PlayerMove without = new GameTreeSearch(BUDGET_MILLIS, depth, MultiplayerSearch.PARANOID)
+                .search(gameHandler, PlayerColor.RED, deadline, depth, null);
+        PlayerMove with = new GameTreeSearch(BUDGET_MILLIS, depth, MultiplayerSearch.PARANOID, new TranspositionTable(1 << 20))
+                .search(gameHandler, PlayerColor.RED, deadline, depth, null);
+        assertEquals(without, with);
+    }
+
+    private static void assertBoardRestored(GameHandler gameHandler, GameTreeSearch search) {
+        BitBoard bitBoard = gameHandler.getBoard().getBitBoard().copy();
+        long key = bitBoard.getKey();
+        byte[] snapshot = bitBoard.snapshot();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(BUDGET_MILLIS);
+
+        assertNotNull(search.search(gameHandler, bitBoard, PlayerColor.RED, deadline, 1, null));
+        assertEquals(key, bitBoard.getKey());
+        assertArrayEquals(snapshot, bitBoard.snapshot());
+    }
+
+    private static GameHandler start(int players) throws GameException {
+        DefaultBoardFactory factory = new DefaultBoardFactory();
+        GameHandler gameHandler = new GameHandler(new DefaultMovementStrategy(), factory);
+        gameHandler.initialize(factory, new DefaultMovementStrategy(), players);
+        return gameHandler;
+    }
+
+    /**
+     * Creates a two-player game in which both players have every pawn but one on the target, the last one a
+     * step away from its free target cell.
+     */
+    private static GameHandler nearlyFinished() throws GameException {
+        GameHandler gameHandler = start(2);
+        Board board = gameHandler.getBoard();
+        BitBoard bitBoard = board.getBitBoard();
+        for (int index = bitBoard.nextOccupied(0); index >= 0; index = bitBoard.nextOccupied(index + 1)) {
+            board.removePiece(bitBoard.getX(index), bitBoard.getY(index));
+        }
+        for (PlayerColor color : new PlayerColor[]{PlayerColor.RED, PlayerColor.GREEN}) {
+            int home = -1;
+            int outside = -1;
+            for (int index = 0; index < bitBoard.size(); index++) {
+                if (!bitBoard.isTarget(index, color)) {
+                    continue;
+                }
+                board.addPiece(bitBoard.getX(index), bitBoard.getY(index), color);
+                for (int direction = 0; direction < NeighbourTable.DIRECTIONS && outside < 0; direction++) {
+                    int step = board.getNeighbourTable().step(index, direction);
+                    if (step >= 0 && bitBoard.isPlayable(step) && !bitBoard.isTarget(step, color)) {
+                        home = index;
+                        outside = step;
+                    }
+                }
+            }
+            board.removePiece(bitBoard.getX(home), bitBoard.getY(home));
+            board.addPiece(bitBoard.getX(outside), bitBoard.getY(outside), color);
+        }
+        return gameHandler;
+    }
+}
\ No newline at end of file
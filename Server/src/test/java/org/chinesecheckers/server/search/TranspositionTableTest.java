@@ -0,0 +1,52 @@
+package org.chinesecheckers.server.search;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TranspositionTableTest {
+
+    @Test
+    void testStoredEntryIsFound() {
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        table.store(0x1234_5678_9ABCL, 5, TranspositionTable.LOWER, -4711, 30 | 42 << 8);
+
+        long entry = table.probe(0x1234_5678_9ABCL);
+        assertEquals(-4711, TranspositionTable.score(entry));
+        assertEquals(5, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(30 | 42 << 8, TranspositionTable.move(entry));
+        assertEquals(0, table.probe(0x1234_5678_9ABDL));
+        assertEquals(0.5, table.getHitRate());
+    }
+
+    @Test
+    void testDeepEntrySurvivesShallowStores() {
+        TranspositionTable table = new TranspositionTable(4 * Long.BYTES);
+        table.store(1, 8, TranspositionTable.EXACT, 10, 0);
+        table.store(2, 1, TranspositionTable.EXACT, 20, 0);
+        table.store(3, 2, TranspositionTable.EXACT, 30, 0);
+
+        assertEquals(10, TranspositionTable.score(table.probe(1)));
+        assertEquals(0, table.probe(2));
+        assertEquals(30, TranspositionTable.score(table.probe(3)));
+        assertEquals(0, new TranspositionTable(0).probe(1));
+    }
+
+    @Test
+    void testDeepEntrySurvivesConcurrentSearches() {
+        TranspositionTable table = new TranspositionTable(4 * Long.BYTES);
+        table.newSearch();
+        table.store(1, 8, TranspositionTable.EXACT, 10, 0);
+        for (int i = 0; i < TranspositionTable.MAX_AGE; i++) {
+            table.newSearch();
+            table.store(2 + i, 1, TranspositionTable.EXACT, 20, 0);
+        }
+        assertEquals(10, TranspositionTable.score(table.probe(1)));
+
+        table.newSearch();
+        table.store(100, 1, TranspositionTable.EXACT, 30, 0);
+        assertEquals(0, table.probe(1));
+        assertEquals(30, TranspositionTable.score(table.probe(100)));
+        assertFalse(table.toString().endsWith(System.lineSeparator()));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,153 @@
+package org.chinesecheckers.server.serverBoard;
+import org.chinesecheckers.common.PlayerColor;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitBoardTest {
+
+    @Test
+    void testBoardStateIsBackedByBitBoard() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(2);
+        BitBoard bitBoard = board.getBitBoard();
+        assertEquals(10, bitBoard.countPieces(PlayerColor.RED));
+        assertTrue(bitBoard.hasPiece(bitBoard.index(7, 17), PlayerColor.RED));
+
+        board.addPiece(7, 9, PlayerColor.RED);
+        board.removePiece(7, 17);
+        assertEquals(PlayerColor.RED, board.getCell(7, 9).getCurrentColor());
+        assertEquals(PlayerColor.NONE, board.getCell(7, 17).getCurrentColor());
+        assertTrue(board.isOccupied(7, 9));
+        assertFalse(board.isOccupied(7, 17));
+    }
+
+    @Test
+    void testCopyIsIndependent() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(2);
+        BitBoard copy = board.getBitBoard().copy();
+        board.removePiece(7, 17);
+        assertTrue(copy.hasPiece(copy.index(7, 17), PlayerColor.RED));
+        assertTrue(copy.isPlayable(copy.index(7, 9)));
+    }
+
+    @Test
+    void testWinnerUsesTargetMask() throws GameException {
+        Board board = new DefaultBoard(13, 17);
+        DefaultBoardFactory factory = new DefaultBoardFactory();
+        factory.setPlayer(board, PlayerColor.GREEN, factory.getGreenPositions(), false);
+        factory.setPlayer(board, PlayerColor.RED, factory.getRedPositions(), false);
+        for (int[] pos : factory.getRedPositions()) {
+            board.addPiece(pos[0], pos[1], PlayerColor.GREEN);
+        }
+        assertTrue(board.isWinner(PlayerColor.GREEN));
+        board.removePiece(7, 17);
+        board.addPiece(7, 1, PlayerColor.GREEN);
+        assertFalse(board.isWinner(PlayerColor.GREEN));
+    }
+
+    @Test
+    void testKeyFollowsMovesAndKings() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(2);
+        BitBoard bitBoard = board.getBitBoard();
+        long start = bitBoard.getKey();
+        board.addPiece(7, 13, PlayerColor.RED);
+        board.removePiece(7, 14);
+        assertNotEquals(start, bitBoard.getKey());
+        board.addPiece(7, 14, PlayerColor.RED);
+        board.removePiece(7, 13);
+        assertEquals(start, bitBoard.getKey());
+        assertEquals(start, bitBoard.copy().getKey());
+
+        Board diamond = new DiamondBoardFactory().createBoard(2);
+        assertNotEquals(start, diamond.getBitBoard().getKey());
+    }
+
+    @Test
+    void testUndoMoveRestoresPosition() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(2);
+        BitBoard bitBoard = board.getBitBoard();
+        long start = bitBoard.getKey();
+        PlayerColor color = board.getColor(7, 14);
+
+        int first = board.doMove(7, 14, 7, 13);
+        int second = bitBoard.doMove(bitBoard.index(7, 13), bitBoard.index(7, 12), color);
+        assertEquals(color, board.getColor(7, 12));
+        assertFalse(board.isOccupied(7, 14));
+        assertNotEquals(start, bitBoard.getKey());
+
+        bitBoard.undoMove(second);
+        board.undoMove(first);
+        assertEquals(color, board.getColor(7, 14));
+        assertFalse(board.isOccupied(7, 13));
+        assertFalse(board.isOccupied(7, 12));
+        assertEquals(start, bitBoard.getKey());
+    }
+
+    @Test
+    void testSnapshotRestoresPawns() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(6);
+        BitBoard bitBoard = board.getBitBoard();
+        board.doMove(7, 14, 7, 13);
+        board.doMove(7, 4, 7, 5);
+        long key = bitBoard.getKey();
+        byte[] snapshot = bitBoard.snapshot();
+        assertEquals(6 * 2 + 60, snapshot.length);
+
+        BitBoard restored = new DefaultBoardFactory().createBoard(2).getBitBoard();
+        restored.restore(snapshot);
+        assertEquals(key, restored.getKey());
+        for (int index = 0; index < bitBoard.size(); index++) {
+            assertEquals(bitBoard.getColor(index), restored.getColor(index));
+            assertEquals(bitBoard.goalDistance(PlayerColor.RED, index), restored.goalDistance(PlayerColor.RED, index));
+        }
+    }
+
+    @Test
+    void testGoalDistancesFollowFilledTargets() throws GameException {
+        Board board = new DefaultBoardFactory().createBoard(2);
+        BitBoard bitBoard = board.getBitBoard();
+        assertEquals(4, bitBoard.goalDistance(PlayerColor.RED, bitBoard.index(7, 5)));
+        assertEquals(0, bitBoard.goalDistance(PlayerColor.RED, bitBoard.index(7, 1)));
+
+        Random random = new Random(7);
+        for (int i = 0; i < 300; i++) {
+            int from = bitBoard.nextPiece(PlayerColor.RED, random.nextInt(bitBoard.size()));
+            int to = random.nextInt(bitBoard.size());
+            if (from < 0 || !bitBoard.isPlayable(to) || bitBoard.isOccupied(to)) {
+                continue;
+            }
+            if (i % 2 == 0) {
+                bitBoard.doMove(from, to);
+            } else {
+                bitBoard.setColor(from, PlayerColor.NONE);
+                bitBoard.setColor(to, PlayerColor.RED);
+            }
+        }
+        BitBoard copy = bitBoard.copy();
+        int center = bitBoard.index(7, 9);
+        int deepest = -1;
+        for (int target = 0; target < bitBoard.size(); target++) {
+            if (bitBoard.isTarget(target, PlayerColor.RED) && !bitBoard.hasPiece(target, PlayerColor.RED)) {
+                deepest = Math.max(deepest, GoalDistanceTable.hexDistance(bitBoard, target, center));
+            }
+        }
+        for (int cell = 0; cell < bitBoard.size(); cell++) {
+            int expected = 0;
+            boolean settled = bitBoard.isTarget(cell, PlayerColor.RED)
+                    && GoalDistanceTable.hexDistance(bitBoard, cell, center) >= deepest;
+            if (!settled) {
+                expected = Integer.MAX_VALUE;
+                for (int target = 0; target < bitBoard.size(); target++) {
+                    if (bitBoard.isTarget(target, PlayerColor.RED) && !bitBoard.hasPiece(target, PlayerColor.RED)
+                            && GoalDistanceTable.hexDistance(bitBoard, target, center) == deepest) {
+                        expected = Math.min(expected, GoalDistanceTable.hexDistance(bitBoard, cell, target));
+                    }
+                }
+            }
+            assertEquals(expected, bitBoard.goalDistance(PlayerColor.RED, cell));
+            assertEquals(expected, copy.goalDistance(PlayerColor.RED, cell));
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,86 @@
+package org.chinesecheckers.server.serverBoard;
+
+import org.chinesecheckers.common.Coord;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NeighbourTableTest {
+    private static final int COLUMNS = 13;
+    private static final int ROWS = 17;
+
+    private final NeighbourTable m_table = new NeighbourTable(COLUMNS, ROWS);
+
+    @Test
+    void testNearbyCellsMatchThePerCallOffsets() {
+        for (int y = 1; y <= ROWS; y++) {
+            for (int x = 1; x <= COLUMNS; x++) {
+                List<Coord> nearby = m_table.getNearbyCells(index(x, y));
+                List<int[]> expected = legacyNearbyCells(x, y);
+                assertEquals(expected.size(), nearby.size(), x + " " + y);
+                for (int i = 0; i < expected.size(); i++) {
+                    assertEquals(expected.get(i)[0], nearby.get(i).getX(), x + " " + y);
+                    assertEquals(expected.get(i)[1], nearby.get(i).getY(), x + " " + y);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testDiagonalsDependOnTheRowParity() {
+        assertSteps(5, 4, index(4, 4), index(6, 4), index(5, 3), index(6, 3), index(5, 5), index(6, 5));
+        assertSteps(5, 5, index(4, 5), index(6, 5), index(4, 4), index(5, 4), index(4, 6), index(5, 6));
+        for (int index = 0; index < COLUMNS * ROWS; index++) {
+            for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+                int over = m_table.step(index, direction);
+                int landing = over < 0 ? -1 : m_table.step(over, direction);
+                assertEquals(landing, m_table.jump(index, direction), index + " " + direction);
+            }
+        }
+    }
+
+    @Test
+    void testCellsOffTheBoardAreMissing() {
+        assertSteps(1, 1, -1, index(2, 1), -1, -1, -1, index(1, 2));
+        assertSteps(COLUMNS, 2, index(COLUMNS - 1, 2), -1, index(COLUMNS, 1), -1, index(COLUMNS, 3), -1);
+        assertSteps(COLUMNS, ROWS, index(COLUMNS - 1, ROWS), -1, index(COLUMNS - 1, ROWS - 1), index(COLUMNS, ROWS - 1), -1, -1);
+        assertEquals(-1, m_table.jump(index(2, 9), 0));
+        assertEquals(-1, m_table.jump(index(7, 2), 2));
+        assertEquals(index(5, 3), m_table.jump(index(6, 5), 2));
+    }
+
+    private void assertSteps(int x, int y, int... expected) {
+        for (int direction = 0; direction < NeighbourTable.DIRECTIONS; direction++) {
+            assertEquals(expected[direction], m_table.step(index(x, y), direction), x + " " + y + " " + direction);
+        }
+    }
+
+    private static int index(int x, int y) {
+        return (y - 1) * COLUMNS + (x - 1);
+    }
+
+    /**
+     * The offsets Board.getNearbyCells computed on every call before the table.
+     */
+    private static List<int[]> legacyNearbyCells(int x, int y) {
+        List<int[]> coords = new ArrayList<>();
+        int[][] offsets = {{-1, 0}, {1, 0}, // Horizontal
+                {y % 2 == 0 ? 0 : -1, -1}, {y % 2 == 0 ? 1 : 0, -1}, // Upper
+                {y % 2 == 0 ? 0 : -1, 1}, {y % 2 == 0 ? 1 : 0, 1}, // Lower
+                {-2, 0}, {2, 0}, // Long horizontal
+                {-1, -2}, {1, -2}, // Upper jumps
+                {-1, 2}, {1, 2} // Lower jumps
+        };
+        for (int[] offset : offsets) {
+            int newX = x + offset[0];
+            int newY = y + offset[1];
+            if (newX >= 1 && newX <= COLUMNS && newY >= 1 && newY <= ROWS) {
+                coords.add(new int[]{newX, newY});
+            }
+        }
+        return coords;
+    }
+}
\ No newline at end of file
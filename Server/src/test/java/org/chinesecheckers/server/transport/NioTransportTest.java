@@ -0,0 +1,122 @@
+package org.chinesecheckers.server.transport;
+
+import org.chinesecheckers.common.BinaryCodec;
+import org.chinesecheckers.common.MovedMessage;
+import org.chinesecheckers.common.WireCodec;
+import org.chinesecheckers.common.WireInput;
+import org.chinesecheckers.common.WireOutput;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NioTransportTest {
+    private final BlockingQueue<Connection> m_accepted = new LinkedBlockingQueue<>();
+    private NioTransport m_transport;
+    private Socket m_socket;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (m_socket != null) {
+            m_socket.close();
+        }
+        if (m_transport != null) {
+            m_transport.stop();
+        }
+    }
+
+    @Test
+    void testTypeAheadBeyondTheInboundQueueIsKeptInOrder() throws Exception {
+        Connection connection = connect(new NioTransport(0, 2, 16), 0);
+        WireOutput out = new WireOutput(m_socket.getOutputStream());
+        for (int i = 0; i < 500; i++) {
+            out.writeLine("MOVE " + i + " 1 2 3");
+        }
+        out.flush();
+        Thread.sleep(200);
+        for (int i = 0; i < 500; i++) {
+            assertEquals("MOVE " + i + " 1 2 3", connection.readLine());
+        }
+        assertFalse(connection.isClosed());
+        m_socket.close();
+        assertNull(connection.readLine());
+    }
+
+    @Test
+    void testBinaryGreetingSwitchesBothDirections() throws Exception {
+        Connection connection = connect(new NioTransport(0, 16, 16), 0);
+        WireOutput out = new WireOutput(m_socket.getOutputStream());
+        WireInput in = new WireInput(m_socket.getInputStream());
+        out.writeLine(WireCodec.HELLO_BINARY);
+        out.flush();
+        assertEquals(WireCodec.HELLO_BINARY, in.readLine());
+        in.setCodec(new BinaryCodec());
+        out.setCodec(new BinaryCodec());
+
+        out.writeLine("MOVE 7 17 7 15");
+        out.flush();
+        assertEquals("MOVE 7 17 7 15", connection.readLine());
+        connection.writeMoved(new MovedMessage(3, 7, 17, 7, 15));
+        connection.writeLine("OK@YOU");
+        assertEquals("MOVED 3 7 17 7 15", in.readLine());
+        assertEquals("OK@YOU", in.readLine());
+    }
+
+    @Test
+    void testFrameSplitAcrossReadsIsJoined() throws Exception {
+        Connection connection = connect(new NioTransport(0, 16, 16), 0);
+        m_socket.setTcpNoDelay(true);
+        WireOutput greeting = new WireOutput(m_socket.getOutputStream());
+        greeting.writeLine(WireCodec.HELLO_BINARY);
+        greeting.flush();
+
+        ByteBuffer frames = ByteBuffer.allocate(256);
+        BinaryCodec codec = new BinaryCodec();
+        assertTrue(codec.encode("MOVE 7 17 7 15", frames));
+        assertTrue(codec.encode("JOIN default 2 1", frames));
+        OutputStream raw = m_socket.getOutputStream();
+        for (int i = 0; i < frames.position(); i++) {
+            raw.write(frames.get(i));
+            raw.flush();
+            Thread.sleep(5);
+        }
+        assertEquals("MOVE 7 17 7 15", connection.readLine());
+        assertEquals("JOIN default 2 1", connection.readLine());
+    }
+
+    @Test
+    void testOutboundOverflowDisconnectsTheClient() throws Exception {
+        Connection connection = connect(new NioTransport(0, 16, 4), 4096);
+        CountDownLatch closed = new CountDownLatch(1);
+        connection.onClose(closed::countDown);
+        String line = "ERROR " + "x".repeat(4000);
+        for (int i = 0; i < 100_000 && !connection.isClosed(); i++) {
+            connection.writeLine(line);
+        }
+        assertTrue(connection.isClosed());
+        assertTrue(closed.await(10, TimeUnit.SECONDS));
+        assertNull(connection.readLine());
+    }
+
+    private Connection connect(NioTransport transport, int receiveBufferSize) throws Exception {
+        m_transport = transport;
+        transport.start(m_accepted::add);
+        m_socket = new Socket();
+        if (receiveBufferSize > 0) {
+            m_socket.setReceiveBufferSize(receiveBufferSize);
+        }
+        m_socket.connect(new InetSocketAddress("localhost", transport.getLocalPort()));
+        Connection connection = m_accepted.poll(10, TimeUnit.SECONDS);
+        assertNotNull(connection);
+        return connection;
+    }
+}
\ No newline at end of file